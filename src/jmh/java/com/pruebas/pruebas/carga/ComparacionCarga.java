@@ -0,0 +1,183 @@
+package com.pruebas.pruebas.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Carga de extremo a extremo contra un servidor arrancado, para comparar el modo de hilos de
+ * plataforma con el de hilos virtuales ({@code HILOS_VIRTUALES=true}).
+ * <p>
+ * Mide dos rutas por separado: el registro de una respuesta
+ * ({@code POST /api/respuestas/pregunta/{id}}) y las estadísticas de una encuesta
+ * ({@code GET /api/estadisticas/encuesta/{id}}). Cada una se somete durante {@code carga.duracion-s}
+ * segundos a {@code carga.concurrencia} clientes que encadenan peticiones sin pausa, tras un
+ * calentamiento que no se contabiliza. El modo del servidor se lee de {@code /api/diagnostico/hilos}
+ * y el resultado se escribe en {@code target/carga-<modo>.json}: peticiones por segundo, p50, p99 y
+ * máximo de las respuestas 2xx, y aparte los errores (otros estados o fallos de conexión), que no
+ * entran en las latencias ni en el rendimiento.
+ * </p>
+ * <p>
+ * Durante la fase de estadísticas nada invalida {@link com.pruebas.pruebas.service.EstadisticasCache},
+ * así que casi todas las peticiones se sirven desde la caché: con la configuración por defecto se
+ * mide la ruta con la caché caliente. Para medir el cálculo, arranca el servidor con
+ * {@code --estadisticas.cache.expiracion-segundos=0}.
+ * </p>
+ *
+ * <h3>Propiedades de sistema:</h3>
+ * <ul>
+ *   <li>{@code carga.url} (por defecto {@code http://localhost:8081})</li>
+ *   <li>{@code carga.pregunta}: pregunta abierta que recibe las respuestas.</li>
+ *   <li>{@code carga.encuesta}: encuesta cuyas estadísticas se consultan.</li>
+ *   <li>{@code carga.respuesta} (por defecto {@code "carga"})</li>
+ *   <li>{@code carga.concurrencia} (por defecto 200), {@code carga.duracion-s} (30),
+ *       {@code carga.calentamiento-s} (10)</li>
+ * </ul>
+ */
+public class ComparacionCarga {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("carga.url", "http://localhost:8081");
+        long pregunta = Long.parseLong(requerida("carga.pregunta"));
+        long encuesta = Long.parseLong(requerida("carga.encuesta"));
+        String respuesta = System.getProperty("carga.respuesta", "carga");
+        int concurrencia = Integer.getInteger("carga.concurrencia", 200);
+        Duration duracion = Duration.ofSeconds(Integer.getInteger("carga.duracion-s", 30));
+        Duration calentamiento = Duration.ofSeconds(Integer.getInteger("carga.calentamiento-s", 10));
+
+        HttpClient cliente = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        HttpRequest diagnostico = HttpRequest.newBuilder(URI.create(url + "/api/diagnostico/hilos")).GET().build();
+        String modo = JSON.readTree(enviar(cliente, diagnostico).body()).path("modo").asText("desconocido");
+
+        String cuerpo = JSON.writeValueAsString(Map.of("respuesta", respuesta));
+        HttpRequest registrar = HttpRequest.newBuilder(URI.create(url + "/api/respuestas/pregunta/" + pregunta))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(cuerpo))
+                .build();
+        HttpRequest estadisticas = HttpRequest.newBuilder(URI.create(url + "/api/estadisticas/encuesta/" + encuesta))
+                .GET()
+                .build();
+
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("modo", modo);
+        resultado.put("concurrencia", concurrencia);
+        resultado.put("duracion_s", duracion.toSeconds());
+        resultado.put("registrar_respuesta", medir(cliente, registrar, concurrencia, calentamiento, duracion));
+        resultado.put("estadisticas_encuesta", medir(cliente, estadisticas, concurrencia, calentamiento, duracion));
+        resultado.put("diagnostico", JSON.readTree(enviar(cliente, diagnostico).body()));
+
+        Path salida = Path.of("target", "carga-" + modo + ".json");
+        Files.createDirectories(salida.getParent());
+        JSON.writerWithDefaultPrettyPrinter().writeValue(salida.toFile(), resultado);
+        System.out.println(JSON.writerWithDefaultPrettyPrinter().writeValueAsString(resultado));
+        System.out.println("Resultado escrito en " + salida.toAbsolutePath());
+    }
+
+    private static Map<String, Object> medir(HttpClient cliente, HttpRequest peticion, int concurrencia,
+                                             Duration calentamiento, Duration duracion) throws Exception {
+        long inicioMedicion = System.nanoTime() + calentamiento.toNanos();
+        long fin = inicioMedicion + duracion.toNanos();
+        List<Future<Cliente>> clientes = new ArrayList<>(concurrencia);
+        try (ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrencia; i++) {
+                clientes.add(ejecutor.submit(() -> {
+                    Cliente c = new Cliente();
+                    long ahora;
+                    while ((ahora = System.nanoTime()) < fin) {
+                        boolean correcta;
+                        try {
+                            int estado = cliente.send(peticion, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            correcta = estado >= 200 && estado < 300;
+                        } catch (IOException e) {
+                            correcta = false;
+                        }
+                        long terminada = System.nanoTime();
+                        if (ahora >= inicioMedicion && terminada <= fin) {
+                            if (correcta) {
+                                c.registrar(terminada - ahora);
+                            } else {
+                                c.errores++;
+                            }
+                        }
+                    }
+                    return c;
+                }));
+            }
+        }
+
+        Cliente total = new Cliente();
+        for (Future<Cliente> c : clientes) {
+            total.sumar(c.get());
+        }
+        long[] latencias = Arrays.copyOf(total.latencias, total.cuenta);
+        Arrays.sort(latencias);
+        Map<String, Object> medida = new LinkedHashMap<>();
+        medida.put("correctas", total.cuenta);
+        medida.put("errores", total.errores);
+        medida.put("por_segundo", Math.round(total.cuenta / (double) duracion.toSeconds()));
+        medida.put("errores_por_segundo", Math.round(total.errores / (double) duracion.toSeconds()));
+        medida.put("p50_ms", milisegundos(percentil(latencias, 0.50)));
+        medida.put("p99_ms", milisegundos(percentil(latencias, 0.99)));
+        medida.put("maximo_ms", milisegundos(latencias.length == 0 ? 0 : latencias[latencias.length - 1]));
+        return medida;
+    }
+
+    private static long percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) return 0;
+        return ordenadas[(int) Math.min(ordenadas.length - 1, Math.ceil(p * ordenadas.length) - 1)];
+    }
+
+    private static double milisegundos(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    private static HttpResponse<String> enviar(HttpClient cliente, HttpRequest peticion) throws Exception {
+        return cliente.send(peticion, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String requerida(String propiedad) {
+        String valor = System.getProperty(propiedad);
+        if (valor == null) {
+            throw new IllegalArgumentException("Falta la propiedad -D" + propiedad);
+        }
+        return valor;
+    }
+
+    /** Latencias de las respuestas 2xx y errores de un cliente; cada hilo usa el suyo y se suman al final. */
+    private static final class Cliente {
+        long[] latencias = new long[1024];
+        int cuenta;
+        long errores;
+
+        void registrar(long nanos) {
+            if (cuenta == latencias.length) {
+                latencias = Arrays.copyOf(latencias, cuenta * 2);
+            }
+            latencias[cuenta++] = nanos;
+        }
+
+        void sumar(Cliente otro) {
+            latencias = Arrays.copyOf(latencias, Math.max(latencias.length, cuenta + otro.cuenta));
+            System.arraycopy(otro.latencias, 0, latencias, cuenta, otro.cuenta);
+            cuenta += otro.cuenta;
+            errores += otro.errores;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.pruebas.pruebas.mapper;
+
+import com.pruebas.pruebas.dto.EncuestaDTO;
+import com.pruebas.pruebas.entity.Encuesta;
+import com.pruebas.pruebas.entity.Pregunta;
+import com.pruebas.pruebas.entity.Respuesta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH de los mappers de MapStruct sobre el árbol completo de una encuesta
+ * (20 preguntas con 100 o 10.000 respuestas cada una).
+ * <p>
+ * Los mappers generados se obtienen de un contexto de Spring mínimo para que sus dependencias
+ * ({@link PreguntaMapper}, {@link RespuestaMapper}) se inyecten igual que en la aplicación.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MapeoEncuestaBenchmark {
+
+    private static final int PREGUNTAS = 20;
+
+    @Param({"100", "10000"})
+    public int respuestasPorPregunta;
+
+    private AnnotationConfigApplicationContext contexto;
+    private EncuestaMapper encuestaMapper;
+    private Encuesta encuesta;
+    private EncuestaDTO encuestaDTO;
+
+    @Setup
+    public void preparar() {
+        contexto = new AnnotationConfigApplicationContext(
+                EncuestaMapperImpl.class, PreguntaMapperImpl.class, RespuestaMapperImpl.class);
+        encuestaMapper = contexto.getBean(EncuestaMapper.class);
+
+        encuesta = new Encuesta();
+        encuesta.setIdEncuesta(1L);
+        encuesta.setTitulo("Encuesta de satisfacción");
+        encuesta.setEstado("ACTIVA");
+        encuesta.setFechaCreacion(new Date());
+        List<Pregunta> preguntas = new ArrayList<>(PREGUNTAS);
+        long idRespuesta = 1;
+        for (int p = 1; p <= PREGUNTAS; p++) {
+            Pregunta pregunta = new Pregunta();
+            pregunta.setIdPregunta((long) p);
+            pregunta.setTextoPregunta("Pregunta " + p);
+            pregunta.setTipo("seleccion_unica");
+            pregunta.setOpciones(List.of("A", "B", "C", "D", "E"));
+            pregunta.setOrden(p);
+            pregunta.setEncuesta(encuesta);
+            List<Respuesta> respuestas = new ArrayList<>(respuestasPorPregunta);
+            for (int r = 0; r < respuestasPorPregunta; r++) {
+                Respuesta respuesta = new Respuesta();
+                respuesta.setIdRespuesta(idRespuesta++);
+                respuesta.setPregunta(pregunta);
+                respuesta.setRespuesta(String.valueOf((char) ('A' + r % 5)));
+                respuesta.setFechaRespuesta(new Date());
+                respuestas.add(respuesta);
+            }
+            pregunta.setRespuestas(respuestas);
+            preguntas.add(pregunta);
+        }
+        encuesta.setPreguntas(preguntas);
+        encuestaDTO = encuestaMapper.toDTO(encuesta);
+    }
+
+    @TearDown
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public EncuestaDTO entidadADTO() {
+        return encuestaMapper.toDTO(encuesta);
+    }
+
+    @Benchmark
+    public EncuestaDTO entidadADTOSinRespuestas() {
+        return encuestaMapper.toDTOSinRespuestas(encuesta);
+    }
+
+    @Benchmark
+    public Encuesta dtoAEntidad() {
+        return encuestaMapper.toEntity(encuestaDTO);
+    }
+}
@@ -0,0 +1,128 @@
+package com.pruebas.pruebas.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pruebas.pruebas.util.PaginacionUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH de las agregaciones de {@link EstadisticasService} y de la serialización JSON
+ * del mapa de estadísticas que devuelve {@code GET /api/estadisticas/encuesta/{id}}.
+ * <p>
+ * Las frecuencias se generan repartiendo al azar (con semilla fija) 1.000 y 100.000 respuestas;
+ * las preguntas abiertas aportan su total y, como el servicio, solo una muestra de 20 textos, de modo
+ * que el tamaño serializado no crece con las respuestas. El mapa serializado tiene la forma del
+ * que calcula el servicio para una encuesta de ocho preguntas, dos de cada tipo.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EstadisticasBenchmark {
+
+    private static final int MUESTRA_ABIERTAS = 20;
+
+    @Param({"1000", "100000"})
+    public int respuestas;
+
+    private final EstadisticasService estadisticasService = new EstadisticasService();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private List<String> opcionesCategorica;
+    private List<String> opcionesMultiple;
+    private Map<String, Long> frecuenciasCategorica;
+    private Map<String, Long> frecuenciasEscala;
+    private Map<String, Long> frecuenciasMultiple;
+    private List<String> textosAbiertos;
+    private Map<String, Object> estadisticasEncuesta;
+
+    @Setup
+    public void preparar() {
+        Random aleatorio = new Random(42);
+        opcionesCategorica = opciones("Opción", 5);
+        opcionesMultiple = opciones("Característica", 20);
+
+        frecuenciasCategorica = new HashMap<>();
+        frecuenciasEscala = new HashMap<>();
+        frecuenciasMultiple = new HashMap<>();
+        textosAbiertos = new ArrayList<>(MUESTRA_ABIERTAS);
+        for (int i = 0; i < respuestas; i++) {
+            frecuenciasCategorica.merge(opcionesCategorica.get(aleatorio.nextInt(opcionesCategorica.size())), 1L, Long::sum);
+            frecuenciasEscala.merge(String.valueOf(1 + aleatorio.nextInt(5)), 1L, Long::sum);
+            for (int k = 1 + aleatorio.nextInt(3); k > 0; k--) {
+                frecuenciasMultiple.merge(opcionesMultiple.get(aleatorio.nextInt(opcionesMultiple.size())), 1L, Long::sum);
+            }
+            if (i < MUESTRA_ABIERTAS) textosAbiertos.add("Comentario " + i + ": la atención fue buena, aunque la espera se hizo larga");
+        }
+
+        List<Map<String, Object>> porPregunta = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            porPregunta.add(pregunta(porPregunta.size(), "seleccion_unica", categorica()));
+            porPregunta.add(pregunta(porPregunta.size(), "escala", escala()));
+            porPregunta.add(pregunta(porPregunta.size(), "seleccion_multiple", multiple()));
+            porPregunta.add(pregunta(porPregunta.size(), "abierta", abierta()));
+        }
+        estadisticasEncuesta = new HashMap<>();
+        estadisticasEncuesta.put("encuesta_id", 1L);
+        estadisticasEncuesta.put("titulo", "Encuesta de satisfacción");
+        estadisticasEncuesta.put("descripcion", "Benchmark");
+        estadisticasEncuesta.put("total_respuestas", (long) respuestas * porPregunta.size());
+        estadisticasEncuesta.put("estadisticas", porPregunta);
+    }
+
+    @Benchmark
+    public Map<String, Object> categorica() {
+        return estadisticasService.generarEstadisticasCategorica(frecuenciasCategorica, opcionesCategorica);
+    }
+
+    @Benchmark
+    public Map<String, Object> escala() {
+        return estadisticasService.generarEstadisticasEscala(frecuenciasEscala);
+    }
+
+    @Benchmark
+    public Map<String, Object> multiple() {
+        return estadisticasService.generarEstadisticasMultiple(frecuenciasMultiple, opcionesMultiple);
+    }
+
+    @Benchmark
+    public Map<String, Object> abierta() {
+        return estadisticasService.generarEstadisticasAbierta(respuestas, textosAbiertos, PaginacionUtil.codificarCursor(respuestas));
+    }
+
+    @Benchmark
+    public byte[] serializarEstadisticasJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(estadisticasEncuesta);
+    }
+
+    private Map<String, Object> pregunta(int indice, String tipo, Map<String, Object> agregado) {
+        Map<String, Object> stats = new HashMap<>(agregado);
+        stats.put("pregunta_id", (long) indice + 1);
+        stats.put("pregunta_texto", "Pregunta " + (indice + 1));
+        stats.put("tipo_pregunta", tipo);
+        stats.put("total_respuestas_pregunta", respuestas);
+        return stats;
+    }
+
+    private static List<String> opciones(String prefijo, int cantidad) {
+        List<String> opciones = new ArrayList<>(cantidad);
+        for (int i = 1; i <= cantidad; i++) {
+            opciones.add(prefijo + " " + i);
+        }
+        return opciones;
+    }
+}
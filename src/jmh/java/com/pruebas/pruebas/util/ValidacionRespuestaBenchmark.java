@@ -0,0 +1,89 @@
+package com.pruebas.pruebas.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH de {@link ValidacionUtil} frente a {@link ValidadorRespuesta} con 5, 50 y 500 opciones.
+ * <p>
+ * Las respuestas eligen las últimas opciones de la lista, el peor caso para {@code List.contains}.
+ * En los resultados, {@code gc.alloc.rate.norm} (memoria reservada por operación) debe ser
+ * cero en las variantes compiladas.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValidacionRespuestaBenchmark {
+
+    @Param({"5", "50", "500"})
+    public int numeroOpciones;
+
+    private List<String> opciones;
+    private String respuestaUnica;
+    private String respuestaMultiple;
+    private ValidadorRespuesta validadorUnica;
+    private ValidadorRespuesta validadorMultiple;
+    private ValidadorRespuesta validadorEscala;
+
+    @Setup
+    public void preparar() {
+        opciones = new ArrayList<>(numeroOpciones);
+        for (int i = 0; i < numeroOpciones; i++) {
+            opciones.add("Opción " + i);
+        }
+        respuestaUnica = opciones.get(numeroOpciones - 1);
+        respuestaMultiple = opciones.get(numeroOpciones - 3) + ", " + opciones.get(numeroOpciones - 2)
+                + ", " + opciones.get(numeroOpciones - 1);
+        validadorUnica = ValidadorRespuesta.compilar("seleccion_unica", opciones);
+        validadorMultiple = ValidadorRespuesta.compilar("seleccion_multiple", opciones);
+        validadorEscala = ValidadorRespuesta.compilar("escala", null);
+    }
+
+    @Benchmark
+    public boolean unicaActual() {
+        return ValidacionUtil.respuestaValida(respuestaUnica, opciones, "seleccion_unica");
+    }
+
+    @Benchmark
+    public boolean unicaCompilado() {
+        return validadorUnica.esValida(respuestaUnica);
+    }
+
+    @Benchmark
+    public boolean multipleActual() {
+        return ValidacionUtil.respuestaValida(respuestaMultiple, opciones, "seleccion_multiple");
+    }
+
+    @Benchmark
+    public boolean multipleCompilado() {
+        return validadorMultiple.esValida(respuestaMultiple);
+    }
+
+    // Valor no numérico: la versión actual lo detecta con una NumberFormatException
+    @Benchmark
+    public boolean escalaNoNumericaActual() {
+        return ValidacionUtil.respuestaValida("muy bien", null, "escala");
+    }
+
+    @Benchmark
+    public boolean escalaNoNumericaCompilado() {
+        return validadorEscala.esValida("muy bien");
+    }
+
+    // Coste único de compilar, que se amortiza mientras la pregunta siga en caché
+    @Benchmark
+    public ValidadorRespuesta compilarMultiple() {
+        return ValidadorRespuesta.compilar("seleccion_multiple", opciones);
+    }
+}
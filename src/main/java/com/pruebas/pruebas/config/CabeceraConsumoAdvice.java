@@ -0,0 +1,42 @@
+package com.pruebas.pruebas.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Añade a cada respuesta de la API el trabajo de base de datos que costó, para depurar desde el cliente:
+ * {@code X-Sql-Sentencias}, {@code X-Sql-Filas} y {@code X-Entidades-Cargadas}.
+ * <p>
+ * Solo se activa con {@code metricas.cabecera-sql=true}. Las cabeceras se escriben justo antes de
+ * serializar el cuerpo; como la sesión no sigue abierta en la vista, ninguna consulta posterior
+ * queda fuera de la cuenta.
+ * </p>
+ */
+@ControllerAdvice
+@ConditionalOnProperty(name = "metricas.cabecera-sql", havingValue = "true")
+public class CabeceraConsumoAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        ConsumoPeticion consumo = ConsumoPeticion.actual();
+        if (consumo != null) {
+            response.getHeaders().set("X-Sql-Sentencias", Long.toString(consumo.getSentencias()));
+            response.getHeaders().set("X-Sql-Filas", Long.toString(consumo.getFilas()));
+            response.getHeaders().set("X-Entidades-Cargadas", Long.toString(consumo.getEntidades()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,66 @@
+package com.pruebas.pruebas.config;
+
+/**
+ * Trabajo de base de datos hecho por la petición HTTP en curso: sentencias SQL preparadas,
+ * filas devueltas por las consultas y entidades cargadas.
+ * <p>
+ * Cada petición abre su contador en el hilo que la atiende ({@link MetricasPeticionFilter});
+ * {@link EstadisticasHibernatePorPeticion} lo incrementa desde Hibernate. Fuera de una petición
+ * (volcados de la ingesta, tareas asíncronas) no hay contador y no se cuenta nada.
+ * </p>
+ */
+public final class ConsumoPeticion {
+
+    private static final ThreadLocal<ConsumoPeticion> ACTUAL = new ThreadLocal<>();
+
+    private long sentencias;
+    private long filas;
+    private long entidades;
+
+    private ConsumoPeticion() {
+    }
+
+    /** Abre el contador de la petición que atiende este hilo. */
+    public static ConsumoPeticion iniciar() {
+        ConsumoPeticion consumo = new ConsumoPeticion();
+        ACTUAL.set(consumo);
+        return consumo;
+    }
+
+    /** Contador de la petición en curso, o {@code null} fuera de una petición. */
+    public static ConsumoPeticion actual() {
+        return ACTUAL.get();
+    }
+
+    /** Cierra el contador del hilo actual. */
+    public static void finalizar() {
+        ACTUAL.remove();
+    }
+
+    static void sumarSentencia() {
+        ConsumoPeticion consumo = ACTUAL.get();
+        if (consumo != null) consumo.sentencias++;
+    }
+
+    static void sumarFilas(int filas) {
+        ConsumoPeticion consumo = ACTUAL.get();
+        if (consumo != null && filas > 0) consumo.filas += filas;
+    }
+
+    static void sumarEntidad() {
+        ConsumoPeticion consumo = ACTUAL.get();
+        if (consumo != null) consumo.entidades++;
+    }
+
+    public long getSentencias() {
+        return sentencias;
+    }
+
+    public long getFilas() {
+        return filas;
+    }
+
+    public long getEntidades() {
+        return entidades;
+    }
+}
@@ -21,6 +21,8 @@ public class CorsConfig implements WebMvcConfigurer {
                 )
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders("X-Total-Count", "X-Total-Pages", "X-Siguiente-Cursor", // Metadatos de paginación
+                        "X-Sql-Sentencias", "X-Sql-Filas", "X-Entidades-Cargadas")        // Consumo (metricas.cabecera-sql)
                 .allowCredentials(true)
                 .maxAge(3600); // Cache preflight requests por 1 hora
     }
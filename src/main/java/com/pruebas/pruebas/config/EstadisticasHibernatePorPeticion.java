@@ -0,0 +1,44 @@
+package com.pruebas.pruebas.config;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+
+/**
+ * Estadísticas de Hibernate que, además de acumular los totales globales, atribuyen cada
+ * sentencia, fila y entidad cargada a la petición en curso ({@link ConsumoPeticion}).
+ * <p>
+ * Se instala con {@code hibernate.stats.factory} y solo recibe eventos con
+ * {@code hibernate.generate_statistics=true}. Las filas son las que devuelven las consultas
+ * (JPQL, criteria y nativas); las cargas por identificador cuentan como entidades.
+ * </p>
+ */
+public class EstadisticasHibernatePorPeticion extends StatisticsImpl {
+
+    public EstadisticasHibernatePorPeticion(SessionFactoryImplementor sessionFactory) {
+        super(sessionFactory);
+    }
+
+    @Override
+    public void prepareStatement() {
+        super.prepareStatement();
+        ConsumoPeticion.sumarSentencia();
+    }
+
+    @Override
+    public void queryExecuted(String consulta, int filas, long tiempo) {
+        super.queryExecuted(consulta, filas, tiempo);
+        ConsumoPeticion.sumarFilas(filas);
+    }
+
+    @Override
+    public void loadEntity(String entidad) {
+        super.loadEntity(entidad);
+        ConsumoPeticion.sumarEntidad();
+    }
+
+    @Override
+    public void fetchEntity(String entidad) {
+        super.fetchEntity(entidad);
+        ConsumoPeticion.sumarEntidad();
+    }
+}
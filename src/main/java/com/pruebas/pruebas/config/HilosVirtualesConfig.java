@@ -0,0 +1,65 @@
+package com.pruebas.pruebas.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Ajustes que solo se activan en el modo de hilos virtuales ({@code spring.threads.virtual.enabled=true}).
+ * <p>
+ * Spring Boot ya atiende entonces cada petición de Tomcat (y las tareas asíncronas, como las
+ * exportaciones en streaming) en un hilo virtual, así que los servicios y las llamadas JPA
+ * bloqueantes se ejecutan en él sin más cambios. Aquí se añaden el límite de peticiones
+ * simultáneas hacia la base de datos, el pool de conexiones fijo y la detección de hilos fijados.
+ * </p>
+ *
+ * <h3>Configuración:</h3>
+ * <ul>
+ *   <li>{@code hilos-virtuales.max-peticiones}: peticiones a {@code /api/**} atendidas a la vez.</li>
+ *   <li>{@code hilos-virtuales.espera-ms}: espera máxima por un permiso antes de responder 503.</li>
+ *   <li>{@code hilos-virtuales.pool.maximo}, {@code hilos-virtuales.pool.espera-ms}: tamaño fijo del pool
+ *       de conexiones y espera máxima por una conexión (ver {@link PoolHilosVirtuales}).</li>
+ *   <li>{@code hilos-virtuales.pinning.umbral-ms}: duración mínima de un episodio de fijación para registrarlo.</li>
+ * </ul>
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class HilosVirtualesConfig implements WebMvcConfigurer {
+
+    private final LimiteConcurrenciaInterceptor limiteConcurrencia;
+
+    public HilosVirtualesConfig(@Value("${hilos-virtuales.max-peticiones:60}") int maximoPeticiones,
+                                @Value("${hilos-virtuales.espera-ms:1000}") long esperaMs) {
+        this.limiteConcurrencia = new LimiteConcurrenciaInterceptor(maximoPeticiones, esperaMs);
+    }
+
+    @Bean
+    public LimiteConcurrenciaInterceptor limiteConcurrenciaInterceptor() {
+        return limiteConcurrencia;
+    }
+
+    // Estático: un BeanPostProcessor debe crearse antes que el resto de beans de la configuración
+    @Bean
+    public static PoolHilosVirtuales poolHilosVirtuales(Environment entorno) {
+        return new PoolHilosVirtuales(entorno);
+    }
+
+    @Bean
+    public MonitorHilosVirtuales monitorHilosVirtuales(@Value("${hilos-virtuales.pinning.umbral-ms:20}") long umbralMs) {
+        return new MonitorHilosVirtuales(Duration.ofMillis(umbralMs));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // El diagnóstico queda fuera del límite para poder consultarlo con el servicio saturado
+        registry.addInterceptor(limiteConcurrencia)
+                .addPathPatterns("/api/**")
+                .excludePathPatterns("/api/diagnostico/**");
+    }
+}
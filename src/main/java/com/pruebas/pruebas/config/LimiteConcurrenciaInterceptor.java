@@ -0,0 +1,88 @@
+package com.pruebas.pruebas.config;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limita las peticiones a la API que se atienden a la vez.
+ * <p>
+ * Con hilos virtuales Tomcat ya no está acotado por su pool de hilos, y miles de peticiones
+ * simultáneas acabarían haciendo cola en el pool de conexiones de Hikari hasta agotar su
+ * {@code connection-timeout}. Este límite las detiene antes: cada petición espera un permiso
+ * hasta {@code espera-ms} y, si no lo obtiene, recibe 503. Esperar en un {@link Semaphore} no
+ * fija el hilo virtual a su portador.
+ * </p>
+ * <p>
+ * En las respuestas asíncronas (exportaciones en streaming) el permiso se libera al empezar
+ * el procesamiento asíncrono.
+ * </p>
+ */
+public class LimiteConcurrenciaInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String ATRIBUTO_PERMISO = LimiteConcurrenciaInterceptor.class.getName() + ".permiso";
+
+    private final int maximoPeticiones;
+    private final long esperaMs;
+    private final Semaphore permisos;
+    private final AtomicLong rechazadas = new AtomicLong();
+
+    public LimiteConcurrenciaInterceptor(int maximoPeticiones, long esperaMs) {
+        this.maximoPeticiones = maximoPeticiones;
+        this.esperaMs = esperaMs;
+        this.permisos = new Semaphore(maximoPeticiones, true);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws InterruptedException {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) return true;
+        if (!permisos.tryAcquire(esperaMs, TimeUnit.MILLISECONDS)) {
+            rechazadas.incrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Demasiadas peticiones simultáneas, reintente más tarde");
+        }
+        request.setAttribute(ATRIBUTO_PERMISO, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        liberar(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        liberar(request);
+    }
+
+    private void liberar(HttpServletRequest request) {
+        if (request.getAttribute(ATRIBUTO_PERMISO) != null) {
+            request.removeAttribute(ATRIBUTO_PERMISO);
+            permisos.release();
+        }
+    }
+
+    /**
+     * Uso actual del límite.
+     *
+     * @return máximo configurado, peticiones en curso y en espera, y rechazadas acumuladas.
+     */
+    public Map<String, Object> estado() {
+        Map<String, Object> estado = new HashMap<>();
+        estado.put("maximo_peticiones", maximoPeticiones);
+        estado.put("en_curso", maximoPeticiones - permisos.availablePermits());
+        estado.put("en_espera", permisos.getQueueLength());
+        estado.put("rechazadas", rechazadas.get());
+        return estado;
+    }
+}
@@ -0,0 +1,47 @@
+package com.pruebas.pruebas.config;
+
+import com.pruebas.pruebas.service.EstadisticasCache;
+import com.pruebas.pruebas.service.PreguntaMetadataCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Métricas propias de la aplicación, publicadas junto a las de Spring Boot en {@code /actuator/prometheus}.
+ * <p>
+ * Spring Boot ya publica la latencia por endpoint ({@code http.server.requests}), la espera por
+ * conexión del pool ({@code hikaricp.connections.acquire}) y las estadísticas de la
+ * {@code SessionFactory} ({@code hibernate.*}). Aquí se añaden el consumo de base de datos por
+ * petición y el uso de las cachés en memoria. La ingesta diferida publica las suyas al ser un
+ * {@link MeterBinder} ({@code IngestaRespuestasService#bindTo}).
+ * </p>
+ */
+@Configuration
+public class MetricasConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer estadisticasPorPeticion() {
+        return propiedades -> propiedades.put("hibernate.stats.factory",
+                (StatisticsFactory) EstadisticasHibernatePorPeticion::new);
+    }
+
+    @Bean
+    public FilterRegistrationBean<MetricasPeticionFilter> metricasPeticionFilter(MeterRegistry registry) {
+        FilterRegistrationBean<MetricasPeticionFilter> registro = new FilterRegistrationBean<>(new MetricasPeticionFilter(registry));
+        registro.addUrlPatterns("/api/*");
+        return registro;
+    }
+
+    @Bean
+    public MeterBinder metricasCaches(EstadisticasCache estadisticasCache, PreguntaMetadataCache preguntaMetadataCache) {
+        return registry -> {
+            CaffeineCacheMetrics.monitor(registry, estadisticasCache.getCache(), "estadisticas");
+            CaffeineCacheMetrics.monitor(registry, preguntaMetadataCache.getCache(), "preguntas");
+        };
+    }
+}
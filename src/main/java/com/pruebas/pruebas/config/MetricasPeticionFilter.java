@@ -0,0 +1,56 @@
+package com.pruebas.pruebas.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Registra por endpoint cuántas sentencias SQL, filas y entidades necesitó cada petición a la API.
+ * <p>
+ * Publica tres distribuciones etiquetadas con el método y la plantilla de la ruta
+ * (p. ej. {@code /api/estadisticas/encuesta/{encuestaId}}): {@code peticion.sql.sentencias},
+ * {@code peticion.sql.filas} y {@code peticion.entidades}. Junto con
+ * {@code http.server.requests} permiten ver si un endpoint lento lo es por hacer muchas
+ * consultas, por traer muchas filas o por otra causa.
+ * </p>
+ */
+public class MetricasPeticionFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry registry;
+
+    public MetricasPeticionFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ConsumoPeticion consumo = ConsumoPeticion.iniciar();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ConsumoPeticion.finalizar();
+            Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = patron != null ? patron.toString() : "UNKNOWN";
+            registrar("peticion.sql.sentencias", "Sentencias SQL preparadas por petición", request, uri, consumo.getSentencias());
+            registrar("peticion.sql.filas", "Filas devueltas por las consultas de la petición", request, uri, consumo.getFilas());
+            registrar("peticion.entidades", "Entidades cargadas por petición", request, uri, consumo.getEntidades());
+        }
+    }
+
+    private void registrar(String nombre, String descripcion, HttpServletRequest request, String uri, long valor) {
+        DistributionSummary.builder(nombre)
+                .description(descripcion)
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(registry)
+                .record(valor);
+    }
+}
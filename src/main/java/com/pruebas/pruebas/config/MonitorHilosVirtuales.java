@@ -0,0 +1,112 @@
+package com.pruebas.pruebas.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Detecta con JFR los hilos virtuales que quedan fijados a su hilo portador
+ * (evento {@code jdk.VirtualThreadPinned}).
+ * <p>
+ * Un hilo virtual se fija cuando bloquea dentro de un {@code synchronized} o de código nativo:
+ * mientras dura, ocupa un portador como si fuera un hilo de plataforma. Se registran los episodios
+ * que superan {@code umbral-ms}, agrupados por el primer método de la aplicación en la pila
+ * (o el más alto si no hay ninguno). La primera vez que aparece un origen se escribe una advertencia
+ * con su pila; el resumen completo se consulta en {@code GET /api/diagnostico/hilos}.
+ * </p>
+ */
+public class MonitorHilosVirtuales {
+
+    private static final Logger log = LoggerFactory.getLogger(MonitorHilosVirtuales.class);
+    private static final String EVENTO = "jdk.VirtualThreadPinned";
+    private static final String PAQUETE_APLICACION = "com.pruebas.pruebas.";
+
+    private final Duration umbral;
+    private final Map<String, LongAdder> porOrigen = new ConcurrentHashMap<>();
+    private final LongAdder total = new LongAdder();
+    private volatile long maximoNanos;
+    private RecordingStream grabacion;
+
+    public MonitorHilosVirtuales(Duration umbral) {
+        this.umbral = umbral;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        grabacion = new RecordingStream();
+        grabacion.enable(EVENTO).withThreshold(umbral).withStackTrace();
+        grabacion.onEvent(EVENTO, this::registrar);
+        grabacion.startAsync();
+        log.info("Detección de hilos virtuales fijados activa (umbral {} ms)", umbral.toMillis());
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (grabacion != null) {
+            grabacion.close();
+        }
+    }
+
+    void registrar(RecordedEvent evento) {
+        total.increment();
+        long nanos = evento.getDuration().toNanos();
+        if (nanos > maximoNanos) {
+            maximoNanos = nanos;
+        }
+        String origen = origen(evento.getStackTrace());
+        boolean nuevo = !porOrigen.containsKey(origen);
+        porOrigen.computeIfAbsent(origen, k -> new LongAdder()).increment();
+        if (nuevo) {
+            log.warn("Hilo virtual fijado a su portador durante {} ms en {}{}",
+                    Duration.ofNanos(nanos).toMillis(), origen, pila(evento.getStackTrace()));
+        }
+    }
+
+    /**
+     * Resumen de los episodios detectados desde el arranque.
+     *
+     * @return total, duración máxima, umbral y episodios por origen.
+     */
+    public Map<String, Object> resumen() {
+        Map<String, Long> origenes = new HashMap<>();
+        porOrigen.forEach((origen, cuenta) -> origenes.put(origen, cuenta.sum()));
+        Map<String, Object> resumen = new HashMap<>();
+        resumen.put("umbral_ms", umbral.toMillis());
+        resumen.put("episodios", total.sum());
+        resumen.put("maximo_ms", Duration.ofNanos(maximoNanos).toMillis());
+        resumen.put("por_origen", origenes);
+        return resumen;
+    }
+
+    private static String origen(RecordedStackTrace pila) {
+        if (pila == null || pila.getFrames().isEmpty()) return "desconocido";
+        for (RecordedFrame marco : pila.getFrames()) {
+            if (marco.getMethod().getType().getName().startsWith(PAQUETE_APLICACION)) {
+                return describir(marco);
+            }
+        }
+        return describir(pila.getFrames().get(0));
+    }
+
+    private static String pila(RecordedStackTrace pila) {
+        if (pila == null) return "";
+        StringBuilder texto = new StringBuilder();
+        pila.getFrames().stream().limit(25).forEach(marco -> texto.append("\n\tat ").append(describir(marco)));
+        return texto.toString();
+    }
+
+    private static String describir(RecordedFrame marco) {
+        return marco.getMethod().getType().getName() + "." + marco.getMethod().getName() + ":" + marco.getLineNumber();
+    }
+}
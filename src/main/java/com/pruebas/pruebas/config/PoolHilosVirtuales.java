@@ -0,0 +1,51 @@
+package com.pruebas.pruebas.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.env.Environment;
+
+/**
+ * Ajusta el pool de conexiones de Hikari en el modo de hilos virtuales.
+ * <p>
+ * Con hilos virtuales el límite de peticiones ({@link LimiteConcurrenciaInterceptor}) sustituye al
+ * pool de hilos de Tomcat, y el pool de conexiones pasa a ser de tamaño fijo con una espera corta:
+ * si aun así faltan conexiones, la petición falla en pocos segundos en lugar de esperar los 30 s de
+ * Hikari. En el modo de plataforma este ajuste no se registra y el pool conserva su configuración.
+ * </p>
+ * <p>
+ * Un valor fijado explícitamente en {@code spring.datasource.hikari.*} tiene prioridad.
+ * </p>
+ */
+public class PoolHilosVirtuales implements BeanPostProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(PoolHilosVirtuales.class);
+
+    private final Environment entorno;
+
+    public PoolHilosVirtuales(Environment entorno) {
+        this.entorno = entorno;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String nombre) {
+        // El pool de Hikari arranca con la primera conexión, así que aquí aún admite cambios
+        if (bean instanceof HikariDataSource hikari) {
+            int maximo = entorno.getProperty("hilos-virtuales.pool.maximo", Integer.class, 20);
+            long esperaMs = entorno.getProperty("hilos-virtuales.pool.espera-ms", Long.class, 3000L);
+            if (!entorno.containsProperty("spring.datasource.hikari.maximum-pool-size")) {
+                hikari.setMaximumPoolSize(maximo);
+            }
+            if (!entorno.containsProperty("spring.datasource.hikari.minimum-idle")) {
+                hikari.setMinimumIdle(hikari.getMaximumPoolSize());
+            }
+            if (!entorno.containsProperty("spring.datasource.hikari.connection-timeout")) {
+                hikari.setConnectionTimeout(esperaMs);
+            }
+            log.info("Pool de conexiones para hilos virtuales: {} conexiones fijas, espera máxima {} ms",
+                    hikari.getMaximumPoolSize(), hikari.getConnectionTimeout());
+        }
+        return bean;
+    }
+}
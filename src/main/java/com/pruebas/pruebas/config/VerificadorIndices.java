@@ -0,0 +1,112 @@
+package com.pruebas.pruebas.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Comprueba al arrancar que el esquema real tiene los índices de las consultas frecuentes.
+ * <p>
+ * Los índices se crean en las migraciones de {@code db/migration}, pero una base puede
+ * haberse restaurado sin ellos o haber quedado con un índice inválido tras un
+ * {@code CREATE INDEX CONCURRENTLY} interrumpido. Nada falla en esos casos: las consultas solo se
+ * vuelven recorridos completos de tabla. Por eso, al quedar lista la aplicación, se leen los índices
+ * válidos de {@code pg_index} y se escribe una advertencia por cada índice esperado que falte.
+ * </p>
+ * <p>
+ * Un índice esperado se da por presente si algún índice válido de la tabla empieza por sus mismas
+ * columnas y en el mismo orden, aunque tenga otro nombre o columnas adicionales al final.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "esquema.verificar-indices", havingValue = "true", matchIfMissing = true)
+public class VerificadorIndices {
+
+    private static final Logger log = LoggerFactory.getLogger(VerificadorIndices.class);
+
+    /** Índice que una consulta necesita: tabla y columnas iniciales en orden. */
+    record IndiceEsperado(String nombre, String tabla, List<String> columnas) {
+    }
+
+    /** Índice válido leído del catálogo. */
+    record IndiceExistente(String tabla, List<String> columnas) {
+    }
+
+    static final List<IndiceEsperado> ESPERADOS = List.of(
+            new IndiceEsperado("idx_respuesta_pregunta_id", "respuesta", List.of("id_pregunta", "id_respuesta")),
+            new IndiceEsperado("idx_respuesta_pregunta_fecha", "respuesta", List.of("id_pregunta", "fecha_respuesta")),
+            new IndiceEsperado("idx_respuesta_fecha_id", "respuesta", List.of("fecha_respuesta", "id_respuesta")),
+            new IndiceEsperado("uq_pregunta_encuesta_orden", "pregunta", List.of("id_encuesta", "orden")),
+            new IndiceEsperado("idx_encuesta_estado_id", "encuesta", List.of("estado", "id_encuesta"))
+    );
+
+    private static final String SQL_INDICES = """
+            SELECT t.relname AS tabla,
+                   array_to_string(ARRAY(
+                       SELECT a.attname
+                       FROM unnest(ix.indkey::int2[]) WITH ORDINALITY AS k(attnum, posicion)
+                       JOIN pg_attribute a ON a.attrelid = t.oid AND a.attnum = k.attnum
+                       ORDER BY k.posicion), ',') AS columnas
+            FROM pg_index ix
+            JOIN pg_class t ON t.oid = ix.indrelid
+            JOIN pg_namespace n ON n.oid = t.relnamespace
+            WHERE n.nspname = current_schema()
+              AND ix.indisvalid
+              AND t.relname IN ('encuesta', 'pregunta', 'respuesta')
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public VerificadorIndices(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verificar() {
+        List<IndiceExistente> existentes;
+        try {
+            existentes = jdbcTemplate.query(SQL_INDICES, (rs, i) -> new IndiceExistente(
+                    rs.getString("tabla"), Arrays.asList(rs.getString("columnas").split(","))));
+        } catch (DataAccessException e) {
+            log.warn("No se pudieron leer los índices del esquema: {}", e.getMessage());
+            return;
+        }
+
+        List<IndiceEsperado> faltantes = faltantes(existentes);
+        for (IndiceEsperado f : faltantes) {
+            log.warn("Falta el índice {} sobre {} ({}) o no es válido; las consultas que lo usan recorrerán la tabla completa",
+                    f.nombre(), f.tabla(), String.join(", ", f.columnas()));
+        }
+        if (faltantes.isEmpty()) {
+            log.info("Índices del esquema verificados ({} esperados)", ESPERADOS.size());
+        }
+    }
+
+    /**
+     * Índices esperados que no cubre ninguno de los existentes.
+     *
+     * @param existentes índices válidos del esquema.
+     * @return los esperados sin un índice que empiece por sus columnas, en el orden de {@link #ESPERADOS}.
+     */
+    static List<IndiceEsperado> faltantes(List<IndiceExistente> existentes) {
+        List<IndiceEsperado> faltantes = new ArrayList<>();
+        for (IndiceEsperado esperado : ESPERADOS) {
+            boolean cubierto = existentes.stream().anyMatch(e -> e.tabla().equals(esperado.tabla())
+                    && e.columnas().size() >= esperado.columnas().size()
+                    && e.columnas().subList(0, esperado.columnas().size()).equals(esperado.columnas()));
+            if (!cubierto) {
+                faltantes.add(esperado);
+            }
+        }
+        return faltantes;
+    }
+}
@@ -0,0 +1,65 @@
+package com.pruebas.pruebas.dto;
+
+import java.util.Date;
+
+/**
+ * DTO de solo lectura con el resumen de una encuesta para los listados.
+ * <p>
+ * Se construye directamente desde una consulta agregada ({@code SELECT new ...}), de modo que
+ * listar encuestas no carga preguntas ni respuestas. El total de respuestas se obtiene de los
+ * contadores por pregunta, no recorriendo la tabla {@code respuesta}.
+ * </p>
+ *
+ * @see EncuestaDTO
+ */
+public class EncuestaResumenDTO {
+
+    /** Identificador único de la encuesta. */
+    private Long id;
+
+    /** Título visible de la encuesta. */
+    private String titulo;
+
+    /** Estado actual de la encuesta (ACTIVA, INACTIVA, FINALIZADA, BORRADOR). */
+    private String estado;
+
+    /** Fecha en que se creó la encuesta. */
+    private Date fechaCreacion;
+
+    /** Número de preguntas de la encuesta. */
+    private long totalPreguntas;
+
+    /** Número de respuestas registradas en todas sus preguntas. */
+    private long totalRespuestas;
+
+    public EncuestaResumenDTO() { }
+
+    public EncuestaResumenDTO(Long id, String titulo, String estado, Date fechaCreacion,
+                              Long totalPreguntas, Long totalRespuestas) {
+        this.id = id;
+        this.titulo = titulo;
+        this.estado = estado;
+        this.fechaCreacion = fechaCreacion;
+        this.totalPreguntas = totalPreguntas != null ? totalPreguntas : 0L;
+        this.totalRespuestas = totalRespuestas != null ? totalRespuestas : 0L;
+    }
+
+    // ──────────────────────────────── Getters y Setters ────────────────────────────────
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTitulo() { return titulo; }
+    public void setTitulo(String titulo) { this.titulo = titulo; }
+
+    public String getEstado() { return estado; }
+    public void setEstado(String estado) { this.estado = estado; }
+
+    public Date getFechaCreacion() { return fechaCreacion; }
+    public void setFechaCreacion(Date fechaCreacion) { this.fechaCreacion = fechaCreacion; }
+
+    public long getTotalPreguntas() { return totalPreguntas; }
+    public void setTotalPreguntas(long totalPreguntas) { this.totalPreguntas = totalPreguntas; }
+
+    public long getTotalRespuestas() { return totalRespuestas; }
+    public void setTotalRespuestas(long totalRespuestas) { this.totalRespuestas = totalRespuestas; }
+}
@@ -0,0 +1,30 @@
+package com.pruebas.pruebas.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+
+/**
+ * DTO que agrupa todas las respuestas de un encuestado a una misma encuesta,
+ * para registrarlas en una sola petición.
+ *
+ * <h3>Ejemplo de uso:</h3>
+ * <pre>
+ * {
+ *   "respuestas": [
+ *     { "idPregunta": 10, "respuesta": "Sí" },
+ *     { "idPregunta": 11, "respuesta": "4" }
+ *   ]
+ * }
+ * </pre>
+ *
+ * @see ResultadoEnvioDTO
+ */
+public class EnvioEncuestaDTO {
+
+    /** Respuestas a registrar; cada una indica la pregunta a la que responde. */
+    @NotEmpty(message = "Debe enviar al menos una respuesta")
+    private List<RespuestaDTO> respuestas;
+
+    public List<RespuestaDTO> getRespuestas() { return respuestas; }
+    public void setRespuestas(List<RespuestaDTO> respuestas) { this.respuestas = respuestas; }
+}
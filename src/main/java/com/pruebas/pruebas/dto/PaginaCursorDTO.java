@@ -0,0 +1,34 @@
+package com.pruebas.pruebas.dto;
+
+import java.util.List;
+
+/**
+ * Página de resultados obtenida por cursor (paginación <i>keyset</i>).
+ * <p>
+ * A diferencia de la paginación por desplazamiento, la siguiente página se pide a partir
+ * de la clave del último elemento devuelto, por lo que el coste no crece con la profundidad.
+ * </p>
+ *
+ * @param <T> tipo de los elementos de la página.
+ */
+public class PaginaCursorDTO<T> {
+
+    /** Elementos de la página, en el orden del cursor. */
+    private List<T> contenido;
+
+    /** Cursor opaco para pedir la página siguiente, o {@code null} si no hay más elementos. */
+    private String siguienteCursor;
+
+    public PaginaCursorDTO() { }
+
+    public PaginaCursorDTO(List<T> contenido, String siguienteCursor) {
+        this.contenido = contenido;
+        this.siguienteCursor = siguienteCursor;
+    }
+
+    public List<T> getContenido() { return contenido; }
+    public void setContenido(List<T> contenido) { this.contenido = contenido; }
+
+    public String getSiguienteCursor() { return siguienteCursor; }
+    public void setSiguienteCursor(String siguienteCursor) { this.siguienteCursor = siguienteCursor; }
+}
@@ -3,6 +3,7 @@ package com.pruebas.pruebas.dto;
 import java.util.List;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 
 /**
  * DTO (Data Transfer Object) que representa los datos de una pregunta dentro de una encuesta.
@@ -10,6 +11,11 @@ import jakarta.validation.constraints.NotNull;
  * Este objeto transporta información sobre el texto de la pregunta, tipo,
  * opciones posibles, orden y respuestas asociadas.
  * </p>
+ * <p>
+ * {@code orden} es la clave guardada y solo se informa en las respuestas; para colocar la pregunta
+ * al crearla o moverla al actualizarla se envía {@code posicion}. Así, devolver una pregunta leída
+ * antes con un {@code orden} desactualizado no la cambia de sitio.
+ * </p>
  *
  * <h3>Ejemplo de uso:</h3>
  * <pre>
@@ -17,7 +23,7 @@ import jakarta.validation.constraints.NotNull;
  * pregunta.setTextoPregunta("¿Cuál es tu producto favorito?");
  * pregunta.setTipo("opcion_multiple");
  * pregunta.setOpciones(List.of("A", "B", "C"));
- * pregunta.setOrden(1);
+ * pregunta.setPosicion(1);
  * </pre>
  *
  * @see com.pruebas.pruebas.entity.Pregunta
@@ -42,13 +48,34 @@ public class PreguntaDTO {
     /** Lista de opciones posibles (solo si la pregunta es cerrada). */
     private List<String> opciones;
 
-    /** Posición que ocupa la pregunta dentro de la encuesta. */
-    @NotNull(message = "El orden de la pregunta no puede ser nulo")
+    /**
+     * Clave de orden dispersa: solo indica el orden relativo entre preguntas.
+     * Se ignora al crear o actualizar.
+     */
     private Integer orden;
 
+    /**
+     * Posición deseada dentro de la encuesta (1 = primera), solo en las peticiones. Al crear,
+     * sin posición la pregunta va al final; al actualizar, sin posición no se mueve.
+     */
+    @Positive(message = "La posición de la pregunta debe ser 1 o mayor")
+    private Integer posicion;
+
     /** Respuestas registradas para esta pregunta (opcional en consultas extendidas). */
     private List<RespuestaDTO> respuestas;
 
+    public PreguntaDTO() { }
+
+    /** Constructor usado por las proyecciones JPQL de los listados (sin respuestas). */
+    public PreguntaDTO(Long id, Long idEncuesta, String textoPregunta, String tipo, List<String> opciones, Integer orden) {
+        this.id = id;
+        this.idEncuesta = idEncuesta;
+        this.textoPregunta = textoPregunta;
+        this.tipo = tipo;
+        this.opciones = opciones;
+        this.orden = orden;
+    }
+
     // ──────────────────────────────── Getters y Setters ────────────────────────────────
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -68,6 +95,9 @@ public class PreguntaDTO {
     public Integer getOrden() { return orden; }
     public void setOrden(Integer orden) { this.orden = orden; }
 
+    public Integer getPosicion() { return posicion; }
+    public void setPosicion(Integer posicion) { this.posicion = posicion; }
+
     public List<RespuestaDTO> getRespuestas() { return respuestas; }
     public void setRespuestas(List<RespuestaDTO> respuestas) { this.respuestas = respuestas; }
 }
@@ -0,0 +1,36 @@
+package com.pruebas.pruebas.dto;
+
+import com.pruebas.pruebas.util.ValidadorRespuesta;
+
+import java.util.List;
+
+/**
+ * Datos inmutables de una pregunta necesarios para validar y registrar sus respuestas.
+ * <p>
+ * Se guardan en {@code PreguntaMetadataCache} y se comparten entre peticiones,
+ * por eso la lista de opciones es de solo lectura. El validador de respuestas se compila
+ * una sola vez al construirlos y se reutiliza mientras la entrada siga en caché.
+ * </p>
+ */
+public class PreguntaMetadataDTO {
+
+    private final Long idPregunta;
+    private final Long idEncuesta;
+    private final String tipo;
+    private final List<String> opciones;
+    private final ValidadorRespuesta validador;
+
+    public PreguntaMetadataDTO(Long idPregunta, Long idEncuesta, String tipo, List<String> opciones) {
+        this.idPregunta = idPregunta;
+        this.idEncuesta = idEncuesta;
+        this.tipo = tipo;
+        this.opciones = opciones != null ? List.copyOf(opciones) : null;
+        this.validador = ValidadorRespuesta.compilar(tipo, opciones);
+    }
+
+    public Long getIdPregunta() { return idPregunta; }
+    public Long getIdEncuesta() { return idEncuesta; }
+    public String getTipo() { return tipo; }
+    public List<String> getOpciones() { return opciones; }
+    public ValidadorRespuesta getValidador() { return validador; }
+}
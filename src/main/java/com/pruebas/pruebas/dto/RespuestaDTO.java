@@ -19,6 +19,16 @@ public class RespuestaDTO {
 
     private Date fechaRespuesta;
 
+    public RespuestaDTO() { }
+
+    /** Constructor usado por las proyecciones JPQL de los listados. */
+    public RespuestaDTO(Long id, Long idPregunta, String respuesta, Date fechaRespuesta) {
+        this.id = id;
+        this.idPregunta = idPregunta;
+        this.respuesta = respuesta;
+        this.fechaRespuesta = fechaRespuesta;
+    }
+
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
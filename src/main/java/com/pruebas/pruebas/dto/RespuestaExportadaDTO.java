@@ -0,0 +1,37 @@
+package com.pruebas.pruebas.dto;
+
+import java.time.Instant;
+
+/**
+ * Fila de exportación de una respuesta, con los datos de su pregunta ya unidos.
+ * <p>
+ * Se construye una por cada fila leída del cursor y se descarta tras escribirla,
+ * por lo que nunca se acumulan en memoria.
+ * </p>
+ */
+public class RespuestaExportadaDTO {
+
+    private final long idRespuesta;
+    private final long idPregunta;
+    private final String textoPregunta;
+    private final String tipo;
+    private final String respuesta;
+    private final Instant fechaRespuesta;
+
+    public RespuestaExportadaDTO(long idRespuesta, long idPregunta, String textoPregunta,
+                                 String tipo, String respuesta, Instant fechaRespuesta) {
+        this.idRespuesta = idRespuesta;
+        this.idPregunta = idPregunta;
+        this.textoPregunta = textoPregunta;
+        this.tipo = tipo;
+        this.respuesta = respuesta;
+        this.fechaRespuesta = fechaRespuesta;
+    }
+
+    public long getIdRespuesta() { return idRespuesta; }
+    public long getIdPregunta() { return idPregunta; }
+    public String getTextoPregunta() { return textoPregunta; }
+    public String getTipo() { return tipo; }
+    public String getRespuesta() { return respuesta; }
+    public Instant getFechaRespuesta() { return fechaRespuesta; }
+}
@@ -0,0 +1,37 @@
+package com.pruebas.pruebas.dto;
+
+/**
+ * Respuesta aceptada por la ingesta diferida y aún no volcada a la base de datos.
+ * <p>
+ * Es también el formato de cada línea del registro local de ingesta, por eso la fecha se guarda
+ * en milisegundos y la secuencia identifica la entrada dentro del registro de cada nodo.
+ * </p>
+ */
+public class RespuestaPendienteDTO {
+
+    private long secuencia;
+    private Long idPregunta;
+    private String respuesta;
+    private long fechaRespuesta;
+
+    public RespuestaPendienteDTO() { }
+
+    public RespuestaPendienteDTO(long secuencia, Long idPregunta, String respuesta, long fechaRespuesta) {
+        this.secuencia = secuencia;
+        this.idPregunta = idPregunta;
+        this.respuesta = respuesta;
+        this.fechaRespuesta = fechaRespuesta;
+    }
+
+    public long getSecuencia() { return secuencia; }
+    public void setSecuencia(long secuencia) { this.secuencia = secuencia; }
+
+    public Long getIdPregunta() { return idPregunta; }
+    public void setIdPregunta(Long idPregunta) { this.idPregunta = idPregunta; }
+
+    public String getRespuesta() { return respuesta; }
+    public void setRespuesta(String respuesta) { this.respuesta = respuesta; }
+
+    public long getFechaRespuesta() { return fechaRespuesta; }
+    public void setFechaRespuesta(long fechaRespuesta) { this.fechaRespuesta = fechaRespuesta; }
+}
@@ -0,0 +1,64 @@
+package com.pruebas.pruebas.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO con el resultado del registro de un {@link EnvioEncuestaDTO}.
+ * <p>
+ * Las respuestas válidas se guardan juntas; las inválidas se informan una a una
+ * en {@code errores}, indicando su posición dentro del envío.
+ * </p>
+ */
+public class ResultadoEnvioDTO {
+
+    /** Número de respuestas recibidas en el envío. */
+    private int recibidas;
+
+    /** Número de respuestas válidas que se guardaron. */
+    private int guardadas;
+
+    /** Errores de validación, uno por respuesta rechazada. */
+    private List<ErrorRespuesta> errores = new ArrayList<>();
+
+    /**
+     * Error de validación de una respuesta concreta del envío.
+     */
+    public static class ErrorRespuesta {
+
+        /** Posición (desde 0) de la respuesta dentro del envío. */
+        private int indice;
+
+        /** Pregunta indicada en la respuesta rechazada. */
+        private Long idPregunta;
+
+        /** Motivo del rechazo. */
+        private String error;
+
+        public ErrorRespuesta() { }
+
+        public ErrorRespuesta(int indice, Long idPregunta, String error) {
+            this.indice = indice;
+            this.idPregunta = idPregunta;
+            this.error = error;
+        }
+
+        public int getIndice() { return indice; }
+        public void setIndice(int indice) { this.indice = indice; }
+
+        public Long getIdPregunta() { return idPregunta; }
+        public void setIdPregunta(Long idPregunta) { this.idPregunta = idPregunta; }
+
+        public String getError() { return error; }
+        public void setError(String error) { this.error = error; }
+    }
+
+    public int getRecibidas() { return recibidas; }
+    public void setRecibidas(int recibidas) { this.recibidas = recibidas; }
+
+    public int getGuardadas() { return guardadas; }
+    public void setGuardadas(int guardadas) { this.guardadas = guardadas; }
+
+    public List<ErrorRespuesta> getErrores() { return errores; }
+    public void setErrores(List<ErrorRespuesta> errores) { this.errores = errores; }
+}
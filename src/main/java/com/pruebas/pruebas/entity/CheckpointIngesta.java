@@ -0,0 +1,41 @@
+package com.pruebas.pruebas.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * <h2>Entidad: CheckpointIngesta</h2>
+ *
+ * Última entrada del registro local de ingesta de un nodo que ya está guardada en la base de datos.
+ *
+ * <p>Se almacena en la tabla <b>ingesta_checkpoint</b> y se actualiza en la misma transacción que
+ * inserta cada lote, así que al reiniciar se reprocesan exactamente las entradas posteriores.</p>
+ *
+ * @author Johan
+ * @version 1.0
+ */
+@Entity
+@Table(name = "ingesta_checkpoint")
+public class CheckpointIngesta {
+
+    /** Nodo dueño del registro local (cada instancia tiene el suyo). */
+    @Id
+    @Column(length = 100)
+    private String nodo;
+
+    /** Secuencia de la última entrada volcada. */
+    @Column(name = "ultima_secuencia", nullable = false)
+    private Long ultimaSecuencia;
+
+    public CheckpointIngesta() { }
+
+    public CheckpointIngesta(String nodo, Long ultimaSecuencia) {
+        this.nodo = nodo;
+        this.ultimaSecuencia = ultimaSecuencia;
+    }
+
+    public String getNodo() {return nodo;}
+    public void setNodo(String nodo) {this.nodo = nodo;}
+
+    public Long getUltimaSecuencia() {return ultimaSecuencia;}
+    public void setUltimaSecuencia(Long ultimaSecuencia) {this.ultimaSecuencia = ultimaSecuencia;}
+}
@@ -0,0 +1,42 @@
+package com.pruebas.pruebas.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * <h2>Entidad: ConteoOpcion</h2>
+ *
+ * Contador incremental de respuestas por (pregunta, valor).
+ * Permite calcular las estadísticas de una pregunta en función del número de opciones
+ * y no del número de respuestas registradas.
+ *
+ * <p>Se almacena en la tabla <b>conteo_opcion</b> de PostgreSQL.</p>
+ *
+ * <h3>Mantenimiento:</h3>
+ * <ul>
+ *   <li>Se actualiza en la misma transacción que el alta, modificación o baja de una {@link Respuesta}.</li>
+ *   <li>Las respuestas de selección múltiple suman una unidad por cada opción seleccionada.</li>
+ *   <li>Las preguntas abiertas solo mantienen el total en {@link ConteoPregunta}.</li>
+ *   <li>Puede reconstruirse desde cero a partir de la tabla <b>respuesta</b>.</li>
+ * </ul>
+ *
+ * @author Johan
+ * @version 1.0
+ */
+@Entity
+@Table(name = "conteo_opcion")
+public class ConteoOpcion {
+
+    /** Pregunta y valor contado. */
+    @EmbeddedId
+    private ConteoOpcionId id;
+
+    /** Número de respuestas que contienen el valor. */
+    @Column(nullable = false)
+    private Long cantidad;
+
+    public ConteoOpcionId getId() {return id;}
+    public void setId(ConteoOpcionId id) {this.id = id;}
+
+    public Long getCantidad() {return cantidad;}
+    public void setCantidad(Long cantidad) {this.cantidad = cantidad;}
+}
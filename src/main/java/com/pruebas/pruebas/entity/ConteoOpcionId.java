@@ -0,0 +1,51 @@
+package com.pruebas.pruebas.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Clave compuesta de {@link ConteoOpcion}: una pregunta y uno de sus valores de respuesta.
+ *
+ * @author Johan
+ * @version 1.0
+ */
+@Embeddable
+public class ConteoOpcionId implements Serializable {
+
+    /** Pregunta a la que pertenece el contador. */
+    @Column(name = "id_pregunta", nullable = false)
+    private Long idPregunta;
+
+    /** Valor de respuesta contado (una opción o, en selección múltiple, cada opción seleccionada). */
+    @Column(name = "valor", nullable = false, columnDefinition = "TEXT")
+    private String valor;
+
+    public ConteoOpcionId() {
+    }
+
+    public ConteoOpcionId(Long idPregunta, String valor) {
+        this.idPregunta = idPregunta;
+        this.valor = valor;
+    }
+
+    public Long getIdPregunta() {return idPregunta;}
+    public void setIdPregunta(Long idPregunta) {this.idPregunta = idPregunta;}
+
+    public String getValor() {return valor;}
+    public void setValor(String valor) {this.valor = valor;}
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ConteoOpcionId otro)) return false;
+        return Objects.equals(idPregunta, otro.idPregunta) && Objects.equals(valor, otro.valor);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(idPregunta, valor);
+    }
+}
@@ -0,0 +1,44 @@
+package com.pruebas.pruebas.entity;
+
+import jakarta.persistence.*;
+
+import java.util.Date;
+
+/**
+ * <h2>Entidad: ConteoPregunta</h2>
+ *
+ * Total incremental de respuestas registradas para una {@link Pregunta} y fecha de la más reciente.
+ *
+ * <p>Se almacena en la tabla <b>conteo_pregunta</b> de PostgreSQL y se mantiene
+ * junto con {@link ConteoOpcion}.</p>
+ *
+ * @author Johan
+ * @version 1.0
+ */
+@Entity
+@Table(name = "conteo_pregunta")
+public class ConteoPregunta {
+
+    /** Pregunta a la que corresponde el total. */
+    @Id
+    @Column(name = "id_pregunta")
+    private Long idPregunta;
+
+    /** Número de respuestas registradas para la pregunta. */
+    @Column(nullable = false)
+    private Long total;
+
+    /** Fecha de la respuesta más reciente de la pregunta. */
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "ultima_respuesta")
+    private Date ultimaRespuesta;
+
+    public Long getIdPregunta() {return idPregunta;}
+    public void setIdPregunta(Long idPregunta) {this.idPregunta = idPregunta;}
+
+    public Long getTotal() {return total;}
+    public void setTotal(Long total) {this.total = total;}
+
+    public Date getUltimaRespuesta() {return ultimaRespuesta;}
+    public void setUltimaRespuesta(Date ultimaRespuesta) {this.ultimaRespuesta = ultimaRespuesta;}
+}
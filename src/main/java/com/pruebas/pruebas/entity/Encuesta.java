@@ -38,11 +38,16 @@ import java.util.List;
 @Entity
 @Table(name = "encuesta")
 @Data
+@NamedEntityGraph(name = Encuesta.GRAFO_CON_PREGUNTAS, attributeNodes = @NamedAttributeNode("preguntas"))
 public class Encuesta {
 
-    /** Identificador único de la encuesta. */
+    /** Plan de carga del detalle: la encuesta y sus preguntas en una sola consulta. */
+    public static final String GRAFO_CON_PREGUNTAS = "Encuesta.conPreguntas";
+
+    /** Identificador único de la encuesta (secuencia <b>encuesta_seq</b>, reservada en bloques de 50). */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "encuesta_seq")
+    @SequenceGenerator(name = "encuesta_seq", sequenceName = "encuesta_seq", allocationSize = 50)
     private Long idEncuesta;
 
     /** Título descriptivo de la encuesta. */
@@ -69,6 +74,7 @@ public class Encuesta {
      * </p>
      */
     @OneToMany(mappedBy = "encuesta", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("orden ASC")
     @JsonManagedReference
     private List<Pregunta> preguntas;
 
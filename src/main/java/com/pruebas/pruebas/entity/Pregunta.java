@@ -1,6 +1,8 @@
 package com.pruebas.pruebas.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 import java.util.List;
@@ -31,11 +33,16 @@ import java.util.List;
  */
 @Entity
 @Table(name = "pregunta")
+@NamedEntityGraph(name = Pregunta.GRAFO_CON_RESPUESTAS, attributeNodes = @NamedAttributeNode("respuestas"))
 public class Pregunta {
 
-    /** Identificador único de la pregunta. */
+    /** Plan de carga de preguntas junto con sus respuestas (detalle completo). */
+    public static final String GRAFO_CON_RESPUESTAS = "Pregunta.conRespuestas";
+
+    /** Identificador único de la pregunta (secuencia <b>pregunta_seq</b>, reservada en bloques de 50). */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pregunta_seq")
+    @SequenceGenerator(name = "pregunta_seq", sequenceName = "pregunta_seq", allocationSize = 50)
     private Long idPregunta;
 
     /** Texto visible de la pregunta. */
@@ -46,7 +53,10 @@ public class Pregunta {
     @Column(nullable = false, length = 50)
     private String tipo;
 
-    /** Posición que ocupa dentro de la encuesta. */
+    /**
+     * Clave de orden dentro de la encuesta, única por encuesta y con huecos entre preguntas
+     * consecutivas (ver {@link com.pruebas.pruebas.util.OrdenUtil}).
+     */
     @Column(nullable = false)
     private Integer orden;
 
@@ -60,9 +70,11 @@ public class Pregunta {
 
     /**
      * Encuesta a la que pertenece esta pregunta.
+     * <p>Al eliminar la encuesta, PostgreSQL elimina sus preguntas ({@code ON DELETE CASCADE}).</p>
      */
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_encuesta", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private Encuesta encuesta;
 
     /** Lista de respuestas asociadas a esta pregunta. */
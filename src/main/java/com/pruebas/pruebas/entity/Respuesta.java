@@ -1,7 +1,11 @@
 package com.pruebas.pruebas.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import java.util.Date;
 
@@ -20,7 +24,18 @@ import java.util.Date;
  *
  * <h3>Auditoría:</h3>
  * <ul>
- *   <li>La fecha de respuesta se asigna automáticamente al momento de la creación.</li>
+ *   <li>La fecha de respuesta se asigna automáticamente al momento de la creación, si no viene asignada.</li>
+ * </ul>
+ *
+ * <p>La tabla y sus índices se crean con las migraciones de {@code db/migration}.</p>
+ *
+ * <h3>Particionado:</h3>
+ * <ul>
+ *   <li>La tabla está particionada por meses de <b>fecha_respuesta</b>; las consultas con un rango
+ *       de fechas solo leen las particiones de ese rango.</li>
+ *   <li>La fecha no se modifica después del alta, así que una respuesta nunca cambia de partición.</li>
+ *   <li>La clave primaria en la base es (id_respuesta, fecha_respuesta), pero el identificador sigue
+ *       siendo único por la secuencia; las búsquedas solo por id consultan el índice de cada partición.</li>
  * </ul>
  *
  * @author Johan
@@ -31,28 +46,45 @@ import java.util.Date;
 @Data
 public class Respuesta {
 
-    /** Identificador único de la respuesta. */
+    /**
+     * Identificador único de la respuesta.
+     * <p>Se obtiene de la secuencia <b>respuesta_seq</b> en bloques de 50 (optimizador <i>pooled</i>),
+     * lo que permite a Hibernate agrupar las inserciones en batches JDBC.</p>
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "respuesta_seq")
+    @SequenceGenerator(name = "respuesta_seq", sequenceName = "respuesta_seq", allocationSize = 50)
     private Long idRespuesta;
 
-    /** Pregunta asociada a esta respuesta. */
-    @ManyToOne
+    /**
+     * Pregunta asociada a esta respuesta.
+     * <p>Perezosa: los listados solo necesitan su identificador, que está en la propia fila.</p>
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_pregunta", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     @JsonBackReference
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Pregunta pregunta;
 
     /** Contenido de la respuesta (texto libre o valor seleccionado). */
     @Column(columnDefinition = "TEXT", nullable = false)
     private String respuesta;
 
-    /** Fecha en la que se registró la respuesta. */
+    /** Fecha en la que se registró la respuesta (clave de partición). */
     @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false, updatable = false)
     private Date fechaRespuesta;
 
-    /** Asigna automáticamente la fecha de registro antes de persistir. */
+    /**
+     * Asigna la fecha de registro antes de persistir, salvo que ya venga asignada
+     * (por ejemplo, la hora en que la ingesta diferida aceptó la respuesta).
+     */
     @PrePersist
     protected void onCreate() {
-        this.fechaRespuesta = new Date();
+        if (this.fechaRespuesta == null) {
+            this.fechaRespuesta = new Date();
+        }
     }
 }
@@ -1,6 +1,7 @@
 package com.pruebas.pruebas.exception;
 
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
@@ -28,5 +29,19 @@ public class GlobalExceptionHandler {
         error.put("error", ex.getMessage());
         return ResponseEntity.badRequest().body(error);
     }
+
+    /**
+     * Maneja excepciones que ya indican su código HTTP (por ejemplo, 503 por saturación),
+     * respetando ese código en lugar de responder 400.
+     *
+     * @param ex Excepción con el estado HTTP a devolver
+     * @return ResponseEntity con el estado de la excepción y su motivo
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<Map<String, String>> handleResponseStatus(ResponseStatusException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", ex.getReason());
+        return ResponseEntity.status(ex.getStatusCode()).headers(ex.getHeaders()).body(error);
+    }
 }
 
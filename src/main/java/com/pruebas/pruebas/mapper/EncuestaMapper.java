@@ -4,6 +4,7 @@ import com.pruebas.pruebas.dto.EncuestaDTO;
 import com.pruebas.pruebas.entity.Encuesta;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.Named;
 import java.util.List;
 
 /**
@@ -31,6 +32,17 @@ public interface EncuestaMapper {
     @Mapping(target = "id", source = "idEncuesta")
     EncuestaDTO toDTO(Encuesta entity);
 
+    /**
+     * Convierte una encuesta a DTO con sus preguntas, pero sin las respuestas de cada pregunta.
+     *
+     * @param entity Entidad de tipo {@link Encuesta} (con sus preguntas ya cargadas).
+     * @return DTO equivalente sin respuestas.
+     */
+    @Named("sinRespuestas")
+    @Mapping(target = "id", source = "idEncuesta")
+    @Mapping(target = "preguntas", source = "preguntas", qualifiedByName = "listaSinRespuestas")
+    EncuestaDTO toDTOSinRespuestas(Encuesta entity);
+
     /**
      * Convierte un DTO {@link EncuestaDTO} a su entidad {@link Encuesta}.
      *
@@ -2,8 +2,10 @@ package com.pruebas.pruebas.mapper;
 
 import com.pruebas.pruebas.dto.PreguntaDTO;
 import com.pruebas.pruebas.entity.Pregunta;
+import org.mapstruct.IterableMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.Named;
 import java.util.List;
 
 /**
@@ -13,6 +15,11 @@ import java.util.List;
  * Utiliza {@link RespuestaMapper} para manejar la lista de respuestas asociadas
  * a cada pregunta.
  * </p>
+ *
+ * <p>
+ * Las variantes {@code sinRespuestas} no acceden a la colección {@code respuestas}, por lo que
+ * pueden usarse sobre preguntas cargadas sin ella sin provocar cargas perezosas.
+ * </p>
  */
 @Mapper(componentModel = "spring", uses = {RespuestaMapper.class})
 public interface PreguntaMapper {
@@ -25,6 +32,7 @@ public interface PreguntaMapper {
      */
     @Mapping(target = "id", source = "idPregunta")
     @Mapping(target = "idEncuesta", source = "encuesta.idEncuesta")
+    @Mapping(target = "posicion", ignore = true)
     PreguntaDTO toDTO(Pregunta entity);
 
     /**
@@ -37,9 +45,27 @@ public interface PreguntaMapper {
     @Mapping(target = "encuesta.idEncuesta", source = "idEncuesta")
     Pregunta toEntity(PreguntaDTO dto);
 
+    /**
+     * Convierte una pregunta a DTO sin incluir sus respuestas.
+     *
+     * @param entity Entidad JPA de tipo {@link Pregunta}.
+     * @return DTO con {@code respuestas} en {@code null}.
+     */
+    @Named("sinRespuestas")
+    @Mapping(target = "id", source = "idPregunta")
+    @Mapping(target = "idEncuesta", source = "encuesta.idEncuesta")
+    @Mapping(target = "respuestas", ignore = true)
+    @Mapping(target = "posicion", ignore = true)
+    PreguntaDTO toDTOSinRespuestas(Pregunta entity);
+
     /** Convierte una lista de entidades a una lista de DTOs. */
     List<PreguntaDTO> toDTO(List<Pregunta> entities);
 
+    /** Convierte una lista de entidades a DTOs sin incluir sus respuestas. */
+    @Named("listaSinRespuestas")
+    @IterableMapping(qualifiedByName = "sinRespuestas")
+    List<PreguntaDTO> toDTOSinRespuestas(List<Pregunta> entities);
+
     /** Convierte una lista de DTOs a una lista de entidades. */
     List<Pregunta> toEntity(List<PreguntaDTO> dtos);
 }
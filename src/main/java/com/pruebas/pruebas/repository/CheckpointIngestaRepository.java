@@ -0,0 +1,29 @@
+package com.pruebas.pruebas.repository;
+
+import com.pruebas.pruebas.entity.CheckpointIngesta;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Repositorio JPA para la entidad {@link CheckpointIngesta}.
+ */
+public interface CheckpointIngestaRepository extends JpaRepository<CheckpointIngesta, String> {
+
+    /**
+     * Registra la última secuencia volcada de un nodo, creándola si no existe.
+     * Nunca retrocede: si ya hay una secuencia mayor, se conserva.
+     *
+     * @param nodo      nodo dueño del registro de ingesta.
+     * @param secuencia secuencia de la última entrada volcada.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO ingesta_checkpoint (nodo, ultima_secuencia)
+            VALUES (:nodo, :secuencia)
+            ON CONFLICT (nodo)
+            DO UPDATE SET ultima_secuencia = GREATEST(ingesta_checkpoint.ultima_secuencia, EXCLUDED.ultima_secuencia)
+            """, nativeQuery = true)
+    void guardar(@Param("nodo") String nodo, @Param("secuencia") long secuencia);
+}
@@ -0,0 +1,67 @@
+package com.pruebas.pruebas.repository;
+
+import com.pruebas.pruebas.entity.ConteoOpcion;
+import com.pruebas.pruebas.entity.ConteoOpcionId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * Repositorio JPA para la entidad {@link ConteoOpcion}.
+ * <p>
+ * Las actualizaciones se hacen con un {@code INSERT ... ON CONFLICT} atómico, de modo que
+ * varias transacciones concurrentes pueden sumar sobre el mismo contador sin leerlo antes.
+ * </p>
+ */
+public interface ConteoOpcionRepository extends JpaRepository<ConteoOpcion, ConteoOpcionId> {
+
+    /**
+     * Suma {@code delta} (positivo o negativo) al contador de un valor, creándolo si no existe.
+     *
+     * @param idPregunta identificador de la pregunta.
+     * @param valor      valor de respuesta contado.
+     * @param delta      cantidad a sumar.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO conteo_opcion (id_pregunta, valor, cantidad)
+            VALUES (:idPregunta, :valor, :delta)
+            ON CONFLICT (id_pregunta, valor)
+            DO UPDATE SET cantidad = conteo_opcion.cantidad + EXCLUDED.cantidad
+            """, nativeQuery = true)
+    void sumar(@Param("idPregunta") Long idPregunta, @Param("valor") String valor, @Param("delta") long delta);
+
+    /**
+     * Obtiene los contadores distintos de cero de todas las preguntas de una encuesta.
+     *
+     * @param idEncuesta identificador de la encuesta.
+     * @return filas {@code [idPregunta (Long), valor (String), cantidad (Long)]}.
+     */
+    @Query("SELECT c.id.idPregunta, c.id.valor, c.cantidad FROM ConteoOpcion c " +
+            "WHERE c.cantidad <> 0 AND c.id.idPregunta IN " +
+            "(SELECT p.idPregunta FROM Pregunta p WHERE p.encuesta.idEncuesta = :idEncuesta)")
+    List<Object[]> findFrecuenciasPorEncuesta(@Param("idEncuesta") Long idEncuesta);
+
+    // Eliminar los contadores de una pregunta
+    @Modifying
+    @Query("DELETE FROM ConteoOpcion c WHERE c.id.idPregunta = :idPregunta")
+    int eliminarPorPregunta(@Param("idPregunta") Long idPregunta);
+
+    // Eliminar los contadores de todas las preguntas de una encuesta
+    @Modifying
+    @Query("DELETE FROM ConteoOpcion c WHERE c.id.idPregunta IN " +
+            "(SELECT p.idPregunta FROM Pregunta p WHERE p.encuesta.idEncuesta = :idEncuesta)")
+    int eliminarPorEncuesta(@Param("idEncuesta") Long idEncuesta);
+
+    /**
+     * Bloquea ambas tablas de contadores frente a escrituras concurrentes hasta el final
+     * de la transacción. Se usa durante la reconstrucción para que ninguna respuesta
+     * confirmada en paralelo se pierda o se cuente dos veces.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE conteo_opcion, conteo_pregunta IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void bloquearContadores();
+}
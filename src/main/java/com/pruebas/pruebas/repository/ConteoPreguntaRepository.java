@@ -0,0 +1,62 @@
+package com.pruebas.pruebas.repository;
+
+import com.pruebas.pruebas.entity.ConteoPregunta;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Repositorio JPA para la entidad {@link ConteoPregunta}.
+ *
+ * @see ConteoOpcionRepository
+ */
+public interface ConteoPreguntaRepository extends JpaRepository<ConteoPregunta, Long> {
+
+    /**
+     * Suma {@code delta} (positivo o negativo) al total de una pregunta, creándolo si no existe, y
+     * adelanta su última respuesta si {@code ultima} es posterior a la guardada.
+     *
+     * @param idPregunta identificador de la pregunta.
+     * @param delta      cantidad a sumar.
+     * @param ultima     fecha de la respuesta más reciente sumada, o {@code null} si no hay (bajas).
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO conteo_pregunta (id_pregunta, total, ultima_respuesta)
+            VALUES (:idPregunta, :delta, CAST(:ultima AS timestamp))
+            ON CONFLICT (id_pregunta)
+            DO UPDATE SET total = conteo_pregunta.total + EXCLUDED.total,
+                          ultima_respuesta = GREATEST(conteo_pregunta.ultima_respuesta, EXCLUDED.ultima_respuesta)
+            """, nativeQuery = true)
+    void sumar(@Param("idPregunta") Long idPregunta, @Param("delta") long delta, @Param("ultima") Date ultima);
+
+    /**
+     * Obtiene el total de respuestas de cada pregunta de una encuesta.
+     *
+     * @param idEncuesta identificador de la encuesta.
+     * @return filas {@code [idPregunta (Long), total (Long)]}.
+     */
+    @Query("SELECT c.idPregunta, c.total FROM ConteoPregunta c WHERE c.idPregunta IN " +
+            "(SELECT p.idPregunta FROM Pregunta p WHERE p.encuesta.idEncuesta = :idEncuesta)")
+    List<Object[]> findTotalesPorEncuesta(@Param("idEncuesta") Long idEncuesta);
+
+    // Total de respuestas de una encuesta según sus contadores (0 si no tiene)
+    @Query("SELECT COALESCE(SUM(c.total), 0L) FROM ConteoPregunta c WHERE c.idPregunta IN " +
+            "(SELECT p.idPregunta FROM Pregunta p WHERE p.encuesta.idEncuesta = :idEncuesta)")
+    long sumarPorEncuesta(@Param("idEncuesta") Long idEncuesta);
+
+    // Eliminar el total de una pregunta
+    @Modifying
+    @Query("DELETE FROM ConteoPregunta c WHERE c.idPregunta = :idPregunta")
+    int eliminarPorPregunta(@Param("idPregunta") Long idPregunta);
+
+    // Eliminar los totales de todas las preguntas de una encuesta
+    @Modifying
+    @Query("DELETE FROM ConteoPregunta c WHERE c.idPregunta IN " +
+            "(SELECT p.idPregunta FROM Pregunta p WHERE p.encuesta.idEncuesta = :idEncuesta)")
+    int eliminarPorEncuesta(@Param("idEncuesta") Long idEncuesta);
+}
@@ -1,7 +1,19 @@
 package com.pruebas.pruebas.repository;
 
+import com.pruebas.pruebas.dto.EncuestaResumenDTO;
 import com.pruebas.pruebas.entity.Encuesta;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Repositorio JPA para la entidad {@link Encuesta}.
@@ -24,5 +36,80 @@ import org.springframework.data.jpa.repository.JpaRepository;
  * </p>
  */
 public interface EncuestaRepository extends JpaRepository<Encuesta, Long> {
-    // Consultas personalizadas adicionales se pueden agregar aquí
+
+    /**
+     * Resumen de encuestas en una sola consulta: cuenta las preguntas y suma sus contadores de
+     * respuestas ({@code conteo_pregunta}) sin inicializar ninguna colección.
+     */
+    String SELECT_RESUMEN = "SELECT new com.pruebas.pruebas.dto.EncuestaResumenDTO(" +
+            "e.idEncuesta, e.titulo, e.estado, e.fechaCreacion, COUNT(p), COALESCE(SUM(c.total), 0L)) " +
+            "FROM Encuesta e " +
+            "LEFT JOIN Pregunta p ON p.encuesta = e " +
+            "LEFT JOIN ConteoPregunta c ON c.idPregunta = p.idPregunta ";
+
+    String GROUP_BY_RESUMEN = " GROUP BY e.idEncuesta, e.titulo, e.estado, e.fechaCreacion";
+
+    // Obtener únicamente los identificadores de todas las encuestas
+    @Query("SELECT e.idEncuesta FROM Encuesta e ORDER BY e.idEncuesta")
+    List<Long> findAllIds();
+
+    // Listado paginado por desplazamiento filtrado por estado
+    Page<Encuesta> findByEstado(String estado, Pageable pageable);
+
+    // Listados paginados por cursor (keyset sobre el ID); el Pageable solo aporta el límite
+    List<Encuesta> findByIdEncuestaGreaterThanOrderByIdEncuesta(Long despuesDe, Pageable limite);
+
+    List<Encuesta> findByEstadoAndIdEncuestaGreaterThanOrderByIdEncuesta(String estado, Long despuesDe, Pageable limite);
+
+    // Resúmenes paginados por desplazamiento
+    @Query(value = SELECT_RESUMEN + GROUP_BY_RESUMEN,
+            countQuery = "SELECT COUNT(e) FROM Encuesta e")
+    Page<EncuestaResumenDTO> listarResumen(Pageable pageable);
+
+    @Query(value = SELECT_RESUMEN + "WHERE e.estado = :estado" + GROUP_BY_RESUMEN,
+            countQuery = "SELECT COUNT(e) FROM Encuesta e WHERE e.estado = :estado")
+    Page<EncuestaResumenDTO> listarResumenPorEstado(@Param("estado") String estado, Pageable pageable);
+
+    // Resúmenes paginados por cursor (keyset sobre el ID); el Pageable solo aporta el límite
+    @Query(SELECT_RESUMEN + "WHERE e.idEncuesta > :despuesDe" + GROUP_BY_RESUMEN + " ORDER BY e.idEncuesta")
+    List<EncuestaResumenDTO> listarResumenDesdeId(@Param("despuesDe") Long despuesDe, Pageable limite);
+
+    @Query(SELECT_RESUMEN + "WHERE e.estado = :estado AND e.idEncuesta > :despuesDe" + GROUP_BY_RESUMEN +
+            " ORDER BY e.idEncuesta")
+    List<EncuestaResumenDTO> listarResumenPorEstadoDesdeId(@Param("estado") String estado,
+                                                          @Param("despuesDe") Long despuesDe, Pageable limite);
+
+    /**
+     * Carga una encuesta con sus preguntas (ordenadas) en una sola consulta,
+     * según el plan {@link Encuesta#GRAFO_CON_PREGUNTAS}.
+     */
+    @EntityGraph(Encuesta.GRAFO_CON_PREGUNTAS)
+    @Query("SELECT e FROM Encuesta e WHERE e.idEncuesta = :idEncuesta")
+    Optional<Encuesta> findConPreguntasById(@Param("idEncuesta") Long idEncuesta);
+
+    /**
+     * Elimina una encuesta con una sola sentencia, sin cargarla.
+     * <p>
+     * Sus preguntas y respuestas las borra PostgreSQL por las claves foráneas
+     * {@code ON DELETE CASCADE}; los contadores se eliminan aparte.
+     * </p>
+     *
+     * @param idEncuesta identificador de la encuesta.
+     * @return número de encuestas eliminadas (0 o 1).
+     */
+    @Modifying
+    @Query("DELETE FROM Encuesta e WHERE e.idEncuesta = :idEncuesta")
+    int eliminarPorId(@Param("idEncuesta") Long idEncuesta);
+
+    /**
+     * Carga una encuesta bloqueando su fila hasta el final de la transacción.
+     * <p>
+     * Serializa las altas, movimientos y reordenaciones de preguntas de una misma encuesta, que
+     * calculan la clave de orden a partir de las claves vecinas. Registrar respuestas no toca la
+     * fila de la encuesta, así que no espera por este bloqueo.
+     * </p>
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Encuesta e WHERE e.idEncuesta = :idEncuesta")
+    Optional<Encuesta> bloquearPorId(@Param("idEncuesta") Long idEncuesta);
 }
@@ -0,0 +1,83 @@
+package com.pruebas.pruebas.repository;
+
+import com.pruebas.pruebas.dto.RespuestaExportadaDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.function.Consumer;
+
+/**
+ * Lecturas masivas para exportación, hechas con JDBC en lugar de JPA.
+ * <p>
+ * Las filas se leen con un cursor del servidor: PostgreSQL solo lo usa si la conexión no está en
+ * autocommit y la sentencia tiene {@code fetchSize}, por eso cada recorrido se ejecuta en su propia
+ * transacción de solo lectura. Cada fila se entrega al consumidor en cuanto se lee, sin pasar por
+ * el contexto de persistencia ni por una lista intermedia.
+ * </p>
+ *
+ * <h3>Configuración:</h3>
+ * <ul>
+ *   <li>{@code exportacion.fetch-size}: filas que trae el driver en cada viaje a la base de datos.</li>
+ * </ul>
+ */
+@Repository
+public class ExportacionRepository {
+
+    private static final String SQL_RESPUESTAS_ENCUESTA = """
+            SELECT r.id_respuesta, r.id_pregunta, p.texto_pregunta, p.tipo, r.respuesta, r.fecha_respuesta
+            FROM respuesta r
+            JOIN pregunta p ON p.id_pregunta = r.id_pregunta
+            WHERE p.id_encuesta = ?
+            ORDER BY r.id_respuesta
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaccionLectura;
+    private final int fetchSize;
+
+    public ExportacionRepository(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${exportacion.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaccionLectura = new TransactionTemplate(transactionManager);
+        this.transaccionLectura.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Recorre todas las respuestas de una encuesta, en orden de registro, junto con el texto
+     * y el tipo de su pregunta.
+     *
+     * @param idEncuesta identificador de la encuesta.
+     * @param consumidor recibe cada fila en cuanto se lee; si lanza una excepción el recorrido se aborta.
+     * @return número de filas entregadas.
+     */
+    public long recorrerRespuestasDeEncuesta(Long idEncuesta, Consumer<RespuestaExportadaDTO> consumidor) {
+        Long filas = transaccionLectura.execute(estado -> {
+            long[] contador = {0};
+            RowCallbackHandler porFila = rs -> {
+                Timestamp fecha = rs.getTimestamp(6);
+                consumidor.accept(new RespuestaExportadaDTO(
+                        rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getString(4), rs.getString(5),
+                        fecha != null ? fecha.toInstant() : null));
+                contador[0]++;
+            };
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(SQL_RESPUESTAS_ENCUESTA,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(fetchSize);
+                ps.setLong(1, idEncuesta);
+                return ps;
+            }, porFila);
+            return contador[0];
+        });
+        return filas != null ? filas : 0L;
+    }
+}
@@ -1,12 +1,18 @@
 package com.pruebas.pruebas.repository;
 
+import com.pruebas.pruebas.dto.PreguntaDTO;
+import com.pruebas.pruebas.dto.PreguntaMetadataDTO;
 import com.pruebas.pruebas.entity.Pregunta;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repositorio JPA para la entidad {@link Pregunta}.
@@ -18,27 +24,62 @@ import java.util.List;
  */
 public interface PreguntaRepository extends JpaRepository<Pregunta, Long> {
 
+    /** Proyección común de los listados: construye el DTO sin cargar encuesta ni respuestas. */
+    String SELECT_DTO = "SELECT new com.pruebas.pruebas.dto.PreguntaDTO(" +
+            "p.idPregunta, p.encuesta.idEncuesta, p.textoPregunta, p.tipo, p.opciones, p.orden) FROM Pregunta p ";
+
     /**
-     * Incrementa el valor del campo {@code orden} de todas las preguntas
-     * pertenecientes a una encuesta específica, comenzando desde una posición dada.
+     * Obtiene el identificador y la clave de orden de cada pregunta de una encuesta.
      * <p>
-     * Este método es útil para insertar una nueva pregunta en una posición
-     * intermedia dentro del cuestionario sin sobrescribir el orden existente.
+     * Se usa para calcular la clave de una pregunta que se inserta o se mueve a una posición
+     * intermedia (ver {@link com.pruebas.pruebas.util.OrdenUtil}); solo lee dos columnas por el
+     * índice (id_encuesta, orden).
      * </p>
      *
-     * @param orden      posición desde la cual se incrementará el orden.
-     * @param idEncuesta identificador de la encuesta a modificar.
+     * @param idEncuesta identificador de la encuesta.
+     * @return filas {@code [idPregunta (Long), orden (Integer)]} por orden ascendente.
+     */
+    @Query("SELECT p.idPregunta, p.orden FROM Pregunta p WHERE p.encuesta.idEncuesta = :idEncuesta " +
+            "ORDER BY p.orden, p.idPregunta")
+    List<Object[]> findOrdenesByEncuesta(@Param("idEncuesta") Long idEncuesta);
+
+    /**
+     * Reparte de nuevo las claves de orden de una encuesta cada {@code OrdenUtil.SEPARACION},
+     * conservando el orden actual. Solo se invoca cuando no queda hueco entre dos claves vecinas.
+     *
+     * @param idEncuesta identificador de la encuesta.
+     * @return número de preguntas actualizadas.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE pregunta p SET orden = o.posicion * 1024
+            FROM (SELECT id_pregunta, row_number() OVER (ORDER BY orden, id_pregunta) AS posicion
+                  FROM pregunta WHERE id_encuesta = :idEncuesta) o
+            WHERE p.id_pregunta = o.id_pregunta
+            """, nativeQuery = true)
+    int reequilibrarOrden(@Param("idEncuesta") Long idEncuesta);
+
+    /**
+     * Aplica un orden completo en una sola sentencia: la pregunta en la posición {@code i}
+     * (desde 1) de {@code ids} recibe la clave {@code i * OrdenUtil.SEPARACION}.
+     *
+     * @param idEncuesta identificador de la encuesta.
+     * @param ids        identificadores de sus preguntas en el orden deseado.
+     * @return número de preguntas actualizadas.
      */
     @Modifying
-    @Query("UPDATE Pregunta p SET p.orden = p.orden + 1 WHERE p.encuesta.idEncuesta = :idEncuesta AND p.orden >= :orden")
-    void incrementarOrdenDesde(@Param("orden") Integer orden, @Param("idEncuesta") Long idEncuesta);
+    @Query(value = """
+            UPDATE pregunta p SET orden = o.posicion * 1024
+            FROM unnest(CAST(:ids AS bigint[])) WITH ORDINALITY AS o(id_pregunta, posicion)
+            WHERE p.id_pregunta = o.id_pregunta AND p.id_encuesta = :idEncuesta
+            """, nativeQuery = true)
+    int aplicarOrden(@Param("idEncuesta") Long idEncuesta, @Param("ids") Long[] ids);
 
     /**
      * Obtiene el valor máximo del campo {@code orden} para las preguntas
      * pertenecientes a una encuesta determinada.
      * <p>
-     * Se utiliza principalmente para calcular el próximo orden disponible
-     * al agregar una nueva pregunta.
+     * Se utiliza para calcular la clave de una pregunta que se agrega al final.
      * </p>
      *
      * @param idEncuesta identificador de la encuesta.
@@ -49,4 +90,48 @@ public interface PreguntaRepository extends JpaRepository<Pregunta, Long> {
 
     // NUEVO: Obtener preguntas por encuesta
     List<Pregunta> findByEncuestaIdEncuesta(Long idEncuesta);
+
+    // Obtener la encuesta de una pregunta sin cargar la entidad (vacío si la pregunta no existe)
+    @Query("SELECT p.encuesta.idEncuesta FROM Pregunta p WHERE p.idPregunta = :idPregunta")
+    Optional<Long> findIdEncuestaByIdPregunta(@Param("idPregunta") Long idPregunta);
+
+    // Listados paginados por desplazamiento
+    @Query(value = SELECT_DTO, countQuery = "SELECT COUNT(p) FROM Pregunta p")
+    Page<PreguntaDTO> listar(Pageable pageable);
+
+    @Query(value = SELECT_DTO + "WHERE p.encuesta.idEncuesta = :idEncuesta",
+            countQuery = "SELECT COUNT(p) FROM Pregunta p WHERE p.encuesta.idEncuesta = :idEncuesta")
+    Page<PreguntaDTO> listarPorEncuesta(@Param("idEncuesta") Long idEncuesta, Pageable pageable);
+
+    // Listados paginados por cursor (keyset sobre el ID); el Pageable solo aporta el límite
+    @Query(SELECT_DTO + "WHERE p.idPregunta > :despuesDe ORDER BY p.idPregunta")
+    List<PreguntaDTO> listarDesdeId(@Param("despuesDe") Long despuesDe, Pageable limite);
+
+    @Query(SELECT_DTO + "WHERE p.encuesta.idEncuesta = :idEncuesta AND p.idPregunta > :despuesDe ORDER BY p.idPregunta")
+    List<PreguntaDTO> listarPorEncuestaDesdeId(@Param("idEncuesta") Long idEncuesta,
+                                               @Param("despuesDe") Long despuesDe, Pageable limite);
+
+    /**
+     * Carga las preguntas de una encuesta con sus respuestas en una sola consulta, según el plan
+     * {@link Pregunta#GRAFO_CON_RESPUESTAS}. Si las preguntas ya están en el contexto de
+     * persistencia, sus colecciones de respuestas quedan inicializadas.
+     */
+    @EntityGraph(Pregunta.GRAFO_CON_RESPUESTAS)
+    @Query("SELECT p FROM Pregunta p WHERE p.encuesta.idEncuesta = :idEncuesta")
+    List<Pregunta> findConRespuestasByEncuesta(@Param("idEncuesta") Long idEncuesta);
+
+    /** Carga una pregunta con sus respuestas en una sola consulta. */
+    @EntityGraph(Pregunta.GRAFO_CON_RESPUESTAS)
+    @Query("SELECT p FROM Pregunta p WHERE p.idPregunta = :idPregunta")
+    Optional<Pregunta> findConRespuestasById(@Param("idPregunta") Long idPregunta);
+
+    // Metadatos de validación de una pregunta, sin cargar la entidad (vacío si no existe)
+    @Query("SELECT new com.pruebas.pruebas.dto.PreguntaMetadataDTO(p.idPregunta, p.encuesta.idEncuesta, p.tipo, p.opciones) " +
+            "FROM Pregunta p WHERE p.idPregunta = :idPregunta")
+    Optional<PreguntaMetadataDTO> findMetadataById(@Param("idPregunta") Long idPregunta);
+
+    // Eliminar una pregunta sin cargarla; sus respuestas se borran por ON DELETE CASCADE
+    @Modifying
+    @Query("DELETE FROM Pregunta p WHERE p.idPregunta = :idPregunta")
+    int eliminarPorId(@Param("idPregunta") Long idPregunta);
 }
@@ -1,9 +1,18 @@
 package com.pruebas.pruebas.repository;
 
+import com.pruebas.pruebas.dto.RespuestaDTO;
 import com.pruebas.pruebas.entity.Respuesta;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repositorio JPA para la entidad {@link Respuesta}.
@@ -26,12 +35,305 @@ import java.util.List;
  * respuestas según criterios personalizados (por ejemplo, por pregunta o fecha).
  * </p>
  */
-public interface RespuestaRepository extends JpaRepository<Respuesta, Long> {
+public interface RespuestaRepository extends JpaRepository<Respuesta, Long>, RespuestaRepositoryCustom {
+
+    /** Proyección común de los listados: construye el DTO directamente, sin cargar la pregunta. */
+    String SELECT_DTO = "SELECT new com.pruebas.pruebas.dto.RespuestaDTO(" +
+            "r.idRespuesta, r.pregunta.idPregunta, r.respuesta, r.fechaRespuesta) FROM Respuesta r ";
+
     // Contar respuestas por pregunta
     long countByPreguntaIdPregunta(Long idPregunta);
 
     // Obtener respuestas por pregunta
     List<Respuesta> findByPreguntaIdPregunta(Long idPregunta);
 
-    // Consultas personalizadas adicionales se pueden definir aquí
+    /**
+     * Busca una respuesta junto con su pregunta, en una sola consulta, para modificarla.
+     *
+     * @param idRespuesta identificador de la respuesta.
+     * @return la respuesta con su pregunta inicializada, si existe.
+     */
+    @Query("SELECT r FROM Respuesta r JOIN FETCH r.pregunta WHERE r.idRespuesta = :idRespuesta")
+    Optional<Respuesta> findConPreguntaById(@Param("idRespuesta") Long idRespuesta);
+
+    /**
+     * Cuenta las respuestas de cada pregunta de una encuesta en una sola consulta agrupada.
+     *
+     * @param idEncuesta identificador de la encuesta.
+     * @return filas {@code [idPregunta (Long), total (Long), última respuesta (Date)]}; las preguntas
+     *         sin respuestas no aparecen.
+     */
+    @Query("SELECT r.pregunta.idPregunta, COUNT(r), MAX(r.fechaRespuesta) FROM Respuesta r " +
+            "WHERE r.pregunta.encuesta.idEncuesta = :idEncuesta GROUP BY r.pregunta.idPregunta")
+    List<Object[]> contarPorPreguntaDeEncuesta(@Param("idEncuesta") Long idEncuesta);
+
+    /**
+     * Cuenta, por pregunta y por valor, las respuestas de las preguntas cerradas de una encuesta.
+     * <p>
+     * Las respuestas de tipo {@code seleccion_multiple}/{@code checkbox} se separan por comas
+     * en la propia base de datos, replicando {@code String.split(",")} + {@code trim()}:
+     * las comas finales se descartan y cada elemento se recorta. Las preguntas {@code abierta}
+     * se excluyen porque sus estadísticas son los textos, no frecuencias.
+     * </p>
+     *
+     * @param idEncuesta identificador de la encuesta.
+     * @return filas {@code [idPregunta (Long), valor (String), cantidad (Long)]}.
+     */
+    @Query(value = """
+            SELECT r.id_pregunta, v.valor, COUNT(*)
+            FROM respuesta r
+            JOIN pregunta p ON p.id_pregunta = r.id_pregunta
+            CROSS JOIN LATERAL (
+                SELECT lower(p.tipo) IN ('seleccion_multiple', 'checkbox') AS multiple
+            ) t
+            CROSS JOIN LATERAL unnest(
+                CASE WHEN t.multiple THEN string_to_array(rtrim(r.respuesta, ','), ',')
+                     ELSE ARRAY[r.respuesta] END
+            ) AS s(elemento)
+            CROSS JOIN LATERAL (
+                SELECT CASE WHEN t.multiple THEN btrim(s.elemento, E' \t\r\n')
+                            ELSE s.elemento END AS valor
+            ) v
+            WHERE p.id_encuesta = :idEncuesta
+              AND lower(p.tipo) <> 'abierta'
+            GROUP BY r.id_pregunta, v.valor
+            """, nativeQuery = true)
+    List<Object[]> contarValoresPorEncuesta(@Param("idEncuesta") Long idEncuesta);
+
+    /**
+     * Obtiene las últimas respuestas de cada pregunta abierta de una encuesta, sin cargar entidades
+     * {@link Respuesta}.
+     * <p>
+     * "Últimas" es por fecha de respuesta, con el ID solo como desempate: con la ingesta diferida o
+     * una importación el orden de los IDs no es el de llegada. Cada pregunta lee como máximo
+     * {@code limite} filas recorriendo hacia atrás el índice {@code (id_pregunta, fecha_respuesta)}
+     * (con un orden incremental para el desempate), así que el coste no depende de cuántas
+     * respuestas tenga.
+     * </p>
+     *
+     * @param idEncuesta identificador de la encuesta.
+     * @param limite     respuestas como máximo por pregunta.
+     * @return filas {@code [idPregunta, idRespuesta, respuesta, fechaRespuesta]}, de la más reciente
+     *         a la más antigua.
+     */
+    @Query(value = """
+            SELECT p.id_pregunta, m.id_respuesta, m.respuesta, m.fecha_respuesta
+            FROM pregunta p
+            CROSS JOIN LATERAL (
+                SELECT r.id_respuesta, r.respuesta, r.fecha_respuesta
+                FROM respuesta r
+                WHERE r.id_pregunta = p.id_pregunta
+                ORDER BY r.fecha_respuesta DESC, r.id_respuesta DESC
+                LIMIT :limite
+            ) m
+            WHERE p.id_encuesta = :idEncuesta
+              AND lower(p.tipo) = 'abierta'
+            ORDER BY p.id_pregunta, m.fecha_respuesta DESC, m.id_respuesta DESC
+            """, nativeQuery = true)
+    List<Object[]> findMuestraAbiertasPorEncuesta(@Param("idEncuesta") Long idEncuesta, @Param("limite") int limite);
+
+    /**
+     * Respuestas más recientes de una pregunta, de la más reciente a la más antigua
+     * (primera página de {@link #listarPorPreguntaAntesDeFecha}).
+     */
+    @Query(SELECT_DTO + "WHERE r.pregunta.idPregunta = :idPregunta " +
+            "ORDER BY r.fechaRespuesta DESC, r.idRespuesta DESC")
+    List<RespuestaDTO> listarRecientesPorPregunta(@Param("idPregunta") Long idPregunta, Pageable limite);
+
+    /**
+     * Respuestas de una pregunta anteriores a {@code (fecha, antesDe)}, de la más reciente a la más
+     * antigua (continuación de la muestra de {@link #findMuestraAbiertasPorEncuesta}).
+     */
+    @Query(SELECT_DTO + "WHERE r.pregunta.idPregunta = :idPregunta " +
+            "AND (r.fechaRespuesta, r.idRespuesta) < (:fecha, :antesDe) " +
+            "ORDER BY r.fechaRespuesta DESC, r.idRespuesta DESC")
+    List<RespuestaDTO> listarPorPreguntaAntesDeFecha(@Param("idPregunta") Long idPregunta, @Param("fecha") Date fecha,
+                                                     @Param("antesDe") long antesDe, Pageable limite);
+
+    // ──────────────────────────── Actividad por intervalos de tiempo ────────────────────────────
+    // Se agrupa en la base de datos con date_trunc sobre el índice (id_pregunta, fecha_respuesta), que
+    // cubre la consulta; generate_series completa con 0 los intervalos sin respuestas.
+
+    /**
+     * Cuenta las respuestas de una encuesta por intervalo de tiempo.
+     *
+     * @param idEncuesta identificador de la encuesta.
+     * @param unidad     unidad de {@code date_trunc}: {@code minute}, {@code hour} o {@code day}.
+     * @param paso       duración de un intervalo como literal de {@code interval}.
+     * @param desde      inicio del rango (incluido).
+     * @param hasta      fin del rango (excluido).
+     * @return filas {@code [inicio del intervalo (Timestamp), cantidad (Number)]} en orden cronológico.
+     */
+    @Query(value = """
+            WITH conteos AS (
+                SELECT date_trunc(:unidad, r.fecha_respuesta) AS inicio, count(*) AS cantidad
+                FROM respuesta r
+                WHERE r.id_pregunta IN (SELECT p.id_pregunta FROM pregunta p WHERE p.id_encuesta = :idEncuesta)
+                  AND r.fecha_respuesta >= :desde AND r.fecha_respuesta < :hasta
+                GROUP BY 1
+            )
+            SELECT s.inicio, coalesce(c.cantidad, 0)
+            FROM generate_series(date_trunc(:unidad, CAST(:desde AS timestamp)),
+                                 CAST(:hasta AS timestamp) - interval '1 microsecond',
+                                 CAST(:paso AS interval)) AS s(inicio)
+            LEFT JOIN conteos c ON c.inicio = s.inicio
+            ORDER BY s.inicio
+            """, nativeQuery = true)
+    List<Object[]> contarActividadPorEncuesta(@Param("idEncuesta") Long idEncuesta, @Param("unidad") String unidad,
+                                              @Param("paso") String paso, @Param("desde") LocalDateTime desde,
+                                              @Param("hasta") LocalDateTime hasta);
+
+    /**
+     * Cuenta las respuestas de una pregunta por intervalo de tiempo.
+     *
+     * @see #contarActividadPorEncuesta(Long, String, String, LocalDateTime, LocalDateTime)
+     */
+    @Query(value = """
+            WITH conteos AS (
+                SELECT date_trunc(:unidad, r.fecha_respuesta) AS inicio, count(*) AS cantidad
+                FROM respuesta r
+                WHERE r.id_pregunta = :idPregunta
+                  AND r.fecha_respuesta >= :desde AND r.fecha_respuesta < :hasta
+                GROUP BY 1
+            )
+            SELECT s.inicio, coalesce(c.cantidad, 0)
+            FROM generate_series(date_trunc(:unidad, CAST(:desde AS timestamp)),
+                                 CAST(:hasta AS timestamp) - interval '1 microsecond',
+                                 CAST(:paso AS interval)) AS s(inicio)
+            LEFT JOIN conteos c ON c.inicio = s.inicio
+            ORDER BY s.inicio
+            """, nativeQuery = true)
+    List<Object[]> contarActividadPorPregunta(@Param("idPregunta") Long idPregunta, @Param("unidad") String unidad,
+                                              @Param("paso") String paso, @Param("desde") LocalDateTime desde,
+                                              @Param("hasta") LocalDateTime hasta);
+
+    // ──────────────────────────── Panel de todas las encuestas ────────────────────────────
+    // Una sola consulta agrupada para cualquier número de encuestas. Cada pregunta aporta a lo sumo una
+    // fila de cada fuente, así que los LEFT JOIN no multiplican filas: el total y la última respuesta
+    // salen de conteo_pregunta y la ventana solo lee las particiones de respuesta que cubren [desde, hasta).
+
+    /**
+     * Cifras de cabecera de las encuestas, opcionalmente filtradas por estado.
+     *
+     * @param estado estado de las encuestas, o {@code null} para todas.
+     * @param desde  inicio de la ventana reciente (incluido).
+     * @param hasta  fin de la ventana reciente (excluido).
+     * @return filas {@code [id_encuesta, titulo, estado, preguntas (Number), total de respuestas (Number),
+     *         última respuesta (Timestamp o null), respuestas en la ventana (Number)]} ordenadas por encuesta.
+     */
+    @Query(value = """
+            WITH ventana AS (
+                SELECT r.id_pregunta, count(*) AS cantidad
+                FROM respuesta r
+                WHERE r.fecha_respuesta >= :desde AND r.fecha_respuesta < :hasta
+                GROUP BY r.id_pregunta
+            )
+            SELECT e.id_encuesta, e.titulo, e.estado,
+                   count(p.id_pregunta),
+                   coalesce(sum(c.total), 0),
+                   max(c.ultima_respuesta),
+                   coalesce(sum(v.cantidad), 0)
+            FROM encuesta e
+            LEFT JOIN pregunta p ON p.id_encuesta = e.id_encuesta
+            LEFT JOIN conteo_pregunta c ON c.id_pregunta = p.id_pregunta
+            LEFT JOIN ventana v ON v.id_pregunta = p.id_pregunta
+            WHERE CAST(:estado AS varchar) IS NULL OR e.estado = CAST(:estado AS varchar)
+            GROUP BY e.id_encuesta, e.titulo, e.estado
+            ORDER BY e.id_encuesta
+            """, nativeQuery = true)
+    List<Object[]> resumirEncuestas(@Param("estado") String estado, @Param("desde") LocalDateTime desde,
+                                    @Param("hasta") LocalDateTime hasta);
+
+    // ──────────────────────────── Listados paginados por desplazamiento ────────────────────────────
+
+    @Query(value = SELECT_DTO,
+            countQuery = "SELECT COUNT(r) FROM Respuesta r")
+    Page<RespuestaDTO> listar(Pageable pageable);
+
+    @Query(value = SELECT_DTO + "WHERE r.pregunta.idPregunta = :idPregunta",
+            countQuery = "SELECT COUNT(r) FROM Respuesta r WHERE r.pregunta.idPregunta = :idPregunta")
+    Page<RespuestaDTO> listarPorPregunta(@Param("idPregunta") Long idPregunta, Pageable pageable);
+
+    @Query(value = SELECT_DTO + "WHERE r.pregunta.encuesta.idEncuesta = :idEncuesta",
+            countQuery = "SELECT COUNT(r) FROM Respuesta r WHERE r.pregunta.encuesta.idEncuesta = :idEncuesta")
+    Page<RespuestaDTO> listarPorEncuesta(@Param("idEncuesta") Long idEncuesta, Pageable pageable);
+
+    // ──────────────────────────── Listados paginados por cursor (keyset) ────────────────────────────
+    // El Pageable solo aporta el límite de filas; el orden lo fija la consulta para que coincida con la clave.
+
+    @Query(SELECT_DTO + "WHERE r.idRespuesta > :despuesDe ORDER BY r.idRespuesta")
+    List<RespuestaDTO> listarDesdeId(@Param("despuesDe") Long despuesDe, Pageable limite);
+
+    @Query(SELECT_DTO + "WHERE r.pregunta.idPregunta = :idPregunta AND r.idRespuesta > :despuesDe " +
+            "ORDER BY r.idRespuesta")
+    List<RespuestaDTO> listarPorPreguntaDesdeId(@Param("idPregunta") Long idPregunta,
+                                                @Param("despuesDe") Long despuesDe, Pageable limite);
+
+    @Query(SELECT_DTO + "WHERE r.pregunta.encuesta.idEncuesta = :idEncuesta AND r.idRespuesta > :despuesDe " +
+            "ORDER BY r.idRespuesta")
+    List<RespuestaDTO> listarPorEncuestaDesdeId(@Param("idEncuesta") Long idEncuesta,
+                                                @Param("despuesDe") Long despuesDe, Pageable limite);
+
+    @Query(SELECT_DTO + "WHERE (r.fechaRespuesta, r.idRespuesta) > (:fecha, :despuesDe) " +
+            "ORDER BY r.fechaRespuesta, r.idRespuesta")
+    List<RespuestaDTO> listarDesdeFecha(@Param("fecha") Date fecha,
+                                       @Param("despuesDe") Long despuesDe, Pageable limite);
+
+    @Query(SELECT_DTO + "WHERE r.pregunta.idPregunta = :idPregunta " +
+            "AND (r.fechaRespuesta, r.idRespuesta) > (:fecha, :despuesDe) " +
+            "ORDER BY r.fechaRespuesta, r.idRespuesta")
+    List<RespuestaDTO> listarPorPreguntaDesdeFecha(@Param("idPregunta") Long idPregunta, @Param("fecha") Date fecha,
+                                                   @Param("despuesDe") Long despuesDe, Pageable limite);
+
+    @Query(SELECT_DTO + "WHERE r.pregunta.encuesta.idEncuesta = :idEncuesta " +
+            "AND (r.fechaRespuesta, r.idRespuesta) > (:fecha, :despuesDe) " +
+            "ORDER BY r.fechaRespuesta, r.idRespuesta")
+    List<RespuestaDTO> listarPorEncuestaDesdeFecha(@Param("idEncuesta") Long idEncuesta, @Param("fecha") Date fecha,
+                                                   @Param("despuesDe") Long despuesDe, Pageable limite);
+
+    /**
+     * Cuenta las respuestas de las preguntas de una encuesta sin pasar de {@code limite}.
+     * <p>
+     * Sirve para comprobar si una encuesta supera un tamaño sin depender de los contadores: lee como
+     * máximo {@code limite} entradas del índice (id_pregunta, fecha_respuesta), tenga la encuesta
+     * las respuestas que tenga.
+     * </p>
+     *
+     * @param idEncuesta identificador de la encuesta.
+     * @param limite     respuestas como máximo que se cuentan.
+     * @return respuestas de la encuesta, o {@code limite} si tiene al menos esas.
+     */
+    @Query(value = """
+            SELECT count(*)
+            FROM (
+                SELECT 1
+                FROM respuesta r
+                WHERE r.id_pregunta IN (SELECT p.id_pregunta FROM pregunta p WHERE p.id_encuesta = :idEncuesta)
+                LIMIT :limite
+            ) t
+            """, nativeQuery = true)
+    long contarPorEncuestaHasta(@Param("idEncuesta") Long idEncuesta, @Param("limite") long limite);
+
+    /**
+     * Elimina como máximo {@code limite} respuestas de las preguntas de una encuesta.
+     * <p>
+     * Se invoca en transacciones sucesivas hasta que devuelve menos de {@code limite}, para borrar
+     * encuestas muy grandes sin una única transacción de millones de filas. Cada lote se localiza
+     * por el índice (id_pregunta, id_respuesta) y se borra por la clave primaria de la partición.
+     * </p>
+     *
+     * @param idEncuesta identificador de la encuesta.
+     * @param limite     respuestas como máximo en este lote.
+     * @return respuestas eliminadas.
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM respuesta
+            WHERE (id_respuesta, fecha_respuesta) IN (
+                SELECT r.id_respuesta, r.fecha_respuesta
+                FROM respuesta r
+                WHERE r.id_pregunta IN (SELECT p.id_pregunta FROM pregunta p WHERE p.id_encuesta = :idEncuesta)
+                LIMIT :limite)
+            """, nativeQuery = true)
+    int eliminarLotePorEncuesta(@Param("idEncuesta") Long idEncuesta, @Param("limite") int limite);
 }
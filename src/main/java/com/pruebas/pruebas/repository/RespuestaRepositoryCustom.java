@@ -0,0 +1,26 @@
+package com.pruebas.pruebas.repository;
+
+import com.pruebas.pruebas.entity.Respuesta;
+
+import java.util.List;
+
+/**
+ * Operaciones de {@link RespuestaRepository} implementadas fuera de Spring Data JPA.
+ *
+ * @see RespuestaRepositoryImpl
+ */
+public interface RespuestaRepositoryCustom {
+
+    /**
+     * Inserta un lote de respuestas mediante batches JDBC, en la transacción en curso.
+     * <p>
+     * Cada respuesta debe tener asignadas su {@link com.pruebas.pruebas.entity.Pregunta}
+     * y su fecha. Al terminar, las respuestas tienen su identificador asignado
+     * y ya no están gestionadas por el contexto de persistencia.
+     * </p>
+     *
+     * @param respuestas respuestas a insertar.
+     * @return número de filas insertadas.
+     */
+    int insertarLote(List<Respuesta> respuestas);
+}
@@ -0,0 +1,49 @@
+package com.pruebas.pruebas.repository;
+
+import com.pruebas.pruebas.entity.Respuesta;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.List;
+
+/**
+ * Implementación de {@link RespuestaRepositoryCustom} sobre el {@link EntityManager}.
+ * <p>
+ * Los identificadores se reservan por bloques de la secuencia, así que Hibernate agrupa
+ * las inserciones en batches JDBC de {@code hibernate.jdbc.batch_size} filas. Cada batch se
+ * envía y se separa del contexto de persistencia para que el consumo de memoria no crezca
+ * con el tamaño del lote.
+ * </p>
+ */
+public class RespuestaRepositoryImpl implements RespuestaRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final int tamanoBatch;
+
+    public RespuestaRepositoryImpl(@Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int tamanoBatch) {
+        this.tamanoBatch = tamanoBatch;
+    }
+
+    @Override
+    public int insertarLote(List<Respuesta> respuestas) {
+        int desde = 0;
+        for (int i = 0; i < respuestas.size(); i++) {
+            entityManager.persist(respuestas.get(i));
+            if ((i + 1) % tamanoBatch == 0) {
+                enviar(respuestas.subList(desde, i + 1));
+                desde = i + 1;
+            }
+        }
+        enviar(respuestas.subList(desde, respuestas.size()));
+        return respuestas.size();
+    }
+
+    private void enviar(List<Respuesta> batch) {
+        if (batch.isEmpty()) return;
+        entityManager.flush();
+        batch.forEach(entityManager::detach);
+    }
+}
@@ -0,0 +1,79 @@
+package com.pruebas.pruebas.resource;
+
+import com.pruebas.pruebas.config.LimiteConcurrenciaInterceptor;
+import com.pruebas.pruebas.config.MonitorHilosVirtuales;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Controlador REST con el estado de ejecución del servidor.
+ *
+ * <h3>Rutas base:</h3>
+ * <ul>
+ *   <li>GET → {@code /api/diagnostico/hilos}</li>
+ * </ul>
+ */
+@RestController
+@RequestMapping("/api/diagnostico")
+public class DiagnosticoResource {
+
+    private final boolean hilosVirtuales;
+    private final DataSource dataSource;
+    private final ObjectProvider<LimiteConcurrenciaInterceptor> limiteConcurrencia;
+    private final ObjectProvider<MonitorHilosVirtuales> monitorHilosVirtuales;
+
+    public DiagnosticoResource(@Value("${spring.threads.virtual.enabled:false}") boolean hilosVirtuales,
+                               DataSource dataSource,
+                               ObjectProvider<LimiteConcurrenciaInterceptor> limiteConcurrencia,
+                               ObjectProvider<MonitorHilosVirtuales> monitorHilosVirtuales) {
+        this.hilosVirtuales = hilosVirtuales;
+        this.dataSource = dataSource;
+        this.limiteConcurrencia = limiteConcurrencia;
+        this.monitorHilosVirtuales = monitorHilosVirtuales;
+    }
+
+    /**
+     * Modo de ejecución de las peticiones y uso del pool de conexiones.
+     * <p>
+     * En modo de hilos virtuales incluye además el límite de peticiones simultáneas y los
+     * episodios de hilos fijados a su portador detectados desde el arranque.
+     * </p>
+     *
+     * @return modo ({@code virtual} o {@code plataforma}), pool, límite y fijaciones.
+     */
+    @GetMapping("/hilos")
+    public ResponseEntity<Map<String, Object>> hilos() {
+        Map<String, Object> diagnostico = new HashMap<>();
+        diagnostico.put("modo", hilosVirtuales ? "virtual" : "plataforma");
+        diagnostico.put("pool_conexiones", poolConexiones());
+        limiteConcurrencia.ifAvailable(limite -> diagnostico.put("limite_peticiones", limite.estado()));
+        monitorHilosVirtuales.ifAvailable(monitor -> diagnostico.put("hilos_fijados", monitor.resumen()));
+        return ResponseEntity.ok(diagnostico);
+    }
+
+    private Map<String, Object> poolConexiones() {
+        Map<String, Object> pool = new HashMap<>();
+        if (dataSource instanceof HikariDataSource hikari) {
+            pool.put("maximo", hikari.getMaximumPoolSize());
+            pool.put("espera_maxima_ms", hikari.getConnectionTimeout());
+            HikariPoolMXBean estado = hikari.getHikariPoolMXBean();
+            if (estado != null) {
+                pool.put("activas", estado.getActiveConnections());
+                pool.put("libres", estado.getIdleConnections());
+                pool.put("en_espera", estado.getThreadsAwaitingConnection());
+                pool.put("total", estado.getTotalConnections());
+            }
+        }
+        return pool;
+    }
+}
@@ -1,11 +1,19 @@
 package com.pruebas.pruebas.resource;
 
 import com.pruebas.pruebas.dto.EncuestaDTO;
+import com.pruebas.pruebas.dto.EncuestaResumenDTO;
+import com.pruebas.pruebas.service.EliminacionEncuestaService;
 import com.pruebas.pruebas.service.EncuestaService;
+import com.pruebas.pruebas.util.PaginacionUtil;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.util.List;
+import java.net.URI;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * Controlador REST que gestiona los endpoints relacionados con {@link EncuestaDTO}.
@@ -20,6 +28,7 @@ import java.util.List;
  *   <li>POST   → {@code /api/encuestas}</li>
  *   <li>PUT    → {@code /api/encuestas/{id}}</li>
  *   <li>DELETE → {@code /api/encuestas/{id}}</li>
+ *   <li>GET    → {@code /api/encuestas/eliminaciones/{idTarea}}</li>
  * </ul>
  */
 @RestController
@@ -27,30 +36,61 @@ import java.util.List;
 public class EncuestaResource {
 
     private final EncuestaService encuestaService;
+    private final EliminacionEncuestaService eliminacionEncuestaService;
 
-    public EncuestaResource(EncuestaService encuestaService) {
+    public EncuestaResource(EncuestaService encuestaService, EliminacionEncuestaService eliminacionEncuestaService) {
         this.encuestaService = encuestaService;
+        this.eliminacionEncuestaService = eliminacionEncuestaService;
     }
 
     /**
-     * Obtiene todas las encuestas registradas.
+     * Lista encuestas paginadas, opcionalmente filtradas por estado.
+     * <p>
+     * Por defecto devuelve {@link EncuestaResumenDTO} (datos básicos, número de preguntas y de
+     * respuestas), calculados en una consulta. Con {@code detalle=completo} devuelve el árbol
+     * completo de {@link EncuestaDTO} con preguntas y respuestas.
+     * </p>
+     * <p>
+     * Sin {@code cursor} se pagina por desplazamiento ({@code page}, {@code size}, {@code sort});
+     * con {@code cursor} (vacío para la primera página) se pagina por ID y el cursor siguiente
+     * se devuelve en la cabecera {@code X-Siguiente-Cursor}.
+     * </p>
      *
-     * @return lista de encuestas en formato {@link EncuestaDTO}.
+     * @param estado   filtro opcional por estado.
+     * @param detalle  {@code resumen} (por defecto) o {@code completo}.
+     * @param cursor   cursor de paginación por clave.
+     * @param pageable página y tamaño.
+     * @return lista de encuestas de la página solicitada.
      */
     @GetMapping
-    public List<EncuestaDTO> getAll() {
-        return encuestaService.getAll();
+    public ResponseEntity<?> getAll(
+            @RequestParam(required = false) String estado,
+            @RequestParam(defaultValue = "resumen") String detalle,
+            @RequestParam(required = false) String cursor,
+            Pageable pageable) {
+
+        boolean completo = "completo".equalsIgnoreCase(detalle);
+        if (cursor != null) {
+            return completo
+                    ? PaginacionUtil.respuesta(encuestaService.getPorCursor(estado, cursor, pageable.getPageSize()))
+                    : PaginacionUtil.respuesta(encuestaService.getResumenPorCursor(estado, cursor, pageable.getPageSize()));
+        }
+        return completo
+                ? PaginacionUtil.respuesta(encuestaService.getPagina(estado, pageable))
+                : PaginacionUtil.respuesta(encuestaService.getResumenPagina(estado, pageable));
     }
 
     /**
-     * Obtiene una encuesta por su identificador único.
+     * Obtiene una encuesta por su identificador único, con sus preguntas.
      *
-     * @param id identificador de la encuesta.
+     * @param id         identificador de la encuesta.
+     * @param respuestas si se incluyen también las respuestas de cada pregunta (por defecto no).
      * @return objeto {@link EncuestaDTO} si existe.
      */
     @GetMapping("/{id}")
-    public EncuestaDTO getById(@PathVariable Long id) {
-        return encuestaService.getById(id);
+    public EncuestaDTO getById(@PathVariable Long id,
+                               @RequestParam(defaultValue = "false") boolean respuestas) {
+        return encuestaService.getById(id, respuestas);
     }
 
     /**
@@ -78,12 +118,36 @@ public class EncuestaResource {
 
     /**
      * Elimina una encuesta por su identificador.
+     * <p>
+     * Las encuestas con más respuestas que {@code eliminacion.umbral-respuestas} se eliminan en
+     * segundo plano: se responde 202 con la tarea creada y su URL de progreso en {@code Location}.
+     * </p>
      *
      * @param id identificador de la encuesta a eliminar.
+     * @return 200 si se eliminó en la petición, o 202 con el estado de la tarea.
      */
     @DeleteMapping("/{id}")
-    public void delete(@PathVariable Long id) {
+    public ResponseEntity<?> delete(@PathVariable Long id) {
+        Optional<Map<String, Object>> tarea = eliminacionEncuestaService.programarSiEsGrande(id);
+        if (tarea.isPresent()) {
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/encuestas/eliminaciones/" + tarea.get().get("id_tarea")))
+                    .body(tarea.get());
+        }
         encuestaService.delete(id);
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * Progreso de una eliminación en segundo plano.
+     *
+     * @param idTarea identificador devuelto al pedir la eliminación.
+     * @return estado de la tarea, con las respuestas eliminadas y las totales.
+     */
+    @GetMapping("/eliminaciones/{idTarea}")
+    public Map<String, Object> getEliminacion(@PathVariable String idTarea) {
+        return eliminacionEncuestaService.estado(idTarea)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Tarea de eliminación no encontrada"));
     }
 
     /**
@@ -1,12 +1,23 @@
 // com.pruebas.pruebas.controller.EstadisticasController.java
 package com.pruebas.pruebas.resource;
 
+import com.pruebas.pruebas.dto.RespuestaDTO;
+import com.pruebas.pruebas.service.ConteoRespuestaService;
+import com.pruebas.pruebas.service.EstadisticasCache;
 import com.pruebas.pruebas.service.EstadisticasService;
+import com.pruebas.pruebas.service.ReporteService;
+import com.pruebas.pruebas.util.PaginacionUtil;
+import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -17,6 +28,15 @@ public class EstadisticasResource {
     @Autowired
     private EstadisticasService estadisticasService;
 
+    @Autowired
+    private ConteoRespuestaService conteoRespuestaService;
+
+    @Autowired
+    private EstadisticasCache estadisticasCache;
+
+    @Autowired
+    private ReporteService reporteService;
+
     @GetMapping("/encuesta/{encuestaId}")
     public ResponseEntity<?> obtenerEstadisticasEncuesta(@PathVariable Long encuestaId) {
         try {
@@ -39,4 +59,108 @@ public class EstadisticasResource {
                     .body(Map.of("error", "Encuesta no encontrada: " + e.getMessage()));
         }
     }
+
+    /**
+     * Reporte PDF con las estadísticas de la encuesta (gráfico y tabla por pregunta).
+     * Responde 503 si ya se están generando demasiados reportes a la vez.
+     */
+    @GetMapping("/encuesta/{encuestaId}/pdf")
+    public ResponseEntity<byte[]> obtenerReportePdf(@PathVariable Long encuestaId) {
+        byte[] pdf = reporteService.generarPdfEstadisticas(encuestaId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"estadisticas-encuesta-" + encuestaId + ".pdf\"")
+                .body(pdf);
+    }
+
+    /**
+     * Recalcula desde cero los contadores de respuestas de todas las encuestas
+     * (por ejemplo, tras una importación masiva o una desviación sospechada).
+     */
+    @PostMapping("/conteos/reconstruir")
+    public ResponseEntity<Map<String, Object>> reconstruirConteos() {
+        return ResponseEntity.ok(conteoRespuestaService.reconstruirTodas());
+    }
+
+    /**
+     * Recalcula desde cero los contadores de respuestas de una encuesta.
+     */
+    @PostMapping("/encuesta/{encuestaId}/conteos/reconstruir")
+    public ResponseEntity<Map<String, Object>> reconstruirConteosEncuesta(@PathVariable Long encuestaId) {
+        int contadores = conteoRespuestaService.reconstruir(encuestaId);
+        return ResponseEntity.ok(Map.of("encuesta_id", encuestaId, "contadores", contadores));
+    }
+
+    /**
+     * Respuestas de una encuesta por minuto, hora o día, para seguir el tráfico de una campaña.
+     *
+     * @param encuestaId identificador de la encuesta.
+     * @param desde      inicio del rango en ISO-8601 (incluido); por defecto, un día antes de {@code hasta}
+     *                   (30 días con {@code intervalo=dia}).
+     * @param hasta      fin del rango en ISO-8601 (excluido); por defecto, ahora.
+     * @param intervalo  {@code minuto}, {@code hora} (por defecto) o {@code dia}.
+     * @return serie con {@code labels} (inicio de cada intervalo) y {@code valores} (respuestas).
+     */
+    @GetMapping("/encuesta/{encuestaId}/actividad")
+    public ResponseEntity<Map<String, Object>> obtenerActividadEncuesta(
+            @PathVariable Long encuestaId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+            @RequestParam(defaultValue = "hora") String intervalo) {
+        return ResponseEntity.ok(estadisticasService.obtenerActividadEncuesta(encuestaId, desde, hasta, intervalo));
+    }
+
+    /**
+     * Respuestas de una pregunta por minuto, hora o día.
+     *
+     * @see #obtenerActividadEncuesta(Long, LocalDateTime, LocalDateTime, String)
+     */
+    @GetMapping("/pregunta/{idPregunta}/actividad")
+    public ResponseEntity<Map<String, Object>> obtenerActividadPregunta(
+            @PathVariable Long idPregunta,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+            @RequestParam(defaultValue = "hora") String intervalo) {
+        return ResponseEntity.ok(estadisticasService.obtenerActividadPregunta(idPregunta, desde, hasta, intervalo));
+    }
+
+    /**
+     * Panel de operaciones: respuestas totales, última respuesta y ritmo reciente de cada encuesta
+     * con un estado, en una sola petición.
+     *
+     * @param estado         estado de las encuestas; por defecto {@code ACTIVA}, {@code TODAS} para no filtrar.
+     * @param ventanaMinutos minutos de la ventana del ritmo reciente (1 a 1440); por defecto, el configurado.
+     * @return {@code encuestas} con las cifras de cada una y los totales del conjunto.
+     */
+    @GetMapping("/panel")
+    public ResponseEntity<Map<String, Object>> obtenerPanel(@RequestParam(defaultValue = "ACTIVA") String estado,
+                                                            @RequestParam(required = false) Integer ventanaMinutos) {
+        return ResponseEntity.ok(estadisticasService.obtenerPanel(estado, ventanaMinutos));
+    }
+
+    /**
+     * Recorre por cursor las respuestas de una pregunta abierta que no caben en la muestra de las
+     * estadísticas, de la más reciente a la más antigua. Responde 400 si la pregunta no es abierta.
+     *
+     * @param idPregunta identificador de la pregunta.
+     * @param cursor     {@code siguiente_cursor} de las estadísticas o la cabecera
+     *                   {@code X-Siguiente-Cursor} de la página anterior; vacío para empezar por la más reciente.
+     * @param pageable   tamaño de página.
+     * @return respuestas de la página; el cursor siguiente viaja en {@code X-Siguiente-Cursor}.
+     */
+    @GetMapping("/pregunta/{idPregunta}/abiertas")
+    public ResponseEntity<List<RespuestaDTO>> obtenerRespuestasAbiertas(@PathVariable Long idPregunta,
+                                                                        @RequestParam(required = false) String cursor,
+                                                                        Pageable pageable) {
+        return PaginacionUtil.respuesta(
+                estadisticasService.obtenerRespuestasAbiertas(idPregunta, cursor, pageable.getPageSize()));
+    }
+
+    /**
+     * Contadores de aciertos, fallos y expulsiones de la caché de estadísticas.
+     */
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, Object>> obtenerUsoCache() {
+        return ResponseEntity.ok(estadisticasCache.estadisticasUso());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.pruebas.pruebas.resource;
+
+import com.pruebas.pruebas.service.ExportacionService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Controlador REST para exportar las respuestas de una encuesta.
+ * <p>
+ * El cuerpo se genera en streaming mientras se lee la base de datos; no se construye
+ * en memoria ni tiene {@code Content-Length}.
+ * </p>
+ *
+ * <h3>Rutas base:</h3>
+ * <ul>
+ *   <li>GET → {@code /api/exportaciones/encuesta/{idEncuesta}/respuestas} (NDJSON)</li>
+ *   <li>GET → {@code /api/exportaciones/encuesta/{idEncuesta}/excel} (.xlsx)</li>
+ * </ul>
+ */
+@RestController
+@RequestMapping("/api/exportaciones")
+public class ExportacionResource {
+
+    /** Tipo de contenido de JSON delimitado por saltos de línea. */
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    /** Tipo de contenido de los libros de Excel ({@code .xlsx}). */
+    public static final MediaType XLSX =
+            MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+    private final ExportacionService exportacionService;
+
+    public ExportacionResource(ExportacionService exportacionService) {
+        this.exportacionService = exportacionService;
+    }
+
+    /**
+     * Exporta todas las respuestas de una encuesta como NDJSON, una por línea.
+     *
+     * @param idEncuesta identificador de la encuesta.
+     * @return flujo NDJSON, o 400 si la encuesta no existe.
+     */
+    @GetMapping("/encuesta/{idEncuesta}/respuestas")
+    public ResponseEntity<StreamingResponseBody> exportarNdjson(@PathVariable Long idEncuesta) {
+        exportacionService.verificarEncuesta(idEncuesta);
+        StreamingResponseBody cuerpo = salida -> exportacionService.exportarNdjson(idEncuesta, salida);
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"encuesta-" + idEncuesta + "-respuestas.ndjson\"")
+                .body(cuerpo);
+    }
+
+    /**
+     * Exporta una encuesta como libro de Excel: hoja de resumen por pregunta y una fila por respuesta.
+     *
+     * @param idEncuesta identificador de la encuesta.
+     * @return archivo {@code .xlsx}, o 400 si la encuesta no existe.
+     */
+    @GetMapping("/encuesta/{idEncuesta}/excel")
+    public ResponseEntity<StreamingResponseBody> exportarExcel(@PathVariable Long idEncuesta) {
+        exportacionService.verificarEncuesta(idEncuesta);
+        StreamingResponseBody cuerpo = salida -> exportacionService.exportarExcel(idEncuesta, salida);
+        return ResponseEntity.ok()
+                .contentType(XLSX)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"encuesta-" + idEncuesta + ".xlsx\"")
+                .body(cuerpo);
+    }
+}
@@ -2,7 +2,9 @@ package com.pruebas.pruebas.resource;
 
 import com.pruebas.pruebas.dto.PreguntaDTO;
 import com.pruebas.pruebas.service.PreguntaService;
+import com.pruebas.pruebas.util.PaginacionUtil;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -20,6 +22,7 @@ import java.util.List;
  *   <li>GET    → {@code /api/preguntas}</li>
  *   <li>GET    → {@code /api/preguntas/{id}}</li>
  *   <li>PUT    → {@code /api/preguntas/{id}}</li>
+ *   <li>PUT    → {@code /api/preguntas/orden?idEncuesta=}</li>
  *   <li>DELETE → {@code /api/preguntas/{id}}</li>
  * </ul>
  */
@@ -46,14 +49,28 @@ public class PreguntaResource {
     }
 
     /**
-     * Obtiene todas las preguntas disponibles.
+     * Lista preguntas paginadas, opcionalmente solo las de una encuesta.
+     * <p>
+     * Sin {@code cursor} se pagina por desplazamiento ({@code page}, {@code size}, {@code sort});
+     * con {@code cursor} (vacío para la primera página) se pagina por ID y el cursor siguiente
+     * se devuelve en la cabecera {@code X-Siguiente-Cursor}.
+     * </p>
      *
-     * @return lista de {@link PreguntaDTO}.
+     * @param idEncuesta filtro opcional por encuesta.
+     * @param cursor     cursor de paginación por clave.
+     * @param pageable   página y tamaño.
+     * @return lista de {@link PreguntaDTO} de la página solicitada.
      */
     @GetMapping
-    public ResponseEntity<List<PreguntaDTO>> getAll() {
-        List<PreguntaDTO> lista = preguntaService.getAll();
-        return ResponseEntity.ok(lista);
+    public ResponseEntity<List<PreguntaDTO>> getAll(
+            @RequestParam(required = false) Long idEncuesta,
+            @RequestParam(required = false) String cursor,
+            Pageable pageable) {
+
+        if (cursor != null) {
+            return PaginacionUtil.respuesta(preguntaService.getPorCursor(idEncuesta, cursor, pageable.getPageSize()));
+        }
+        return PaginacionUtil.respuesta(preguntaService.getPagina(idEncuesta, pageable));
     }
 
     /**
@@ -87,6 +104,19 @@ public class PreguntaResource {
         return ResponseEntity.notFound().build();
     }
 
+    /**
+     * Reordena todas las preguntas de una encuesta en una sola operación.
+     *
+     * @param idEncuesta encuesta cuyas preguntas se reordenan.
+     * @param ids        identificadores de todas sus preguntas, en el orden deseado.
+     * @return código 204 si se aplicó el orden.
+     */
+    @PutMapping("/orden")
+    public ResponseEntity<Void> reordenar(@RequestParam Long idEncuesta, @RequestBody List<Long> ids) {
+        preguntaService.reordenar(idEncuesta, ids);
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Elimina una pregunta por su ID.
      *
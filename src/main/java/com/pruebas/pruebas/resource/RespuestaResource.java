@@ -1,12 +1,18 @@
 package com.pruebas.pruebas.resource;
 
+import com.pruebas.pruebas.dto.EnvioEncuestaDTO;
 import com.pruebas.pruebas.dto.RespuestaDTO;
+import com.pruebas.pruebas.dto.ResultadoEnvioDTO;
+import com.pruebas.pruebas.service.IngestaRespuestasService;
 import com.pruebas.pruebas.service.RespuestaService;
+import com.pruebas.pruebas.util.PaginacionUtil;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controlador REST encargado de gestionar las operaciones relacionadas con {@link RespuestaDTO}.
@@ -18,7 +24,9 @@ import java.util.List;
  * <ul>
  *   <li>GET    → {@code /api/respuestas}</li>
  *   <li>GET    → {@code /api/respuestas/{id}}</li>
+ *   <li>GET    → {@code /api/respuestas/ingesta}</li>
  *   <li>POST   → {@code /api/respuestas/pregunta/{idPregunta}}</li>
+ *   <li>POST   → {@code /api/respuestas/encuesta/{idEncuesta}}</li>
  *   <li>PUT    → {@code /api/respuestas/{id}}</li>
  *   <li>DELETE → {@code /api/respuestas/{id}}</li>
  * </ul>
@@ -28,20 +36,42 @@ import java.util.List;
 public class RespuestaResource {
 
     private final RespuestaService respuestaService;
+    private final IngestaRespuestasService ingestaRespuestasService;
 
-    public RespuestaResource(RespuestaService respuestaService) {
+    public RespuestaResource(RespuestaService respuestaService, IngestaRespuestasService ingestaRespuestasService) {
         this.respuestaService = respuestaService;
+        this.ingestaRespuestasService = ingestaRespuestasService;
     }
 
     /**
-     * Obtiene todas las respuestas registradas.
+     * Lista respuestas paginadas, opcionalmente filtradas por pregunta o por encuesta.
+     * <p>
+     * Sin {@code cursor} se pagina por desplazamiento ({@code page}, {@code size}, {@code sort})
+     * y el total se devuelve en {@code X-Total-Count}. Con {@code cursor} (vacío para la primera
+     * página) se pagina por clave, ordenando por {@code orden = id|fecha}; el cursor de la página
+     * siguiente llega en {@code X-Siguiente-Cursor} y el coste no depende de la profundidad.
+     * </p>
      *
-     * @return lista de {@link RespuestaDTO}.
+     * @param idPregunta filtro opcional por pregunta.
+     * @param idEncuesta filtro opcional por encuesta.
+     * @param cursor     cursor de paginación por clave.
+     * @param orden      clave del cursor: {@code id} (por defecto) o {@code fecha}.
+     * @param pageable   página y tamaño (máximo configurado en {@code spring.data.web.pageable}).
+     * @return lista de {@link RespuestaDTO} de la página solicitada.
      */
     @GetMapping
-    public ResponseEntity<List<RespuestaDTO>> getAll() {
-        List<RespuestaDTO> respuestas = respuestaService.getAll();
-        return ResponseEntity.ok(respuestas);
+    public ResponseEntity<List<RespuestaDTO>> getAll(
+            @RequestParam(required = false) Long idPregunta,
+            @RequestParam(required = false) Long idEncuesta,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "id") String orden,
+            Pageable pageable) {
+
+        if (cursor != null) {
+            return PaginacionUtil.respuesta(
+                    respuestaService.getPorCursor(idPregunta, idEncuesta, cursor, orden, pageable.getPageSize()));
+        }
+        return PaginacionUtil.respuesta(respuestaService.getPagina(idPregunta, idEncuesta, pageable));
     }
 
     /**
@@ -58,20 +88,57 @@ public class RespuestaResource {
 
     /**
      * Crea una nueva respuesta asociada a una pregunta específica.
+     * <p>
+     * Con la ingesta diferida habilitada ({@code ingesta.diferida.habilitada}), la respuesta se valida,
+     * queda registrada localmente y se guarda después por lotes: se responde 202 (Accepted) sin
+     * identificador, o 503 si la cola de ingesta está llena.
+     * </p>
      *
      * @param idPregunta identificador de la pregunta a la que se asocia.
      * @param dto datos de la respuesta.
-     * @return respuesta creada con código 201 (Created).
+     * @return respuesta creada con código 201 (Created), o aceptada con 202 en modo diferido.
      */
     @PostMapping("/pregunta/{idPregunta}")
     public ResponseEntity<RespuestaDTO> create(
             @PathVariable Long idPregunta,
             @Valid @RequestBody RespuestaDTO dto) {
 
+        if (ingestaRespuestasService.isHabilitada()) {
+            return ResponseEntity.accepted().body(ingestaRespuestasService.aceptar(idPregunta, dto));
+        }
         RespuestaDTO nuevaRespuesta = respuestaService.create(idPregunta, dto);
         return ResponseEntity.status(201).body(nuevaRespuesta);
     }
 
+    /**
+     * Registra en una sola petición todas las respuestas de un encuestado a una encuesta.
+     * <p>
+     * Las respuestas válidas se guardan juntas y las inválidas se informan una a una.
+     * </p>
+     *
+     * @param idEncuesta identificador de la encuesta respondida.
+     * @param envio respuestas del encuestado.
+     * @return 201 (Created) si se guardó alguna respuesta, 400 si todas fueron rechazadas;
+     *         en ambos casos con el detalle de errores por respuesta.
+     */
+    @PostMapping("/encuesta/{idEncuesta}")
+    public ResponseEntity<ResultadoEnvioDTO> registrarEnvio(
+            @PathVariable Long idEncuesta,
+            @Valid @RequestBody EnvioEncuestaDTO envio) {
+
+        ResultadoEnvioDTO resultado = respuestaService.registrarEnvio(idEncuesta, envio);
+        int estado = resultado.getGuardadas() > 0 ? 201 : 400;
+        return ResponseEntity.status(estado).body(resultado);
+    }
+
+    /**
+     * Estado de la ingesta diferida: profundidad de la cola, retraso y tiempos de volcado.
+     */
+    @GetMapping("/ingesta")
+    public ResponseEntity<Map<String, Object>> estadoIngesta() {
+        return ResponseEntity.ok(ingestaRespuestasService.estado());
+    }
+
     /**
      * Actualiza una respuesta existente.
      *
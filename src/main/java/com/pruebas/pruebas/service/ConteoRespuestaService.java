@@ -0,0 +1,267 @@
+package com.pruebas.pruebas.service;
+
+import com.pruebas.pruebas.entity.ConteoOpcion;
+import com.pruebas.pruebas.entity.ConteoPregunta;
+import com.pruebas.pruebas.entity.Respuesta;
+import com.pruebas.pruebas.repository.ConteoOpcionRepository;
+import com.pruebas.pruebas.repository.ConteoPreguntaRepository;
+import com.pruebas.pruebas.repository.EncuestaRepository;
+import com.pruebas.pruebas.repository.RespuestaRepository;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Servicio que mantiene los contadores incrementales de respuestas
+ * ({@link ConteoOpcion} y {@link ConteoPregunta}).
+ * <p>
+ * Los métodos de registro deben invocarse dentro de la misma transacción que modifica
+ * la tabla <b>respuesta</b>, para que contadores y respuestas se confirmen o se reviertan juntos.
+ * </p>
+ *
+ * <h3>Reglas de conteo:</h3>
+ * <ul>
+ *   <li><b>abierta:</b> solo se cuenta el total de la pregunta.</li>
+ *   <li><b>seleccion_multiple / checkbox:</b> una unidad por cada opción separada por comas (recortada).</li>
+ *   <li><b>resto de tipos:</b> una unidad para el valor exacto de la respuesta.</li>
+ * </ul>
+ */
+@Service
+public class ConteoRespuestaService {
+
+    @Autowired
+    private ConteoOpcionRepository conteoOpcionRepository;
+
+    @Autowired
+    private ConteoPreguntaRepository conteoPreguntaRepository;
+
+    @Autowired
+    private RespuestaRepository respuestaRepository;
+
+    @Autowired
+    private EncuestaRepository encuestaRepository;
+
+    @Autowired
+    private EstadisticasCache estadisticasCache;
+
+    private static final Logger log = LoggerFactory.getLogger(ConteoRespuestaService.class);
+
+    /**
+     * Suma una respuesta nueva a los contadores de su pregunta.
+     *
+     * @param idPregunta identificador de la pregunta.
+     * @param tipo       tipo de la pregunta.
+     * @param respuesta  valor registrado.
+     * @param fecha      fecha de la respuesta.
+     */
+    public void registrarAlta(Long idPregunta, String tipo, String respuesta, Date fecha) {
+        aplicar(idPregunta, tipo, respuesta, 1, fecha);
+    }
+
+    /**
+     * Suma un lote de respuestas nuevas, agrupando antes los incrementos para escribir
+     * cada contador una sola vez por lote.
+     *
+     * @param respuestas respuestas registradas, con su {@link com.pruebas.pruebas.entity.Pregunta} asignada.
+     */
+    public void registrarAltas(Collection<Respuesta> respuestas) {
+        Map<Long, Long> totales = new TreeMap<>();
+        Map<Long, Date> ultimas = new HashMap<>();
+        Map<Long, Map<String, Long>> valores = new TreeMap<>();
+        for (Respuesta r : respuestas) {
+            Long idPregunta = r.getPregunta().getIdPregunta();
+            totales.merge(idPregunta, 1L, Long::sum);
+            if (r.getFechaRespuesta() != null) {
+                ultimas.merge(idPregunta, r.getFechaRespuesta(), (a, b) -> a.after(b) ? a : b);
+            }
+            for (String valor : valoresContables(r.getPregunta().getTipo(), r.getRespuesta())) {
+                valores.computeIfAbsent(idPregunta, k -> new TreeMap<>()).merge(valor, 1L, Long::sum);
+            }
+        }
+        for (Map.Entry<Long, Long> total : totales.entrySet()) {
+            conteoPreguntaRepository.sumar(total.getKey(), total.getValue(), ultimas.get(total.getKey()));
+            sumarValores(total.getKey(), valores.getOrDefault(total.getKey(), Collections.emptyMap()));
+        }
+    }
+
+    /**
+     * Resta una respuesta eliminada de los contadores de su pregunta.
+     *
+     * @param idPregunta identificador de la pregunta.
+     * @param tipo       tipo de la pregunta.
+     * @param respuesta  valor que tenía la respuesta.
+     */
+    public void registrarBaja(Long idPregunta, String tipo, String respuesta) {
+        aplicar(idPregunta, tipo, respuesta, -1, null);
+    }
+
+    /**
+     * Refleja el cambio de valor de una respuesta: resta el valor anterior y suma el nuevo.
+     * El total de la pregunta no cambia.
+     */
+    public void registrarCambio(Long idPregunta, String tipo, String anterior, String nuevo) {
+        if (Objects.equals(anterior, nuevo)) return;
+        Map<String, Long> deltas = new TreeMap<>();
+        for (String valor : valoresContables(tipo, anterior)) deltas.merge(valor, -1L, Long::sum);
+        for (String valor : valoresContables(tipo, nuevo)) deltas.merge(valor, 1L, Long::sum);
+        sumarValores(idPregunta, deltas);
+    }
+
+    private void aplicar(Long idPregunta, String tipo, String respuesta, long signo, Date fecha) {
+        conteoPreguntaRepository.sumar(idPregunta, signo, fecha);
+        Map<String, Long> deltas = new TreeMap<>();
+        for (String valor : valoresContables(tipo, respuesta)) deltas.merge(valor, signo, Long::sum);
+        sumarValores(idPregunta, deltas);
+    }
+
+    private void sumarValores(Long idPregunta, Map<String, Long> deltas) {
+        // TreeMap: los contadores se actualizan siempre en el mismo orden para evitar interbloqueos
+        for (Map.Entry<String, Long> delta : deltas.entrySet()) {
+            if (delta.getValue() != 0) {
+                conteoOpcionRepository.sumar(idPregunta, delta.getKey(), delta.getValue());
+            }
+        }
+    }
+
+    /**
+     * Devuelve los valores que una respuesta aporta a los contadores según el tipo de pregunta.
+     * Replica exactamente la separación que usa {@link EstadisticasService} para selección múltiple.
+     */
+    static List<String> valoresContables(String tipo, String respuesta) {
+        if (respuesta == null || tipo == null) return Collections.emptyList();
+        switch (tipo.toLowerCase()) {
+            case "abierta":
+                return Collections.emptyList();
+            case "seleccion_multiple":
+            case "checkbox":
+                String[] selecciones = respuesta.split(",");
+                List<String> valores = new ArrayList<>(selecciones.length);
+                for (String seleccion : selecciones) {
+                    valores.add(seleccion.trim());
+                }
+                return valores;
+            default:
+                return List.of(respuesta);
+        }
+    }
+
+    /**
+     * Obtiene el total de respuestas por pregunta de una encuesta.
+     *
+     * @param idEncuesta identificador de la encuesta.
+     * @return mapa idPregunta → total.
+     */
+    public Map<Long, Long> totalesPorPregunta(Long idEncuesta) {
+        Map<Long, Long> totales = new HashMap<>();
+        for (Object[] fila : conteoPreguntaRepository.findTotalesPorEncuesta(idEncuesta)) {
+            totales.put((Long) fila[0], (Long) fila[1]);
+        }
+        return totales;
+    }
+
+    /**
+     * Obtiene la frecuencia de cada valor por pregunta de una encuesta.
+     *
+     * @param idEncuesta identificador de la encuesta.
+     * @return mapa idPregunta → (valor → cantidad).
+     */
+    public Map<Long, Map<String, Long>> frecuenciasPorPregunta(Long idEncuesta) {
+        Map<Long, Map<String, Long>> frecuencias = new HashMap<>();
+        for (Object[] fila : conteoOpcionRepository.findFrecuenciasPorEncuesta(idEncuesta)) {
+            frecuencias.computeIfAbsent((Long) fila[0], k -> new HashMap<>())
+                    .put((String) fila[1], (Long) fila[2]);
+        }
+        return frecuencias;
+    }
+
+    /**
+     * Elimina los contadores de una pregunta (por ejemplo, al borrarla).
+     *
+     * @param idPregunta identificador de la pregunta.
+     */
+    public void eliminarPregunta(Long idPregunta) {
+        conteoOpcionRepository.eliminarPorPregunta(idPregunta);
+        conteoPreguntaRepository.eliminarPorPregunta(idPregunta);
+    }
+
+    /**
+     * Elimina los contadores de todas las preguntas de una encuesta.
+     *
+     * @param idEncuesta identificador de la encuesta.
+     */
+    public void eliminarEncuesta(Long idEncuesta) {
+        conteoOpcionRepository.eliminarPorEncuesta(idEncuesta);
+        conteoPreguntaRepository.eliminarPorEncuesta(idEncuesta);
+    }
+
+    /**
+     * Elimina todos los contadores.
+     */
+    public void eliminarTodos() {
+        conteoOpcionRepository.deleteAllInBatch();
+        conteoPreguntaRepository.deleteAllInBatch();
+    }
+
+    /**
+     * Recalcula desde cero los contadores de una encuesta a partir de la tabla <b>respuesta</b>,
+     * usando las consultas agrupadas de {@link RespuestaRepository}.
+     * <p>
+     * Bloquea las tablas de contadores hasta el final de la transacción para que
+     * las altas concurrentes se apliquen después del recálculo.
+     * </p>
+     *
+     * @param idEncuesta identificador de la encuesta.
+     * @return número de contadores de valor escritos.
+     */
+    @Transactional
+    public int reconstruir(Long idEncuesta) {
+        conteoOpcionRepository.bloquearContadores();
+        int contadores = reconstruirSinBloqueo(idEncuesta);
+        estadisticasCache.invalidar(idEncuesta);
+        return contadores;
+    }
+
+    /**
+     * Recalcula desde cero los contadores de todas las encuestas, por ejemplo tras una
+     * importación masiva o ante la sospecha de desviaciones.
+     *
+     * @return resumen con el número de encuestas y de contadores reconstruidos.
+     */
+    @Transactional
+    public Map<String, Object> reconstruirTodas() {
+        conteoOpcionRepository.bloquearContadores();
+        eliminarTodos();
+
+        List<Long> encuestas = encuestaRepository.findAllIds();
+        int contadores = 0;
+        for (Long idEncuesta : encuestas) {
+            contadores += reconstruirSinBloqueo(idEncuesta);
+        }
+        estadisticasCache.invalidarTodo();
+        log.info("Contadores reconstruidos: {} encuestas, {} valores", encuestas.size(), contadores);
+
+        Map<String, Object> resumen = new HashMap<>();
+        resumen.put("encuestas", encuestas.size());
+        resumen.put("contadores", contadores);
+        return resumen;
+    }
+
+    private int reconstruirSinBloqueo(Long idEncuesta) {
+        eliminarEncuesta(idEncuesta);
+
+        for (Object[] fila : respuestaRepository.contarPorPreguntaDeEncuesta(idEncuesta)) {
+            conteoPreguntaRepository.sumar((Long) fila[0], ((Number) fila[1]).longValue(), (Date) fila[2]);
+        }
+
+        int contadores = 0;
+        for (Object[] fila : respuestaRepository.contarValoresPorEncuesta(idEncuesta)) {
+            conteoOpcionRepository.sumar(((Number) fila[0]).longValue(), (String) fila[1], ((Number) fila[2]).longValue());
+            contadores++;
+        }
+        return contadores;
+    }
+}
@@ -0,0 +1,237 @@
+package com.pruebas.pruebas.service;
+
+import com.pruebas.pruebas.repository.ConteoPreguntaRepository;
+import com.pruebas.pruebas.repository.RespuestaRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Eliminación de encuestas muy grandes en segundo plano y por lotes.
+ * <p>
+ * {@link EncuestaService#delete(Long)} borra una encuesta en una sola transacción, lo que con cientos
+ * de miles de respuestas supone una transacción larga que retiene bloqueos y genera mucho WAL de una
+ * vez. Cuando la encuesta supera {@code umbral-respuestas}, la petición solo crea
+ * una tarea y responde enseguida; un hilo propio borra las respuestas en lotes de {@code tamano-lote},
+ * cada uno en su transacción, y termina con {@link EncuestaService#delete(Long)}, que ya solo
+ * elimina la encuesta, sus preguntas y sus contadores.
+ * </p>
+ * <p>
+ * Las tareas se ejecutan de una en una y su progreso se consulta con {@link #estado(String)}. Al
+ * empezar, la tarea quita los contadores de la encuesta, que deja de contar en estadísticas y panel;
+ * si falla, se reconstruyen con las respuestas que queden. Si la aplicación se detiene a mitad, lo
+ * borrado queda borrado y basta con volver a pedir la eliminación.
+ * Las tareas terminadas se olvidan pasada una hora.
+ * </p>
+ *
+ * <h3>Configuración ({@code eliminacion.*}):</h3>
+ * <ul>
+ *   <li>{@code umbral-respuestas}: respuestas a partir de las cuales la eliminación pasa a segundo plano.</li>
+ *   <li>{@code tamano-lote}: respuestas borradas por transacción.</li>
+ * </ul>
+ */
+@Service
+public class EliminacionEncuestaService {
+
+    private static final Logger log = LoggerFactory.getLogger(EliminacionEncuestaService.class);
+    private static final Duration RETENCION_TERMINADAS = Duration.ofHours(1);
+
+    /** Fases de una tarea de eliminación. */
+    public enum EstadoTarea { PENDIENTE, EN_CURSO, COMPLETADA, FALLIDA }
+
+    @Autowired
+    private EncuestaService encuestaService;
+
+    @Autowired
+    private RespuestaRepository respuestaRepository;
+
+    @Autowired
+    private ConteoPreguntaRepository conteoPreguntaRepository;
+
+    @Autowired
+    private ConteoRespuestaService conteoRespuestaService;
+
+    @Autowired
+    private EstadisticasCache estadisticasCache;
+
+    private final long umbralRespuestas;
+    private final int tamanoLote;
+    private final TransactionTemplate transaccion;
+    private final Map<String, Tarea> tareas = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Tarea> tareasPorEncuesta = new ConcurrentHashMap<>();
+    private final ExecutorService ejecutor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("eliminacion-encuestas").daemon(true).factory());
+
+    public EliminacionEncuestaService(PlatformTransactionManager transactionManager,
+                                      @Value("${eliminacion.umbral-respuestas:50000}") long umbralRespuestas,
+                                      @Value("${eliminacion.tamano-lote:5000}") int tamanoLote) {
+        this.umbralRespuestas = umbralRespuestas;
+        this.tamanoLote = tamanoLote;
+        this.transaccion = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Programa la eliminación de una encuesta en segundo plano si es lo bastante grande.
+     * <p>
+     * Si ya hay una tarea sin terminar para la misma encuesta, devuelve esa en lugar de crear otra.
+     * Las respuestas se estiman antes de registrar la tarea y sin retener ningún bloqueo: con hilos
+     * virtuales, una consulta dentro de un bloque {@code synchronized} fijaría el hilo portador.
+     * </p>
+     *
+     * @param idEncuesta identificador de la encuesta.
+     * @return estado de la tarea, o vacío si la encuesta no supera el umbral y puede eliminarse
+     *         directamente con {@link EncuestaService#delete(Long)}.
+     */
+    public Optional<Map<String, Object>> programarSiEsGrande(Long idEncuesta) {
+        olvidarTerminadas();
+        Tarea activa = tareasPorEncuesta.get(idEncuesta);
+        if (activa != null && !activa.terminada()) {
+            return Optional.of(activa.resumen());
+        }
+        long respuestas = respuestasEstimadas(idEncuesta);
+        if (respuestas <= umbralRespuestas) {
+            return Optional.empty();
+        }
+        return Optional.of(programar(idEncuesta, respuestas));
+    }
+
+    /**
+     * Respuestas de una encuesta según los contadores o, si no llegan al umbral, contando en la
+     * tabla como mucho hasta superarlo. Los contadores pueden faltar o haberse quedado cortos (una
+     * base anterior a ellos, una reconstrucción a medias) y con ellos solos una encuesta enorme se
+     * borraría en una única transacción; la comprobación sobre {@code respuesta} está acotada a
+     * {@code umbral-respuestas + 1} filas.
+     */
+    private long respuestasEstimadas(Long idEncuesta) {
+        long segunContadores = conteoPreguntaRepository.sumarPorEncuesta(idEncuesta);
+        if (segunContadores > umbralRespuestas) {
+            return segunContadores;
+        }
+        return Math.max(segunContadores,
+                respuestaRepository.contarPorEncuestaHasta(idEncuesta, umbralRespuestas + 1));
+    }
+
+    // Registra la tarea salvo que otra petición haya registrado antes una para la misma encuesta.
+    // compute solo retiene el bloqueo de la entrada mientras se crea el objeto, sin consultas.
+    private Map<String, Object> programar(Long idEncuesta, long totalRespuestas) {
+        Tarea nueva = new Tarea(UUID.randomUUID().toString(), idEncuesta, totalRespuestas);
+        Tarea tarea = tareasPorEncuesta.compute(idEncuesta,
+                (id, actual) -> actual != null && !actual.terminada() ? actual : nueva);
+        if (tarea == nueva) {
+            tareas.put(tarea.id, tarea);
+            ejecutor.execute(() -> ejecutar(tarea));
+            log.info("Eliminación de la encuesta {} programada en segundo plano ({} respuestas, tarea {})",
+                    idEncuesta, tarea.totalRespuestas, tarea.id);
+        }
+        return tarea.resumen();
+    }
+
+    /**
+     * Progreso de una tarea de eliminación.
+     *
+     * @param idTarea identificador devuelto por {@link #programarSiEsGrande(Long)}.
+     * @return tarea, encuesta, estado, respuestas eliminadas y totales, fechas y error si falló;
+     *         vacío si la tarea no existe o ya se olvidó.
+     */
+    public Optional<Map<String, Object>> estado(String idTarea) {
+        return Optional.ofNullable(tareas.get(idTarea)).map(Tarea::resumen);
+    }
+
+    void ejecutar(Tarea tarea) {
+        tarea.estado = EstadoTarea.EN_CURSO;
+        try {
+            // Los contadores no se restan lote a lote: se quitan al empezar para que las estadísticas
+            // y el panel no sigan mostrando el total anterior mientras las respuestas desaparecen
+            transaccion.executeWithoutResult(s -> conteoRespuestaService.eliminarEncuesta(tarea.idEncuesta));
+            estadisticasCache.invalidar(tarea.idEncuesta);
+
+            int eliminadas;
+            do {
+                eliminadas = transaccion.execute(s -> respuestaRepository.eliminarLotePorEncuesta(tarea.idEncuesta, tamanoLote));
+                tarea.eliminadas.addAndGet(eliminadas);
+            } while (eliminadas == tamanoLote);
+
+            transaccion.executeWithoutResult(s -> encuestaService.delete(tarea.idEncuesta));
+            tarea.estado = EstadoTarea.COMPLETADA;
+            log.info("Encuesta {} eliminada: {} respuestas en lotes de {}", tarea.idEncuesta, tarea.eliminadas.get(), tamanoLote);
+        } catch (RuntimeException e) {
+            tarea.error = e.getMessage();
+            tarea.estado = EstadoTarea.FALLIDA;
+            log.error("Falló la eliminación de la encuesta {} tras {} respuestas", tarea.idEncuesta, tarea.eliminadas.get(), e);
+            restaurarContadores(tarea.idEncuesta);
+        } finally {
+            tarea.fin = Instant.now();
+        }
+    }
+
+    // Si la tarea se interrumpe, la encuesta sigue existiendo con las respuestas que queden
+    private void restaurarContadores(Long idEncuesta) {
+        try {
+            conteoRespuestaService.reconstruir(idEncuesta);
+        } catch (RuntimeException e) {
+            log.error("No se pudieron reconstruir los contadores de la encuesta {}", idEncuesta, e);
+        }
+    }
+
+    private void olvidarTerminadas() {
+        Instant limite = Instant.now().minus(RETENCION_TERMINADAS);
+        tareas.values().removeIf(t -> t.terminada() && t.fin.isBefore(limite));
+        tareasPorEncuesta.values().removeIf(t -> t.terminada() && t.fin.isBefore(limite));
+    }
+
+    @PreDestroy
+    public void detener() {
+        ejecutor.shutdownNow();
+    }
+
+    /** Tarea de eliminación de una encuesta; la escribe solo el hilo que la ejecuta. */
+    static final class Tarea {
+        final String id;
+        final Long idEncuesta;
+        final long totalRespuestas;
+        final Instant inicio = Instant.now();
+        final AtomicLong eliminadas = new AtomicLong();
+        volatile EstadoTarea estado = EstadoTarea.PENDIENTE;
+        volatile Instant fin;
+        volatile String error;
+
+        Tarea(String id, Long idEncuesta, long totalRespuestas) {
+            this.id = id;
+            this.idEncuesta = idEncuesta;
+            this.totalRespuestas = totalRespuestas;
+        }
+
+        boolean terminada() {
+            return fin != null;
+        }
+
+        Map<String, Object> resumen() {
+            Map<String, Object> resumen = new HashMap<>();
+            resumen.put("id_tarea", id);
+            resumen.put("id_encuesta", idEncuesta);
+            resumen.put("estado", estado.name().toLowerCase());
+            resumen.put("respuestas_eliminadas", eliminadas.get());
+            resumen.put("respuestas_totales", totalRespuestas);
+            resumen.put("inicio", inicio.toString());
+            resumen.put("fin", fin == null ? null : fin.toString());
+            resumen.put("error", error);
+            return resumen;
+        }
+    }
+}
@@ -2,9 +2,18 @@ package com.pruebas.pruebas.service;
 
 import com.pruebas.pruebas.entity.Encuesta;
 import com.pruebas.pruebas.dto.EncuestaDTO;
+import com.pruebas.pruebas.dto.EncuestaResumenDTO;
+import com.pruebas.pruebas.dto.PaginaCursorDTO;
 import com.pruebas.pruebas.mapper.EncuestaMapper;
 import com.pruebas.pruebas.repository.EncuestaRepository;
+import com.pruebas.pruebas.repository.PreguntaRepository;
+import com.pruebas.pruebas.util.PaginacionUtil;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -21,9 +30,21 @@ public class EncuestaService {
     @Autowired
     private EncuestaRepository encuestaRepository;
 
+    @Autowired
+    private PreguntaRepository preguntaRepository;
+
     @Autowired
     private EncuestaMapper encuestaMapper;
 
+    @Autowired
+    private ConteoRespuestaService conteoRespuestaService;
+
+    @Autowired
+    private EstadisticasCache estadisticasCache;
+
+    @Autowired
+    private PreguntaMetadataCache preguntaMetadataCache;
+
     /**
      * Crea una nueva encuesta en la base de datos.
      *
@@ -36,27 +57,117 @@ public class EncuestaService {
     }
 
     /**
-     * Obtiene una encuesta existente por su identificador único.
+     * Obtiene una encuesta existente con sus preguntas, sin respuestas.
      *
      * @param id ID de la encuesta
      * @return DTO de la encuesta encontrada
      * @throws RuntimeException si no se encuentra la encuesta
+     * @see #getById(Long, boolean)
      */
     public EncuestaDTO getById(Long id) {
-        Encuesta e = encuestaRepository.findById(id)
+        return getById(id, false);
+    }
+
+    /**
+     * Obtiene una encuesta existente por su identificador único.
+     * <p>
+     * La carga sigue planes explícitos en lugar de cargas perezosas: una consulta trae la
+     * encuesta con sus preguntas ({@link Encuesta#GRAFO_CON_PREGUNTAS}) y, si se piden las
+     * respuestas, una segunda consulta las trae para todas las preguntas a la vez.
+     * Son una o dos consultas sin importar cuántas preguntas tenga la encuesta.
+     * </p>
+     *
+     * @param id                ID de la encuesta
+     * @param incluirRespuestas si se incluyen las respuestas de cada pregunta
+     * @return DTO de la encuesta encontrada
+     * @throws RuntimeException si no se encuentra la encuesta
+     */
+    @Transactional
+    public EncuestaDTO getById(Long id, boolean incluirRespuestas) {
+        Encuesta e = encuestaRepository.findConPreguntasById(id)
                 .orElseThrow(() -> new RuntimeException("Encuesta no encontrada"));
+        if (!incluirRespuestas) {
+            return encuestaMapper.toDTOSinRespuestas(e);
+        }
+        // Inicializa en una sola consulta las respuestas de las preguntas ya cargadas
+        preguntaRepository.findConRespuestasByEncuesta(id);
         return encuestaMapper.toDTO(e);
     }
 
     /**
-     * Recupera todas las encuestas registradas.
+     * Recupera una página de resúmenes de encuestas (sin preguntas ni respuestas).
+     *
+     * @param estado   filtro opcional por estado.
+     * @param pageable página, tamaño y orden solicitados (por defecto, por ID).
+     * @return página de {@link EncuestaResumenDTO} calculada en una sola consulta
+     */
+    public Page<EncuestaResumenDTO> getResumenPagina(String estado, Pageable pageable) {
+        Pageable ordenado = pageable.getSort().isSorted() ? pageable
+                : PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("idEncuesta"));
+        return estado != null
+                ? encuestaRepository.listarResumenPorEstado(estado, ordenado)
+                : encuestaRepository.listarResumen(ordenado);
+    }
+
+    /**
+     * Recupera una página de resúmenes de encuestas por cursor (keyset sobre el ID).
+     *
+     * @param estado filtro opcional por estado.
+     * @param cursor cursor de la página anterior; vacío o {@code null} para la primera.
+     * @param tamano número máximo de encuestas.
+     * @return página con el cursor siguiente, si quedan más encuestas
+     * @throws RuntimeException si el cursor no es válido
+     */
+    public PaginaCursorDTO<EncuestaResumenDTO> getResumenPorCursor(String estado, String cursor, int tamano) {
+        long[] clave = PaginacionUtil.decodificarCursor(cursor, 1);
+        long despuesDe = clave == null ? 0L : clave[0];
+        Pageable limite = PageRequest.of(0, tamano + 1);
+        List<EncuestaResumenDTO> filas = estado != null
+                ? encuestaRepository.listarResumenPorEstadoDesdeId(estado, despuesDe, limite)
+                : encuestaRepository.listarResumenDesdeId(despuesDe, limite);
+        return PaginacionUtil.pagina(filas, tamano, e -> new long[]{e.getId()});
+    }
+
+    /**
+     * Recupera una página de encuestas por desplazamiento ({@code page}/{@code size}).
+     * <p>
+     * Devuelve el árbol completo; las preguntas y respuestas de la página se cargan en lotes
+     * ({@code hibernate.default_batch_fetch_size}) dentro de la transacción.
+     * </p>
+     *
+     * @param estado   filtro opcional por estado (ACTIVA, INACTIVA, ...).
+     * @param pageable página, tamaño y orden solicitados (por defecto, por ID).
+     * @return página de encuestas en formato DTO
+     */
+    @Transactional
+    public Page<EncuestaDTO> getPagina(String estado, Pageable pageable) {
+        Pageable ordenado = pageable.getSort().isSorted() ? pageable
+                : PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("idEncuesta"));
+        Page<Encuesta> pagina = estado != null
+                ? encuestaRepository.findByEstado(estado, ordenado)
+                : encuestaRepository.findAll(ordenado);
+        return pagina.map(encuestaMapper::toDTO);
+    }
+
+    /**
+     * Recupera una página de encuestas por cursor (keyset sobre el ID).
      *
-     * @return Lista de encuestas en formato DTO
+     * @param estado filtro opcional por estado.
+     * @param cursor cursor de la página anterior; vacío o {@code null} para la primera.
+     * @param tamano número máximo de encuestas.
+     * @return página con el cursor siguiente, si quedan más encuestas
+     * @throws RuntimeException si el cursor no es válido
      */
-    public List<EncuestaDTO> getAll() {
-        return encuestaRepository.findAll().stream()
-                .map(encuestaMapper::toDTO)
-                .collect(Collectors.toList());
+    @Transactional
+    public PaginaCursorDTO<EncuestaDTO> getPorCursor(String estado, String cursor, int tamano) {
+        long[] clave = PaginacionUtil.decodificarCursor(cursor, 1);
+        long despuesDe = clave == null ? 0L : clave[0];
+        Pageable limite = PageRequest.of(0, tamano + 1);
+        List<Encuesta> filas = estado != null
+                ? encuestaRepository.findByEstadoAndIdEncuestaGreaterThanOrderByIdEncuesta(estado, despuesDe, limite)
+                : encuestaRepository.findByIdEncuestaGreaterThanOrderByIdEncuesta(despuesDe, limite);
+        List<EncuestaDTO> dtos = filas.stream().map(encuestaMapper::toDTO).collect(Collectors.toList());
+        return PaginacionUtil.pagina(dtos, tamano, e -> new long[]{e.getId()});
     }
 
     /**
@@ -64,9 +175,10 @@ public class EncuestaService {
      *
      * @param id  ID de la encuesta a actualizar
      * @param dto DTO con los nuevos valores
-     * @return DTO de la encuesta actualizada
+     * @return DTO de la encuesta actualizada, con sus preguntas y sin respuestas
      * @throws RuntimeException si la encuesta no existe
      */
+    @Transactional
     public EncuestaDTO update(Long id, EncuestaDTO dto) {
         Encuesta existing = encuestaRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Encuesta no encontrada"));
@@ -75,25 +187,43 @@ public class EncuestaService {
         existing.setDescripcion(dto.getDescripcion());
         existing.setEstado(dto.getEstado());
 
-        return encuestaMapper.toDTO(encuestaRepository.save(existing));
+        Encuesta guardada = encuestaRepository.save(existing);
+        estadisticasCache.invalidar(id);
+        return encuestaMapper.toDTOSinRespuestas(guardada);
     }
 
     /**
      * Elimina una encuesta específica por su ID.
+     * <p>
+     * Son sentencias por conjuntos: los contadores de la encuesta y la propia encuesta, cuyas
+     * preguntas y respuestas borra PostgreSQL en cascada. No se carga ninguna entidad, pero todo
+     * ocurre en una transacción; las encuestas muy grandes se eliminan por lotes con
+     * {@link EliminacionEncuestaService}.
+     * </p>
      *
      * @param id ID de la encuesta a eliminar
      * @return {@code true} si la encuesta fue eliminada, {@code false} si no existía
      */
+    @Transactional
     public boolean delete(Long id) {
-        if (!encuestaRepository.existsById(id)) return false;
-        encuestaRepository.deleteById(id);
+        conteoRespuestaService.eliminarEncuesta(id);
+        if (encuestaRepository.eliminarPorId(id) == 0) return false;
+        estadisticasCache.invalidar(id);
+        preguntaMetadataCache.invalidarEncuesta(id);
         return true;
     }
 
     /**
      * Elimina todas las encuestas registradas en la base de datos.
+     * <p>
+     * Un único {@code DELETE} sobre {@code encuesta}; preguntas y respuestas se borran en cascada.
+     * </p>
      */
+    @Transactional
     public void deleteAll() {
-        encuestaRepository.deleteAll();
+        conteoRespuestaService.eliminarTodos();
+        encuestaRepository.deleteAllInBatch();
+        estadisticasCache.invalidarTodo();
+        preguntaMetadataCache.invalidarTodo();
     }
 }
@@ -0,0 +1,126 @@
+package com.pruebas.pruebas.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.pruebas.pruebas.util.TransaccionUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Caché en memoria de las estadísticas calculadas por encuesta.
+ * <p>
+ * Está acotada por número de entradas y por tiempo desde su cálculo, y se invalida
+ * cada vez que {@link RespuestaService}, {@link PreguntaService} o {@link EncuestaService}
+ * modifican datos de la encuesta. Los mapas almacenados son de solo lectura porque
+ * se comparten entre peticiones.
+ * </p>
+ * <p>
+ * El cálculo se hace fuera de la caché y no dentro de {@code Cache.get(clave, función)}, que lo
+ * ejecutaría con un bloqueo {@code synchronized} del mapa interno tomado: con hilos virtuales eso
+ * fija el hilo a su portador durante todas las consultas. A cambio, dos peticiones simultáneas
+ * pueden calcular la misma encuesta; un resultado calculado mientras hubo una invalidación
+ * no se conserva.
+ * </p>
+ *
+ * <h3>Configuración:</h3>
+ * <ul>
+ *   <li>{@code estadisticas.cache.maximo-entradas}: encuestas retenidas como máximo.</li>
+ *   <li>{@code estadisticas.cache.expiracion-segundos}: vida máxima de una entrada.</li>
+ * </ul>
+ */
+@Component
+public class EstadisticasCache {
+
+    private final Cache<Long, Map<String, Object>> cache;
+    private final AtomicLong invalidaciones = new AtomicLong();
+
+    public EstadisticasCache(@Value("${estadisticas.cache.maximo-entradas:500}") long maximoEntradas,
+                             @Value("${estadisticas.cache.expiracion-segundos:30}") long expiracionSegundos) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximoEntradas)
+                .expireAfterWrite(Duration.ofSeconds(expiracionSegundos))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Devuelve las estadísticas en caché de una encuesta o las calcula si no existen.
+     *
+     * @param idEncuesta identificador de la encuesta.
+     * @param calculo    función que calcula las estadísticas en caso de fallo de caché.
+     * @return estadísticas de la encuesta (mapa inmutable).
+     */
+    public Map<String, Object> obtener(Long idEncuesta, Function<Long, Map<String, Object>> calculo) {
+        Map<String, Object> enCache = cache.getIfPresent(idEncuesta);
+        if (enCache != null) return enCache;
+
+        long version = invalidaciones.get();
+        Map<String, Object> calculado = Collections.unmodifiableMap(calculo.apply(idEncuesta));
+        cache.put(idEncuesta, calculado);
+        // Si algo se invalidó durante el cálculo, el resultado puede estar desactualizado
+        if (invalidaciones.get() != version) {
+            cache.asMap().remove(idEncuesta, calculado);
+        }
+        return calculado;
+    }
+
+    /**
+     * Invalida las estadísticas de una encuesta.
+     * <p>
+     * Si hay una transacción en curso, la entrada se vuelve a invalidar tras el commit,
+     * para que un cálculo concurrente con datos aún no confirmados no quede en caché.
+     * </p>
+     *
+     * @param idEncuesta identificador de la encuesta modificada.
+     */
+    public void invalidar(Long idEncuesta) {
+        if (idEncuesta == null) return;
+        Runnable accion = () -> {
+            invalidaciones.incrementAndGet();
+            cache.invalidate(idEncuesta);
+        };
+        accion.run();
+        TransaccionUtil.despuesDelCommit(accion);
+    }
+
+    /**
+     * Invalida todas las entradas (por ejemplo, tras eliminar todas las encuestas).
+     */
+    public void invalidarTodo() {
+        Runnable accion = () -> {
+            invalidaciones.incrementAndGet();
+            cache.invalidateAll();
+        };
+        accion.run();
+        TransaccionUtil.despuesDelCommit(accion);
+    }
+
+    /**
+     * Contadores de uso de la caché, para dimensionarla.
+     *
+     * @return aciertos, fallos, expulsiones, tasa de aciertos y tamaño actual.
+     */
+    public Map<String, Object> estadisticasUso() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> uso = new HashMap<>();
+        uso.put("aciertos", stats.hitCount());
+        uso.put("fallos", stats.missCount());
+        uso.put("expulsiones", stats.evictionCount());
+        uso.put("tasa_aciertos", stats.hitRate());
+        uso.put("entradas", cache.estimatedSize());
+        return uso;
+    }
+
+    /** Caché subyacente, para registrar sus métricas. */
+    public Cache<Long, Map<String, Object>> getCache() {
+        return cache;
+    }
+}
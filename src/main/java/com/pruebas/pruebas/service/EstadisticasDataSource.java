@@ -0,0 +1,115 @@
+package com.pruebas.pruebas.service;
+
+import com.pruebas.pruebas.util.GraficoUtil;
+import net.sf.jasperreports.engine.JRDataSource;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRField;
+
+import java.awt.Image;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fuente de datos de JasperReports que recorre las estadísticas de una encuesta
+ * (el mapa de {@link EstadisticasService}) fila a fila.
+ * <p>
+ * Cada pregunta produce una fila por etiqueta (preguntas cerradas) o por texto (preguntas
+ * abiertas), o una sola fila vacía si no tiene datos. Las filas no se copian a una lista:
+ * se leen por índice a medida que Jasper llama a {@link #next()}, y el gráfico de cada
+ * pregunta se dibuja solo al llegar a ella y se descarta al pasar a la siguiente.
+ * </p>
+ *
+ * <h3>Campos:</h3>
+ * <ul>
+ *   <li>{@code idPregunta}, {@code pregunta}, {@code tipo}, {@code totalPregunta}, {@code promedio}, {@code grafico}</li>
+ *   <li>{@code etiqueta}, {@code cantidad}, {@code porcentaje} (fracción entre 0 y 1)</li>
+ * </ul>
+ */
+public class EstadisticasDataSource implements JRDataSource {
+
+    static final int ANCHO_GRAFICO = 535;
+    static final int ALTO_GRAFICO = 180;
+
+    private final List<Map<String, Object>> preguntas;
+
+    private int indicePregunta = -1;
+    private int indiceFila;
+    private int filasPregunta;
+    private Map<String, Object> actual;
+    private Image grafico;
+
+    /**
+     * @param preguntas lista {@code estadisticas} del mapa de {@link EstadisticasService}.
+     */
+    public EstadisticasDataSource(List<Map<String, Object>> preguntas) {
+        this.preguntas = preguntas != null ? preguntas : Collections.emptyList();
+    }
+
+    @Override
+    public boolean next() {
+        if (actual != null && indiceFila + 1 < filasPregunta) {
+            indiceFila++;
+            return true;
+        }
+        if (indicePregunta + 1 >= preguntas.size()) {
+            return false;
+        }
+        indicePregunta++;
+        actual = preguntas.get(indicePregunta);
+        indiceFila = 0;
+        filasPregunta = Math.max(1, filas().size());
+        grafico = GraficoUtil.dibujar((String) actual.get("tipo_grafico"), lista("labels"), lista("valores"),
+                lista("colores"), ANCHO_GRAFICO, ALTO_GRAFICO);
+        return true;
+    }
+
+    @Override
+    public Object getFieldValue(JRField campo) throws JRException {
+        switch (campo.getName()) {
+            case "idPregunta":
+                return actual.get("pregunta_id");
+            case "pregunta":
+                return actual.get("pregunta_texto");
+            case "tipo":
+                return actual.get("tipo_pregunta");
+            case "totalPregunta":
+                return actual.get("total_respuestas_pregunta");
+            case "promedio":
+                return actual.get("promedio");
+            case "grafico":
+                return grafico;
+            case "etiqueta": {
+                List<?> filas = filas();
+                return indiceFila < filas.size() ? String.valueOf(filas.get(indiceFila)) : null;
+            }
+            case "cantidad":
+                return cantidad();
+            case "porcentaje": {
+                Integer cantidad = cantidad();
+                Object total = actual.get("total_respuestas_pregunta");
+                if (cantidad == null || !(total instanceof Number) || ((Number) total).intValue() == 0) return null;
+                return cantidad.doubleValue() / ((Number) total).doubleValue();
+            }
+            default:
+                throw new JRException("Campo desconocido en el reporte de estadísticas: " + campo.getName());
+        }
+    }
+
+    // Las preguntas abiertas listan sus textos; el resto, sus etiquetas
+    private List<?> filas() {
+        List<?> respuestas = lista("respuestas");
+        return respuestas != null ? respuestas : (lista("labels") != null ? lista("labels") : Collections.emptyList());
+    }
+
+    private Integer cantidad() {
+        List<?> valores = lista("valores");
+        if (valores == null || indiceFila >= valores.size()) return null;
+        return ((Number) valores.get(indiceFila)).intValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<T> lista(String clave) {
+        return (List<T>) actual.get(clave);
+    }
+}
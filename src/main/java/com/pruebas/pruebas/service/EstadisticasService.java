@@ -1,11 +1,21 @@
 // com.pruebas.pruebas.service.EstadisticasService.java
 package com.pruebas.pruebas.service;
 
+import com.pruebas.pruebas.dto.PaginaCursorDTO;
+import com.pruebas.pruebas.dto.RespuestaDTO;
 import com.pruebas.pruebas.entity.*;
 import com.pruebas.pruebas.repository.*;
+import com.pruebas.pruebas.util.IntervaloActividad;
+import com.pruebas.pruebas.util.PaginacionUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -21,7 +31,185 @@ public class EstadisticasService {
     @Autowired
     private EncuestaRepository encuestaRepository;
 
+    @Autowired
+    private ConteoRespuestaService conteoRespuestaService;
+
+    @Autowired
+    private EstadisticasCache estadisticasCache;
+
+    /** Respuestas de cada pregunta abierta incluidas en las estadísticas; el resto se pide por cursor. */
+    @Value("${estadisticas.abiertas.muestra:20}")
+    private int muestraAbiertas;
+
+    /** Intervalos como máximo en una consulta de actividad. */
+    @Value("${estadisticas.actividad.max-intervalos:5000}")
+    private long maxIntervalosActividad;
+
+    /** Minutos de la ventana reciente del panel cuando la petición no indica otra. */
+    @Value("${estadisticas.panel.ventana-minutos:60}")
+    private int ventanaPanelMinutos;
+
+    // Una ventana mayor que un día dejaría de leer solo las particiones recientes de respuesta
+    private static final int MAX_VENTANA_PANEL_MINUTOS = 24 * 60;
+
+    /**
+     * Obtiene las estadísticas de una encuesta, reutilizando el cálculo en caché
+     * mientras no se modifiquen sus datos.
+     *
+     * @param encuestaId identificador de la encuesta.
+     * @return estadísticas de la encuesta (mapa de solo lectura).
+     * @throws RuntimeException si la encuesta no existe.
+     */
     public Map<String, Object> obtenerEstadisticasEncuesta(Long encuestaId) {
+        return estadisticasCache.obtener(encuestaId, this::calcularEstadisticasEncuesta);
+    }
+
+    /**
+     * Cuenta las respuestas de una encuesta por minuto, hora o día dentro de un rango de fechas.
+     * <p>
+     * El agrupamiento se hace en la base de datos; los intervalos sin respuestas aparecen con 0.
+     * Sin rango se devuelve el último día (los últimos 30 días si el intervalo es {@code dia}).
+     * No pasa por la caché: está pensado para seguir el tráfico casi en tiempo real.
+     * </p>
+     *
+     * @param encuestaId identificador de la encuesta.
+     * @param desde      inicio del rango (incluido), o {@code null}.
+     * @param hasta      fin del rango (excluido), o {@code null} para ahora.
+     * @param intervalo  {@code minuto}, {@code hora} o {@code dia}.
+     * @return serie con el inicio de cada intervalo ({@code labels}) y su cantidad ({@code valores}).
+     * @throws RuntimeException si la encuesta no existe, el rango no es válido o tiene demasiados intervalos.
+     */
+    public Map<String, Object> obtenerActividadEncuesta(Long encuestaId, LocalDateTime desde, LocalDateTime hasta,
+                                                        String intervalo) {
+        if (!encuestaRepository.existsById(encuestaId)) {
+            throw new RuntimeException("Encuesta no encontrada");
+        }
+        return calcularActividad(desde, hasta, intervalo, (tamano, inicio, fin) ->
+                respuestaRepository.contarActividadPorEncuesta(encuestaId, tamano.getUnidad(), tamano.getPaso(), inicio, fin));
+    }
+
+    /**
+     * Cuenta las respuestas de una pregunta por minuto, hora o día dentro de un rango de fechas.
+     *
+     * @see #obtenerActividadEncuesta(Long, LocalDateTime, LocalDateTime, String)
+     * @throws RuntimeException si la pregunta no existe, el rango no es válido o tiene demasiados intervalos.
+     */
+    public Map<String, Object> obtenerActividadPregunta(Long idPregunta, LocalDateTime desde, LocalDateTime hasta,
+                                                        String intervalo) {
+        if (!preguntaRepository.existsById(idPregunta)) {
+            throw new RuntimeException("Pregunta no encontrada");
+        }
+        return calcularActividad(desde, hasta, intervalo, (tamano, inicio, fin) ->
+                respuestaRepository.contarActividadPorPregunta(idPregunta, tamano.getUnidad(), tamano.getPaso(), inicio, fin));
+    }
+
+    /**
+     * Cifras de cabecera de todas las encuestas con un estado: respuestas totales, fecha de la última
+     * respuesta y ritmo de respuestas en los últimos minutos.
+     * <p>
+     * Sustituye a pedir las estadísticas completas de cada encuesta por separado: todo se calcula en
+     * una única consulta agrupada ({@link RespuestaRepository#resumirEncuestas}) cuyo coste depende del
+     * número de preguntas y de las respuestas de la ventana, no del total de respuestas. No pasa por la caché.
+     * </p>
+     *
+     * @param estado          estado de las encuestas (p. ej. {@code ACTIVA}), o {@code TODAS} / {@code null}
+     *                        para no filtrar.
+     * @param ventanaMinutos  minutos de la ventana reciente, o {@code null} para el valor configurado.
+     * @return {@code encuestas} (una entrada por encuesta) y los totales de todas ellas.
+     * @throws RuntimeException si la ventana no está entre 1 minuto y 1 día.
+     */
+    public Map<String, Object> obtenerPanel(String estado, Integer ventanaMinutos) {
+        int minutos = ventanaMinutos != null ? ventanaMinutos : ventanaPanelMinutos;
+        if (minutos < 1 || minutos > MAX_VENTANA_PANEL_MINUTOS) {
+            throw new RuntimeException("La ventana debe estar entre 1 y " + MAX_VENTANA_PANEL_MINUTOS + " minutos");
+        }
+        String filtro = estado == null || estado.isBlank() || estado.equalsIgnoreCase("TODAS")
+                ? null : estado.trim().toUpperCase(Locale.ROOT);
+        LocalDateTime hasta = LocalDateTime.now();
+        LocalDateTime desde = hasta.minusMinutes(minutos);
+
+        List<Map<String, Object>> encuestas = new ArrayList<>();
+        long totalRespuestas = 0;
+        long totalVentana = 0;
+        for (Object[] fila : respuestaRepository.resumirEncuestas(filtro, desde, hasta)) {
+            long respuestas = ((Number) fila[4]).longValue();
+            long enVentana = ((Number) fila[6]).longValue();
+            Map<String, Object> resumen = new HashMap<>();
+            resumen.put("encuesta_id", ((Number) fila[0]).longValue());
+            resumen.put("titulo", fila[1]);
+            resumen.put("estado", fila[2]);
+            resumen.put("total_preguntas", ((Number) fila[3]).longValue());
+            resumen.put("total_respuestas", respuestas);
+            resumen.put("ultima_respuesta", fila[5] == null ? null : aFecha(fila[5]).toString());
+            resumen.put("respuestas_ventana", enVentana);
+            resumen.put("respuestas_por_minuto", (double) enVentana / minutos);
+            encuestas.add(resumen);
+            totalRespuestas += respuestas;
+            totalVentana += enVentana;
+        }
+
+        Map<String, Object> panel = new HashMap<>();
+        panel.put("estado", filtro == null ? "TODAS" : filtro);
+        panel.put("ventana_minutos", minutos);
+        panel.put("desde", desde.toString());
+        panel.put("hasta", hasta.toString());
+        panel.put("total_encuestas", encuestas.size());
+        panel.put("total_respuestas", totalRespuestas);
+        panel.put("respuestas_ventana", totalVentana);
+        panel.put("respuestas_por_minuto", (double) totalVentana / minutos);
+        panel.put("encuestas", encuestas);
+        return panel;
+    }
+
+    @FunctionalInterface
+    private interface ConsultaActividad {
+        List<Object[]> contar(IntervaloActividad intervalo, LocalDateTime desde, LocalDateTime hasta);
+    }
+
+    private Map<String, Object> calcularActividad(LocalDateTime desde, LocalDateTime hasta, String nombreIntervalo,
+                                                  ConsultaActividad consulta) {
+        IntervaloActividad intervalo = IntervaloActividad.desdeNombre(nombreIntervalo);
+        LocalDateTime fin = hasta != null ? hasta : LocalDateTime.now();
+        LocalDateTime inicio = desde != null ? desde
+                : fin.minus(intervalo == IntervaloActividad.DIA ? Duration.ofDays(30) : Duration.ofDays(1));
+        if (!inicio.isBefore(fin)) {
+            throw new RuntimeException("La fecha inicial debe ser anterior a la final");
+        }
+        long intervalos = Duration.between(inicio, fin).dividedBy(intervalo.getDuracion()) + 1;
+        if (intervalos > maxIntervalosActividad) {
+            throw new RuntimeException("El rango tiene demasiados intervalos (" + intervalos
+                    + "); use un intervalo mayor o un rango menor");
+        }
+
+        List<String> labels = new ArrayList<>();
+        List<Long> valores = new ArrayList<>();
+        long total = 0;
+        for (Object[] fila : consulta.contar(intervalo, inicio, fin)) {
+            long cantidad = ((Number) fila[1]).longValue();
+            labels.add(aFecha(fila[0]).toString());
+            valores.add(cantidad);
+            total += cantidad;
+        }
+
+        Map<String, Object> actividad = new HashMap<>();
+        actividad.put("intervalo", intervalo.name().toLowerCase(Locale.ROOT));
+        actividad.put("desde", inicio.toString());
+        actividad.put("hasta", fin.toString());
+        actividad.put("total_respuestas", total);
+        actividad.put("tipo_grafico", "line");
+        actividad.put("labels", labels);
+        actividad.put("valores", valores);
+        return actividad;
+    }
+
+    // El controlador JDBC puede devolver la marca de tiempo con distintos tipos según la versión
+    private static LocalDateTime aFecha(Object valor) {
+        if (valor instanceof Timestamp marca) return marca.toLocalDateTime();
+        if (valor instanceof OffsetDateTime conZona) return conZona.toLocalDateTime();
+        return (LocalDateTime) valor;
+    }
+
+    private Map<String, Object> calcularEstadisticasEncuesta(Long encuestaId) {
         Map<String, Object> estadisticas = new HashMap<>();
 
         // Datos generales de la encuesta
@@ -37,11 +225,26 @@ public class EstadisticasService {
 
         // Obtener preguntas de esta encuesta
         List<Pregunta> preguntas = preguntaRepository.findByEncuestaIdEncuesta(encuestaId);
-    
-        // Calcular total de respuestas (contando respuestas por cada pregunta)
+
+        // Conteos mantenidos incrementalmente: el coste depende del número de opciones,
+        // no del número de respuestas
+        Map<Long, Long> totalesPorPregunta = conteoRespuestaService.totalesPorPregunta(encuestaId);
+        Map<Long, Map<String, Long>> conteosPorPregunta = conteoRespuestaService.frecuenciasPorPregunta(encuestaId);
+
+        // Solo las últimas respuestas de cada pregunta abierta: el tamaño de la respuesta queda acotado
+        Map<Long, List<String>> textosPorPregunta = new HashMap<>();
+        Map<Long, long[]> ultimaClavePorPregunta = new HashMap<>();
+        for (Object[] fila : respuestaRepository.findMuestraAbiertasPorEncuesta(encuestaId, muestraAbiertas)) {
+            Long idPregunta = ((Number) fila[0]).longValue();
+            textosPorPregunta.computeIfAbsent(idPregunta, k -> new ArrayList<>()).add((String) fila[2]);
+            ultimaClavePorPregunta.put(idPregunta,
+                    new long[]{Timestamp.valueOf(aFecha(fila[3])).getTime(), ((Number) fila[1]).longValue()});
+        }
+
+        // Calcular total de respuestas (sumando los conteos por pregunta)
         long totalRespuestas = 0;
         for (Pregunta pregunta : preguntas) {
-            totalRespuestas += respuestaRepository.countByPreguntaIdPregunta(pregunta.getIdPregunta());
+            totalRespuestas += totalesPorPregunta.getOrDefault(pregunta.getIdPregunta(), 0L);
         }
         estadisticas.put("total_respuestas", totalRespuestas);
 
@@ -49,7 +252,13 @@ public class EstadisticasService {
         List<Map<String, Object>> estadisticasPreguntas = new ArrayList<>();
 
         for (Pregunta pregunta : preguntas) {
-            Map<String, Object> statsPregunta = generarEstadisticasPregunta(pregunta);
+            Long id = pregunta.getIdPregunta();
+            Map<String, Object> statsPregunta = generarEstadisticasPregunta(
+                    pregunta,
+                    totalesPorPregunta.getOrDefault(id, 0L),
+                    conteosPorPregunta.getOrDefault(id, Collections.emptyMap()),
+                    textosPorPregunta.getOrDefault(id, Collections.emptyList()),
+                    ultimaClavePorPregunta.get(id));
             estadisticasPreguntas.add(statsPregunta);
         }
 
@@ -57,40 +266,47 @@ public class EstadisticasService {
         return estadisticas;
     }
 
-    private Map<String, Object> generarEstadisticasPregunta(Pregunta pregunta) {
+    private Map<String, Object> generarEstadisticasPregunta(Pregunta pregunta, long total,
+                                                            Map<String, Long> frecuencias,
+                                                            List<String> textos, long[] ultimaClaveMuestra) {
         Map<String, Object> stats = new HashMap<>();
         stats.put("pregunta_id", pregunta.getIdPregunta());
         stats.put("pregunta_texto", pregunta.getTextoPregunta());
         stats.put("tipo_pregunta", pregunta.getTipo());
-
-        // Obtener todas las respuestas para esta pregunta
-        List<Respuesta> respuestas = respuestaRepository.findByPreguntaIdPregunta(pregunta.getIdPregunta());
-        stats.put("total_respuestas_pregunta", respuestas.size());
+        stats.put("total_respuestas_pregunta", (int) total);
 
         switch (pregunta.getTipo().toLowerCase()) {
             case "seleccion_unica":
             case "si_no":
             case "verdadero_falso":
-                stats.putAll(generarEstadisticasCategorica(respuestas, pregunta.getOpciones()));
+                stats.putAll(generarEstadisticasCategorica(frecuencias, pregunta.getOpciones()));
                 break;
             case "seleccion_multiple":
             case "checkbox":
-                stats.putAll(generarEstadisticasMultiple(respuestas, pregunta.getOpciones()));
+                stats.putAll(generarEstadisticasMultiple(frecuencias, pregunta.getOpciones()));
                 break;
             case "escala":
-                stats.putAll(generarEstadisticasEscala(respuestas));
+                stats.putAll(generarEstadisticasEscala(frecuencias));
                 break;
             case "abierta":
-                stats.putAll(generarEstadisticasAbierta(respuestas));
+                stats.putAll(generarEstadisticasAbierta(total, textos,
+                        total > textos.size() && ultimaClaveMuestra != null
+                                ? PaginacionUtil.codificarCursor(ultimaClaveMuestra) : null));
                 break;
             default:
-                stats.putAll(generarEstadisticasGenerica(respuestas));
+                stats.putAll(generarEstadisticasGenerica(frecuencias));
         }
 
         return stats;
     }
 
-    private Map<String, Object> generarEstadisticasCategorica(List<Respuesta> respuestas, List<String> opciones) {
+    /**
+     * Gráfico de pastel para preguntas de una sola opción.
+     *
+     * @param frecuencias cantidad de respuestas por valor exacto.
+     * @param opciones    opciones configuradas en la pregunta (aparecen aunque tengan 0).
+     */
+    Map<String, Object> generarEstadisticasCategorica(Map<String, Long> frecuencias, List<String> opciones) {
         Map<String, Object> stats = new HashMap<>();
         Map<String, Integer> conteo = new HashMap<>();
 
@@ -101,11 +317,10 @@ public class EstadisticasService {
             }
         }
 
-        // Contar respuestas
-        for (Respuesta respuesta : respuestas) {
-            String valor = respuesta.getRespuesta();
-            if (valor != null) {
-                conteo.put(valor, conteo.getOrDefault(valor, 0) + 1);
+        // Acumular conteos
+        for (Map.Entry<String, Long> frecuencia : frecuencias.entrySet()) {
+            if (frecuencia.getKey() != null) {
+                conteo.merge(frecuencia.getKey(), frecuencia.getValue().intValue(), Integer::sum);
             }
         }
 
@@ -117,7 +332,12 @@ public class EstadisticasService {
         return stats;
     }
 
-    private Map<String, Object> generarEstadisticasEscala(List<Respuesta> respuestas) {
+    /**
+     * Gráfico de barras para preguntas de escala 1-5, con su promedio.
+     *
+     * @param frecuencias cantidad de respuestas por valor exacto.
+     */
+    Map<String, Object> generarEstadisticasEscala(Map<String, Long> frecuencias) {
         Map<String, Object> stats = new HashMap<>();
         Map<String, Integer> conteo = new HashMap<>();
 
@@ -126,10 +346,10 @@ public class EstadisticasService {
             conteo.put(String.valueOf(i), 0);
         }
 
-        for (Respuesta respuesta : respuestas) {
-            String valor = respuesta.getRespuesta();
+        for (Map.Entry<String, Long> frecuencia : frecuencias.entrySet()) {
+            String valor = frecuencia.getKey();
             if (valor != null && conteo.containsKey(valor)) {
-                conteo.put(valor, conteo.get(valor) + 1);
+                conteo.put(valor, conteo.get(valor) + frecuencia.getValue().intValue());
             }
         }
 
@@ -139,21 +359,21 @@ public class EstadisticasService {
                 conteo.get("1"), conteo.get("2"), conteo.get("3"),
                 conteo.get("4"), conteo.get("5")
         ));
-        stats.put("promedio", calcularPromedioEscala(respuestas));
+        stats.put("promedio", calcularPromedioEscala(frecuencias));
 
         return stats;
     }
 
-    private double calcularPromedioEscala(List<Respuesta> respuestas) {
-        if (respuestas.isEmpty()) return 0;
+    private double calcularPromedioEscala(Map<String, Long> frecuencias) {
+        if (frecuencias.isEmpty()) return 0;
 
         double suma = 0;
-        int count = 0;
-        for (Respuesta respuesta : respuestas) {
+        long count = 0;
+        for (Map.Entry<String, Long> frecuencia : frecuencias.entrySet()) {
             try {
-                if (respuesta.getRespuesta() != null) {
-                    suma += Double.parseDouble(respuesta.getRespuesta());
-                    count++;
+                if (frecuencia.getKey() != null) {
+                    suma += Double.parseDouble(frecuencia.getKey()) * frecuencia.getValue();
+                    count += frecuencia.getValue();
                 }
             } catch (NumberFormatException e) {
                 // Ignorar valores no numéricos
@@ -162,7 +382,13 @@ public class EstadisticasService {
         return count > 0 ? suma / count : 0;
     }
 
-    private Map<String, Object> generarEstadisticasMultiple(List<Respuesta> respuestas, List<String> opciones) {
+    /**
+     * Gráfico de barras para preguntas de selección múltiple.
+     *
+     * @param frecuencias cantidad de selecciones por opción (ya separadas por comas y recortadas).
+     * @param opciones    opciones configuradas en la pregunta (aparecen aunque tengan 0).
+     */
+    Map<String, Object> generarEstadisticasMultiple(Map<String, Long> frecuencias, List<String> opciones) {
         Map<String, Object> stats = new HashMap<>();
         Map<String, Integer> conteo = new HashMap<>();
 
@@ -172,19 +398,8 @@ public class EstadisticasService {
             }
         }
 
-        for (Respuesta respuesta : respuestas) {
-            if (respuesta.getRespuesta() != null) {
-                // Para múltiple selección, separar por comas
-                String[] selecciones = respuesta.getRespuesta().split(",");
-                for (String seleccion : selecciones) {
-                    String opcion = seleccion.trim();
-                    if (conteo.containsKey(opcion)) {
-                        conteo.put(opcion, conteo.get(opcion) + 1);
-                    } else {
-                        conteo.put(opcion, conteo.getOrDefault(opcion, 0) + 1);
-                    }
-                }
-            }
+        for (Map.Entry<String, Long> frecuencia : frecuencias.entrySet()) {
+            conteo.merge(frecuencia.getKey(), frecuencia.getValue().intValue(), Integer::sum);
         }
 
         stats.put("tipo_grafico", "bar");
@@ -194,30 +409,75 @@ public class EstadisticasService {
         return stats;
     }
 
-    private Map<String, Object> generarEstadisticasAbierta(List<Respuesta> respuestas) {
+    /**
+     * Para preguntas abiertas se devuelven el total y una muestra de las respuestas textuales.
+     * <p>
+     * Si la muestra no las incluye todas, {@code siguiente_cursor} permite pedir las demás en
+     * {@code GET /api/estadisticas/pregunta/{id}/abiertas}.
+     * </p>
+     *
+     * @param total           respuestas registradas en la pregunta.
+     * @param muestra         últimas respuestas, de la más reciente a la más antigua.
+     * @param siguienteCursor cursor para continuar tras la muestra, o {@code null} si está completa.
+     */
+    Map<String, Object> generarEstadisticasAbierta(long total, List<String> muestra, String siguienteCursor) {
         Map<String, Object> stats = new HashMap<>();
-        // Para preguntas abiertas, devolver las respuestas textuales
-        List<String> textos = respuestas.stream()
-                .map(Respuesta::getRespuesta)
+        List<String> respuestas = muestra.stream()
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
 
         stats.put("tipo_grafico", "texto");
-        stats.put("respuestas", textos);
-        stats.put("total_respuestas", textos.size());
+        stats.put("respuestas", respuestas);
+        stats.put("total_respuestas", total);
+        stats.put("muestra_completa", siguienteCursor == null);
+        stats.put("siguiente_cursor", siguienteCursor);
 
         return stats;
     }
 
-    private Map<String, Object> generarEstadisticasGenerica(List<Respuesta> respuestas) {
+    /**
+     * Recorre por cursor las respuestas de una pregunta abierta, de la más reciente a la más antigua
+     * por fecha de respuesta (el ID desempata).
+     * <p>
+     * Con el {@code siguiente_cursor} de la pregunta en las estadísticas continúa justo después de
+     * la muestra; sin cursor empieza por la respuesta más reciente.
+     * </p>
+     *
+     * @param idPregunta identificador de la pregunta.
+     * @param cursor     cursor de la página anterior; vacío o {@code null} para la primera.
+     * @param tamano     número máximo de respuestas.
+     * @return página con el cursor siguiente, si quedan respuestas más antiguas.
+     * @throws RuntimeException si la pregunta no existe, no es abierta o el cursor no es válido.
+     */
+    public PaginaCursorDTO<RespuestaDTO> obtenerRespuestasAbiertas(Long idPregunta, String cursor, int tamano) {
+        String tipo = preguntaRepository.findMetadataById(idPregunta)
+                .orElseThrow(() -> new RuntimeException("Pregunta no encontrada"))
+                .getTipo();
+        if (!"abierta".equalsIgnoreCase(tipo)) {
+            throw new RuntimeException("La pregunta " + idPregunta + " no es abierta");
+        }
+
+        long[] clave = PaginacionUtil.decodificarCursor(cursor, 2);
+        PageRequest limite = PageRequest.of(0, tamano + 1);
+        List<RespuestaDTO> filas = clave == null
+                ? respuestaRepository.listarRecientesPorPregunta(idPregunta, limite)
+                : respuestaRepository.listarPorPreguntaAntesDeFecha(idPregunta, new Date(clave[0]), clave[1], limite);
+        return PaginacionUtil.pagina(filas, tamano,
+                r -> new long[]{r.getFechaRespuesta().getTime(), r.getId()});
+    }
+
+    /**
+     * Para tipos desconocidos se devuelven frecuencias genéricas.
+     *
+     * @param frecuencias cantidad de respuestas por valor exacto.
+     */
+    Map<String, Object> generarEstadisticasGenerica(Map<String, Long> frecuencias) {
         Map<String, Object> stats = new HashMap<>();
-        // Para tipos desconocidos, contar frecuencias genéricas
         Map<String, Integer> conteo = new HashMap<>();
 
-        for (Respuesta respuesta : respuestas) {
-            String valor = respuesta.getRespuesta();
-            if (valor != null) {
-                conteo.put(valor, conteo.getOrDefault(valor, 0) + 1);
+        for (Map.Entry<String, Long> frecuencia : frecuencias.entrySet()) {
+            if (frecuencia.getKey() != null) {
+                conteo.merge(frecuencia.getKey(), frecuencia.getValue().intValue(), Integer::sum);
             }
         }
 
@@ -0,0 +1,174 @@
+package com.pruebas.pruebas.service;
+
+import com.pruebas.pruebas.dto.RespuestaExportadaDTO;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Libro {@code .xlsx} con las respuestas de una encuesta, construido sobre {@link SXSSFWorkbook}.
+ * <p>
+ * Solo se mantienen en memoria las últimas {@code ventanaFilas} filas de cada hoja; las anteriores
+ * se vuelcan a archivos temporales comprimidos en {@code java.io.tmpdir}, que se borran al cerrar
+ * el libro. Así la memoria no depende del número de respuestas.
+ * </p>
+ *
+ * <h3>Hojas:</h3>
+ * <ul>
+ *   <li><b>Resumen</b>: por pregunta, el total de respuestas y la cantidad de cada valor.</li>
+ *   <li><b>Respuestas</b>: una fila por respuesta. Si se supera el límite de filas de Excel
+ *       se continúa en "Respuestas (2)", "Respuestas (3)", etc.</li>
+ * </ul>
+ *
+ * <p>No es un bean de Spring: cada exportación crea y cierra su propio libro.</p>
+ */
+public class ExportacionExcel implements Closeable {
+
+    /** Filas por hoja admitidas por Excel, incluida la cabecera. */
+    static final int MAX_FILAS_HOJA = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+    /** Longitud máxima del texto de una celda en Excel. */
+    static final int MAX_TEXTO_CELDA = SpreadsheetVersion.EXCEL2007.getMaxTextLength();
+
+    private static final String[] COLUMNAS_RESPUESTAS =
+            {"ID respuesta", "ID pregunta", "Pregunta", "Tipo", "Respuesta", "Fecha"};
+    private static final String[] COLUMNAS_RESUMEN = {"Pregunta", "Tipo", "Valor", "Cantidad"};
+
+    private final SXSSFWorkbook libro;
+    private final CellStyle estiloCabecera;
+    private final CellStyle estiloFecha;
+
+    private SXSSFSheet hojaResumen;
+    private int filaResumen;
+
+    private SXSSFSheet hojaRespuestas;
+    private int filaRespuestas;
+    private int hojasRespuestas;
+    private long respuestasEscritas;
+
+    /**
+     * @param ventanaFilas filas por hoja que se conservan en memoria antes de volcarlas a disco.
+     */
+    public ExportacionExcel(int ventanaFilas) {
+        this.libro = new SXSSFWorkbook(ventanaFilas);
+        this.libro.setCompressTempFiles(true);
+
+        Font negrita = libro.createFont();
+        negrita.setBold(true);
+        this.estiloCabecera = libro.createCellStyle();
+        this.estiloCabecera.setFont(negrita);
+
+        this.estiloFecha = libro.createCellStyle();
+        this.estiloFecha.setDataFormat(libro.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+    }
+
+    /**
+     * Añade a la hoja de resumen el total y las frecuencias de una pregunta.
+     *
+     * @param textoPregunta texto de la pregunta.
+     * @param tipo          tipo de la pregunta.
+     * @param total         número de respuestas de la pregunta.
+     * @param frecuencias   cantidad por valor (vacío para preguntas abiertas); se escriben de mayor a menor.
+     */
+    public void agregarResumenPregunta(String textoPregunta, String tipo, long total, Map<String, Long> frecuencias) {
+        if (hojaResumen == null) {
+            hojaResumen = libro.createSheet("Resumen");
+            escribirCabecera(hojaResumen, COLUMNAS_RESUMEN);
+            filaResumen = 1;
+        }
+        escribirFilaResumen(textoPregunta, tipo, "(total)", total);
+        frecuencias.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .forEach(e -> escribirFilaResumen(textoPregunta, tipo, e.getKey(), e.getValue()));
+    }
+
+    /**
+     * Añade una fila a la hoja de respuestas, abriendo una hoja nueva cuando la actual está llena.
+     *
+     * @param fila respuesta a escribir.
+     */
+    public void agregarRespuesta(RespuestaExportadaDTO fila) {
+        if (hojaRespuestas == null || filaRespuestas >= MAX_FILAS_HOJA) {
+            hojasRespuestas++;
+            hojaRespuestas = libro.createSheet(hojasRespuestas == 1 ? "Respuestas" : "Respuestas (" + hojasRespuestas + ")");
+            escribirCabecera(hojaRespuestas, COLUMNAS_RESPUESTAS);
+            filaRespuestas = 1;
+        }
+        Row row = hojaRespuestas.createRow(filaRespuestas++);
+        row.createCell(0).setCellValue(fila.getIdRespuesta());
+        row.createCell(1).setCellValue(fila.getIdPregunta());
+        row.createCell(2).setCellValue(texto(fila.getTextoPregunta()));
+        row.createCell(3).setCellValue(texto(fila.getTipo()));
+        row.createCell(4).setCellValue(texto(fila.getRespuesta()));
+        if (fila.getFechaRespuesta() != null) {
+            Cell fecha = row.createCell(5);
+            fecha.setCellValue(Date.from(fila.getFechaRespuesta()));
+            fecha.setCellStyle(estiloFecha);
+        }
+        respuestasEscritas++;
+    }
+
+    /** @return número de respuestas añadidas al libro. */
+    public long getRespuestasEscritas() {
+        return respuestasEscritas;
+    }
+
+    /**
+     * Escribe el libro completo en el flujo indicado (sin cerrarlo).
+     */
+    public void escribir(OutputStream salida) throws IOException {
+        if (hojaRespuestas == null) {
+            libro.createSheet("Respuestas");
+            escribirCabecera(libro.getSheet("Respuestas"), COLUMNAS_RESPUESTAS);
+        }
+        libro.write(salida);
+    }
+
+    /**
+     * Libera el libro y borra sus archivos temporales.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            libro.close();
+        } finally {
+            libro.dispose();
+        }
+    }
+
+    private void escribirFilaResumen(String textoPregunta, String tipo, String valor, long cantidad) {
+        Row row = hojaResumen.createRow(filaResumen++);
+        row.createCell(0).setCellValue(texto(textoPregunta));
+        row.createCell(1).setCellValue(texto(tipo));
+        row.createCell(2).setCellValue(texto(valor));
+        row.createCell(3).setCellValue(cantidad);
+    }
+
+    private void escribirCabecera(Sheet hoja, String[] columnas) {
+        Row row = hoja.createRow(0);
+        for (int i = 0; i < columnas.length; i++) {
+            Cell cell = row.createCell(i);
+            cell.setCellValue(columnas[i]);
+            cell.setCellStyle(estiloCabecera);
+        }
+    }
+
+    // Excel rechaza celdas de más de 32767 caracteres; las respuestas abiertas muy largas se recortan
+    private static String texto(String valor) {
+        if (valor == null) return "";
+        return valor.length() > MAX_TEXTO_CELDA ? valor.substring(0, MAX_TEXTO_CELDA) : valor;
+    }
+}
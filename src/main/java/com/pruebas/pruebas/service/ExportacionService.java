@@ -0,0 +1,145 @@
+package com.pruebas.pruebas.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pruebas.pruebas.dto.RespuestaExportadaDTO;
+import com.pruebas.pruebas.entity.Pregunta;
+import com.pruebas.pruebas.repository.EncuestaRepository;
+import com.pruebas.pruebas.repository.ExportacionRepository;
+import com.pruebas.pruebas.repository.PreguntaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Comparator;
+import java.util.Map;
+
+/**
+ * Servicio de exportación masiva de las respuestas de una encuesta.
+ * <p>
+ * Las exportaciones escriben directamente sobre el flujo de salida mientras
+ * {@link ExportacionRepository} recorre el cursor de la base de datos, de modo que la memoria
+ * usada es la misma para mil que para diez millones de respuestas.
+ * </p>
+ *
+ * <h3>Formatos:</h3>
+ * <ul>
+ *   <li><b>NDJSON</b>: un objeto JSON por línea y por respuesta.</li>
+ *   <li><b>Excel</b>: libro {@code .xlsx} generado con {@link ExportacionExcel}.</li>
+ * </ul>
+ */
+@Service
+public class ExportacionService {
+
+    @Autowired
+    private ExportacionRepository exportacionRepository;
+
+    @Autowired
+    private EncuestaRepository encuestaRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PreguntaRepository preguntaRepository;
+
+    @Autowired
+    private ConteoRespuestaService conteoRespuestaService;
+
+    @Value("${exportacion.excel.ventana-filas:100}")
+    private int ventanaFilasExcel;
+
+    /**
+     * Comprueba que la encuesta existe antes de empezar a escribir la respuesta HTTP,
+     * cuando todavía se puede devolver un error.
+     *
+     * @param idEncuesta identificador de la encuesta.
+     * @throws RuntimeException si la encuesta no existe.
+     */
+    public void verificarEncuesta(Long idEncuesta) {
+        if (!encuestaRepository.existsById(idEncuesta)) {
+            throw new RuntimeException("Encuesta no encontrada");
+        }
+    }
+
+    /**
+     * Escribe todas las respuestas de una encuesta como NDJSON.
+     * <p>
+     * Cada línea contiene {@code idEncuesta}, {@code idRespuesta}, {@code idPregunta},
+     * {@code textoPregunta}, {@code tipo}, {@code respuesta} y {@code fechaRespuesta} (ISO-8601, UTC).
+     * Las líneas salen hacia el cliente a medida que se llenan los búferes de escritura.
+     * </p>
+     *
+     * @param idEncuesta identificador de la encuesta.
+     * @param salida     flujo de destino; no se cierra.
+     * @return número de respuestas exportadas.
+     * @throws IOException si falla la escritura (por ejemplo, el cliente cerró la conexión).
+     */
+    public long exportarNdjson(Long idEncuesta, OutputStream salida) throws IOException {
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(salida)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Cada objeto termina en su propio salto de línea; sin separador adicional entre objetos raíz
+            json.setRootValueSeparator(null);
+            try {
+                return exportacionRepository.recorrerRespuestasDeEncuesta(idEncuesta, fila -> {
+                    try {
+                        escribirLinea(json, idEncuesta, fila);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Escribe un libro {@code .xlsx} con la hoja de resumen por pregunta (leída de los contadores)
+     * y una fila por respuesta (leída del cursor).
+     * <p>
+     * El libro completo se genera en archivos temporales y se copia al flujo al final, porque el
+     * formato {@code .xlsx} es un ZIP que no puede escribirse fila a fila sobre la respuesta.
+     * </p>
+     *
+     * @param idEncuesta identificador de la encuesta.
+     * @param salida     flujo de destino; no se cierra.
+     * @return número de respuestas exportadas.
+     * @throws IOException si falla la escritura del libro.
+     */
+    public long exportarExcel(Long idEncuesta, OutputStream salida) throws IOException {
+        try (ExportacionExcel libro = new ExportacionExcel(ventanaFilasExcel)) {
+            Map<Long, Long> totales = conteoRespuestaService.totalesPorPregunta(idEncuesta);
+            Map<Long, Map<String, Long>> frecuencias = conteoRespuestaService.frecuenciasPorPregunta(idEncuesta);
+            preguntaRepository.findByEncuestaIdEncuesta(idEncuesta).stream()
+                    .sorted(Comparator.comparing(Pregunta::getOrden, Comparator.nullsLast(Comparator.naturalOrder())))
+                    .forEach(p -> libro.agregarResumenPregunta(p.getTextoPregunta(), p.getTipo(),
+                            totales.getOrDefault(p.getIdPregunta(), 0L),
+                            frecuencias.getOrDefault(p.getIdPregunta(), Map.of())));
+
+            exportacionRepository.recorrerRespuestasDeEncuesta(idEncuesta, libro::agregarRespuesta);
+            libro.escribir(salida);
+            return libro.getRespuestasEscritas();
+        }
+    }
+
+    private static void escribirLinea(JsonGenerator json, Long idEncuesta, RespuestaExportadaDTO fila) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("idEncuesta", idEncuesta);
+        json.writeNumberField("idRespuesta", fila.getIdRespuesta());
+        json.writeNumberField("idPregunta", fila.getIdPregunta());
+        json.writeStringField("textoPregunta", fila.getTextoPregunta());
+        json.writeStringField("tipo", fila.getTipo());
+        json.writeStringField("respuesta", fila.getRespuesta());
+        if (fila.getFechaRespuesta() != null) {
+            json.writeStringField("fechaRespuesta", fila.getFechaRespuesta().toString());
+        } else {
+            json.writeNullField("fechaRespuesta");
+        }
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+}
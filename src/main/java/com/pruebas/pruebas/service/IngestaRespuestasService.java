@@ -0,0 +1,556 @@
+package com.pruebas.pruebas.service;
+
+import com.pruebas.pruebas.dto.RespuestaDTO;
+import com.pruebas.pruebas.dto.RespuestaPendienteDTO;
+import com.pruebas.pruebas.entity.CheckpointIngesta;
+import com.pruebas.pruebas.entity.Pregunta;
+import com.pruebas.pruebas.entity.Respuesta;
+import com.pruebas.pruebas.repository.CheckpointIngestaRepository;
+import com.pruebas.pruebas.repository.PreguntaRepository;
+import com.pruebas.pruebas.repository.RespuestaRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.dao.NonTransientDataAccessResourceException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Ingesta diferida de respuestas individuales (modo opcional para picos de tráfico).
+ * <p>
+ * La respuesta se valida en la petición y se añade al {@link RegistroIngesta} local; en cuanto el
+ * registro la confirma en disco (sincronizado por grupos junto con las de otras peticiones) se encola
+ * y el cliente recibe 202 sin esperar a PostgreSQL. Un hilo escritor agrupa la cola en lotes de
+ * hasta {@code tamano-lote} respuestas y los inserta junto con sus contadores y con el
+ * {@link CheckpointIngesta} del nodo en una sola transacción.
+ * </p>
+ * <p>
+ * La cola está acotada a {@code capacidad} respuestas aceptadas y no volcadas: cuando se llena,
+ * las peticiones esperan hasta {@code espera-ms} y después reciben 503, lo que frena a los clientes
+ * en lugar de hacer crecer la memoria. Al arrancar se relee el registro y se vuelven a encolar las
+ * entradas posteriores al checkpoint, así que ninguna respuesta aceptada se pierde ni se inserta dos
+ * veces. El registro se vacía cuando todo lo escrito en él ya está volcado y supera
+ * {@code compactar-bytes}.
+ * </p>
+ * <p>
+ * Un lote que falla {@code max-reintentos} veces seguidas se vuelca respuesta a respuesta. Las que
+ * PostgreSQL rechaza de forma definitiva (una restricción incumplida, un dato inválido) se apartan en
+ * {@code <archivo>.rechazadas} para revisarlas y el checkpoint avanza, de modo que una sola respuesta
+ * no bloquea al escritor. Si la base de datos no está disponible no se aparta nada y se sigue reintentando.
+ * </p>
+ * <p>
+ * Publica sus métricas en el {@link MeterRegistry}: la cola ({@code ingesta.pendientes},
+ * {@code ingesta.retraso}), la duración de cada volcado ({@code ingesta.volcado}) y las respuestas
+ * volcadas, descartadas y rechazadas ({@code ingesta.respuestas}). Se leen de los mismos campos que
+ * {@link #estado()}, sin construir el mapa en cada lectura.
+ * </p>
+ *
+ * <h3>Configuración ({@code ingesta.diferida.*}):</h3>
+ * <ul>
+ *   <li>{@code habilitada}: activa el modo; si no, las respuestas se guardan en la petición.</li>
+ *   <li>{@code archivo}: ruta del registro local.</li>
+ *   <li>{@code nodo}: nombre del nodo en {@code ingesta_checkpoint} para un registro nuevo; vacío para
+ *       generarlo. Una vez creado, el nombre se lee de {@code <archivo>.nodo}.</li>
+ *   <li>{@code capacidad}, {@code espera-ms}: límite de la cola y espera antes de responder 503.</li>
+ *   <li>{@code tamano-lote}, {@code intervalo-ms}: tamaño máximo de cada lote y espera del escritor sin datos.</li>
+ *   <li>{@code sincronizar-disco}: responde solo cuando la respuesta está sincronizada en disco.</li>
+ *   <li>{@code max-reintentos}: fallos seguidos de un lote antes de volcarlo respuesta a respuesta.</li>
+ *   <li>{@code compactar-bytes}: tamaño a partir del cual se vacía el registro ya volcado.</li>
+ * </ul>
+ */
+@Service
+public class IngestaRespuestasService implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestaRespuestasService.class);
+    private static final long ESPERA_CIERRE_MS = 30_000;
+    private static final long REINTENTO_MAXIMO_MS = 30_000;
+
+    @Autowired
+    private RespuestaService respuestaService;
+
+    @Autowired
+    private RespuestaRepository respuestaRepository;
+
+    @Autowired
+    private PreguntaRepository preguntaRepository;
+
+    @Autowired
+    private ConteoRespuestaService conteoRespuestaService;
+
+    @Autowired
+    private EstadisticasCache estadisticasCache;
+
+    @Autowired
+    private CheckpointIngestaRepository checkpointIngestaRepository;
+
+    private final boolean habilitada;
+    private final Path archivo;
+    private final String nodoConfigurado;
+    private final int capacidad;
+    private final long esperaMs;
+    private final int tamanoLote;
+    private final long intervaloMs;
+    private final boolean sincronizarDisco;
+    private final long compactarBytes;
+    private final int maxReintentos;
+    private final TransactionTemplate transaccion;
+
+    private final ReentrantLock bloqueoRegistro = new ReentrantLock();
+    private final BlockingQueue<RespuestaPendienteDTO> cola = new LinkedBlockingQueue<>();
+    // Lote en curso: solo lo usa el hilo escritor y se conserva hasta volcarse con éxito
+    private final List<RespuestaPendienteDTO> lote = new ArrayList<>();
+    private RegistroIngesta registro;
+    private volatile String nodo;
+    private volatile Semaphore plazas;
+    private volatile long ultimaSecuencia;
+    private volatile long ultimaSecuenciaVolcada;
+    private volatile long fechaLoteEnCurso;
+    private volatile boolean activa;
+    private Thread escritor;
+
+    private final AtomicLong lotesVolcados = new AtomicLong();
+    private final AtomicLong respuestasVolcadas = new AtomicLong();
+    private final AtomicLong respuestasDescartadas = new AtomicLong();
+    private final AtomicLong respuestasRechazadas = new AtomicLong();
+    private final AtomicLong erroresVolcado = new AtomicLong();
+    private final AtomicLong tiempoTotalVolcadoNanos = new AtomicLong();
+    private volatile long ultimoVolcadoNanos;
+    private volatile long maximoVolcadoNanos;
+    private volatile Timer tiempoVolcado;
+
+    public IngestaRespuestasService(PlatformTransactionManager transactionManager,
+                                    @Value("${ingesta.diferida.habilitada:false}") boolean habilitada,
+                                    @Value("${ingesta.diferida.archivo:./data/ingesta-respuestas.log}") String archivo,
+                                    @Value("${ingesta.diferida.nodo:}") String nodo,
+                                    @Value("${ingesta.diferida.capacidad:100000}") int capacidad,
+                                    @Value("${ingesta.diferida.espera-ms:200}") long esperaMs,
+                                    @Value("${ingesta.diferida.tamano-lote:1000}") int tamanoLote,
+                                    @Value("${ingesta.diferida.intervalo-ms:200}") long intervaloMs,
+                                    @Value("${ingesta.diferida.sincronizar-disco:true}") boolean sincronizarDisco,
+                                    @Value("${ingesta.diferida.compactar-bytes:67108864}") long compactarBytes,
+                                    @Value("${ingesta.diferida.max-reintentos:5}") int maxReintentos) {
+        this.habilitada = habilitada;
+        this.archivo = Path.of(archivo);
+        this.nodoConfigurado = nodo;
+        this.capacidad = capacidad;
+        this.esperaMs = esperaMs;
+        this.tamanoLote = tamanoLote;
+        this.intervaloMs = intervaloMs;
+        this.sincronizarDisco = sincronizarDisco;
+        this.compactarBytes = compactarBytes;
+        this.maxReintentos = maxReintentos;
+        this.transaccion = new TransactionTemplate(transactionManager);
+    }
+
+    /** Indica si las respuestas individuales se registran con ingesta diferida. */
+    public boolean isHabilitada() {
+        return habilitada;
+    }
+
+    /**
+     * Valida una respuesta, la registra en el archivo local y la encola para volcarla más tarde.
+     *
+     * @param idPregunta identificador de la pregunta respondida.
+     * @param dto        datos de la respuesta.
+     * @return la respuesta aceptada, con su fecha y sin identificador (se asigna al volcarla).
+     * @throws RuntimeException        si la pregunta no existe o la respuesta no es válida.
+     * @throws ResponseStatusException 503 si la cola sigue llena tras la espera configurada,
+     *                                 si la ingesta aún se está iniciando o si falla el registro local.
+     */
+    public RespuestaDTO aceptar(Long idPregunta, RespuestaDTO dto) {
+        if (!habilitada) {
+            throw new RuntimeException("La ingesta diferida no está habilitada");
+        }
+        respuestaService.validarNueva(idPregunta, dto);
+
+        Semaphore disponibles = plazas;
+        if (disponibles == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "La ingesta de respuestas se está iniciando");
+        }
+        reservarPlaza(disponibles);
+
+        long fecha = System.currentTimeMillis();
+        CompletableFuture<Void> confirmada;
+        // El bloqueo solo cubre asignar la secuencia y escribir la línea; la espera al disco es fuera
+        bloqueoRegistro.lock();
+        try {
+            RespuestaPendienteDTO pendiente = new RespuestaPendienteDTO(ultimaSecuencia + 1, idPregunta, dto.getRespuesta(), fecha);
+            confirmada = registro.agregar(pendiente);
+            ultimaSecuencia = pendiente.getSecuencia();
+        } catch (IOException e) {
+            disponibles.release();
+            log.error("No se pudo escribir en el registro de ingesta {}", archivo, e);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "No se pudo registrar la respuesta", e);
+        } finally {
+            bloqueoRegistro.unlock();
+        }
+
+        try {
+            confirmada.join();
+        } catch (CompletionException e) {
+            disponibles.release();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "No se pudo registrar la respuesta", e.getCause());
+        }
+        return new RespuestaDTO(null, idPregunta, dto.getRespuesta(), new Date(fecha));
+    }
+
+    private void reservarPlaza(Semaphore disponibles) {
+        try {
+            if (!disponibles.tryAcquire(esperaMs, TimeUnit.MILLISECONDS)) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "La cola de ingesta está llena, reintente más tarde");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Ingesta interrumpida");
+        }
+    }
+
+    /**
+     * Recupera el registro pendiente y arranca el hilo escritor.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        if (!habilitada) return;
+        recuperar();
+        activa = true;
+        escritor = Thread.ofPlatform().name("ingesta-respuestas").daemon(true).start(this::ejecutarEscritor);
+    }
+
+    /**
+     * Abre el registro local y vuelve a encolar las entradas que no llegaron a la base de datos
+     * según el checkpoint del nodo dueño del registro.
+     */
+    void recuperar() {
+        List<RespuestaPendienteDTO> entradas;
+        try {
+            nodo = RegistroIngesta.identificarNodo(archivo, nodoConfigurado);
+            registro = new RegistroIngesta(archivo, sincronizarDisco, cola::addAll);
+            entradas = registro.leer();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el registro de ingesta " + archivo, e);
+        }
+
+        long checkpoint = checkpointIngestaRepository.findById(nodo)
+                .map(CheckpointIngesta::getUltimaSecuencia)
+                .orElse(0L);
+        long maxima = checkpoint;
+        int pendientes = 0;
+        for (RespuestaPendienteDTO entrada : entradas) {
+            maxima = Math.max(maxima, entrada.getSecuencia());
+            if (entrada.getSecuencia() > checkpoint) {
+                cola.add(entrada);
+                pendientes++;
+            }
+        }
+        ultimaSecuencia = maxima;
+        ultimaSecuenciaVolcada = checkpoint;
+        // Con más pendientes que capacidad, los permisos quedan negativos hasta que se vuelquen
+        plazas = new Semaphore(capacidad - pendientes);
+        if (pendientes > 0) {
+            log.info("Recuperadas {} respuestas aceptadas y no volcadas del registro de ingesta {}", pendientes, archivo);
+        }
+    }
+
+    private void ejecutarEscritor() {
+        int fallosSeguidos = 0;
+        while (activa) {
+            try {
+                volcarLote();
+                fallosSeguidos = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                erroresVolcado.incrementAndGet();
+                fallosSeguidos++;
+                if (fallosSeguidos < maxReintentos) {
+                    log.error("No se pudo volcar un lote de {} respuestas; se reintentará", lote.size(), e);
+                } else {
+                    log.error("El lote de {} respuestas falló {} veces seguidas; se vuelca respuesta a respuesta",
+                            lote.size(), fallosSeguidos, e);
+                    try {
+                        volcarUnoAUno();
+                        fallosSeguidos = 0;
+                        continue;
+                    } catch (RuntimeException individual) {
+                        log.error("Tampoco se pudo volcar respuesta a respuesta; se reintentará", individual);
+                    }
+                }
+                try {
+                    Thread.sleep(Math.min(REINTENTO_MAXIMO_MS, intervaloMs * fallosSeguidos));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Vuelca a la base de datos el lote en curso o, si no hay, el siguiente lote de la cola
+     * (esperando hasta {@code intervalo-ms} a que llegue alguna respuesta).
+     * Si falla, el lote se conserva para reintentarlo en la siguiente llamada.
+     *
+     * @return número de respuestas volcadas (0 si la cola estaba vacía).
+     */
+    int volcarLote() throws InterruptedException {
+        if (lote.isEmpty()) {
+            RespuestaPendienteDTO primera = cola.poll(intervaloMs, TimeUnit.MILLISECONDS);
+            if (primera == null) return 0;
+            lote.add(primera);
+            cola.drainTo(lote, tamanoLote - 1);
+            fechaLoteEnCurso = primera.getFechaRespuesta();
+        }
+
+        long inicio = System.nanoTime();
+        ResultadoVolcado resultado = transaccion.execute(estado -> persistir(lote));
+        long duracion = System.nanoTime() - inicio;
+
+        int volcadas = lote.size();
+        ultimaSecuenciaVolcada = lote.get(volcadas - 1).getSecuencia();
+        lote.clear();
+        fechaLoteEnCurso = 0;
+        plazas.release(volcadas);
+        resultado.encuestas().forEach(estadisticasCache::invalidar);
+
+        lotesVolcados.incrementAndGet();
+        respuestasVolcadas.addAndGet(volcadas - resultado.descartadas());
+        respuestasDescartadas.addAndGet(resultado.descartadas());
+        tiempoTotalVolcadoNanos.addAndGet(duracion);
+        ultimoVolcadoNanos = duracion;
+        maximoVolcadoNanos = Math.max(maximoVolcadoNanos, duracion);
+        Timer temporizador = tiempoVolcado;
+        if (temporizador != null) temporizador.record(duracion, TimeUnit.NANOSECONDS);
+
+        compactarRegistro();
+        return volcadas;
+    }
+
+    /**
+     * Vuelca el lote en curso respuesta a respuesta, cada una en su transacción. Las que la base de
+     * datos rechaza de forma definitiva se apartan y el checkpoint avanza tras ellas. Ante cualquier otro
+     * error se detiene, y el resto del lote queda pendiente.
+     *
+     * @return número de respuestas apartadas.
+     */
+    int volcarUnoAUno() {
+        int apartadas = 0;
+        while (!lote.isEmpty()) {
+            RespuestaPendienteDTO pendiente = lote.get(0);
+            try {
+                ResultadoVolcado resultado = transaccion.execute(estado -> persistir(List.of(pendiente)));
+                resultado.encuestas().forEach(estadisticasCache::invalidar);
+                respuestasVolcadas.addAndGet(1 - resultado.descartadas());
+                respuestasDescartadas.addAndGet(resultado.descartadas());
+            } catch (RuntimeException e) {
+                if (!esRechazoDefinitivo(e)) {
+                    throw e;
+                }
+                // Primero se aparta y después avanza el checkpoint: si algo falla entre medias, la
+                // respuesta se reintentará y a lo sumo quedará apartada dos veces, pero no se pierde
+                try {
+                    registro.apartar(pendiente);
+                } catch (IOException io) {
+                    throw new UncheckedIOException("No se pudo apartar la respuesta " + pendiente.getSecuencia(), io);
+                }
+                transaccion.executeWithoutResult(estado -> checkpointIngestaRepository.guardar(nodo, pendiente.getSecuencia()));
+                respuestasRechazadas.incrementAndGet();
+                apartadas++;
+                log.error("Respuesta {} rechazada por la base de datos y apartada en el registro de rechazadas: {}",
+                        pendiente.getSecuencia(), e.getMessage());
+            }
+            lote.remove(0);
+            ultimaSecuenciaVolcada = pendiente.getSecuencia();
+            plazas.release();
+        }
+        fechaLoteEnCurso = 0;
+        compactarRegistro();
+        return apartadas;
+    }
+
+    // La base de datos respondió y no admite la respuesta; que no esté disponible no cuenta como rechazo
+    private static boolean esRechazoDefinitivo(RuntimeException e) {
+        return e instanceof NonTransientDataAccessException
+                && !(e instanceof NonTransientDataAccessResourceException);
+    }
+
+    private ResultadoVolcado persistir(List<RespuestaPendienteDTO> pendientes) {
+        Set<Long> ids = pendientes.stream().map(RespuestaPendienteDTO::getIdPregunta).collect(Collectors.toSet());
+        Map<Long, Pregunta> preguntas = preguntaRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Pregunta::getIdPregunta, Function.identity()));
+
+        List<Respuesta> respuestas = new ArrayList<>(pendientes.size());
+        Set<Long> encuestas = new HashSet<>();
+        int descartadas = 0;
+        for (RespuestaPendienteDTO pendiente : pendientes) {
+            Pregunta pregunta = preguntas.get(pendiente.getIdPregunta());
+            if (pregunta == null) {
+                // La pregunta se eliminó después de aceptar la respuesta
+                log.warn("Se descarta la respuesta {} del registro de ingesta: la pregunta {} ya no existe",
+                        pendiente.getSecuencia(), pendiente.getIdPregunta());
+                descartadas++;
+                continue;
+            }
+            Respuesta r = new Respuesta();
+            r.setPregunta(pregunta);
+            r.setRespuesta(pendiente.getRespuesta());
+            r.setFechaRespuesta(new Date(pendiente.getFechaRespuesta()));
+            respuestas.add(r);
+            if (pregunta.getEncuesta() != null) {
+                encuestas.add(pregunta.getEncuesta().getIdEncuesta());
+            }
+        }
+
+        if (!respuestas.isEmpty()) {
+            respuestaRepository.insertarLote(respuestas);
+            conteoRespuestaService.registrarAltas(respuestas);
+        }
+        checkpointIngestaRepository.guardar(nodo, pendientes.get(pendientes.size() - 1).getSecuencia());
+        return new ResultadoVolcado(encuestas, descartadas);
+    }
+
+    private void compactarRegistro() {
+        try {
+            // Con la cola vacía y el lote volcado, todo lo escrito en el registro está en la base de datos
+            if (registro.tamano() >= compactarBytes && registro.vaciarSi(cola::isEmpty)) {
+                log.info("Registro de ingesta {} vaciado tras volcar hasta la secuencia {}", archivo, ultimaSecuenciaVolcada);
+            }
+        } catch (IOException e) {
+            log.warn("No se pudo vaciar el registro de ingesta {}", archivo, e);
+        }
+    }
+
+    /**
+     * Detiene el escritor tras el lote en curso. Lo que quede pendiente sigue en el registro
+     * y se recupera en el próximo arranque.
+     */
+    @PreDestroy
+    public void detener() throws InterruptedException {
+        activa = false;
+        if (escritor != null) {
+            escritor.join(ESPERA_CIERRE_MS);
+        }
+        if (registro != null) {
+            try {
+                registro.close();
+            } catch (IOException e) {
+                log.warn("No se pudo cerrar el registro de ingesta {}", archivo, e);
+            }
+        }
+    }
+
+    /**
+     * Estado de la ingesta diferida, para vigilar su capacidad.
+     *
+     * @return profundidad de la cola, retraso de la respuesta pendiente más antigua,
+     *         tiempos de volcado y contadores acumulados.
+     */
+    public Map<String, Object> estado() {
+        Map<String, Object> estado = new HashMap<>();
+        estado.put("habilitada", habilitada);
+        estado.put("nodo", nodo);
+        estado.put("capacidad", capacidad);
+        estado.put("pendientes", pendientes());
+        estado.put("retraso_ms", retrasoMs());
+        estado.put("ultima_secuencia_aceptada", ultimaSecuencia);
+        estado.put("ultima_secuencia_volcada", ultimaSecuenciaVolcada);
+        estado.put("lotes_volcados", lotesVolcados.get());
+        estado.put("respuestas_volcadas", respuestasVolcadas.get());
+        estado.put("respuestas_descartadas", respuestasDescartadas.get());
+        estado.put("respuestas_rechazadas", respuestasRechazadas.get());
+        estado.put("sincronizaciones_disco", registro != null ? registro.getSincronizaciones() : 0L);
+        estado.put("errores_volcado", erroresVolcado.get());
+        long lotes = lotesVolcados.get();
+        estado.put("ultimo_volcado_ms", TimeUnit.NANOSECONDS.toMillis(ultimoVolcadoNanos));
+        estado.put("volcado_maximo_ms", TimeUnit.NANOSECONDS.toMillis(maximoVolcadoNanos));
+        estado.put("volcado_promedio_ms", lotes > 0 ? TimeUnit.NANOSECONDS.toMillis(tiempoTotalVolcadoNanos.get() / lotes) : 0L);
+        estado.put("bytes_registro", tamanoRegistro());
+        return estado;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("ingesta.pendientes", this, IngestaRespuestasService::pendientes)
+                .description("Respuestas aceptadas aún no volcadas a la base de datos")
+                .register(registry);
+        Gauge.builder("ingesta.retraso", this, IngestaRespuestasService::retrasoMs)
+                .description("Antigüedad de la respuesta pendiente más antigua")
+                .baseUnit("milliseconds")
+                .register(registry);
+        tiempoVolcado = Timer.builder("ingesta.volcado")
+                .description("Duración de la transacción que vuelca cada lote")
+                .publishPercentileHistogram()
+                .register(registry);
+        contador(registry, respuestasVolcadas, "volcada", "Respuestas insertadas en la base de datos");
+        contador(registry, respuestasDescartadas, "descartada", "Respuestas cuya pregunta ya no existía al volcarlas");
+        contador(registry, respuestasRechazadas, "rechazada", "Respuestas rechazadas por la base de datos y apartadas");
+    }
+
+    private static void contador(MeterRegistry registry, AtomicLong valor, String resultado, String descripcion) {
+        FunctionCounter.builder("ingesta.respuestas", valor, AtomicLong::get)
+                .tag("resultado", resultado)
+                .description(descripcion)
+                .register(registry);
+    }
+
+    private long pendientes() {
+        Semaphore disponibles = plazas;
+        return disponibles != null ? (long) capacidad - disponibles.availablePermits() : 0L;
+    }
+
+    // Antigüedad de la respuesta aceptada más antigua que aún no está en la base de datos
+    private long retrasoMs() {
+        long masAntigua = fechaLoteEnCurso;
+        if (masAntigua == 0) {
+            RespuestaPendienteDTO siguiente = cola.peek();
+            if (siguiente == null) return 0;
+            masAntigua = siguiente.getFechaRespuesta();
+        }
+        return Math.max(0, System.currentTimeMillis() - masAntigua);
+    }
+
+    private long tamanoRegistro() {
+        try {
+            return registro != null ? registro.tamano() : 0;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private record ResultadoVolcado(Set<Long> encuestas, int descartadas) { }
+}
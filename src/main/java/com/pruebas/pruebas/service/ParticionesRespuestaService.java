@@ -0,0 +1,105 @@
+package com.pruebas.pruebas.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mantiene creadas por adelantado las particiones mensuales de la tabla {@code respuesta}.
+ * <p>
+ * La tabla está particionada por rangos mensuales de {@code fecha_respuesta}
+ * ({@code db/migration/V3__particionar_respuesta.sql}). Al arrancar y después cada
+ * {@code intervalo-horas} se invoca la función {@code crear_particiones_respuesta} para el mes
+ * actual y los {@code meses-adelante} siguientes; la función solo crea las que falten, así que
+ * varias instancias pueden ejecutarla a la vez sin efecto adicional.
+ * </p>
+ * <p>
+ * Una respuesta cuyo mes no tiene partición va a {@code respuesta_fuera_de_rango}. Esa partición
+ * debe quedar vacía, porque PostgreSQL no deja crear la partición de un mes si la partición por
+ * defecto ya contiene filas de ese mes; si tiene alguna se avisa en el log.
+ * </p>
+ *
+ * <h3>Configuración ({@code particiones.respuesta.*}):</h3>
+ * <ul>
+ *   <li>{@code meses-adelante}: meses futuros que deben existir además del actual.</li>
+ *   <li>{@code intervalo-horas}: cada cuánto se repite la comprobación.</li>
+ * </ul>
+ */
+@Service
+public class ParticionesRespuestaService {
+
+    private static final Logger log = LoggerFactory.getLogger(ParticionesRespuestaService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int mesesAdelante;
+    private final long intervaloHoras;
+    private final Clock reloj;
+    private ScheduledExecutorService planificador;
+
+    public ParticionesRespuestaService(JdbcTemplate jdbcTemplate,
+                                       @Value("${particiones.respuesta.meses-adelante:3}") int mesesAdelante,
+                                       @Value("${particiones.respuesta.intervalo-horas:12}") long intervaloHoras) {
+        this(jdbcTemplate, mesesAdelante, intervaloHoras, Clock.systemDefaultZone());
+    }
+
+    ParticionesRespuestaService(JdbcTemplate jdbcTemplate, int mesesAdelante, long intervaloHoras, Clock reloj) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.mesesAdelante = mesesAdelante;
+        this.intervaloHoras = intervaloHoras;
+        this.reloj = reloj;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        planificador = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("particiones-respuesta").daemon(true).factory());
+        planificador.scheduleWithFixedDelay(this::crearParticionesPendientes, 0, intervaloHoras, TimeUnit.HOURS);
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (planificador != null) {
+            planificador.shutdownNow();
+        }
+    }
+
+    /**
+     * Crea las particiones que falten desde el mes actual hasta {@code meses-adelante} meses después.
+     * Un error se registra y se reintenta en la siguiente ejecución.
+     *
+     * @return número de particiones creadas, o -1 si la operación falló.
+     */
+    public int crearParticionesPendientes() {
+        LocalDate hoy = LocalDate.now(reloj);
+        try {
+            Integer creadas = jdbcTemplate.queryForObject("SELECT crear_particiones_respuesta(?, ?)", Integer.class,
+                    Date.valueOf(hoy.withDayOfMonth(1)), Date.valueOf(hoy.plusMonths(mesesAdelante)));
+            if (creadas != null && creadas > 0) {
+                log.info("Creadas {} particiones mensuales de respuesta (hasta {} meses adelante)", creadas, mesesAdelante);
+            }
+            Long fueraDeRango = jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM (SELECT 1 FROM respuesta_fuera_de_rango LIMIT 1000) f", Long.class);
+            if (fueraDeRango != null && fueraDeRango > 0) {
+                log.warn("La partición respuesta_fuera_de_rango contiene {}{} filas; las particiones de sus meses "
+                        + "no podrán crearse hasta moverlas", fueraDeRango, fueraDeRango >= 1000 ? " o más" : "");
+            }
+            return creadas == null ? 0 : creadas;
+        } catch (DataAccessException e) {
+            log.error("No se pudieron crear las particiones mensuales de respuesta", e);
+            return -1;
+        }
+    }
+}
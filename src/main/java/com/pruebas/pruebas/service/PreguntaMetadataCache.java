@@ -0,0 +1,121 @@
+package com.pruebas.pruebas.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pruebas.pruebas.dto.PreguntaMetadataDTO;
+import com.pruebas.pruebas.repository.PreguntaRepository;
+import com.pruebas.pruebas.util.TransaccionUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché de lectura de los metadatos de las preguntas (tipo, opciones y encuesta) usada al
+ * registrar respuestas.
+ * <p>
+ * Las preguntas casi no cambian mientras una encuesta recibe respuestas, así que tras el primer
+ * acceso validar y registrar una respuesta no necesita leer la tabla {@code pregunta}.
+ * {@link PreguntaService} la invalida al modificar o eliminar una pregunta, y
+ * {@link EncuestaService} al eliminar encuestas. La expiración es solo una red de seguridad
+ * ante cambios hechos fuera de la aplicación.
+ * </p>
+ * <p>
+ * Como en {@link EstadisticasCache}, la lectura se hace fuera del bloqueo interno de la caché
+ * para no fijar hilos virtuales durante la consulta.
+ * </p>
+ *
+ * <h3>Configuración:</h3>
+ * <ul>
+ *   <li>{@code preguntas.cache.maximo-entradas}: preguntas retenidas como máximo.</li>
+ *   <li>{@code preguntas.cache.expiracion-minutos}: vida máxima de una entrada.</li>
+ * </ul>
+ */
+@Component
+public class PreguntaMetadataCache {
+
+    private final Cache<Long, PreguntaMetadataDTO> cache;
+    private final AtomicLong invalidaciones = new AtomicLong();
+    private final PreguntaRepository preguntaRepository;
+
+    public PreguntaMetadataCache(PreguntaRepository preguntaRepository,
+                                 @Value("${preguntas.cache.maximo-entradas:10000}") long maximoEntradas,
+                                 @Value("${preguntas.cache.expiracion-minutos:10}") long expiracionMinutos) {
+        this.preguntaRepository = preguntaRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximoEntradas)
+                .expireAfterWrite(Duration.ofMinutes(expiracionMinutos))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Devuelve los metadatos de una pregunta, leyéndolos de la base de datos solo si no están en caché.
+     *
+     * @param idPregunta identificador de la pregunta.
+     * @return metadatos de la pregunta.
+     * @throws RuntimeException si la pregunta no existe (las ausencias no se guardan en caché).
+     */
+    public PreguntaMetadataDTO obtener(Long idPregunta) {
+        PreguntaMetadataDTO enCache = cache.getIfPresent(idPregunta);
+        if (enCache != null) return enCache;
+
+        long version = invalidaciones.get();
+        PreguntaMetadataDTO metadata = preguntaRepository.findMetadataById(idPregunta)
+                .orElseThrow(() -> new RuntimeException("Pregunta no encontrada"));
+        cache.put(idPregunta, metadata);
+        if (invalidaciones.get() != version) {
+            cache.asMap().remove(idPregunta, metadata);
+        }
+        return metadata;
+    }
+
+    /**
+     * Invalida una pregunta, ahora y de nuevo tras el commit de la transacción en curso,
+     * para que una lectura concurrente de datos aún no confirmados no quede en caché.
+     *
+     * @param idPregunta identificador de la pregunta modificada o eliminada.
+     */
+    public void invalidar(Long idPregunta) {
+        if (idPregunta == null) return;
+        Runnable accion = () -> {
+            invalidaciones.incrementAndGet();
+            cache.invalidate(idPregunta);
+        };
+        accion.run();
+        TransaccionUtil.despuesDelCommit(accion);
+    }
+
+    /**
+     * Invalida todas las preguntas de una encuesta.
+     *
+     * @param idEncuesta identificador de la encuesta eliminada.
+     */
+    public void invalidarEncuesta(Long idEncuesta) {
+        if (idEncuesta == null) return;
+        Runnable accion = () -> {
+            invalidaciones.incrementAndGet();
+            cache.asMap().values().removeIf(m -> idEncuesta.equals(m.getIdEncuesta()));
+        };
+        accion.run();
+        TransaccionUtil.despuesDelCommit(accion);
+    }
+
+    /**
+     * Invalida todas las entradas.
+     */
+    public void invalidarTodo() {
+        Runnable accion = () -> {
+            invalidaciones.incrementAndGet();
+            cache.invalidateAll();
+        };
+        accion.run();
+        TransaccionUtil.despuesDelCommit(accion);
+    }
+
+    /** Caché subyacente, para registrar sus métricas. */
+    public Cache<Long, PreguntaMetadataDTO> getCache() {
+        return cache;
+    }
+}
@@ -1,26 +1,41 @@
 package com.pruebas.pruebas.service;
 
+import com.pruebas.pruebas.dto.PaginaCursorDTO;
 import com.pruebas.pruebas.dto.PreguntaDTO;
 import com.pruebas.pruebas.entity.Encuesta;
 import com.pruebas.pruebas.entity.Pregunta;
 import com.pruebas.pruebas.mapper.PreguntaMapper;
 import com.pruebas.pruebas.repository.EncuestaRepository;
 import com.pruebas.pruebas.repository.PreguntaRepository;
+import com.pruebas.pruebas.util.OrdenUtil;
+import com.pruebas.pruebas.util.PaginacionUtil;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 import java.util.ArrayList;
+import java.util.Set;
 
 /**
  * Servicio que gestiona la lógica de negocio asociada a {@link Pregunta}.
  * <p>
  * Controla la creación, edición, eliminación y reordenamiento de preguntas
  * dentro de una encuesta específica.
+ * <p>
+ * {@link #create} y {@link #update} colocan la pregunta según la {@code posicion} recibida (1 = primera);
+ * lo que se guarda y se devuelve en {@code orden} es una clave dispersa con huecos ({@link OrdenUtil}),
+ * de modo que colocar una pregunta solo escribe su propia fila. El {@code orden} recibido se ignora. Las operaciones que cambian el orden bloquean la
+ * fila de la encuesta para que dos editores simultáneos no calculen la misma clave.
+ * </p>
  */
 @Service
 public class PreguntaService {
@@ -34,6 +49,15 @@ public class PreguntaService {
     @Autowired
     private PreguntaMapper preguntaMapper;
 
+    @Autowired
+    private ConteoRespuestaService conteoRespuestaService;
+
+    @Autowired
+    private EstadisticasCache estadisticasCache;
+
+    @Autowired
+    private PreguntaMetadataCache preguntaMetadataCache;
+
     private static final Logger log = LoggerFactory.getLogger(PreguntaService.class);
 
     /**
@@ -54,7 +78,8 @@ public class PreguntaService {
 
     /**
      * Crea una nueva pregunta asociada a una encuesta.
-     * Si no se especifica el orden, se asigna automáticamente el siguiente disponible.
+     * Si no se especifica la posición, la pregunta se agrega al final; si se especifica, se coloca
+     * en ella sin modificar las demás preguntas.
      * Si es un tipo con opciones automáticas y no tiene opciones, se crean automáticamente.
      *
      * @param dto DTO de la pregunta a crear
@@ -65,7 +90,7 @@ public class PreguntaService {
     public PreguntaDTO create(PreguntaDTO dto) {
         log.info("Creando nueva pregunta en encuesta {}", dto.getIdEncuesta());
 
-        Encuesta encuesta = encuestaRepository.findById(dto.getIdEncuesta())
+        Encuesta encuesta = encuestaRepository.bloquearPorId(dto.getIdEncuesta())
                 .orElseThrow(() -> new RuntimeException("Encuesta no encontrada"));
 
         // Si es un tipo con opciones automáticas y no tiene opciones, crearlas automáticamente
@@ -75,18 +100,14 @@ public class PreguntaService {
             log.info("Opciones automáticas creadas para tipo: {}", dto.getTipo());
         }
 
-        // Asignar o ajustar orden automáticamente
-        if (dto.getOrden() == null || dto.getOrden() <= 0) {
-            Integer maxOrden = preguntaRepository.findMaxOrdenByEncuesta(encuesta.getIdEncuesta());
-            dto.setOrden(maxOrden == null ? 1 : maxOrden + 1);
-        } else {
-            preguntaRepository.incrementarOrdenDesde(dto.getOrden(), encuesta.getIdEncuesta());
-        }
+        dto.setOrden(claveDeOrden(encuesta.getIdEncuesta(), dto.getPosicion(), null));
 
         Pregunta pregunta = preguntaMapper.toEntity(dto);
         pregunta.setEncuesta(encuesta);
 
-        return preguntaMapper.toDTO(preguntaRepository.save(pregunta));
+        Pregunta guardada = preguntaRepository.save(pregunta);
+        estadisticasCache.invalidar(encuesta.getIdEncuesta());
+        return preguntaMapper.toDTO(guardada);
     }
 
     /**
@@ -102,32 +123,67 @@ public class PreguntaService {
     }
 
     /**
-     * Obtiene una pregunta por su identificador.
+     * Obtiene una pregunta por su identificador, con sus respuestas cargadas
+     * en la misma consulta ({@link Pregunta#GRAFO_CON_RESPUESTAS}).
      *
      * @param id ID de la pregunta
      * @return DTO de la pregunta encontrada
      * @throws RuntimeException si no se encuentra la pregunta
      */
+    @Transactional
     public PreguntaDTO getById(Long id) {
-        Pregunta p = preguntaRepository.findById(id)
+        Pregunta p = preguntaRepository.findConRespuestasById(id)
                 .orElseThrow(() -> new RuntimeException("Pregunta no encontrada"));
         return preguntaMapper.toDTO(p);
     }
 
     /**
-     * Obtiene todas las preguntas existentes en el sistema.
+     * Obtiene una página de preguntas por desplazamiento ({@code page}/{@code size}).
+     * <p>
+     * Con {@code idEncuesta} se listan solo las preguntas de esa encuesta, por defecto en su
+     * orden dentro del cuestionario; sin filtro se ordena por ID.
+     * </p>
      *
-     * @return Lista de preguntas en formato DTO
+     * @param idEncuesta filtro opcional por encuesta.
+     * @param pageable   página, tamaño y orden solicitados.
+     * @return página de preguntas en formato DTO (sin respuestas).
      */
-    public List<PreguntaDTO> getAll() {
-        return preguntaRepository.findAll().stream()
-                .map(preguntaMapper::toDTO)
-                .collect(Collectors.toList());
+    public Page<PreguntaDTO> getPagina(Long idEncuesta, Pageable pageable) {
+        Pageable ordenado = pageable;
+        if (pageable.getSort().isUnsorted()) {
+            Sort sort = idEncuesta != null ? Sort.by("orden", "idPregunta") : Sort.by("idPregunta");
+            ordenado = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+        }
+        return idEncuesta != null
+                ? preguntaRepository.listarPorEncuesta(idEncuesta, ordenado)
+                : preguntaRepository.listar(ordenado);
+    }
+
+    /**
+     * Obtiene una página de preguntas por cursor (keyset sobre el ID).
+     *
+     * @param idEncuesta filtro opcional por encuesta.
+     * @param cursor     cursor de la página anterior; vacío o {@code null} para la primera.
+     * @param tamano     número máximo de preguntas.
+     * @return página con el cursor siguiente, si quedan más preguntas.
+     * @throws RuntimeException si el cursor no es válido.
+     */
+    public PaginaCursorDTO<PreguntaDTO> getPorCursor(Long idEncuesta, String cursor, int tamano) {
+        long[] clave = PaginacionUtil.decodificarCursor(cursor, 1);
+        long despuesDe = clave == null ? 0L : clave[0];
+        Pageable limite = PageRequest.of(0, tamano + 1);
+        List<PreguntaDTO> filas = idEncuesta != null
+                ? preguntaRepository.listarPorEncuestaDesdeId(idEncuesta, despuesDe, limite)
+                : preguntaRepository.listarDesdeId(despuesDe, limite);
+        return PaginacionUtil.pagina(filas, tamano, p -> new long[]{p.getId()});
     }
 
     /**
      * Actualiza los datos de una pregunta específica.
-     * Si cambia el orden, ajusta automáticamente las posiciones del resto.
+     * Si se recibe una posición, la pregunta se mueve a ella y solo cambia su clave; sin posición
+     * conserva su lugar.
+     * Si cambia el tipo, los contadores de respuestas de la encuesta se recalculan,
+     * porque el tipo determina cómo se cuentan (por ejemplo, selección múltiple).
      *
      * @param id  ID de la pregunta a actualizar
      * @param dto DTO con los nuevos datos
@@ -146,16 +202,28 @@ public class PreguntaService {
             log.info("Opciones automáticas actualizadas para tipo: {}", dto.getTipo());
         }
 
-        if (dto.getOrden() != null && !dto.getOrden().equals(existing.getOrden())) {
-            preguntaRepository.incrementarOrdenDesde(dto.getOrden(), existing.getEncuesta().getIdEncuesta());
+        if (dto.getPosicion() != null && dto.getPosicion() > 0) {
+            Long idEncuesta = existing.getEncuesta().getIdEncuesta();
+            encuestaRepository.bloquearPorId(idEncuesta);
+            existing.setOrden(claveDeOrden(idEncuesta, dto.getPosicion(), id));
         }
 
+        boolean cambiaTipo = existing.getTipo() != null && !existing.getTipo().equalsIgnoreCase(dto.getTipo());
+
         existing.setTextoPregunta(dto.getTextoPregunta());
         existing.setTipo(dto.getTipo());
         existing.setOpciones(dto.getOpciones());
-        existing.setOrden(dto.getOrden());
 
-        return preguntaMapper.toDTO(preguntaRepository.save(existing));
+        Pregunta guardada = preguntaRepository.save(existing);
+        if (cambiaTipo) {
+            preguntaRepository.flush();
+            conteoRespuestaService.reconstruir(existing.getEncuesta().getIdEncuesta());
+        }
+        if (existing.getEncuesta() != null) {
+            estadisticasCache.invalidar(existing.getEncuesta().getIdEncuesta());
+        }
+        preguntaMetadataCache.invalidar(id);
+        return preguntaMapper.toDTO(guardada);
     }
 
     /**
@@ -164,9 +232,71 @@ public class PreguntaService {
      * @param id ID de la pregunta a eliminar
      * @return {@code true} si existía y fue eliminada, {@code false} si no existía
      */
+    @Transactional
     public boolean delete(Long id) {
-        if (!preguntaRepository.existsById(id)) return false;
-        preguntaRepository.deleteById(id);
+        Optional<Long> idEncuesta = preguntaRepository.findIdEncuestaByIdPregunta(id);
+        if (idEncuesta.isEmpty()) return false;
+        conteoRespuestaService.eliminarPregunta(id);
+        preguntaRepository.eliminarPorId(id);
+        estadisticasCache.invalidar(idEncuesta.get());
+        preguntaMetadataCache.invalidar(id);
         return true;
     }
-}
\ No newline at end of file
+
+    /**
+     * Aplica un orden completo a las preguntas de una encuesta con una sola sentencia.
+     *
+     * @param idEncuesta identificador de la encuesta.
+     * @param ids        todas sus preguntas, cada una una vez, en el orden deseado.
+     * @throws RuntimeException si la encuesta no existe o la lista no contiene exactamente sus preguntas.
+     */
+    @Transactional
+    public void reordenar(Long idEncuesta, List<Long> ids) {
+        encuestaRepository.bloquearPorId(idEncuesta)
+                .orElseThrow(() -> new RuntimeException("Encuesta no encontrada"));
+
+        Set<Long> actuales = new HashSet<>();
+        for (Object[] fila : preguntaRepository.findOrdenesByEncuesta(idEncuesta)) {
+            actuales.add((Long) fila[0]);
+        }
+        if (ids == null || ids.size() != actuales.size() || !actuales.equals(new HashSet<>(ids))) {
+            throw new RuntimeException("La lista debe contener cada pregunta de la encuesta exactamente una vez");
+        }
+
+        preguntaRepository.aplicarOrden(idEncuesta, ids.toArray(Long[]::new));
+        estadisticasCache.invalidar(idEncuesta);
+    }
+
+    /**
+     * Clave de orden para colocar una pregunta en una posición de su encuesta.
+     * <p>
+     * Sin posición (o no positiva) va al final. Si entre las vecinas no queda hueco, se reequilibra
+     * la encuesta y se vuelve a calcular; es lo único que escribe otras filas y solo ocurre tras
+     * muchas inserciones en el mismo punto.
+     * </p>
+     *
+     * @param idEncuesta identificador de la encuesta (su fila ya debe estar bloqueada).
+     * @param posicion   posición deseada, empezando en 1.
+     * @param idPregunta pregunta que se mueve, que no cuenta como vecina; {@code null} al crear.
+     * @return clave libre para la posición.
+     */
+    private int claveDeOrden(Long idEncuesta, Integer posicion, Long idPregunta) {
+        if (posicion == null || posicion <= 0) {
+            Integer maxOrden = preguntaRepository.findMaxOrdenByEncuesta(idEncuesta);
+            return (maxOrden == null ? 0 : maxOrden) + OrdenUtil.SEPARACION;
+        }
+        List<Integer> claves = new ArrayList<>();
+        for (Object[] fila : preguntaRepository.findOrdenesByEncuesta(idEncuesta)) {
+            if (!fila[0].equals(idPregunta)) {
+                claves.add((Integer) fila[1]);
+            }
+        }
+        Integer clave = OrdenUtil.claveEnPosicion(claves, posicion);
+        if (clave == null) {
+            int reequilibradas = preguntaRepository.reequilibrarOrden(idEncuesta);
+            log.info("Orden de la encuesta {} reequilibrado ({} preguntas)", idEncuesta, reequilibradas);
+            return claveDeOrden(idEncuesta, posicion, idPregunta);
+        }
+        return clave;
+    }
+}
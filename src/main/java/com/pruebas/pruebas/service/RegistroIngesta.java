@@ -0,0 +1,416 @@
+package com.pruebas.pruebas.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pruebas.pruebas.dto.RespuestaPendienteDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Registro local de solo escritura al final con las respuestas aceptadas por la ingesta diferida.
+ * <p>
+ * Cada entrada es una línea JSON ({@link RespuestaPendienteDTO}). Con {@code sincronizar} activo,
+ * una entrada solo se confirma cuando la línea está en disco, de modo que una respuesta confirmada
+ * con 202 sobrevive a una caída del proceso o de la máquina. Una línea a medio escribir por una caída
+ * nunca fue confirmada y se descarta al abrir el registro.
+ * </p>
+ * <p>
+ * La sincronización es por grupos: {@link #agregar} solo escribe la línea y devuelve una espera
+ * compartida por todas las entradas del grupo abierto. Un hilo propio cierra el grupo, sincroniza el
+ * archivo una vez y confirma a la vez todas sus entradas; mientras tanto las nuevas forman el grupo
+ * siguiente. Así el número de sincronizaciones depende del tiempo que tarda el disco y no del número
+ * de peticiones. Las entradas confirmadas se entregan en orden a {@code alConfirmar}.
+ * </p>
+ * <p>
+ * El nodo dueño del registro se guarda junto a él, en {@code <archivo>.nodo} (ver
+ * {@link #identificarNodo}): el checkpoint de la base de datos se busca por ese nombre, así que debe
+ * sobrevivir a los reinicios igual que el propio registro.
+ * </p>
+ * <p>
+ * {@link #agregar} es seguro entre hilos, pero quien asigna las secuencias debe llamarlo en el mismo
+ * orden en que las asigna ({@link IngestaRespuestasService} lo hace bajo su propio bloqueo).
+ * </p>
+ */
+public class RegistroIngesta implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(RegistroIngesta.class);
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    /** Longitud máxima de {@code ingesta_checkpoint.nodo}. */
+    private static final int LONGITUD_MAXIMA_NODO = 100;
+
+    /** Lleva al disco lo escrito en el canal; las pruebas la sustituyen para simular un disco lento o fallido. */
+    @FunctionalInterface
+    interface Sincronizacion {
+        void sincronizar(FileChannel canal) throws IOException;
+    }
+
+    private final Path archivo;
+    private final boolean sincronizar;
+    private final FileChannel canal;
+    private final Consumer<List<RespuestaPendienteDTO>> alConfirmar;
+    private final Sincronizacion sincronizacion;
+
+    private final ReentrantLock bloqueo = new ReentrantLock();
+    private final Condition hayPendientes = bloqueo.newCondition();
+    // Entradas escritas que esperan la próxima sincronización
+    private Grupo abierto = new Grupo();
+    // Grupo que se está sincronizando, o null
+    private Grupo enCurso;
+    private boolean cerrado;
+    private final Thread sincronizador;
+    private final AtomicLong sincronizaciones = new AtomicLong();
+
+    /**
+     * Abre (o crea) el registro.
+     *
+     * @param archivo     ruta del registro.
+     * @param sincronizar si cada entrada se confirma solo después de llegar al disco.
+     * @param alConfirmar recibe las entradas confirmadas, en orden de escritura.
+     * @throws IOException si no se puede abrir el archivo.
+     */
+    public RegistroIngesta(Path archivo, boolean sincronizar,
+                           Consumer<List<RespuestaPendienteDTO>> alConfirmar) throws IOException {
+        this(archivo, sincronizar, alConfirmar, c -> c.force(false));
+    }
+
+    RegistroIngesta(Path archivo, boolean sincronizar, Consumer<List<RespuestaPendienteDTO>> alConfirmar,
+                    Sincronizacion sincronizacion) throws IOException {
+        this.archivo = archivo;
+        this.sincronizar = sincronizar;
+        this.alConfirmar = alConfirmar;
+        this.sincronizacion = sincronizacion;
+        Path directorio = archivo.toAbsolutePath().getParent();
+        if (directorio != null) {
+            Files.createDirectories(directorio);
+        }
+        this.canal = FileChannel.open(archivo,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        recortarEntradaIncompleta();
+        canal.position(canal.size());
+        this.sincronizador = sincronizar
+                ? Thread.ofPlatform().name("ingesta-sincronizacion").daemon(true).start(this::sincronizarGrupos)
+                : null;
+    }
+
+    /**
+     * Devuelve el nodo dueño de un registro, leyéndolo de {@code <archivo>.nodo} o creando ese archivo
+     * si aún no existe.
+     * <p>
+     * Un nombre tomado del entorno (como el hostname de un contenedor) cambia al recrearlo, y con otro
+     * nombre el checkpoint no se encuentra y todo el registro se volvería a insertar. Por eso el nombre
+     * se fija la primera vez y después siempre manda el guardado. Si el registro ya tiene entradas pero
+     * no su archivo de nodo (un registro de una versión anterior o copiado sin él), no hay forma segura
+     * de saber qué checkpoint le corresponde y se exige configurarlo.
+     * </p>
+     *
+     * @param archivo     ruta del registro.
+     * @param configurado nombre de {@code ingesta.diferida.nodo}, o vacío para generar uno.
+     * @return nombre del nodo.
+     * @throws IllegalStateException si el registro tiene entradas sin archivo de nodo y no hay nombre
+     *                               configurado, o si el nombre es demasiado largo.
+     * @throws IOException           si no se puede leer o escribir el archivo de nodo.
+     */
+    public static String identificarNodo(Path archivo, String configurado) throws IOException {
+        Path marca = archivo.resolveSibling(archivo.getFileName() + ".nodo");
+        boolean hayConfigurado = configurado != null && !configurado.isBlank();
+        if (Files.exists(marca)) {
+            String guardado = Files.readString(marca, StandardCharsets.UTF_8).strip();
+            if (!guardado.isEmpty()) {
+                if (hayConfigurado && !guardado.equals(configurado.strip())) {
+                    log.warn("El registro de ingesta {} pertenece al nodo {}; se ignora ingesta.diferida.nodo={}",
+                            archivo, guardado, configurado);
+                }
+                return guardado;
+            }
+        }
+
+        String nodo;
+        if (hayConfigurado) {
+            nodo = configurado.strip();
+        } else if (Files.exists(archivo) && Files.size(archivo) > 0) {
+            throw new IllegalStateException("El registro de ingesta " + archivo + " tiene entradas pero no el archivo "
+                    + marca + "; configure ingesta.diferida.nodo con el nodo que lo escribió");
+        } else {
+            nodo = "ingesta-" + UUID.randomUUID();
+        }
+        if (nodo.length() > LONGITUD_MAXIMA_NODO) {
+            throw new IllegalStateException("El nombre del nodo de ingesta supera los " + LONGITUD_MAXIMA_NODO + " caracteres");
+        }
+
+        // Se escribe aparte y se renombra para que nunca quede un archivo de nodo a medias
+        Path directorio = archivo.toAbsolutePath().getParent();
+        if (directorio != null) {
+            Files.createDirectories(directorio);
+        }
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".nodo.tmp");
+        try (FileChannel canalMarca = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer contenido = ByteBuffer.wrap(nodo.getBytes(StandardCharsets.UTF_8));
+            while (contenido.hasRemaining()) {
+                canalMarca.write(contenido);
+            }
+            canalMarca.force(true);
+        }
+        Files.move(temporal, marca, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        log.info("Registro de ingesta {} asignado al nodo {}", archivo, nodo);
+        return nodo;
+    }
+
+    /**
+     * Lee todas las entradas del registro, en orden de escritura.
+     *
+     * @return entradas registradas; las líneas ilegibles se omiten con una advertencia.
+     * @throws IOException si no se puede leer el archivo.
+     */
+    public List<RespuestaPendienteDTO> leer() throws IOException {
+        List<RespuestaPendienteDTO> entradas = new ArrayList<>();
+        try (BufferedReader lector = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                if (linea.isBlank()) continue;
+                try {
+                    entradas.add(JSON.readValue(linea, RespuestaPendienteDTO.class));
+                } catch (JsonProcessingException e) {
+                    log.warn("Se omite una línea ilegible del registro de ingesta {}: {}", archivo, e.getOriginalMessage());
+                }
+            }
+        }
+        return entradas;
+    }
+
+    /**
+     * Añade una entrada al final del registro. Si la escritura falla, el registro vuelve
+     * a su tamaño anterior para no dejar una línea incompleta.
+     *
+     * @param entrada respuesta aceptada.
+     * @return espera que se completa cuando la entrada está en disco y ya se entregó a
+     *         {@code alConfirmar}, o que falla con la {@link IOException} de la sincronización.
+     *         Sin {@code sincronizar} se devuelve ya completada.
+     * @throws IOException si no se puede escribir la línea o el registro está cerrado.
+     */
+    public CompletableFuture<Void> agregar(RespuestaPendienteDTO entrada) throws IOException {
+        byte[] json = JSON.writeValueAsBytes(entrada);
+        ByteBuffer linea = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n').flip();
+        bloqueo.lock();
+        try {
+            if (cerrado) {
+                throw new IOException("El registro de ingesta " + archivo + " está cerrado");
+            }
+            long posicion = canal.position();
+            try {
+                while (linea.hasRemaining()) {
+                    canal.write(linea);
+                }
+            } catch (IOException e) {
+                canal.truncate(posicion);
+                canal.position(posicion);
+                throw e;
+            }
+            if (!sincronizar) {
+                alConfirmar.accept(List.of(entrada));
+                return CompletableFuture.completedFuture(null);
+            }
+            if (abierto.entradas.isEmpty()) {
+                abierto.inicio = posicion;
+            }
+            abierto.entradas.add(entrada);
+            hayPendientes.signal();
+            return abierto.confirmado;
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    // Hilo de sincronización: un force() por grupo, con el bloqueo libre para que sigan llegando entradas
+    private void sincronizarGrupos() {
+        while (true) {
+            Grupo grupo;
+            bloqueo.lock();
+            try {
+                while (abierto.entradas.isEmpty() && !cerrado) {
+                    hayPendientes.awaitUninterruptibly();
+                }
+                if (abierto.entradas.isEmpty()) {
+                    return;
+                }
+                grupo = abierto;
+                enCurso = grupo;
+                abierto = new Grupo();
+            } finally {
+                bloqueo.unlock();
+            }
+
+            IOException error = null;
+            try {
+                sincronizacion.sincronizar(canal);
+                sincronizaciones.incrementAndGet();
+            } catch (IOException e) {
+                error = e;
+            }
+
+            bloqueo.lock();
+            try {
+                if (error == null) {
+                    alConfirmar.accept(grupo.entradas);
+                    grupo.confirmado.complete(null);
+                } else {
+                    descartarDesde(grupo, error);
+                }
+                enCurso = null;
+            } finally {
+                bloqueo.unlock();
+            }
+        }
+    }
+
+    /*
+     * Tras un fallo de sincronización no se sabe qué parte llegó al disco. Se recorta el archivo hasta el
+     * inicio del grupo, lo que también elimina el grupo abierto después, y ambos fallan: ninguna de esas
+     * entradas se confirmó, así que no deben reaparecer al releer el registro.
+     */
+    private void descartarDesde(Grupo grupo, IOException error) {
+        log.error("No se pudo sincronizar el registro de ingesta {}; se descartan {} entradas sin confirmar",
+                archivo, grupo.entradas.size() + abierto.entradas.size(), error);
+        try {
+            canal.truncate(grupo.inicio);
+            canal.position(grupo.inicio);
+        } catch (IOException e) {
+            log.error("No se pudo recortar el registro de ingesta {} tras el fallo de sincronización", archivo, e);
+        }
+        grupo.confirmado.completeExceptionally(error);
+        abierto.confirmado.completeExceptionally(error);
+        abierto = new Grupo();
+    }
+
+    /**
+     * Vacía el registro si no queda ninguna entrada por confirmar y se cumple {@code volcado}, que se
+     * evalúa con el registro bloqueado: ninguna entrada puede confirmarse entre la comprobación y el vaciado.
+     *
+     * @param volcado indica si todas las entradas confirmadas ya están en la base de datos.
+     * @return {@code true} si se vació.
+     * @throws IOException si no se puede truncar el archivo.
+     */
+    public boolean vaciarSi(BooleanSupplier volcado) throws IOException {
+        bloqueo.lock();
+        try {
+            if (enCurso != null || !abierto.entradas.isEmpty() || !volcado.getAsBoolean()) {
+                return false;
+            }
+            canal.truncate(0);
+            canal.position(0);
+            if (sincronizar) {
+                canal.force(true);
+            }
+            return true;
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    /**
+     * Guarda una entrada que la base de datos rechazó en {@code <archivo>.rechazadas}, para revisarla
+     * a mano; el registro principal no cambia.
+     *
+     * @param entrada entrada rechazada.
+     * @throws IOException si no se puede escribir o sincronizar el archivo de rechazadas.
+     */
+    public void apartar(RespuestaPendienteDTO entrada) throws IOException {
+        byte[] json = JSON.writeValueAsBytes(entrada);
+        ByteBuffer linea = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n').flip();
+        try (FileChannel rechazadas = FileChannel.open(archivo.resolveSibling(archivo.getFileName() + ".rechazadas"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (linea.hasRemaining()) {
+                rechazadas.write(linea);
+            }
+            rechazadas.force(false);
+        }
+    }
+
+    /** Tamaño actual del registro en bytes. */
+    public long tamano() throws IOException {
+        return canal.size();
+    }
+
+    /** Sincronizaciones con el disco realizadas desde que se abrió el registro. */
+    public long getSincronizaciones() {
+        return sincronizaciones.get();
+    }
+
+    /**
+     * Confirma las entradas pendientes y cierra el archivo.
+     */
+    @Override
+    public void close() throws IOException {
+        bloqueo.lock();
+        try {
+            cerrado = true;
+            hayPendientes.signal();
+        } finally {
+            bloqueo.unlock();
+        }
+        if (sincronizador != null) {
+            try {
+                sincronizador.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        canal.close();
+    }
+
+    /** Entradas que se confirman con una misma sincronización. */
+    private static final class Grupo {
+        final List<RespuestaPendienteDTO> entradas = new ArrayList<>();
+        final CompletableFuture<Void> confirmado = new CompletableFuture<>();
+        long inicio;
+    }
+
+    private void recortarEntradaIncompleta() throws IOException {
+        long fin = canal.size();
+        ByteBuffer bloque = ByteBuffer.allocate(4096);
+        while (fin > 0) {
+            long inicio = Math.max(0, fin - bloque.capacity());
+            bloque.clear().limit((int) (fin - inicio));
+            while (bloque.hasRemaining() && canal.read(bloque, inicio + bloque.position()) > 0) {
+                // lee el bloque completo
+            }
+            for (int i = bloque.position() - 1; i >= 0; i--) {
+                if (bloque.get(i) == '\n') {
+                    truncarSiHaceFalta(inicio + i + 1);
+                    return;
+                }
+            }
+            fin = inicio;
+        }
+        truncarSiHaceFalta(0);
+    }
+
+    private void truncarSiHaceFalta(long tamano) throws IOException {
+        if (tamano < canal.size()) {
+            log.warn("Se descartan {} bytes de una entrada incompleta al final del registro de ingesta {}",
+                    canal.size() - tamano, archivo);
+            canal.truncate(tamano);
+        }
+    }
+}
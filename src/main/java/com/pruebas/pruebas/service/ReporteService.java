@@ -0,0 +1,150 @@
+package com.pruebas.pruebas.service;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRParameter;
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperExportManager;
+import net.sf.jasperreports.engine.JasperFillManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.JasperReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servicio que genera reportes PDF con JasperReports.
+ * <p>
+ * Las plantillas {@code .jrxml} del classpath se compilan una sola vez y el {@link JasperReport}
+ * resultante (inmutable y seguro entre hilos) se reutiliza en todos los llenados. La plantilla
+ * de estadísticas se precompila al arrancar para que la primera petición no pague la compilación.
+ * </p>
+ *
+ * <p>
+ * El número de reportes generándose a la vez está limitado: si no hay un permiso libre tras
+ * la espera configurada se responde 503 en lugar de dejar hilos de petición bloqueados.
+ * </p>
+ *
+ * <h3>Configuración:</h3>
+ * <ul>
+ *   <li>{@code reportes.pdf.max-concurrentes}: reportes generándose simultáneamente.</li>
+ *   <li>{@code reportes.pdf.espera-ms}: espera máxima por un permiso antes de responder 503.</li>
+ * </ul>
+ */
+@Service
+public class ReporteService {
+
+    static final String PLANTILLA_ESTADISTICAS = "reportes/estadisticas_encuesta.jrxml";
+
+    private static final Logger log = LoggerFactory.getLogger(ReporteService.class);
+
+    @Autowired
+    private EstadisticasService estadisticasService;
+
+    private final ConcurrentMap<String, JasperReport> plantillas = new ConcurrentHashMap<>();
+    private final Semaphore permisos;
+    private final long esperaMs;
+
+    public ReporteService(@Value("${reportes.pdf.max-concurrentes:2}") int maxConcurrentes,
+                          @Value("${reportes.pdf.espera-ms:2000}") long esperaMs) {
+        this.permisos = new Semaphore(maxConcurrentes, true);
+        this.esperaMs = esperaMs;
+    }
+
+    /**
+     * Genera el PDF con las estadísticas de una encuesta: gráfico y tabla de valores por pregunta.
+     *
+     * @param idEncuesta identificador de la encuesta.
+     * @return contenido del PDF.
+     * @throws ResponseStatusException 503 si ya se están generando demasiados reportes.
+     * @throws RuntimeException        si la encuesta no existe o la generación falla.
+     */
+    @SuppressWarnings("unchecked")
+    public byte[] generarPdfEstadisticas(Long idEncuesta) {
+        Map<String, Object> estadisticas = estadisticasService.obtenerEstadisticasEncuesta(idEncuesta);
+
+        adquirirPermiso();
+        try {
+            Map<String, Object> parametros = new HashMap<>();
+            parametros.put("TITULO", estadisticas.get("titulo"));
+            parametros.put("DESCRIPCION", estadisticas.get("descripcion"));
+            parametros.put("TOTAL_RESPUESTAS", ((Number) estadisticas.get("total_respuestas")).longValue());
+            parametros.put(JRParameter.REPORT_LOCALE, Locale.forLanguageTag("es"));
+
+            EstadisticasDataSource datos =
+                    new EstadisticasDataSource((List<Map<String, Object>>) estadisticas.get("estadisticas"));
+            JasperPrint impreso = JasperFillManager.fillReport(plantilla(PLANTILLA_ESTADISTICAS), parametros, datos);
+
+            ByteArrayOutputStream pdf = new ByteArrayOutputStream();
+            JasperExportManager.exportReportToPdfStream(impreso, pdf);
+            return pdf.toByteArray();
+        } catch (JRException e) {
+            throw new RuntimeException("No se pudo generar el reporte: " + e.getMessage(), e);
+        } finally {
+            permisos.release();
+        }
+    }
+
+    /**
+     * Precompila las plantillas al arrancar la aplicación. Un error aquí no impide el arranque:
+     * se registra y la compilación se reintenta en la primera petición.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void precompilarPlantillas() {
+        try {
+            plantilla(PLANTILLA_ESTADISTICAS);
+        } catch (RuntimeException e) {
+            log.warn("No se pudo precompilar {}: {}", PLANTILLA_ESTADISTICAS, e.getMessage());
+        }
+    }
+
+    /**
+     * Devuelve la plantilla compilada, compilándola solo la primera vez que se pide.
+     */
+    JasperReport plantilla(String ruta) {
+        return plantillas.computeIfAbsent(ruta, this::compilar);
+    }
+
+    private JasperReport compilar(String ruta) {
+        long inicio = System.nanoTime();
+        try (InputStream jrxml = getClass().getClassLoader().getResourceAsStream(ruta)) {
+            if (jrxml == null) {
+                throw new IllegalStateException("Plantilla no encontrada: " + ruta);
+            }
+            JasperReport reporte = JasperCompileManager.compileReport(jrxml);
+            log.info("Plantilla {} compilada en {} ms", ruta, (System.nanoTime() - inicio) / 1_000_000);
+            return reporte;
+        } catch (JRException | IOException e) {
+            throw new RuntimeException("No se pudo compilar la plantilla " + ruta + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void adquirirPermiso() {
+        try {
+            if (permisos.tryAcquire(esperaMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Se están generando demasiados reportes, intente de nuevo en unos segundos");
+    }
+}
@@ -1,17 +1,32 @@
 package com.pruebas.pruebas.service;
 
+import com.pruebas.pruebas.dto.EnvioEncuestaDTO;
+import com.pruebas.pruebas.dto.PaginaCursorDTO;
+import com.pruebas.pruebas.dto.PreguntaMetadataDTO;
 import com.pruebas.pruebas.dto.RespuestaDTO;
+import com.pruebas.pruebas.dto.ResultadoEnvioDTO;
 import com.pruebas.pruebas.entity.Pregunta;
 import com.pruebas.pruebas.entity.Respuesta;
 import com.pruebas.pruebas.mapper.RespuestaMapper;
+import com.pruebas.pruebas.repository.EncuestaRepository;
 import com.pruebas.pruebas.repository.PreguntaRepository;
 import com.pruebas.pruebas.repository.RespuestaRepository;
-import com.pruebas.pruebas.util.ValidacionUtil;
+import com.pruebas.pruebas.util.PaginacionUtil;
+import com.pruebas.pruebas.util.ValidadorRespuesta;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -26,6 +41,7 @@ import java.util.stream.Collectors;
  *   <li>Validar y crear nuevas respuestas asociadas a una pregunta.</li>
  *   <li>Actualizar respuestas existentes con validación previa.</li>
  *   <li>Eliminar respuestas de forma segura.</li>
+ *   <li>Mantener los contadores de {@link ConteoRespuestaService} en la misma transacción.</li>
  *   <li>Convertir entidades a DTOs y viceversa mediante {@link RespuestaMapper}.</li>
  * </ul>
  *
@@ -41,9 +57,21 @@ public class RespuestaService {
     @Autowired
     private PreguntaRepository preguntaRepository;
 
+    @Autowired
+    private EncuestaRepository encuestaRepository;
+
     @Autowired
     private RespuestaMapper respuestaMapper;
 
+    @Autowired
+    private ConteoRespuestaService conteoRespuestaService;
+
+    @Autowired
+    private EstadisticasCache estadisticasCache;
+
+    @Autowired
+    private PreguntaMetadataCache preguntaMetadataCache;
+
     /**
      * Obtiene una respuesta específica según su identificador.
      *
@@ -58,48 +86,184 @@ public class RespuestaService {
     }
 
     /**
-     * Obtiene todas las respuestas almacenadas en el sistema.
+     * Obtiene una página de respuestas por desplazamiento ({@code page}/{@code size}).
+     * <p>
+     * Si se indica {@code idPregunta} se filtra por pregunta; si no, y se indica {@code idEncuesta},
+     * por encuesta. Sin orden explícito se ordena por ID para que las páginas sean estables.
+     * </p>
      *
-     * @return lista de objetos {@link RespuestaDTO}.
+     * @param idPregunta filtro opcional por pregunta.
+     * @param idEncuesta filtro opcional por encuesta.
+     * @param pageable   página, tamaño y orden solicitados.
+     * @return página de {@link RespuestaDTO}.
      */
-    public List<RespuestaDTO> getAll() {
-        return respuestaRepository.findAll().stream()
-                .map(respuestaMapper::toDTO)
-                .collect(Collectors.toList());
+    public Page<RespuestaDTO> getPagina(Long idPregunta, Long idEncuesta, Pageable pageable) {
+        Pageable ordenado = pageable.getSort().isSorted() ? pageable
+                : PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("idRespuesta"));
+        if (idPregunta != null) return respuestaRepository.listarPorPregunta(idPregunta, ordenado);
+        if (idEncuesta != null) return respuestaRepository.listarPorEncuesta(idEncuesta, ordenado);
+        return respuestaRepository.listar(ordenado);
     }
 
     /**
-     * Crea una nueva respuesta asociada a una pregunta específica.
+     * Obtiene una página de respuestas por cursor (keyset).
      * <p>
-     * Antes de guardar, se valida que:
+     * Con {@code orden = "fecha"} las respuestas se recorren por {@code (fechaRespuesta, id)};
+     * en otro caso, por ID. El cursor devuelto solo es válido para el mismo orden.
+     * </p>
+     *
+     * @param idPregunta filtro opcional por pregunta.
+     * @param idEncuesta filtro opcional por encuesta.
+     * @param cursor     cursor de la página anterior; vacío o {@code null} para la primera.
+     * @param orden      {@code "id"} o {@code "fecha"}.
+     * @param tamano     número máximo de respuestas.
+     * @return página con el cursor siguiente, si quedan más respuestas.
+     * @throws RuntimeException si el cursor no es válido.
+     */
+    public PaginaCursorDTO<RespuestaDTO> getPorCursor(Long idPregunta, Long idEncuesta, String cursor,
+                                                      String orden, int tamano) {
+        Pageable limite = PageRequest.of(0, tamano + 1);
+
+        if ("fecha".equalsIgnoreCase(orden)) {
+            long[] clave = PaginacionUtil.decodificarCursor(cursor, 2);
+            Date fecha = new Date(clave == null ? 0L : clave[0]);
+            long despuesDe = clave == null ? 0L : clave[1];
+            List<RespuestaDTO> filas;
+            if (idPregunta != null) {
+                filas = respuestaRepository.listarPorPreguntaDesdeFecha(idPregunta, fecha, despuesDe, limite);
+            } else if (idEncuesta != null) {
+                filas = respuestaRepository.listarPorEncuestaDesdeFecha(idEncuesta, fecha, despuesDe, limite);
+            } else {
+                filas = respuestaRepository.listarDesdeFecha(fecha, despuesDe, limite);
+            }
+            return PaginacionUtil.pagina(filas, tamano,
+                    r -> new long[]{r.getFechaRespuesta().getTime(), r.getId()});
+        }
+
+        long[] clave = PaginacionUtil.decodificarCursor(cursor, 1);
+        long despuesDe = clave == null ? 0L : clave[0];
+        List<RespuestaDTO> filas;
+        if (idPregunta != null) {
+            filas = respuestaRepository.listarPorPreguntaDesdeId(idPregunta, despuesDe, limite);
+        } else if (idEncuesta != null) {
+            filas = respuestaRepository.listarPorEncuestaDesdeId(idEncuesta, despuesDe, limite);
+        } else {
+            filas = respuestaRepository.listarDesdeId(despuesDe, limite);
+        }
+        return PaginacionUtil.pagina(filas, tamano, r -> new long[]{r.getId()});
+    }
+
+    /**
+     * Valida una respuesta nueva sin escribir nada en la base de datos.
+     * <p>
+     * Se comprueba que:
      * <ul>
-     *   <li>La pregunta exista y esté asociada a una encuesta válida.</li>
-     *   <li>La respuesta sea coherente con el tipo de pregunta (usando {@link ValidacionUtil}).</li>
+     *   <li>La pregunta exista y esté asociada a una encuesta válida (según {@link PreguntaMetadataCache}).</li>
+     *   <li>La respuesta sea coherente con el tipo de pregunta (con el {@link ValidadorRespuesta} ya compilado de la pregunta).</li>
      * </ul>
      * </p>
      *
      * @param idPregunta identificador de la pregunta a la que pertenece la respuesta.
      * @param dto        datos de la respuesta a registrar.
-     * @return el objeto {@link RespuestaDTO} creado y persistido.
+     * @return metadatos de la pregunta.
      * @throws RuntimeException si la pregunta no existe o la respuesta no es válida.
      */
-    public RespuestaDTO create(Long idPregunta, RespuestaDTO dto) {
-        Pregunta pregunta = preguntaRepository.findById(idPregunta)
-                .orElseThrow(() -> new RuntimeException("Pregunta no encontrada"));
+    public PreguntaMetadataDTO validarNueva(Long idPregunta, RespuestaDTO dto) {
+        PreguntaMetadataDTO pregunta = preguntaMetadataCache.obtener(idPregunta);
 
-        if (pregunta.getEncuesta() == null) {
+        if (pregunta.getIdEncuesta() == null) {
             throw new RuntimeException("La pregunta no está asociada a ninguna encuesta válida");
         }
 
-        if (!ValidacionUtil.respuestaValida(dto.getRespuesta(), pregunta.getOpciones(), pregunta.getTipo())) {
+        if (!pregunta.getValidador().esValida(dto.getRespuesta())) {
             throw new RuntimeException("Respuesta no válida para el tipo de pregunta: " + pregunta.getTipo());
         }
+        return pregunta;
+    }
+
+    /**
+     * Crea una nueva respuesta asociada a una pregunta específica, tras validarla
+     * con {@link #validarNueva(Long, RespuestaDTO)}.
+     *
+     * @param idPregunta identificador de la pregunta a la que pertenece la respuesta.
+     * @param dto        datos de la respuesta a registrar.
+     * @return el objeto {@link RespuestaDTO} creado y persistido.
+     * @throws RuntimeException si la pregunta no existe o la respuesta no es válida.
+     */
+    @Transactional
+    public RespuestaDTO create(Long idPregunta, RespuestaDTO dto) {
+        PreguntaMetadataDTO pregunta = validarNueva(idPregunta, dto);
 
         Respuesta r = respuestaMapper.toEntity(dto);
-        r.setPregunta(pregunta);
+        // Referencia sin consulta: la existencia de la pregunta ya la garantiza la caché
+        r.setPregunta(preguntaRepository.getReferenceById(idPregunta));
         r.setFechaRespuesta(new Date());
 
-        return respuestaMapper.toDTO(respuestaRepository.save(r));
+        Respuesta guardada = respuestaRepository.save(r);
+        conteoRespuestaService.registrarAlta(idPregunta, pregunta.getTipo(), guardada.getRespuesta(),
+                guardada.getFechaRespuesta());
+        estadisticasCache.invalidar(pregunta.getIdEncuesta());
+        return respuestaMapper.toDTO(guardada);
+    }
+
+    /**
+     * Registra de una sola vez todas las respuestas de un encuestado a una encuesta.
+     * <p>
+     * Las preguntas de la encuesta se cargan con una única consulta y todas las respuestas
+     * se validan antes de escribir nada. Las respuestas válidas se insertan en una sola
+     * transacción mediante batches JDBC; las inválidas se devuelven como errores
+     * individuales con su posición dentro del envío.
+     * </p>
+     *
+     * @param idEncuesta identificador de la encuesta respondida.
+     * @param envio      respuestas del encuestado.
+     * @return resumen con las respuestas guardadas y los errores por respuesta.
+     * @throws RuntimeException si la encuesta no existe.
+     */
+    @Transactional
+    public ResultadoEnvioDTO registrarEnvio(Long idEncuesta, EnvioEncuestaDTO envio) {
+        Map<Long, Pregunta> preguntas = preguntaRepository.findByEncuestaIdEncuesta(idEncuesta).stream()
+                .collect(Collectors.toMap(Pregunta::getIdPregunta, Function.identity()));
+        if (preguntas.isEmpty() && !encuestaRepository.existsById(idEncuesta)) {
+            throw new RuntimeException("Encuesta no encontrada");
+        }
+
+        List<RespuestaDTO> recibidas = envio.getRespuestas() != null ? envio.getRespuestas() : List.of();
+        ResultadoEnvioDTO resultado = new ResultadoEnvioDTO();
+        resultado.setRecibidas(recibidas.size());
+
+        // Un validador por pregunta, compilado la primera vez que aparece en el envío
+        Map<Long, ValidadorRespuesta> validadores = new HashMap<>();
+        Date fecha = new Date();
+        List<Respuesta> validas = new ArrayList<>(recibidas.size());
+        for (int i = 0; i < recibidas.size(); i++) {
+            RespuestaDTO dto = recibidas.get(i);
+            Long idPregunta = dto != null ? dto.getIdPregunta() : null;
+            Pregunta pregunta = idPregunta != null ? preguntas.get(idPregunta) : null;
+
+            if (pregunta == null) {
+                resultado.getErrores().add(new ResultadoEnvioDTO.ErrorRespuesta(i, idPregunta,
+                        "La pregunta no pertenece a la encuesta"));
+            } else if (!validadores.computeIfAbsent(idPregunta,
+                    id -> ValidadorRespuesta.compilar(pregunta.getTipo(), pregunta.getOpciones()))
+                    .esValida(dto.getRespuesta())) {
+                resultado.getErrores().add(new ResultadoEnvioDTO.ErrorRespuesta(i, idPregunta,
+                        "Respuesta no válida para el tipo de pregunta: " + pregunta.getTipo()));
+            } else {
+                Respuesta r = new Respuesta();
+                r.setPregunta(pregunta);
+                r.setRespuesta(dto.getRespuesta());
+                r.setFechaRespuesta(fecha);
+                validas.add(r);
+            }
+        }
+
+        if (!validas.isEmpty()) {
+            resultado.setGuardadas(respuestaRepository.insertarLote(validas));
+            conteoRespuestaService.registrarAltas(validas);
+            estadisticasCache.invalidar(idEncuesta);
+        }
+        return resultado;
     }
 
     /**
@@ -114,17 +278,21 @@ public class RespuestaService {
      * @return la respuesta modificada como {@link RespuestaDTO}.
      * @throws RuntimeException si la respuesta no existe o si la nueva respuesta es inválida.
      */
+    @Transactional
     public RespuestaDTO update(Long id, RespuestaDTO dto) {
-        Respuesta existing = respuestaRepository.findById(id)
+        Respuesta existing = respuestaRepository.findConPreguntaById(id)
                 .orElseThrow(() -> new RuntimeException("Respuesta no encontrada"));
 
         Pregunta pregunta = existing.getPregunta();
 
-        if (!ValidacionUtil.respuestaValida(dto.getRespuesta(), pregunta.getOpciones(), pregunta.getTipo())) {
+        if (!ValidadorRespuesta.compilar(pregunta.getTipo(), pregunta.getOpciones()).esValida(dto.getRespuesta())) {
             throw new RuntimeException("Respuesta no válida para el tipo de pregunta: " + pregunta.getTipo());
         }
 
+        conteoRespuestaService.registrarCambio(pregunta.getIdPregunta(), pregunta.getTipo(),
+                existing.getRespuesta(), dto.getRespuesta());
         existing.setRespuesta(dto.getRespuesta());
+        estadisticasCache.invalidar(pregunta.getEncuesta().getIdEncuesta());
         return respuestaMapper.toDTO(respuestaRepository.save(existing));
     }
 
@@ -134,9 +302,15 @@ public class RespuestaService {
      * @param id identificador único de la respuesta a eliminar.
      * @return {@code true} si la eliminación fue exitosa, {@code false} si no existe.
      */
+    @Transactional
     public boolean delete(Long id) {
-        if (!respuestaRepository.existsById(id)) return false;
+        Respuesta existing = respuestaRepository.findConPreguntaById(id).orElse(null);
+        if (existing == null) return false;
+
+        Pregunta pregunta = existing.getPregunta();
+        conteoRespuestaService.registrarBaja(pregunta.getIdPregunta(), pregunta.getTipo(), existing.getRespuesta());
         respuestaRepository.deleteById(id);
+        estadisticasCache.invalidar(pregunta.getEncuesta().getIdEncuesta());
         return true;
     }
 }
@@ -0,0 +1,158 @@
+package com.pruebas.pruebas.util;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Arc2D;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+/**
+ * Clase utilitaria que dibuja los gráficos de estadísticas como imágenes para los reportes.
+ * <p>
+ * Reproduce los gráficos que el front construye a partir del JSON de {@code EstadisticasService}
+ * ({@code tipo_grafico}, {@code labels}, {@code valores} y {@code colores}) sin depender
+ * de una librería de gráficos adicional. Las imágenes se dibujan al doble de resolución
+ * para que se vean nítidas en el PDF.
+ * </p>
+ *
+ * <h3>Tipos soportados:</h3>
+ * <ul>
+ *   <li><b>pie</b>: gráfico de pastel con leyenda.</li>
+ *   <li><b>bar</b>: gráfico de barras verticales.</li>
+ * </ul>
+ */
+public class GraficoUtil {
+
+    private static final int ESCALA = 2;
+    private static final String[] COLORES_POR_DEFECTO = {"#3F51B5", "#4CAF50", "#FFC107", "#F44336", "#9C27B0"};
+
+    /**
+     * Dibuja un gráfico.
+     *
+     * @param tipo    {@code pie} o {@code bar}; cualquier otro valor se dibuja como barras.
+     * @param labels  etiquetas de cada valor.
+     * @param valores cantidades (misma longitud que {@code labels}).
+     * @param colores colores en formato {@code #RRGGBB}; puede ser {@code null}.
+     * @param ancho   ancho en puntos del reporte.
+     * @param alto    alto en puntos del reporte.
+     * @return imagen del gráfico, o {@code null} si no hay datos.
+     */
+    public static BufferedImage dibujar(String tipo, List<String> labels, List<? extends Number> valores,
+                                        List<String> colores, int ancho, int alto) {
+        if (labels == null || valores == null || labels.isEmpty()) return null;
+
+        BufferedImage imagen = new BufferedImage(ancho * ESCALA, alto * ESCALA, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = imagen.createGraphics();
+        try {
+            g.scale(ESCALA, ESCALA);
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, ancho, alto);
+            g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 9));
+
+            if ("pie".equals(tipo)) {
+                dibujarPastel(g, labels, valores, colores, ancho, alto);
+            } else {
+                dibujarBarras(g, labels, valores, colores, ancho, alto);
+            }
+        } finally {
+            g.dispose();
+        }
+        return imagen;
+    }
+
+    private static void dibujarPastel(Graphics2D g, List<String> labels, List<? extends Number> valores,
+                                      List<String> colores, int ancho, int alto) {
+        double total = valores.stream().mapToDouble(Number::doubleValue).sum();
+        int diametro = alto - 20;
+        int x = 10, y = 10;
+
+        if (total <= 0) {
+            g.setColor(Color.LIGHT_GRAY);
+            g.drawOval(x, y, diametro, diametro);
+        } else {
+            double inicio = 90;
+            for (int i = 0; i < valores.size(); i++) {
+                double angulo = 360 * valores.get(i).doubleValue() / total;
+                g.setColor(color(colores, i));
+                g.fill(new Arc2D.Double(x, y, diametro, diametro, inicio, -angulo, Arc2D.PIE));
+                inicio -= angulo;
+            }
+        }
+
+        // Leyenda a la derecha del pastel
+        FontMetrics fm = g.getFontMetrics();
+        int xLeyenda = x + diametro + 20;
+        int yLeyenda = y + fm.getAscent();
+        for (int i = 0; i < labels.size() && yLeyenda < alto; i++) {
+            g.setColor(color(colores, i));
+            g.fillRect(xLeyenda, yLeyenda - 8, 8, 8);
+            g.setColor(Color.DARK_GRAY);
+            double porcentaje = total > 0 ? 100 * valores.get(i).doubleValue() / total : 0;
+            String texto = recortar(fm, labels.get(i), ancho - xLeyenda - 80)
+                    + String.format("  %s (%.1f%%)", valores.get(i), porcentaje);
+            g.drawString(texto, xLeyenda + 12, yLeyenda);
+            yLeyenda += fm.getHeight() + 2;
+        }
+    }
+
+    private static void dibujarBarras(Graphics2D g, List<String> labels, List<? extends Number> valores,
+                                      List<String> colores, int ancho, int alto) {
+        FontMetrics fm = g.getFontMetrics();
+        double maximo = valores.stream().mapToDouble(Number::doubleValue).max().orElse(0);
+        int margenInferior = fm.getHeight() + 6;
+        int margenSuperior = fm.getHeight() + 4;
+        int altoUtil = alto - margenInferior - margenSuperior;
+        int n = labels.size();
+        double anchoColumna = (double) (ancho - 20) / n;
+        int anchoBarra = (int) Math.max(2, anchoColumna * 0.7);
+
+        g.setColor(Color.LIGHT_GRAY);
+        g.setStroke(new BasicStroke(0.5f));
+        g.drawLine(10, alto - margenInferior, ancho - 10, alto - margenInferior);
+
+        for (int i = 0; i < n; i++) {
+            double valor = valores.get(i).doubleValue();
+            int altoBarra = maximo > 0 ? (int) Math.round(altoUtil * valor / maximo) : 0;
+            int xColumna = (int) (10 + i * anchoColumna);
+            int xBarra = xColumna + (int) ((anchoColumna - anchoBarra) / 2);
+            int yBarra = alto - margenInferior - altoBarra;
+
+            g.setColor(color(colores, i));
+            g.fillRect(xBarra, yBarra, anchoBarra, altoBarra);
+
+            g.setColor(Color.DARK_GRAY);
+            String cantidad = String.valueOf(valores.get(i));
+            g.drawString(cantidad, xBarra + (anchoBarra - fm.stringWidth(cantidad)) / 2, yBarra - 2);
+            String etiqueta = recortar(fm, labels.get(i), (int) anchoColumna - 2);
+            g.drawString(etiqueta, xColumna + ((int) anchoColumna - fm.stringWidth(etiqueta)) / 2, alto - 4);
+        }
+    }
+
+    private static Color color(List<String> colores, int indice) {
+        String hex = colores != null && indice < colores.size()
+                ? colores.get(indice)
+                : COLORES_POR_DEFECTO[indice % COLORES_POR_DEFECTO.length];
+        try {
+            return Color.decode(hex);
+        } catch (NumberFormatException e) {
+            return Color.GRAY;
+        }
+    }
+
+    private static String recortar(FontMetrics fm, String texto, int anchoMaximo) {
+        if (texto == null) return "";
+        if (fm.stringWidth(texto) <= anchoMaximo) return texto;
+        String sufijo = "…";
+        int fin = texto.length();
+        while (fin > 0 && fm.stringWidth(texto.substring(0, fin) + sufijo) > anchoMaximo) {
+            fin--;
+        }
+        return texto.substring(0, fin) + sufijo;
+    }
+}
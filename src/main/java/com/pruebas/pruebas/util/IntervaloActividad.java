@@ -0,0 +1,62 @@
+package com.pruebas.pruebas.util;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Tamaño de los intervalos en que se agrupa la actividad de respuestas.
+ * <p>
+ * Cada valor lleva la unidad que entiende {@code date_trunc} de PostgreSQL y el paso
+ * equivalente para {@code generate_series}.
+ * </p>
+ */
+public enum IntervaloActividad {
+
+    MINUTO("minute", "1 minute", Duration.ofMinutes(1)),
+    HORA("hour", "1 hour", Duration.ofHours(1)),
+    DIA("day", "1 day", Duration.ofDays(1));
+
+    private final String unidad;
+    private final String paso;
+    private final Duration duracion;
+
+    IntervaloActividad(String unidad, String paso, Duration duracion) {
+        this.unidad = unidad;
+        this.paso = paso;
+        this.duracion = duracion;
+    }
+
+    /** Unidad de {@code date_trunc} ({@code minute}, {@code hour} o {@code day}). */
+    public String getUnidad() {
+        return unidad;
+    }
+
+    /** Paso de la serie como literal de {@code interval}. */
+    public String getPaso() {
+        return paso;
+    }
+
+    /** Duración de un intervalo. */
+    public Duration getDuracion() {
+        return duracion;
+    }
+
+    /**
+     * Busca el intervalo por su nombre ({@code minuto}, {@code hora} o {@code dia}), sin distinguir mayúsculas.
+     *
+     * @param nombre nombre recibido en la petición.
+     * @return el intervalo correspondiente.
+     * @throws RuntimeException si el nombre no corresponde a ningún intervalo.
+     */
+    public static IntervaloActividad desdeNombre(String nombre) {
+        if (nombre != null) {
+            switch (nombre.toLowerCase(Locale.ROOT)) {
+                case "minuto": return MINUTO;
+                case "hora": return HORA;
+                case "dia": case "día": return DIA;
+                default: break;
+            }
+        }
+        throw new RuntimeException("Intervalo no válido: " + nombre + " (use minuto, hora o dia)");
+    }
+}
@@ -0,0 +1,39 @@
+package com.pruebas.pruebas.util;
+
+import java.util.List;
+
+/**
+ * Clase utilitaria para el orden disperso de las preguntas de una encuesta.
+ * <p>
+ * El campo {@code orden} no guarda la posición (1, 2, 3...) sino una clave con huecos
+ * ({@link #SEPARACION}, 2×{@link #SEPARACION}...). Insertar o mover una pregunta solo cambia su
+ * propia clave, que se toma en mitad del hueco entre sus vecinas. Cuando dos claves vecinas ya
+ * son consecutivas no queda hueco y la encuesta se reequilibra: sus claves vuelven a repartirse
+ * cada {@link #SEPARACION}.
+ * </p>
+ */
+public class OrdenUtil {
+
+    /** Distancia entre claves consecutivas tras crear o reequilibrar una encuesta. */
+    public static final int SEPARACION = 1024;
+
+    private OrdenUtil() {
+    }
+
+    /**
+     * Calcula la clave de una pregunta que se coloca en una posición.
+     *
+     * @param claves   claves de las demás preguntas de la encuesta, en orden ascendente.
+     * @param posicion posición deseada, empezando en 1; si supera el número de preguntas, va al final.
+     * @return la clave, o {@code null} si no queda hueco en esa posición y hay que reequilibrar.
+     */
+    public static Integer claveEnPosicion(List<Integer> claves, int posicion) {
+        int indice = Math.min(Math.max(posicion, 1), claves.size() + 1) - 1;
+        int anterior = indice == 0 ? 0 : claves.get(indice - 1);
+        if (indice == claves.size()) {
+            return anterior + SEPARACION;
+        }
+        int siguiente = claves.get(indice);
+        return siguiente - anterior >= 2 ? anterior + (siguiente - anterior) / 2 : null;
+    }
+}
@@ -0,0 +1,108 @@
+package com.pruebas.pruebas.util;
+
+import com.pruebas.pruebas.dto.PaginaCursorDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Clase utilitaria para la paginación de los endpoints de listado.
+ * <p>
+ * El cuerpo de la respuesta sigue siendo la lista de elementos, de modo que los clientes
+ * existentes no cambian; los metadatos de paginación viajan en cabeceras:
+ * </p>
+ *
+ * <ul>
+ *   <li><b>X-Total-Count</b>: total de elementos (solo paginación por desplazamiento).</li>
+ *   <li><b>X-Total-Pages</b>: total de páginas (solo paginación por desplazamiento).</li>
+ *   <li><b>X-Siguiente-Cursor</b>: cursor de la página siguiente (solo paginación por cursor).</li>
+ * </ul>
+ *
+ * <p>
+ * Los cursores son opacos para el cliente: codifican en Base64 URL la clave del último
+ * elemento devuelto (por ejemplo, su ID o su fecha e ID).
+ * </p>
+ */
+public class PaginacionUtil {
+
+    public static final String CABECERA_TOTAL = "X-Total-Count";
+    public static final String CABECERA_PAGINAS = "X-Total-Pages";
+    public static final String CABECERA_CURSOR = "X-Siguiente-Cursor";
+
+    /**
+     * Construye la respuesta HTTP de una página por desplazamiento.
+     */
+    public static <T> ResponseEntity<List<T>> respuesta(Page<T> pagina) {
+        return ResponseEntity.ok()
+                .header(CABECERA_TOTAL, String.valueOf(pagina.getTotalElements()))
+                .header(CABECERA_PAGINAS, String.valueOf(pagina.getTotalPages()))
+                .body(pagina.getContent());
+    }
+
+    /**
+     * Construye la respuesta HTTP de una página por cursor.
+     */
+    public static <T> ResponseEntity<List<T>> respuesta(PaginaCursorDTO<T> pagina) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (pagina.getSiguienteCursor() != null) {
+            builder.header(CABECERA_CURSOR, pagina.getSiguienteCursor());
+        }
+        return builder.body(pagina.getContenido());
+    }
+
+    /**
+     * Recorta una consulta que pidió {@code tamano + 1} filas y calcula el cursor siguiente
+     * a partir del último elemento conservado.
+     *
+     * @param filas  resultado de la consulta (como máximo {@code tamano + 1} elementos).
+     * @param tamano tamaño de página solicitado.
+     * @param clave  función que obtiene la clave del cursor de un elemento.
+     * @return página con cursor siguiente solo si quedan más elementos.
+     */
+    public static <T> PaginaCursorDTO<T> pagina(List<T> filas, int tamano, Function<T, long[]> clave) {
+        if (filas.size() <= tamano) {
+            return new PaginaCursorDTO<>(filas, null);
+        }
+        List<T> contenido = filas.subList(0, tamano);
+        return new PaginaCursorDTO<>(contenido, codificarCursor(clave.apply(contenido.get(tamano - 1))));
+    }
+
+    /**
+     * Codifica los valores de una clave como cursor opaco.
+     */
+    public static String codificarCursor(long... valores) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) sb.append('.');
+            sb.append(valores[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sb.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Decodifica un cursor generado por {@link #codificarCursor(long...)}.
+     *
+     * @param cursor cursor recibido; vacío o {@code null} indica la primera página.
+     * @param partes número de valores que debe contener la clave.
+     * @return los valores de la clave, o {@code null} si se pide la primera página.
+     * @throws RuntimeException si el cursor no es válido.
+     */
+    public static long[] decodificarCursor(String cursor, int partes) {
+        if (cursor == null || cursor.isEmpty()) return null;
+        try {
+            String[] texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII).split("\\.");
+            if (texto.length != partes) throw new IllegalArgumentException();
+            long[] valores = new long[partes];
+            for (int i = 0; i < partes; i++) {
+                valores[i] = Long.parseLong(texto[i]);
+            }
+            return valores;
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Cursor no válido");
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.pruebas.pruebas.util;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Tipos de pregunta reconocidos, con el código con el que se guardan en {@code pregunta.tipo}.
+ * <p>
+ * {@code si_no} y {@code checkbox} son nombres alternativos que se validan igual que
+ * {@code seleccion_unica} y {@code seleccion_multiple} respectivamente.
+ * </p>
+ */
+public enum TipoPregunta {
+
+    ABIERTA("abierta"),
+    SELECCION_UNICA("seleccion_unica"),
+    SI_NO("si_no"),
+    SELECCION_MULTIPLE("seleccion_multiple"),
+    CHECKBOX("checkbox"),
+    ESCALA("escala"),
+    VERDADERO_FALSO("verdadero_falso");
+
+    private static final Map<String, TipoPregunta> POR_CODIGO = new HashMap<>();
+
+    static {
+        for (TipoPregunta tipo : values()) {
+            POR_CODIGO.put(tipo.codigo, tipo);
+        }
+    }
+
+    private final String codigo;
+
+    TipoPregunta(String codigo) {
+        this.codigo = codigo;
+    }
+
+    /** Código del tipo tal como se guarda en la base de datos. */
+    public String getCodigo() {
+        return codigo;
+    }
+
+    /**
+     * Traduce el tipo guardado en una pregunta, sin distinguir mayúsculas.
+     *
+     * @param codigo tipo de la pregunta (por ejemplo, {@code "seleccion_unica"}).
+     * @return el tipo correspondiente, o {@code null} si es nulo o desconocido.
+     */
+    public static TipoPregunta desdeCodigo(String codigo) {
+        return codigo == null ? null : POR_CODIGO.get(codigo.toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,30 @@
+package com.pruebas.pruebas.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Clase utilitaria para ejecutar acciones ligadas al ciclo de vida de la transacción en curso.
+ */
+public class TransaccionUtil {
+
+    /**
+     * Ejecuta una acción cuando la transacción actual confirme sus cambios.
+     * <p>
+     * Si no hay una transacción activa no hace nada: se asume que quien llama ya ejecutó
+     * la acción de forma inmediata (por ejemplo, invalidar una caché antes y después del commit).
+     * </p>
+     *
+     * @param accion acción a ejecutar tras el commit.
+     */
+    public static void despuesDelCommit(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        }
+    }
+}
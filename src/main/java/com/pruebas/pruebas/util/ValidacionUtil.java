@@ -22,6 +22,9 @@ import java.util.List;
  *
  * <p>
  * Esta clase no tiene estado y puede ser utilizada directamente mediante sus métodos estáticos.
+ * Al registrar respuestas se usa {@link ValidadorRespuesta}, que aplica estas mismas reglas
+ * compiladas una vez por pregunta; esta versión se conserva como referencia de las reglas
+ * y para comparar ambas en las pruebas de rendimiento.
  * </p>
  *
  * @author
@@ -0,0 +1,185 @@
+package com.pruebas.pruebas.util;
+
+import java.util.List;
+
+/**
+ * Validador de respuestas compilado una vez por pregunta a partir de su tipo y sus opciones.
+ * <p>
+ * Aplica las mismas reglas que {@link ValidacionUtil#respuestaValida(String, List, String)},
+ * pero resuelve el tipo a {@link TipoPregunta} al compilar y guarda las opciones en una tabla
+ * hash propia que se consulta por rangos de caracteres. Así, validar una respuesta no convierte
+ * el tipo a minúsculas, no recorre la lista de opciones, no parte la respuesta en subcadenas ni
+ * usa excepciones para detectar valores no numéricos: {@link #esValida(String)} no reserva memoria.
+ * </p>
+ * <p>
+ * Es inmutable y seguro entre hilos, por lo que puede guardarse junto a los metadatos de la
+ * pregunta ({@link com.pruebas.pruebas.dto.PreguntaMetadataDTO}) y compartirse entre peticiones.
+ * </p>
+ */
+public final class ValidadorRespuesta {
+
+    private static final String[] VALORES_VERDADERO_FALSO = {"Verdadero", "Falso", "true", "false", "Sí", "No"};
+
+    private final TipoPregunta tipo;
+    private final ConjuntoOpciones opciones;
+
+    private ValidadorRespuesta(TipoPregunta tipo, ConjuntoOpciones opciones) {
+        this.tipo = tipo;
+        this.opciones = opciones;
+    }
+
+    /**
+     * Compila el validador de una pregunta.
+     *
+     * @param tipo     tipo de la pregunta; si es nulo o desconocido, toda respuesta es inválida.
+     * @param opciones opciones de la pregunta (solo se usan en las de selección).
+     * @return validador listo para usarse repetidamente.
+     */
+    public static ValidadorRespuesta compilar(String tipo, List<String> opciones) {
+        return new ValidadorRespuesta(TipoPregunta.desdeCodigo(tipo),
+                opciones != null ? new ConjuntoOpciones(opciones) : null);
+    }
+
+    /** Tipo de la pregunta, o {@code null} si no es un tipo reconocido. */
+    public TipoPregunta getTipo() {
+        return tipo;
+    }
+
+    /**
+     * Indica si una respuesta cumple las reglas del tipo de pregunta.
+     *
+     * @param respuesta respuesta proporcionada por el usuario.
+     * @return {@code true} si la respuesta es válida.
+     */
+    public boolean esValida(String respuesta) {
+        if (tipo == null || respuesta == null || esBlanco(respuesta)) return false;
+
+        switch (tipo) {
+            case ABIERTA:
+                return true;
+            case SELECCION_UNICA:
+            case SI_NO:
+                return opciones != null && opciones.contiene(respuesta);
+            case SELECCION_MULTIPLE:
+            case CHECKBOX:
+                return seleccionMultipleValida(respuesta);
+            case ESCALA:
+                return escalaValida(respuesta);
+            case VERDADERO_FALSO:
+                for (String valor : VALORES_VERDADERO_FALSO) {
+                    if (valor.equalsIgnoreCase(respuesta)) return true;
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Recorre las opciones separadas por comas sin crear subcadenas. Como {@code String.split},
+     * ignora las comas finales; cada opción se recorta como con {@code String.trim}.
+     */
+    private boolean seleccionMultipleValida(String respuesta) {
+        if (opciones == null) return false;
+
+        int fin = respuesta.length();
+        while (fin > 0 && respuesta.charAt(fin - 1) == ',') fin--;
+        if (fin == 0) return false;
+
+        int inicio = 0;
+        while (true) {
+            int coma = respuesta.indexOf(',', inicio);
+            int hasta = coma < 0 || coma >= fin ? fin : coma;
+
+            int desde = inicio;
+            int limite = hasta;
+            while (desde < limite && respuesta.charAt(desde) <= ' ') desde++;
+            while (limite > desde && respuesta.charAt(limite - 1) <= ' ') limite--;
+            if (!opciones.contiene(respuesta, desde, limite)) return false;
+
+            if (hasta == fin) return true;
+            inicio = hasta + 1;
+        }
+    }
+
+    /**
+     * Entero entre 1 y 5 con la misma sintaxis que acepta {@code Integer.parseInt}
+     * (signo opcional y ceros a la izquierda), sin lanzar excepciones.
+     */
+    private static boolean escalaValida(String respuesta) {
+        int n = respuesta.length();
+        int i = 0;
+        boolean negativo = false;
+        char primero = respuesta.charAt(0);
+        if (primero == '+' || primero == '-') {
+            if (n == 1) return false;
+            negativo = primero == '-';
+            i = 1;
+        }
+
+        int valor = 0;
+        for (; i < n; i++) {
+            int digito = Character.digit(respuesta.charAt(i), 10);
+            if (digito < 0) return false;
+            valor = valor * 10 + digito;
+            if (valor > 5) return false;
+        }
+        return !negativo && valor >= 1;
+    }
+
+    /** Equivale a {@code texto.trim().isEmpty()}. */
+    private static boolean esBlanco(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) > ' ') return false;
+        }
+        return true;
+    }
+
+    /**
+     * Conjunto de opciones con direccionamiento abierto que admite buscar un fragmento
+     * {@code [desde, hasta)} de una cadena. El hash de un fragmento se calcula igual que
+     * {@link String#hashCode()}, de modo que coincide con el de la opción guardada.
+     */
+    private static final class ConjuntoOpciones {
+
+        private final String[] tabla;
+        private final int mascara;
+
+        ConjuntoOpciones(List<String> opciones) {
+            int capacidad = Integer.highestOneBit(Math.max(2, opciones.size() * 2) - 1) << 1;
+            this.tabla = new String[capacidad];
+            this.mascara = capacidad - 1;
+            for (String opcion : opciones) {
+                if (opcion != null && !contiene(opcion)) {
+                    int i = dispersar(opcion.hashCode()) & mascara;
+                    while (tabla[i] != null) i = (i + 1) & mascara;
+                    tabla[i] = opcion;
+                }
+            }
+        }
+
+        boolean contiene(String valor) {
+            for (int i = dispersar(valor.hashCode()) & mascara; tabla[i] != null; i = (i + 1) & mascara) {
+                if (tabla[i].equals(valor)) return true;
+            }
+            return false;
+        }
+
+        boolean contiene(String texto, int desde, int hasta) {
+            int longitud = hasta - desde;
+            int hash = 0;
+            for (int j = desde; j < hasta; j++) {
+                hash = 31 * hash + texto.charAt(j);
+            }
+            for (int i = dispersar(hash) & mascara; tabla[i] != null; i = (i + 1) & mascara) {
+                String opcion = tabla[i];
+                if (opcion.length() == longitud && texto.regionMatches(desde, opcion, 0, longitud)) return true;
+            }
+            return false;
+        }
+
+        private static int dispersar(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+-- Esquema inicial: el mismo que generaba spring.jpa.hibernate.ddl-auto=update.
+-- Todo es IF NOT EXISTS para que una base creada por Hibernate antes de usar migraciones
+-- quede igual (se registra con baseline-on-migrate en la versión 0 y esta migración no cambia nada).
+
+-- Identificadores por secuencia en bloques de 50 (allocationSize de los @SequenceGenerator)
+CREATE SEQUENCE IF NOT EXISTS encuesta_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS pregunta_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS respuesta_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS encuesta (
+    id_encuesta    BIGINT       NOT NULL,
+    titulo         VARCHAR(255) NOT NULL,
+    descripcion    TEXT,
+    fecha_creacion TIMESTAMP(6),
+    estado         VARCHAR(50),
+    CONSTRAINT encuesta_pkey PRIMARY KEY (id_encuesta)
+);
+
+CREATE TABLE IF NOT EXISTS pregunta (
+    id_pregunta    BIGINT      NOT NULL,
+    texto_pregunta TEXT        NOT NULL,
+    tipo           VARCHAR(50) NOT NULL,
+    orden          INTEGER     NOT NULL,
+    opciones       JSONB,
+    id_encuesta    BIGINT      NOT NULL,
+    CONSTRAINT pregunta_pkey PRIMARY KEY (id_pregunta),
+    CONSTRAINT fk_pregunta_encuesta FOREIGN KEY (id_encuesta) REFERENCES encuesta (id_encuesta)
+);
+
+CREATE TABLE IF NOT EXISTS respuesta (
+    id_respuesta    BIGINT NOT NULL,
+    id_pregunta     BIGINT NOT NULL,
+    respuesta       TEXT   NOT NULL,
+    fecha_respuesta TIMESTAMP(6),
+    CONSTRAINT respuesta_pkey PRIMARY KEY (id_respuesta),
+    CONSTRAINT fk_respuesta_pregunta FOREIGN KEY (id_pregunta) REFERENCES pregunta (id_pregunta)
+);
+
+-- Contadores incrementales de las estadísticas (sin clave foránea: se mantienen desde los servicios)
+CREATE TABLE IF NOT EXISTS conteo_pregunta (
+    id_pregunta BIGINT NOT NULL,
+    total       BIGINT NOT NULL,
+    CONSTRAINT conteo_pregunta_pkey PRIMARY KEY (id_pregunta)
+);
+
+CREATE TABLE IF NOT EXISTS conteo_opcion (
+    id_pregunta BIGINT NOT NULL,
+    valor       TEXT   NOT NULL,
+    cantidad    BIGINT NOT NULL,
+    CONSTRAINT conteo_opcion_pkey PRIMARY KEY (id_pregunta, valor)
+);
+
+-- Posición confirmada de la ingesta diferida por nodo
+CREATE TABLE IF NOT EXISTS ingesta_checkpoint (
+    nodo             VARCHAR(100) NOT NULL,
+    ultima_secuencia BIGINT       NOT NULL,
+    CONSTRAINT ingesta_checkpoint_pkey PRIMARY KEY (nodo)
+);
+
+-- Las tablas creadas cuando los identificadores eran IDENTITY ya tienen filas y sus secuencias
+-- empiezan en 1: se adelantan para que el próximo bloque quede por encima del máximo identificador.
+-- Solo se mueven hacia delante, nunca por debajo de un bloque que otra instancia pueda estar usando.
+SELECT setval('encuesta_seq', m.siguiente, false)
+FROM (SELECT COALESCE(MAX(id_encuesta), 0) + 50 AS siguiente FROM encuesta) m, encuesta_seq s
+WHERE m.siguiente > s.last_value + CASE WHEN s.is_called THEN 50 ELSE 0 END;
+
+SELECT setval('pregunta_seq', m.siguiente, false)
+FROM (SELECT COALESCE(MAX(id_pregunta), 0) + 50 AS siguiente FROM pregunta) m, pregunta_seq s
+WHERE m.siguiente > s.last_value + CASE WHEN s.is_called THEN 50 ELSE 0 END;
+
+SELECT setval('respuesta_seq', m.siguiente, false)
+FROM (SELECT COALESCE(MAX(id_respuesta), 0) + 50 AS siguiente FROM respuesta) m, respuesta_seq s
+WHERE m.siguiente > s.last_value + CASE WHEN s.is_called THEN 50 ELSE 0 END;
@@ -0,0 +1,25 @@
+-- Índices secundarios de las consultas frecuentes. PostgreSQL solo indexa las claves primarias,
+-- así que sin ellos cada filtro por pregunta o por encuesta recorría la tabla completa.
+-- CONCURRENTLY no bloquea las escrituras mientras se construye el índice; Flyway ejecuta esta
+-- migración fuera de una transacción porque todas sus sentencias lo usan.
+-- Los nombres deben coincidir con VerificadorIndices, que avisa al arrancar si falta alguno.
+
+-- Respuestas de una pregunta: conteos, listados por id (keyset) y muestra de abiertas
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_respuesta_pregunta_id
+    ON respuesta (id_pregunta, id_respuesta);
+
+-- Respuestas de una pregunta por fecha: actividad por intervalos y listados por fecha
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_respuesta_pregunta_fecha
+    ON respuesta (id_pregunta, fecha_respuesta);
+
+-- Listado global de respuestas ordenado por (fecha_respuesta, id_respuesta)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_respuesta_fecha_id
+    ON respuesta (fecha_respuesta, id_respuesta);
+
+-- Preguntas de una encuesta en orden: detalle, siguiente orden y desplazamiento al insertar
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_pregunta_encuesta_orden
+    ON pregunta (id_encuesta, orden);
+
+-- Listados de encuestas filtrados por estado (keyset por id)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_encuesta_estado_id
+    ON encuesta (estado, id_encuesta);
@@ -0,0 +1,80 @@
+-- Particiona respuesta por rangos mensuales de fecha_respuesta.
+--
+-- PostgreSQL no puede convertir una tabla existente en particionada, así que se crea la tabla nueva,
+-- se copian las filas y se elimina la anterior. Todo ocurre en la transacción de la migración: la
+-- tabla queda bloqueada mientras se copia, por lo que en una base con muchos millones de filas debe
+-- ejecutarse en una ventana de mantenimiento (el tiempo es el de un INSERT ... SELECT completo más
+-- la creación de los índices). Si algo falla, la transacción deja la tabla original intacta.
+--
+-- Cambios visibles para la aplicación:
+--   * fecha_respuesta pasa a ser NOT NULL (la clave de partición forma parte de la clave primaria).
+--     Las filas antiguas sin fecha se guardan con 1970-01-01, en su propia partición respuesta_p1970_01.
+--   * La clave primaria es (id_respuesta, fecha_respuesta); id_respuesta sigue saliendo de
+--     respuesta_seq, así que continúa siendo único y el mapeo JPA por id_respuesta no cambia.
+
+ALTER TABLE respuesta RENAME TO respuesta_sin_particionar;
+ALTER INDEX IF EXISTS idx_respuesta_pregunta_id RENAME TO idx_respuesta_sin_particionar_pregunta_id;
+ALTER INDEX IF EXISTS idx_respuesta_pregunta_fecha RENAME TO idx_respuesta_sin_particionar_pregunta_fecha;
+ALTER INDEX IF EXISTS idx_respuesta_fecha_id RENAME TO idx_respuesta_sin_particionar_fecha_id;
+
+CREATE TABLE respuesta (
+    id_respuesta    BIGINT       NOT NULL,
+    id_pregunta     BIGINT       NOT NULL,
+    respuesta       TEXT         NOT NULL,
+    fecha_respuesta TIMESTAMP(6) NOT NULL DEFAULT LOCALTIMESTAMP,
+    CONSTRAINT respuesta_particionada_pkey PRIMARY KEY (id_respuesta, fecha_respuesta),
+    CONSTRAINT fk_respuesta_pregunta_particionada FOREIGN KEY (id_pregunta) REFERENCES pregunta (id_pregunta)
+) PARTITION BY RANGE (fecha_respuesta);
+
+-- Recibe lo que no cae en ninguna partición mensual (fechas muy antiguas o futuras) en lugar de
+-- rechazar la inserción. Debe quedar vacía: una fila aquí impide crear después la partición de su mes.
+CREATE TABLE respuesta_fuera_de_rango PARTITION OF respuesta DEFAULT;
+
+-- Crea las particiones mensuales respuesta_pAAAA_MM que falten entre los meses de desde y hasta
+-- (ambos incluidos) y devuelve cuántas creó. La invoca ParticionesRespuestaService al arrancar y
+-- periódicamente para tener siempre creados los próximos meses.
+-- SET search_path FROM CURRENT fija el esquema de la migración, sea cual sea el de quien la invoque.
+CREATE OR REPLACE FUNCTION crear_particiones_respuesta(desde DATE, hasta DATE) RETURNS INTEGER
+LANGUAGE plpgsql
+SET search_path FROM CURRENT
+AS $$
+DECLARE
+    mes     DATE := date_trunc('month', desde)::DATE;
+    nombre  TEXT;
+    creadas INTEGER := 0;
+BEGIN
+    WHILE mes <= hasta LOOP
+        nombre := 'respuesta_p' || to_char(mes, 'YYYY_MM');
+        IF to_regclass(nombre) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF respuesta FOR VALUES FROM (%L) TO (%L)',
+                           nombre, mes, (mes + INTERVAL '1 month')::DATE);
+            creadas := creadas + 1;
+        END IF;
+        mes := (mes + INTERVAL '1 month')::DATE;
+    END LOOP;
+    RETURN creadas;
+END;
+$$;
+
+-- Particiones para todos los meses con datos y los tres siguientes, antes de copiar las filas
+SELECT crear_particiones_respuesta(
+        COALESCE((SELECT MIN(fecha_respuesta) FROM respuesta_sin_particionar), LOCALTIMESTAMP)::DATE,
+        (GREATEST(COALESCE((SELECT MAX(fecha_respuesta) FROM respuesta_sin_particionar), LOCALTIMESTAMP),
+                  LOCALTIMESTAMP) + INTERVAL '3 months')::DATE);
+
+SELECT crear_particiones_respuesta(DATE '1970-01-01', DATE '1970-01-01')
+WHERE EXISTS (SELECT 1 FROM respuesta_sin_particionar WHERE fecha_respuesta IS NULL);
+
+INSERT INTO respuesta (id_respuesta, id_pregunta, respuesta, fecha_respuesta)
+SELECT id_respuesta, id_pregunta, respuesta, COALESCE(fecha_respuesta, TIMESTAMP '1970-01-01')
+FROM respuesta_sin_particionar;
+
+DROP TABLE respuesta_sin_particionar;
+
+-- Índices de V2 sobre la tabla particionada: se crean tras la copia y cada partición recibe el suyo.
+-- (CONCURRENTLY no admite tablas particionadas; aquí la tabla ya está bloqueada por la migración.)
+CREATE INDEX idx_respuesta_pregunta_id ON respuesta (id_pregunta, id_respuesta);
+CREATE INDEX idx_respuesta_pregunta_fecha ON respuesta (id_pregunta, fecha_respuesta);
+CREATE INDEX idx_respuesta_fecha_id ON respuesta (fecha_respuesta, id_respuesta);
+
+ANALYZE respuesta;
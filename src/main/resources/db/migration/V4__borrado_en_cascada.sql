@@ -0,0 +1,32 @@
+-- Claves foráneas con ON DELETE CASCADE: al borrar una encuesta PostgreSQL borra sus preguntas y,
+-- con ellas, sus respuestas en sentencias por conjuntos, sin que Hibernate cargue cada entidad.
+--
+-- Las bases creadas por ddl-auto=update tienen claves foráneas con nombres generados por Hibernate,
+-- así que se buscan en el catálogo y se sustituyen por las nuevas con nombre fijo. En respuesta solo
+-- se toca la restricción de la tabla particionada; PostgreSQL la propaga a cada partición.
+-- Añadir cada clave comprueba las filas existentes con una lectura completa de la tabla hija, que
+-- se apoya en los índices (id_encuesta, orden) e (id_pregunta, ...) para los borrados posteriores.
+
+DO $$
+DECLARE
+    restriccion RECORD;
+BEGIN
+    FOR restriccion IN
+        SELECT conname, conrelid::regclass AS tabla
+        FROM pg_constraint
+        WHERE contype = 'f'
+          AND ((conrelid = 'pregunta'::regclass AND confrelid = 'encuesta'::regclass)
+            OR (conrelid = 'respuesta'::regclass AND confrelid = 'pregunta'::regclass))
+    LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', restriccion.tabla, restriccion.conname);
+    END LOOP;
+END;
+$$;
+
+ALTER TABLE pregunta
+    ADD CONSTRAINT fk_pregunta_encuesta FOREIGN KEY (id_encuesta)
+        REFERENCES encuesta (id_encuesta) ON DELETE CASCADE;
+
+ALTER TABLE respuesta
+    ADD CONSTRAINT fk_respuesta_pregunta FOREIGN KEY (id_pregunta)
+        REFERENCES pregunta (id_pregunta) ON DELETE CASCADE;
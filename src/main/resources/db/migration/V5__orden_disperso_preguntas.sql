@@ -0,0 +1,19 @@
+-- Orden disperso de las preguntas: cada encuesta pasa a usar claves 1024, 2048, 3072... para que
+-- insertar o mover una pregunta solo cambie su propia fila (ver OrdenUtil).
+--
+-- Se renumera conservando el orden actual; las preguntas con el mismo orden (posibles con el
+-- desplazamiento anterior y editores simultáneos) se desempatan por id.
+UPDATE pregunta p
+SET orden = o.posicion * 1024
+FROM (SELECT id_pregunta,
+             row_number() OVER (PARTITION BY id_encuesta ORDER BY orden, id_pregunta) AS posicion
+      FROM pregunta) o
+WHERE p.id_pregunta = o.id_pregunta;
+
+-- Una clave no se repite dentro de una encuesta. DEFERRABLE hace que la unicidad se compruebe al
+-- final de cada sentencia y no fila a fila, lo que permite reequilibrar o aplicar un orden completo
+-- con un único UPDATE aunque las claves se crucen a mitad. Su índice sustituye a idx_pregunta_encuesta_orden.
+ALTER TABLE pregunta
+    ADD CONSTRAINT uq_pregunta_encuesta_orden UNIQUE (id_encuesta, orden) DEFERRABLE INITIALLY IMMEDIATE;
+
+DROP INDEX IF EXISTS idx_pregunta_encuesta_orden;
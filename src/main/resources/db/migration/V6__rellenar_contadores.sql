@@ -0,0 +1,54 @@
+-- Rellena conteo_pregunta y conteo_opcion con las respuestas existentes.
+--
+-- Los contadores solo se mantienen desde que existen (ConteoRespuestaService); en una base anterior
+-- las respuestas ya guardadas no estaban en ellos y las estadísticas, los resúmenes de encuestas, el
+-- panel y el umbral de eliminación en segundo plano leían 0. Se recalculan todos desde respuesta con
+-- las mismas reglas que ConteoRespuestaService.reconstruirTodas: el ON CONFLICT sobrescribe con el
+-- valor recalculado, así que en una base cuyos contadores ya eran correctos no cambia nada.
+--
+-- Mientras dura la migración se bloquean las escrituras en los contadores (igual que la reconstrucción
+-- manual), para que un nodo con la versión anterior no sume sobre valores a medio recalcular.
+
+LOCK TABLE conteo_opcion, conteo_pregunta IN SHARE ROW EXCLUSIVE MODE;
+
+INSERT INTO conteo_pregunta (id_pregunta, total)
+SELECT r.id_pregunta, count(*)
+FROM respuesta r
+GROUP BY r.id_pregunta
+ON CONFLICT (id_pregunta) DO UPDATE SET total = EXCLUDED.total;
+
+DELETE FROM conteo_pregunta c
+WHERE NOT EXISTS (SELECT 1 FROM respuesta r WHERE r.id_pregunta = c.id_pregunta);
+
+-- Selección múltiple: se separa por comas y se recorta cada elemento, como String.split + trim
+CREATE TEMPORARY TABLE conteo_opcion_recalculado ON COMMIT DROP AS
+SELECT r.id_pregunta, v.valor, count(*) AS cantidad
+FROM respuesta r
+JOIN pregunta p ON p.id_pregunta = r.id_pregunta
+CROSS JOIN LATERAL (
+    SELECT lower(p.tipo) IN ('seleccion_multiple', 'checkbox') AS multiple
+) t
+CROSS JOIN LATERAL unnest(
+    CASE WHEN t.multiple THEN string_to_array(rtrim(r.respuesta, ','), ',')
+         ELSE ARRAY[r.respuesta] END
+) AS s(elemento)
+CROSS JOIN LATERAL (
+    SELECT CASE WHEN t.multiple THEN btrim(s.elemento, E' \t\r\n')
+                ELSE s.elemento END AS valor
+) v
+WHERE lower(p.tipo) <> 'abierta'
+  AND v.valor IS NOT NULL
+GROUP BY r.id_pregunta, v.valor;
+
+INSERT INTO conteo_opcion (id_pregunta, valor, cantidad)
+SELECT id_pregunta, valor, cantidad
+FROM conteo_opcion_recalculado
+ON CONFLICT (id_pregunta, valor) DO UPDATE SET cantidad = EXCLUDED.cantidad;
+
+-- Valores que ya no aparecen en ninguna respuesta (p. ej. restos de respuestas borradas)
+DELETE FROM conteo_opcion c
+WHERE NOT EXISTS (SELECT 1 FROM conteo_opcion_recalculado n
+                  WHERE n.id_pregunta = c.id_pregunta AND n.valor = c.valor);
+
+ANALYZE conteo_pregunta;
+ANALYZE conteo_opcion;
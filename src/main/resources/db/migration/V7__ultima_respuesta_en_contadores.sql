@@ -0,0 +1,19 @@
+-- Fecha de la última respuesta de cada pregunta, guardada junto a su total.
+--
+-- El panel de encuestas la buscaba con un LIMIT 1 descendente por pregunta sobre respuesta; sin un
+-- rango de fecha_respuesta esa búsqueda no descarta particiones y baja por el índice de todas las
+-- particiones mensuales de cada pregunta. ConteoRespuestaService la mantiene al sumar altas (se queda
+-- con la mayor) y la recalcula al reconstruir; una baja no la retrasa hasta la siguiente reconstrucción.
+--
+-- Como en V6, se bloquean las escrituras en los contadores mientras se rellena.
+
+LOCK TABLE conteo_opcion, conteo_pregunta IN SHARE ROW EXCLUSIVE MODE;
+
+ALTER TABLE conteo_pregunta ADD COLUMN ultima_respuesta TIMESTAMP(6);
+
+UPDATE conteo_pregunta c
+SET ultima_respuesta = u.ultima
+FROM (SELECT r.id_pregunta, max(r.fecha_respuesta) AS ultima
+      FROM respuesta r
+      GROUP BY r.id_pregunta) u
+WHERE u.id_pregunta = c.id_pregunta;
@@ -0,0 +1,46 @@
+package com.pruebas.pruebas.config;
+
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimiteConcurrenciaInterceptorTest {
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    void testSinPermisoLibreRespondeServicioNoDisponible() throws Exception {
+        LimiteConcurrenciaInterceptor limite = new LimiteConcurrenciaInterceptor(1, 10);
+        MockHttpServletRequest primera = new MockHttpServletRequest();
+        assertTrue(limite.preHandle(primera, response, null));
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> limite.preHandle(new MockHttpServletRequest(), response, null));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatusCode());
+        assertEquals(1L, limite.estado().get("rechazadas"));
+
+        limite.afterCompletion(primera, response, null, null);
+        assertEquals(0, limite.estado().get("en_curso"));
+        assertTrue(limite.preHandle(new MockHttpServletRequest(), response, null));
+    }
+
+    @Test
+    void testPeticionAsincronaLiberaSuPermisoUnaSolaVez() throws Exception {
+        LimiteConcurrenciaInterceptor limite = new LimiteConcurrenciaInterceptor(2, 10);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        limite.preHandle(request, response, null);
+        limite.afterConcurrentHandlingStarted(request, response, null);
+        assertEquals(0, limite.estado().get("en_curso"));
+
+        // El despacho ASYNC posterior ni toma ni devuelve permisos
+        request.setDispatcherType(DispatcherType.ASYNC);
+        limite.preHandle(request, response, null);
+        limite.afterCompletion(request, response, null, null);
+        assertEquals(0, limite.estado().get("en_curso"));
+    }
+}
@@ -0,0 +1,43 @@
+package com.pruebas.pruebas.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricasPeticionFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MetricasPeticionFilter filtro = new MetricasPeticionFilter(registry);
+
+    @Test
+    void testRegistraElConsumoDeLaPeticionPorPlantillaDeRuta() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/estadisticas/encuesta/3");
+
+        filtro.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/estadisticas/encuesta/{encuestaId}");
+            ConsumoPeticion.sumarSentencia();
+            ConsumoPeticion.sumarSentencia();
+            ConsumoPeticion.sumarFilas(40);
+            ConsumoPeticion.sumarEntidad();
+        });
+
+        DistributionSummary sentencias = registry.get("peticion.sql.sentencias")
+                .tag("uri", "/api/estadisticas/encuesta/{encuestaId}").tag("method", "GET").summary();
+        assertEquals(1, sentencias.count());
+        assertEquals(2.0, sentencias.totalAmount());
+        assertEquals(40.0, registry.get("peticion.sql.filas").summary().totalAmount());
+        assertEquals(1.0, registry.get("peticion.entidades").summary().totalAmount());
+        assertNull(ConsumoPeticion.actual());
+    }
+
+    @Test
+    void testFueraDeUnaPeticionNoSeCuentaNada() {
+        ConsumoPeticion.sumarSentencia();
+        assertNull(ConsumoPeticion.actual());
+    }
+}
@@ -0,0 +1,41 @@
+package com.pruebas.pruebas.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PoolHilosVirtualesTest {
+
+    @Test
+    void testFijaElPoolConLosValoresDelModo() {
+        MockEnvironment entorno = new MockEnvironment()
+                .withProperty("hilos-virtuales.pool.maximo", "15")
+                .withProperty("hilos-virtuales.pool.espera-ms", "2000");
+        HikariDataSource hikari = new HikariDataSource();
+
+        new PoolHilosVirtuales(entorno).postProcessAfterInitialization(hikari, "dataSource");
+
+        assertEquals(15, hikari.getMaximumPoolSize());
+        assertEquals(15, hikari.getMinimumIdle());
+        assertEquals(2000L, hikari.getConnectionTimeout());
+    }
+
+    @Test
+    void testRespetaLosValoresExplicitosDeHikari() {
+        MockEnvironment entorno = new MockEnvironment()
+                .withProperty("hilos-virtuales.pool.maximo", "15")
+                .withProperty("spring.datasource.hikari.maximum-pool-size", "40")
+                .withProperty("spring.datasource.hikari.connection-timeout", "30000");
+        HikariDataSource hikari = new HikariDataSource();
+        hikari.setMaximumPoolSize(40);
+        hikari.setConnectionTimeout(30000);
+
+        new PoolHilosVirtuales(entorno).postProcessAfterInitialization(hikari, "dataSource");
+
+        assertEquals(40, hikari.getMaximumPoolSize());
+        assertEquals(40, hikari.getMinimumIdle());
+        assertEquals(30000L, hikari.getConnectionTimeout());
+    }
+}
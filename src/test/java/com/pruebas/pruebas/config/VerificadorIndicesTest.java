@@ -0,0 +1,38 @@
+package com.pruebas.pruebas.config;
+
+import com.pruebas.pruebas.config.VerificadorIndices.IndiceEsperado;
+import com.pruebas.pruebas.config.VerificadorIndices.IndiceExistente;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerificadorIndicesTest {
+
+    @Test
+    void testIndicesConMasColumnasCubrenLosEsperados() {
+        List<IndiceExistente> existentes = new ArrayList<>();
+        for (IndiceEsperado esperado : VerificadorIndices.ESPERADOS) {
+            List<String> columnas = new ArrayList<>(esperado.columnas());
+            columnas.add("otra");
+            existentes.add(new IndiceExistente(esperado.tabla(), columnas));
+        }
+
+        assertTrue(VerificadorIndices.faltantes(existentes).isEmpty());
+    }
+
+    @Test
+    void testSoloPrimerasColumnasOEnOtroOrdenNoCubren() {
+        List<IndiceExistente> existentes = List.of(
+                new IndiceExistente("respuesta", List.of("id_respuesta")),
+                new IndiceExistente("respuesta", List.of("id_pregunta")),
+                new IndiceExistente("pregunta", List.of("orden", "id_encuesta")),
+                new IndiceExistente("respuesta", List.of("id_encuesta", "orden")));
+
+        List<String> faltantes = VerificadorIndices.faltantes(existentes).stream().map(IndiceEsperado::nombre).toList();
+
+        assertEquals(VerificadorIndices.ESPERADOS.stream().map(IndiceEsperado::nombre).toList(), faltantes);
+    }
+}
@@ -0,0 +1,108 @@
+package com.pruebas.pruebas.integration;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Utilidad de pruebas que cuenta las sentencias SQL enviadas a la base de datos.
+ * <p>
+ * Envuelve el {@link DataSource} de la aplicación: cada {@code prepareStatement},
+ * {@code prepareCall} y cada {@code execute*} de un {@link Statement} simple cuenta como una
+ * sentencia, venga de Hibernate, de Spring Data o de {@code JdbcTemplate}. Un lote JDBC cuenta
+ * una vez. Se activa importando {@link Configuracion} en la prueba.
+ * </p>
+ */
+public class ContadorSentencias {
+
+    private static final Set<String> PREPARAR = Set.of("prepareStatement", "prepareCall");
+    private static final Set<String> EJECUTAR = Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate");
+
+    private final List<String> sentencias = Collections.synchronizedList(new ArrayList<>());
+
+    /** Olvida las sentencias contadas hasta ahora. */
+    public void reiniciar() {
+        sentencias.clear();
+    }
+
+    /** Número de sentencias desde el último {@link #reiniciar()}. */
+    public int total() {
+        return sentencias.size();
+    }
+
+    /** Texto de las sentencias desde el último {@link #reiniciar()}, en orden. */
+    public List<String> sentencias() {
+        synchronized (sentencias) {
+            return new ArrayList<>(sentencias);
+        }
+    }
+
+    DataSource envolver(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource, (metodo, args, resultado) ->
+                "getConnection".equals(metodo.getName()) ? proxy(Connection.class, (Connection) resultado, this::conexion) : resultado);
+    }
+
+    private Object conexion(Method metodo, Object[] args, Object resultado) {
+        if (PREPARAR.contains(metodo.getName())) {
+            sentencias.add((String) args[0]);
+        } else if ("createStatement".equals(metodo.getName())) {
+            return proxy(Statement.class, (Statement) resultado, (m, a, r) -> {
+                if (EJECUTAR.contains(m.getName()) && a != null && a.length > 0) {
+                    sentencias.add((String) a[0]);
+                }
+                return r;
+            });
+        }
+        return resultado;
+    }
+
+    @FunctionalInterface
+    private interface Interceptor {
+        Object despues(Method metodo, Object[] args, Object resultado);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> tipo, T destino, Interceptor interceptor) {
+        InvocationHandler manejador = (instancia, metodo, args) -> {
+            try {
+                return interceptor.despues(metodo, args, metodo.invoke(destino, args));
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return (T) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, manejador);
+    }
+
+    /** Registra el contador y envuelve el {@link DataSource} del contexto de la prueba. */
+    @TestConfiguration
+    public static class Configuracion {
+
+        @Bean
+        public ContadorSentencias contadorSentencias() {
+            return new ContadorSentencias();
+        }
+
+        @Bean
+        public static BeanPostProcessor envolverDataSource(ObjectProvider<ContadorSentencias> contador) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String nombre) {
+                    return bean instanceof DataSource dataSource ? contador.getObject().envolver(dataSource) : bean;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.pruebas.pruebas.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pruebas.pruebas.dto.EncuestaDTO;
+import com.pruebas.pruebas.dto.EnvioEncuestaDTO;
+import com.pruebas.pruebas.dto.PreguntaDTO;
+import com.pruebas.pruebas.dto.RespuestaDTO;
+import com.pruebas.pruebas.service.EncuestaService;
+import com.pruebas.pruebas.service.EstadisticasCache;
+import com.pruebas.pruebas.service.PreguntaMetadataCache;
+import com.pruebas.pruebas.service.PreguntaService;
+import com.pruebas.pruebas.service.RespuestaService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Comprueba que las sentencias SQL de cada endpoint principal no crecen con los datos.
+ * <p>
+ * Cada petición se ejecuta contra una encuesta pequeña (3 preguntas, 10 respuestas) y otra grande
+ * (30 preguntas, 1.000 respuestas) y ambas deben necesitar exactamente las mismas sentencias.
+ * Un N+1 (una consulta por pregunta o por respuesta) hace fallar la prueba y el mensaje lista
+ * las sentencias de ambas ejecuciones. Los listados se limitan a los datos del escenario (cada
+ * encuesta tiene un estado propio) y piden páginas que el escenario llena, para que se ejecute también
+ * la consulta de conteo.
+ * </p>
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(ContadorSentencias.Configuracion.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ConteoSentenciasEndpointsTest {
+
+    private record Escenario(Long idEncuesta, String estado, Long idPreguntaAbierta, Long idRespuesta,
+                             List<Long> idPreguntas) {
+    }
+
+    @FunctionalInterface
+    private interface Peticion {
+        RequestBuilder para(Escenario escenario) throws Exception;
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ContadorSentencias contador;
+
+    @Autowired
+    private EncuestaService encuestaService;
+
+    @Autowired
+    private PreguntaService preguntaService;
+
+    @Autowired
+    private RespuestaService respuestaService;
+
+    @Autowired
+    private EstadisticasCache estadisticasCache;
+
+    @Autowired
+    private PreguntaMetadataCache preguntaMetadataCache;
+
+    private Escenario pequena;
+    private Escenario grande;
+
+    @BeforeAll
+    void crearEncuestas() {
+        pequena = crear(3, 10);
+        grande = crear(30, 1000);
+    }
+
+    @AfterAll
+    void eliminarEncuestas() {
+        encuestaService.delete(pequena.idEncuesta());
+        encuestaService.delete(grande.idEncuesta());
+    }
+
+    @Test
+    void testDetalleDeEncuesta() throws Exception {
+        assertSentenciasConstantes("GET /api/encuestas/{id}",
+                e -> get("/api/encuestas/{id}", e.idEncuesta()));
+        assertSentenciasConstantes("GET /api/encuestas/{id}?respuestas=true",
+                e -> get("/api/encuestas/{id}", e.idEncuesta()).param("respuestas", "true"));
+    }
+
+    @Test
+    void testListados() throws Exception {
+        assertSentenciasConstantes("GET /api/encuestas?detalle=completo",
+                e -> get("/api/encuestas").param("detalle", "completo").param("estado", e.estado()).param("size", "1"));
+        assertSentenciasConstantes("GET /api/encuestas",
+                e -> get("/api/encuestas").param("estado", e.estado()).param("size", "1"));
+        assertSentenciasConstantes("GET /api/preguntas?idEncuesta",
+                e -> get("/api/preguntas").param("idEncuesta", e.idEncuesta().toString()).param("size", "2"));
+        assertSentenciasConstantes("GET /api/respuestas?idEncuesta",
+                e -> get("/api/respuestas").param("idEncuesta", e.idEncuesta().toString()).param("size", "2"));
+    }
+
+    @Test
+    void testEstadisticasDeEncuesta() throws Exception {
+        assertSentenciasConstantes("GET /api/estadisticas/encuesta/{id}", e -> {
+            estadisticasCache.invalidarTodo();
+            return get("/api/estadisticas/encuesta/{id}", e.idEncuesta());
+        });
+        assertSentenciasConstantes("GET /api/estadisticas/pregunta/{id}/abiertas",
+                e -> get("/api/estadisticas/pregunta/{id}/abiertas", e.idPreguntaAbierta()).param("size", "2"));
+    }
+
+    @Test
+    void testRegistroDeRespuestas() throws Exception {
+        assertSentenciasConstantes("POST /api/respuestas/pregunta/{id}", e -> {
+            preguntaMetadataCache.invalidarTodo();
+            return post("/api/respuestas/pregunta/{id}", e.idPreguntaAbierta())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(json(Map.of("respuesta", "otra opinión")));
+        });
+        assertSentenciasConstantes("POST /api/respuestas/encuesta/{id}", e -> {
+            List<Map<String, Object>> respuestas = List.of(
+                    Map.of("idPregunta", e.idPreguntas().get(0), "respuesta", "texto"),
+                    Map.of("idPregunta", e.idPreguntas().get(1), "respuesta", "B"),
+                    Map.of("idPregunta", e.idPreguntas().get(2), "respuesta", "4"));
+            return post("/api/respuestas/encuesta/{id}", e.idEncuesta())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(json(Map.of("respuestas", respuestas)));
+        });
+        assertSentenciasConstantes("PUT /api/respuestas/{id}",
+                e -> put("/api/respuestas/{id}", e.idRespuesta())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("respuesta", "editada"))));
+    }
+
+    private void assertSentenciasConstantes(String endpoint, Peticion peticion) throws Exception {
+        // Primera ejecución descartada: cachés y planes de consulta se inicializan una vez por aplicación
+        ejecutar(peticion.para(pequena));
+
+        int sentenciasPequena = ejecutar(peticion.para(pequena));
+        List<String> detallePequena = contador.sentencias();
+        int sentenciasGrande = ejecutar(peticion.para(grande));
+        List<String> detalleGrande = contador.sentencias();
+
+        assertTrue(sentenciasPequena > 0, endpoint + ": no se contó ninguna sentencia");
+        assertEquals(sentenciasPequena, sentenciasGrande, () -> endpoint
+                + ": las sentencias crecen con los datos\n  encuesta pequeña: " + String.join("\n    ", detallePequena)
+                + "\n  encuesta grande: " + String.join("\n    ", detalleGrande));
+    }
+
+    private int ejecutar(RequestBuilder peticion) throws Exception {
+        contador.reiniciar();
+        mockMvc.perform(peticion).andExpect(status().is2xxSuccessful());
+        return contador.total();
+    }
+
+    private Escenario crear(int preguntas, int respuestas) {
+        EncuestaDTO encuesta = new EncuestaDTO();
+        encuesta.setTitulo("Conteo de sentencias (" + preguntas + " preguntas)");
+        // Estado único: los listados filtrados por él solo devuelven esta encuesta
+        String estado = "CONTEO_" + preguntas + "_" + System.nanoTime();
+        encuesta.setEstado(estado);
+        Long idEncuesta = encuestaService.create(encuesta).getId();
+
+        List<PreguntaDTO> creadas = new ArrayList<>();
+        for (int i = 0; i < preguntas; i++) {
+            PreguntaDTO pregunta = new PreguntaDTO();
+            pregunta.setIdEncuesta(idEncuesta);
+            pregunta.setTextoPregunta("Pregunta " + (i + 1));
+            switch (i % 3) {
+                case 0 -> pregunta.setTipo("abierta");
+                case 1 -> {
+                    pregunta.setTipo("seleccion_unica");
+                    pregunta.setOpciones(List.of("A", "B", "C"));
+                }
+                default -> pregunta.setTipo("escala");
+            }
+            creadas.add(preguntaService.create(pregunta));
+        }
+
+        List<RespuestaDTO> lote = new ArrayList<>(respuestas);
+        for (int i = 0; i < respuestas; i++) {
+            PreguntaDTO pregunta = creadas.get(i % preguntas);
+            RespuestaDTO respuesta = new RespuestaDTO();
+            respuesta.setIdPregunta(pregunta.getId());
+            respuesta.setRespuesta(switch (pregunta.getTipo()) {
+                case "abierta" -> "Comentario " + i;
+                case "seleccion_unica" -> List.of("A", "B", "C").get(i % 3);
+                default -> String.valueOf(i % 5 + 1);
+            });
+            lote.add(respuesta);
+        }
+        EnvioEncuestaDTO envio = new EnvioEncuestaDTO();
+        envio.setRespuestas(lote);
+        assertEquals(respuestas, respuestaService.registrarEnvio(idEncuesta, envio).getGuardadas());
+
+        Long idRespuesta = respuestaService.create(creadas.get(0).getId(), respuestaAbierta()).getId();
+        return new Escenario(idEncuesta, estado, creadas.get(0).getId(), idRespuesta,
+                creadas.stream().map(PreguntaDTO::getId).toList());
+    }
+
+    private static RespuestaDTO respuestaAbierta() {
+        RespuestaDTO respuesta = new RespuestaDTO();
+        respuesta.setRespuesta("Primera opinión");
+        return respuesta;
+    }
+
+    private String json(Object valor) throws Exception {
+        return objectMapper.writeValueAsString(valor);
+    }
+}
@@ -0,0 +1,139 @@
+package com.pruebas.pruebas.integration;
+
+import com.pruebas.pruebas.repository.ConteoPreguntaRepository;
+import com.pruebas.pruebas.repository.RespuestaRepository;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationVersion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ejecuta la consulta del panel ({@link RespuestaRepository#resumirEncuestas}) y la suma de
+ * contadores ({@link ConteoPreguntaRepository#sumar}) tal como están declaradas, sobre un esquema
+ * desechable con respuestas de varios meses.
+ * <p>
+ * Las respuestas se cargan antes de V6 y V7 para comprobar que la última respuesta de cada pregunta
+ * se rellena en {@code conteo_pregunta}. Después se comprueba que el panel solo lee la partición de
+ * la ventana, que la última respuesta sale de los contadores y que sumar altas y bajas la mantiene.
+ * </p>
+ */
+@SpringBootTest
+class PanelEncuestasConsultaTest {
+
+    private static final String ESQUEMA = "prueba_panel_encuestas";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void eliminarEsquema() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + ESQUEMA + " CASCADE");
+    }
+
+    @Test
+    void testPanelSoloLeeLaParticionDeLaVentana() throws Exception {
+        migrar(MigrationVersion.fromVersion("5"));
+        ejecutar("SELECT %s.crear_particiones_respuesta(DATE '2024-01-01', DATE '2024-03-01')");
+        ejecutar("INSERT INTO %s.encuesta (id_encuesta, titulo, estado) VALUES (1, 'Panel', 'ACTIVA')");
+        ejecutar("""
+                INSERT INTO %s.pregunta (id_pregunta, texto_pregunta, tipo, orden, id_encuesta) VALUES
+                    (1, 'Comentario', 'abierta', 1, 1),
+                    (2, 'Sin respuestas', 'abierta', 2, 1)
+                """);
+        ejecutar("""
+                INSERT INTO %s.respuesta (id_respuesta, id_pregunta, respuesta, fecha_respuesta)
+                SELECT n, 1, 'Respuesta ' || n, TIMESTAMP '2024-01-15' + (n %% 3) * INTERVAL '1 month'
+                FROM generate_series(1, 300) n
+                """);
+
+        migrar(MigrationVersion.LATEST);
+
+        Timestamp ultima = Timestamp.valueOf("2024-03-15 00:00:00");
+        assertEquals(ultima, jdbcTemplate.queryForObject(String.format(
+                "SELECT ultima_respuesta FROM %s.conteo_pregunta WHERE id_pregunta = 1", ESQUEMA), Timestamp.class));
+
+        Map<String, Object> parametros = new HashMap<>();
+        parametros.put("estado", "ACTIVA");
+        parametros.put("desde", LocalDateTime.of(2024, 3, 10, 0, 0));
+        parametros.put("hasta", LocalDateTime.of(2024, 3, 20, 0, 0));
+
+        try (Connection conexion = dataSource.getConnection()) {
+            NamedParameterJdbcTemplate enEsquema =
+                    new NamedParameterJdbcTemplate(new SingleConnectionDataSource(conexion, true));
+            enEsquema.getJdbcTemplate().execute("SET search_path TO " + ESQUEMA);
+            try {
+                String panel = consulta(RespuestaRepository.class, "resumirEncuestas",
+                        String.class, LocalDateTime.class, LocalDateTime.class);
+
+                // Las columnas agregadas no tienen alias únicos: se leen por posición
+                List<Object[]> filas = enEsquema.query(panel, parametros, (rs, n) -> new Object[]{
+                        rs.getLong(4), rs.getLong(5), rs.getTimestamp(6), rs.getLong(7)});
+                assertEquals(1, filas.size());
+                assertArrayEquals(new Object[]{2L, 300L, ultima, 100L}, filas.get(0));
+
+                String plan = String.join("\n", enEsquema.queryForList("EXPLAIN " + panel, parametros, String.class));
+                assertTrue(plan.contains("respuesta_p2024_03"), plan);
+                assertFalse(plan.contains("respuesta_p2024_01") || plan.contains("respuesta_p2024_02"), plan);
+
+                // Una alta anterior y una baja no retrasan la última respuesta; una alta posterior la adelanta
+                String sumar = consulta(ConteoPreguntaRepository.class, "sumar", Long.class, long.class, Date.class);
+                Timestamp posterior = Timestamp.valueOf("2024-03-16 08:30:00");
+                enEsquema.update(sumar, Map.of("idPregunta", 1L, "delta", 1L,
+                        "ultima", Timestamp.valueOf("2024-02-01 00:00:00")));
+                Map<String, Object> baja = new HashMap<>();
+                baja.put("idPregunta", 1L);
+                baja.put("delta", -1L);
+                baja.put("ultima", null);
+                enEsquema.update(sumar, baja);
+                assertEquals(ultima, enEsquema.getJdbcTemplate().queryForObject(
+                        "SELECT ultima_respuesta FROM conteo_pregunta WHERE id_pregunta = 1", Timestamp.class));
+                enEsquema.update(sumar, Map.of("idPregunta", 1L, "delta", 1L, "ultima", posterior));
+                assertEquals(posterior, enEsquema.getJdbcTemplate().queryForObject(
+                        "SELECT ultima_respuesta FROM conteo_pregunta WHERE id_pregunta = 1", Timestamp.class));
+                assertEquals(301L, enEsquema.getJdbcTemplate().queryForObject(
+                        "SELECT total FROM conteo_pregunta WHERE id_pregunta = 1", Long.class));
+            } finally {
+                enEsquema.getJdbcTemplate().execute("RESET search_path");
+            }
+        }
+    }
+
+    private static String consulta(Class<?> repositorio, String metodo, Class<?>... parametros) throws Exception {
+        return repositorio.getMethod(metodo, parametros).getAnnotation(Query.class).value();
+    }
+
+    private void migrar(MigrationVersion hasta) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .schemas(ESQUEMA)
+                .locations("classpath:db/migration")
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .target(hasta)
+                .load()
+                .migrate();
+    }
+
+    private void ejecutar(String sql) {
+        jdbcTemplate.execute(String.format(sql, ESQUEMA));
+    }
+}
@@ -0,0 +1,102 @@
+package com.pruebas.pruebas.integration;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationVersion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ejecuta la conversión de {@code respuesta} a tabla particionada (V3) sobre una tabla con datos.
+ * <p>
+ * Las migraciones se aplican en un esquema propio y desechable: primero hasta V2 (la tabla sin
+ * particionar, como la dejaban las versiones anteriores), se cargan respuestas de varios meses y una
+ * sin fecha, y después se aplica el resto. Se comprueba que no se pierde ninguna fila, que cada una
+ * queda en la partición de su mes, que la partición por defecto queda vacía y que una consulta por
+ * rango de fechas solo lee la partición de ese rango.
+ * </p>
+ */
+@SpringBootTest
+class ParticionadoRespuestaMigracionTest {
+
+    private static final String ESQUEMA = "prueba_particionado_respuesta";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void eliminarEsquema() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + ESQUEMA + " CASCADE");
+    }
+
+    @Test
+    void testConvierteTablaConDatosSinPerderFilas() {
+        migrar(MigrationVersion.fromVersion("2"));
+        ejecutar("INSERT INTO %s.encuesta (id_encuesta, titulo) VALUES (1, 'Migración')");
+        ejecutar("INSERT INTO %s.pregunta (id_pregunta, texto_pregunta, tipo, orden, id_encuesta) "
+                + "VALUES (1, '¿Qué opina?', 'abierta', 1, 1)");
+        ejecutar("""
+                INSERT INTO %s.respuesta (id_respuesta, id_pregunta, respuesta, fecha_respuesta)
+                SELECT n, 1, 'Respuesta ' || n, TIMESTAMP '2024-01-15' + (n %% 3) * INTERVAL '1 month'
+                FROM generate_series(1, 300) n
+                """);
+        ejecutar("INSERT INTO %s.respuesta (id_respuesta, id_pregunta, respuesta) VALUES (301, 1, 'Sin fecha')");
+
+        migrar(MigrationVersion.LATEST);
+
+        assertEquals(301L, contar("SELECT count(*) FROM %s.respuesta"));
+        assertEquals(0L, contar("SELECT count(*) FROM %s.respuesta_fuera_de_rango"));
+        assertEquals(100L, contar("SELECT count(*) FROM %s.respuesta_p2024_02"));
+        assertEquals(1L, contar("SELECT count(*) FROM %s.respuesta_p1970_01"));
+        assertEquals("p", jdbcTemplate.queryForObject(String.format(
+                "SELECT relkind::text FROM pg_class WHERE oid = '%s.respuesta'::regclass", ESQUEMA), String.class));
+
+        // Los índices de V2 existen en la tabla particionada con sus mismos nombres
+        List<String> indices = jdbcTemplate.queryForList(
+                "SELECT indexname FROM pg_indexes WHERE schemaname = ? AND tablename = 'respuesta'", String.class, ESQUEMA);
+        assertTrue(indices.containsAll(List.of(
+                "idx_respuesta_pregunta_id", "idx_respuesta_pregunta_fecha", "idx_respuesta_fecha_id")), indices::toString);
+
+        String plan = String.join("\n", jdbcTemplate.queryForList(String.format("""
+                EXPLAIN SELECT count(*) FROM %s.respuesta
+                WHERE id_pregunta = 1 AND fecha_respuesta >= '2024-03-01' AND fecha_respuesta < '2024-04-01'
+                """, ESQUEMA), String.class));
+        assertTrue(plan.contains("respuesta_p2024_03"), plan);
+        assertFalse(plan.contains("respuesta_p2024_01") || plan.contains("respuesta_p2024_02"), plan);
+
+        // La creación de particiones es idempotente y una respuesta nueva cae en la partición de su mes
+        assertEquals(0L, contar("SELECT %s.crear_particiones_respuesta(DATE '2024-01-01', DATE '2024-03-01')"));
+        ejecutar("INSERT INTO %s.respuesta (id_respuesta, id_pregunta, respuesta) VALUES (302, 1, 'Nueva')");
+        assertEquals(0L, contar("SELECT count(*) FROM %s.respuesta_fuera_de_rango"));
+    }
+
+    private void migrar(MigrationVersion hasta) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .schemas(ESQUEMA)
+                .locations("classpath:db/migration")
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .target(hasta)
+                .load()
+                .migrate();
+    }
+
+    private void ejecutar(String sql) {
+        jdbcTemplate.update(String.format(sql, ESQUEMA));
+    }
+
+    private long contar(String sql) {
+        return jdbcTemplate.queryForObject(String.format(sql, ESQUEMA), Long.class);
+    }
+}
@@ -0,0 +1,93 @@
+package com.pruebas.pruebas.integration;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationVersion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ejecuta el relleno de contadores (V6) sobre respuestas guardadas antes de que existieran.
+ * <p>
+ * Se migra un esquema desechable hasta V5, se cargan respuestas sin tocar los contadores (como en
+ * una base anterior) más un contador sobrante, y se aplica el resto. Los contadores deben quedar
+ * como los dejaría {@code ConteoRespuestaService.reconstruirTodas()}.
+ * </p>
+ */
+@SpringBootTest
+class RellenoContadoresMigracionTest {
+
+    private static final String ESQUEMA = "prueba_relleno_contadores";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void eliminarEsquema() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + ESQUEMA + " CASCADE");
+    }
+
+    @Test
+    void testCuentaLasRespuestasExistentes() {
+        migrar(MigrationVersion.fromVersion("5"));
+        ejecutar("INSERT INTO %s.encuesta (id_encuesta, titulo) VALUES (1, 'Relleno')");
+        ejecutar("""
+                INSERT INTO %s.pregunta (id_pregunta, texto_pregunta, tipo, orden, id_encuesta) VALUES
+                    (1, 'Color', 'seleccion_unica', 1024, 1),
+                    (2, 'Frutas', 'seleccion_multiple', 2048, 1),
+                    (3, 'Comentario', 'abierta', 3072, 1),
+                    (4, 'Sin respuestas', 'si_no', 4096, 1)
+                """);
+        ejecutar("""
+                INSERT INTO %s.respuesta (id_respuesta, id_pregunta, respuesta) VALUES
+                    (1, 1, 'Rojo'), (2, 1, 'Rojo'), (3, 1, 'Azul'),
+                    (4, 2, 'Pera, Manzana'), (5, 2, 'Manzana,'),
+                    (6, 3, 'Todo bien')
+                """);
+        // Contadores de una pregunta ya sin respuestas: deben desaparecer
+        ejecutar("INSERT INTO %s.conteo_pregunta (id_pregunta, total) VALUES (4, 7)");
+        ejecutar("INSERT INTO %s.conteo_opcion (id_pregunta, valor, cantidad) VALUES (4, 'Si', 7)");
+
+        migrar(MigrationVersion.LATEST);
+
+        assertEquals(3L, contar("SELECT total FROM %s.conteo_pregunta WHERE id_pregunta = 1"));
+        assertEquals(2L, contar("SELECT total FROM %s.conteo_pregunta WHERE id_pregunta = 2"));
+        assertEquals(1L, contar("SELECT total FROM %s.conteo_pregunta WHERE id_pregunta = 3"));
+        assertEquals(0L, contar("SELECT count(*) FROM %s.conteo_pregunta WHERE id_pregunta = 4"));
+
+        assertEquals(2L, contar("SELECT cantidad FROM %s.conteo_opcion WHERE id_pregunta = 1 AND valor = 'Rojo'"));
+        assertEquals(1L, contar("SELECT cantidad FROM %s.conteo_opcion WHERE id_pregunta = 1 AND valor = 'Azul'"));
+        assertEquals(2L, contar("SELECT cantidad FROM %s.conteo_opcion WHERE id_pregunta = 2 AND valor = 'Manzana'"));
+        assertEquals(1L, contar("SELECT cantidad FROM %s.conteo_opcion WHERE id_pregunta = 2 AND valor = 'Pera'"));
+        assertEquals(0L, contar("SELECT count(*) FROM %s.conteo_opcion WHERE id_pregunta IN (3, 4)"));
+    }
+
+    private void migrar(MigrationVersion hasta) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .schemas(ESQUEMA)
+                .locations("classpath:db/migration")
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .target(hasta)
+                .load()
+                .migrate();
+    }
+
+    private void ejecutar(String sql) {
+        jdbcTemplate.update(String.format(sql, ESQUEMA));
+    }
+
+    private long contar(String sql) {
+        return jdbcTemplate.queryForObject(String.format(sql, ESQUEMA), Long.class);
+    }
+}
@@ -0,0 +1,107 @@
+package com.pruebas.pruebas.service;
+
+import com.pruebas.pruebas.entity.Pregunta;
+import com.pruebas.pruebas.entity.Respuesta;
+import com.pruebas.pruebas.repository.ConteoOpcionRepository;
+import com.pruebas.pruebas.repository.ConteoPreguntaRepository;
+import com.pruebas.pruebas.repository.EncuestaRepository;
+import com.pruebas.pruebas.repository.RespuestaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConteoRespuestaServiceTest {
+
+    @Mock
+    private ConteoOpcionRepository conteoOpcionRepository;
+
+    @Mock
+    private ConteoPreguntaRepository conteoPreguntaRepository;
+
+    @Mock
+    private RespuestaRepository respuestaRepository;
+
+    @Mock
+    private EncuestaRepository encuestaRepository;
+
+    @InjectMocks
+    private ConteoRespuestaService conteoRespuestaService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private static final Date FECHA = new Date(1_700_000_000_000L);
+
+    @Test
+    void testAltaSeleccionMultipleCuentaCadaOpcion() {
+        conteoRespuestaService.registrarAlta(1L, "seleccion_multiple", "A, B,", FECHA);
+
+        verify(conteoPreguntaRepository).sumar(1L, 1L, FECHA);
+        verify(conteoOpcionRepository).sumar(1L, "A", 1L);
+        verify(conteoOpcionRepository).sumar(1L, "B", 1L);
+        verifyNoMoreInteractions(conteoOpcionRepository);
+    }
+
+    @Test
+    void testAltaAbiertaSoloCuentaTotal() {
+        conteoRespuestaService.registrarAlta(2L, "abierta", "Excelente servicio", FECHA);
+
+        verify(conteoPreguntaRepository).sumar(2L, 1L, FECHA);
+        verifyNoInteractions(conteoOpcionRepository);
+    }
+
+    @Test
+    void testAltasEnLoteGuardanLaRespuestaMasRecienteDeCadaPregunta() {
+        Date anterior = new Date(FECHA.getTime() - 60_000);
+        conteoRespuestaService.registrarAltas(List.of(
+                respuesta(2L, FECHA), respuesta(2L, anterior), respuesta(4L, anterior)));
+
+        verify(conteoPreguntaRepository).sumar(2L, 2L, FECHA);
+        verify(conteoPreguntaRepository).sumar(4L, 1L, anterior);
+    }
+
+    @Test
+    void testBajaNoCambiaLaUltimaRespuesta() {
+        conteoRespuestaService.registrarBaja(2L, "abierta", "Excelente servicio");
+
+        verify(conteoPreguntaRepository).sumar(2L, -1L, null);
+    }
+
+    @Test
+    void testCambioRestaValorAnteriorYSumaNuevo() {
+        conteoRespuestaService.registrarCambio(3L, "seleccion_multiple", "A,B", "B,C");
+
+        verify(conteoOpcionRepository).sumar(3L, "A", -1L);
+        verify(conteoOpcionRepository).sumar(3L, "C", 1L);
+        verify(conteoOpcionRepository, never()).sumar(eq(3L), eq("B"), anyLong());
+        verifyNoInteractions(conteoPreguntaRepository);
+    }
+
+    @Test
+    void testValoresContablesReplicaSplitYTrim() {
+        assertEquals(List.of("A", "", "B"), ConteoRespuestaService.valoresContables("checkbox", "A,, B,,"));
+        assertEquals(List.of("Sí"), ConteoRespuestaService.valoresContables("si_no", "Sí"));
+        assertTrue(ConteoRespuestaService.valoresContables("abierta", "texto").isEmpty());
+    }
+
+    private static Respuesta respuesta(Long idPregunta, Date fecha) {
+        Pregunta pregunta = new Pregunta();
+        pregunta.setIdPregunta(idPregunta);
+        pregunta.setTipo("abierta");
+        Respuesta r = new Respuesta();
+        r.setPregunta(pregunta);
+        r.setRespuesta("Texto");
+        r.setFechaRespuesta(fecha);
+        return r;
+    }
+}
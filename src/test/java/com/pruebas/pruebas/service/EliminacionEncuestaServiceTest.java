@@ -0,0 +1,126 @@
+package com.pruebas.pruebas.service;
+
+import com.pruebas.pruebas.repository.ConteoPreguntaRepository;
+import com.pruebas.pruebas.repository.RespuestaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EliminacionEncuestaServiceTest {
+
+    @Mock
+    private EncuestaService encuestaService;
+
+    @Mock
+    private RespuestaRepository respuestaRepository;
+
+    @Mock
+    private ConteoPreguntaRepository conteoPreguntaRepository;
+
+    @Mock
+    private ConteoRespuestaService conteoRespuestaService;
+
+    @Mock
+    private EstadisticasCache estadisticasCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EliminacionEncuestaService eliminacion;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        eliminacion = new EliminacionEncuestaService(transactionManager, 1000, 2);
+        ReflectionTestUtils.setField(eliminacion, "encuestaService", encuestaService);
+        ReflectionTestUtils.setField(eliminacion, "respuestaRepository", respuestaRepository);
+        ReflectionTestUtils.setField(eliminacion, "conteoPreguntaRepository", conteoPreguntaRepository);
+        ReflectionTestUtils.setField(eliminacion, "conteoRespuestaService", conteoRespuestaService);
+        ReflectionTestUtils.setField(eliminacion, "estadisticasCache", estadisticasCache);
+    }
+
+    @Test
+    void testSoloLasEncuestasSobreElUmbralVanASegundoPlano() {
+        when(conteoPreguntaRepository.sumarPorEncuesta(1L)).thenReturn(1000L);
+        when(conteoPreguntaRepository.sumarPorEncuesta(2L)).thenReturn(1001L);
+
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(respuestaRepository.eliminarLotePorEncuesta(2L, 2)).thenAnswer(i -> {
+            liberar.await();
+            return 0;
+        });
+
+        assertTrue(eliminacion.programarSiEsGrande(1L).isEmpty());
+        Map<String, Object> tarea = eliminacion.programarSiEsGrande(2L).orElseThrow();
+        assertEquals(2L, tarea.get("id_encuesta"));
+        assertEquals(1001L, tarea.get("respuestas_totales"));
+
+        // Mientras sigue en curso, pedirla de nuevo devuelve la misma tarea sin volver a estimar
+        assertEquals(tarea.get("id_tarea"), eliminacion.programarSiEsGrande(2L).orElseThrow().get("id_tarea"));
+        verify(conteoPreguntaRepository, times(1)).sumarPorEncuesta(2L);
+        // Por encima del umbral no hace falta mirar la tabla de respuestas
+        verify(respuestaRepository, never()).contarPorEncuestaHasta(eq(2L), anyLong());
+        liberar.countDown();
+    }
+
+    @Test
+    void testSinContadoresSeCuentaEnLaTablaHastaPasarElUmbral() {
+        when(conteoPreguntaRepository.sumarPorEncuesta(3L)).thenReturn(0L);
+        when(respuestaRepository.contarPorEncuestaHasta(3L, 1001L)).thenReturn(1001L);
+        when(conteoPreguntaRepository.sumarPorEncuesta(4L)).thenReturn(0L);
+        when(respuestaRepository.contarPorEncuestaHasta(4L, 1001L)).thenReturn(12L);
+
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(respuestaRepository.eliminarLotePorEncuesta(3L, 2)).thenAnswer(i -> {
+            liberar.await();
+            return 0;
+        });
+
+        assertEquals(1001L, eliminacion.programarSiEsGrande(3L).orElseThrow().get("respuestas_totales"));
+        assertTrue(eliminacion.programarSiEsGrande(4L).isEmpty());
+        liberar.countDown();
+    }
+
+    @Test
+    void testBorraPorLotesHastaUnLoteIncompletoYTerminaConLaEncuesta() {
+        when(respuestaRepository.eliminarLotePorEncuesta(7L, 2)).thenReturn(2, 2, 1);
+        EliminacionEncuestaService.Tarea tarea = new EliminacionEncuestaService.Tarea("t", 7L, 5);
+
+        eliminacion.ejecutar(tarea);
+
+        verify(respuestaRepository, times(3)).eliminarLotePorEncuesta(7L, 2);
+        verify(encuestaService).delete(7L);
+        // Los contadores se quitan al empezar, en su propia transacción
+        verify(conteoRespuestaService).eliminarEncuesta(7L);
+        verify(estadisticasCache).invalidar(7L);
+        verify(transactionManager, times(5)).commit(any());
+        Map<String, Object> resumen = tarea.resumen();
+        assertEquals("completada", resumen.get("estado"));
+        assertEquals(5L, resumen.get("respuestas_eliminadas"));
+        assertNotNull(resumen.get("fin"));
+    }
+
+    @Test
+    void testUnErrorDejaLaTareaFallidaSinEliminarLaEncuesta() {
+        when(respuestaRepository.eliminarLotePorEncuesta(7L, 2)).thenReturn(2).thenThrow(new RuntimeException("sin conexión"));
+        EliminacionEncuestaService.Tarea tarea = new EliminacionEncuestaService.Tarea("t", 7L, 5);
+
+        eliminacion.ejecutar(tarea);
+
+        verify(encuestaService, never()).delete(any());
+        verify(conteoRespuestaService).reconstruir(7L);
+        Map<String, Object> resumen = tarea.resumen();
+        assertEquals("fallida", resumen.get("estado"));
+        assertEquals(2L, resumen.get("respuestas_eliminadas"));
+        assertEquals("sin conexión", resumen.get("error"));
+    }
+}
@@ -1,14 +1,21 @@
 package com.pruebas.pruebas.service;
 
 import com.pruebas.pruebas.dto.EncuestaDTO;
+import com.pruebas.pruebas.dto.EncuestaResumenDTO;
 import com.pruebas.pruebas.entity.Encuesta;
 import com.pruebas.pruebas.mapper.EncuestaMapper;
 import com.pruebas.pruebas.repository.EncuestaRepository;
+import com.pruebas.pruebas.repository.PreguntaRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.util.Optional;
 import java.util.List;
@@ -21,9 +28,21 @@ class EncuestaServiceTest {
     @Mock
     private EncuestaRepository encuestaRepository;
 
+    @Mock
+    private PreguntaRepository preguntaRepository;
+
     @Mock
     private EncuestaMapper encuestaMapper;
 
+    @Mock
+    private ConteoRespuestaService conteoRespuestaService;
+
+    @Mock
+    private EstadisticasCache estadisticasCache;
+
+    @Mock
+    private PreguntaMetadataCache preguntaMetadataCache;
+
     @InjectMocks
     private EncuestaService encuestaService;
 
@@ -57,26 +76,62 @@ class EncuestaServiceTest {
 
     @Test
     void testGetByIdSuccess() {
-        when(encuestaRepository.findById(1L)).thenReturn(Optional.of(encuesta));
-        when(encuestaMapper.toDTO(encuesta)).thenReturn(dto);
+        when(encuestaRepository.findConPreguntasById(1L)).thenReturn(Optional.of(encuesta));
+        when(encuestaMapper.toDTOSinRespuestas(encuesta)).thenReturn(dto);
 
 
         EncuestaDTO result = encuestaService.getById(1L);
         assertEquals(1L, result.getId());
+        verify(preguntaRepository, never()).findConRespuestasByEncuesta(anyLong());
+    }
+
+    @Test
+    void testGetByIdConRespuestasUsaUnaConsultaParaTodasLasPreguntas() {
+        when(encuestaRepository.findConPreguntasById(1L)).thenReturn(Optional.of(encuesta));
+        when(encuestaMapper.toDTO(encuesta)).thenReturn(dto);
+
+        EncuestaDTO result = encuestaService.getById(1L, true);
+
+        assertEquals(1L, result.getId());
+        verify(preguntaRepository, times(1)).findConRespuestasByEncuesta(1L);
+        verify(encuestaRepository, never()).findById(anyLong());
     }
 
     @Test
     void testGetByIdNotFound() {
-        when(encuestaRepository.findById(99L)).thenReturn(Optional.empty());
+        when(encuestaRepository.findConPreguntasById(99L)).thenReturn(Optional.empty());
         RuntimeException ex = assertThrows(RuntimeException.class, () -> encuestaService.getById(99L));
         assertEquals("Encuesta no encontrada", ex.getMessage());
     }
 
     @Test
     void testDeleteEncuesta() {
-        when(encuestaRepository.existsById(1L)).thenReturn(true);
+        when(encuestaRepository.eliminarPorId(1L)).thenReturn(1);
         boolean deleted = encuestaService.delete(1L);
         assertTrue(deleted);
-        verify(encuestaRepository).deleteById(1L);
+        verify(conteoRespuestaService).eliminarEncuesta(1L);
+        verify(estadisticasCache).invalidar(1L);
+        verify(encuestaRepository, never()).deleteById(any());
+    }
+
+    @Test
+    void testDeleteEncuestaInexistente() {
+        when(encuestaRepository.eliminarPorId(99L)).thenReturn(0);
+        assertFalse(encuestaService.delete(99L));
+        verifyNoInteractions(estadisticasCache);
+    }
+
+    @Test
+    void testGetResumenPaginaNoMapeaEntidades() {
+        EncuestaResumenDTO resumen = new EncuestaResumenDTO(1L, "Encuesta de Satisfacción", "ACTIVA", null, 4L, 120L);
+        when(encuestaRepository.listarResumen(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(resumen)));
+
+        Page<EncuestaResumenDTO> pagina = encuestaService.getResumenPagina(null, PageRequest.of(0, 20));
+
+        assertEquals(120L, pagina.getContent().get(0).getTotalRespuestas());
+        // Sin orden explícito se ordena por ID para que las páginas sean estables
+        verify(encuestaRepository).listarResumen(argThat(p -> p.getSort().equals(Sort.by("idEncuesta"))));
+        verifyNoInteractions(encuestaMapper);
+        verify(encuestaRepository, never()).findAll(any(Pageable.class));
     }
 }
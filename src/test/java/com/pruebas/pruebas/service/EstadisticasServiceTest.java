@@ -0,0 +1,281 @@
+package com.pruebas.pruebas.service;
+
+import com.pruebas.pruebas.dto.PaginaCursorDTO;
+import com.pruebas.pruebas.dto.PreguntaMetadataDTO;
+import com.pruebas.pruebas.dto.RespuestaDTO;
+import com.pruebas.pruebas.entity.Encuesta;
+import com.pruebas.pruebas.entity.Pregunta;
+import com.pruebas.pruebas.repository.EncuestaRepository;
+import com.pruebas.pruebas.repository.PreguntaRepository;
+import com.pruebas.pruebas.repository.RespuestaRepository;
+import com.pruebas.pruebas.util.PaginacionUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EstadisticasServiceTest {
+
+    @Mock
+    private RespuestaRepository respuestaRepository;
+
+    @Mock
+    private PreguntaRepository preguntaRepository;
+
+    @Mock
+    private EncuestaRepository encuestaRepository;
+
+    @Mock
+    private ConteoRespuestaService conteoRespuestaService;
+
+    @Spy
+    private EstadisticasCache estadisticasCache = new EstadisticasCache(10, 60);
+
+    @InjectMocks
+    private EstadisticasService estadisticasService;
+
+    private Pregunta unica;
+    private Pregunta multiple;
+    private Pregunta escala;
+    private Pregunta abierta;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(estadisticasService, "muestraAbiertas", 20);
+        ReflectionTestUtils.setField(estadisticasService, "maxIntervalosActividad", 5000L);
+
+        Encuesta encuesta = new Encuesta();
+        encuesta.setIdEncuesta(1L);
+        encuesta.setTitulo("Encuesta de Satisfacción");
+        when(encuestaRepository.findById(1L)).thenReturn(Optional.of(encuesta));
+
+        unica = pregunta(10L, "seleccion_unica", List.of("A", "B"));
+        multiple = pregunta(11L, "seleccion_multiple", List.of("X", "Y", "Z"));
+        escala = pregunta(12L, "escala", List.of("1", "2", "3", "4", "5"));
+        abierta = pregunta(13L, "abierta", null);
+        when(preguntaRepository.findByEncuestaIdEncuesta(1L)).thenReturn(List.of(unica, multiple, escala, abierta));
+
+        when(conteoRespuestaService.totalesPorPregunta(1L)).thenReturn(Map.of(10L, 3L, 11L, 2L, 12L, 4L, 13L, 2L));
+        when(conteoRespuestaService.frecuenciasPorPregunta(1L)).thenReturn(Map.of(
+                10L, Map.of("A", 2L, "B", 1L),
+                11L, Map.of("X", 2L, "Z", 1L),
+                12L, Map.of("5", 3L, "2", 1L)));
+        when(respuestaRepository.findMuestraAbiertasPorEncuesta(eq(1L), anyInt())).thenReturn(filas(
+                new Object[]{13L, 21L, "Muy bien", Timestamp.valueOf(LocalDateTime.of(2025, 3, 1, 12, 0))},
+                new Object[]{13L, 20L, "Regular", Timestamp.valueOf(LocalDateTime.of(2025, 3, 1, 11, 0))}));
+        when(preguntaRepository.findMetadataById(13L))
+                .thenReturn(Optional.of(new PreguntaMetadataDTO(13L, 1L, "abierta", null)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testEstadisticasDesdeContadores() {
+        Map<String, Object> resultado = estadisticasService.obtenerEstadisticasEncuesta(1L);
+
+        assertEquals(11L, resultado.get("total_respuestas"));
+        List<Map<String, Object>> porPregunta = (List<Map<String, Object>>) resultado.get("estadisticas");
+        assertEquals(4, porPregunta.size());
+
+        Map<String, Object> statsUnica = porPregunta.get(0);
+        assertEquals("pie", statsUnica.get("tipo_grafico"));
+        assertEquals(3, statsUnica.get("total_respuestas_pregunta"));
+        assertEquals(2, valorDe(statsUnica, "A"));
+        assertEquals(1, valorDe(statsUnica, "B"));
+
+        Map<String, Object> statsMultiple = porPregunta.get(1);
+        assertEquals(2, valorDe(statsMultiple, "X"));
+        assertEquals(0, valorDe(statsMultiple, "Y"));
+        assertEquals(1, valorDe(statsMultiple, "Z"));
+
+        Map<String, Object> statsEscala = porPregunta.get(2);
+        assertEquals(List.of(0, 1, 0, 0, 3), statsEscala.get("valores"));
+        assertEquals(4.25, (double) statsEscala.get("promedio"), 0.0001);
+
+        Map<String, Object> statsAbierta = porPregunta.get(3);
+        assertEquals(List.of("Muy bien", "Regular"), statsAbierta.get("respuestas"));
+        assertEquals(true, statsAbierta.get("muestra_completa"));
+        assertNull(statsAbierta.get("siguiente_cursor"));
+
+        // Los conteos se leen de los contadores, sin recorrer la tabla de respuestas
+        verify(conteoRespuestaService, times(1)).frecuenciasPorPregunta(1L);
+        verify(respuestaRepository, never()).contarValoresPorEncuesta(anyLong());
+        verify(respuestaRepository, never()).findByPreguntaIdPregunta(anyLong());
+        verify(respuestaRepository, never()).countByPreguntaIdPregunta(anyLong());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testPreguntaAbiertaSoloIncluyeLaMuestraYUnCursor() {
+        ReflectionTestUtils.setField(estadisticasService, "muestraAbiertas", 1);
+        when(conteoRespuestaService.totalesPorPregunta(1L)).thenReturn(Map.of(13L, 5000L));
+        // La más reciente por fecha llegó con un ID menor (p. ej. desde la ingesta diferida)
+        Timestamp llegada = Timestamp.valueOf(LocalDateTime.of(2025, 3, 1, 12, 0));
+        when(respuestaRepository.findMuestraAbiertasPorEncuesta(1L, 1))
+                .thenReturn(filas(new Object[]{13L, 19L, "Muy bien", llegada}));
+
+        Map<String, Object> resultado = estadisticasService.obtenerEstadisticasEncuesta(1L);
+        Map<String, Object> statsAbierta = ((List<Map<String, Object>>) resultado.get("estadisticas")).get(3);
+
+        assertEquals(List.of("Muy bien"), statsAbierta.get("respuestas"));
+        assertEquals(5000L, statsAbierta.get("total_respuestas"));
+        assertEquals(false, statsAbierta.get("muestra_completa"));
+        assertEquals(PaginacionUtil.codificarCursor(llegada.getTime(), 19L), statsAbierta.get("siguiente_cursor"));
+        verify(respuestaRepository).findMuestraAbiertasPorEncuesta(1L, 1);
+    }
+
+    @Test
+    void testRespuestasAbiertasContinuanDesdeElCursor() {
+        // Date simple, como el que reconstruye el servicio a partir del cursor (Timestamp.equals(Date) es false)
+        Date desde = new Date(Timestamp.valueOf(LocalDateTime.of(2025, 3, 1, 12, 0)).getTime());
+        Date anterior = new Date(Timestamp.valueOf(LocalDateTime.of(2025, 3, 1, 11, 0)).getTime());
+        when(respuestaRepository.listarPorPreguntaAntesDeFecha(eq(13L), eq(desde), eq(21L), any(Pageable.class)))
+                .thenReturn(List.of(
+                        new RespuestaDTO(30L, 13L, "Regular", anterior),
+                        new RespuestaDTO(19L, 13L, "Mal", anterior),
+                        new RespuestaDTO(18L, 13L, "Bien", anterior)));
+
+        PaginaCursorDTO<RespuestaDTO> pagina = estadisticasService.obtenerRespuestasAbiertas(
+                13L, PaginacionUtil.codificarCursor(desde.getTime(), 21L), 2);
+
+        assertEquals(2, pagina.getContenido().size());
+        assertEquals(PaginacionUtil.codificarCursor(anterior.getTime(), 19L), pagina.getSiguienteCursor());
+        verify(respuestaRepository).listarPorPreguntaAntesDeFecha(13L, desde, 21L, PageRequest.of(0, 3));
+    }
+
+    @Test
+    void testRespuestasAbiertasSinCursorEmpiezanPorLaMasReciente() {
+        when(respuestaRepository.listarRecientesPorPregunta(eq(13L), any(Pageable.class))).thenReturn(List.of());
+
+        PaginaCursorDTO<RespuestaDTO> pagina = estadisticasService.obtenerRespuestasAbiertas(13L, null, 2);
+
+        assertTrue(pagina.getContenido().isEmpty());
+        assertNull(pagina.getSiguienteCursor());
+        verify(respuestaRepository).listarRecientesPorPregunta(13L, PageRequest.of(0, 3));
+    }
+
+    @Test
+    void testRespuestasAbiertasRechazanPreguntasQueNoSonAbiertas() {
+        when(preguntaRepository.findMetadataById(10L))
+                .thenReturn(Optional.of(new PreguntaMetadataDTO(10L, 1L, "seleccion_unica", List.of("A", "B"))));
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> estadisticasService.obtenerRespuestasAbiertas(10L, null, 2));
+
+        assertEquals("La pregunta 10 no es abierta", error.getMessage());
+        verifyNoInteractions(respuestaRepository);
+    }
+
+    @Test
+    void testActividadPorHoraSeAgrupaEnLaBaseDeDatos() {
+        LocalDateTime desde = LocalDateTime.of(2025, 3, 1, 10, 0);
+        LocalDateTime hasta = LocalDateTime.of(2025, 3, 1, 13, 0);
+        when(preguntaRepository.existsById(13L)).thenReturn(true);
+        when(respuestaRepository.contarActividadPorPregunta(13L, "hour", "1 hour", desde, hasta)).thenReturn(filas(
+                new Object[]{Timestamp.valueOf(desde), 4L},
+                new Object[]{Timestamp.valueOf(desde.plusHours(1)), 0L},
+                new Object[]{Timestamp.valueOf(desde.plusHours(2)), 7L}));
+
+        Map<String, Object> actividad = estadisticasService.obtenerActividadPregunta(13L, desde, hasta, "hora");
+
+        assertEquals(List.of("2025-03-01T10:00", "2025-03-01T11:00", "2025-03-01T12:00"), actividad.get("labels"));
+        assertEquals(List.of(4L, 0L, 7L), actividad.get("valores"));
+        assertEquals(11L, actividad.get("total_respuestas"));
+        verify(respuestaRepository, never()).findByPreguntaIdPregunta(anyLong());
+    }
+
+    @Test
+    void testActividadRechazaRangosConDemasiadosIntervalos() {
+        when(encuestaRepository.existsById(1L)).thenReturn(true);
+        LocalDateTime hasta = LocalDateTime.of(2025, 3, 31, 0, 0);
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () ->
+                estadisticasService.obtenerActividadEncuesta(1L, hasta.minusDays(30), hasta, "minuto"));
+        assertTrue(ex.getMessage().contains("demasiados intervalos"));
+        verify(respuestaRepository, never()).contarActividadPorEncuesta(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testPanelResumeLasEncuestasEnUnaSolaConsulta() {
+        ReflectionTestUtils.setField(estadisticasService, "ventanaPanelMinutos", 60);
+        LocalDateTime ultima = LocalDateTime.of(2025, 3, 1, 12, 30);
+        when(respuestaRepository.resumirEncuestas(eq("ACTIVA"), any(), any())).thenReturn(filas(
+                new Object[]{1L, "Clima laboral", "ACTIVA", 4L, 1200L, Timestamp.valueOf(ultima), 90L},
+                new Object[]{2L, "Sin respuestas", "ACTIVA", 2L, 0L, null, 0L}));
+
+        Map<String, Object> panel = estadisticasService.obtenerPanel("activa", null);
+
+        List<Map<String, Object>> encuestas = (List<Map<String, Object>>) panel.get("encuestas");
+        assertEquals(2, encuestas.size());
+        assertEquals(1200L, encuestas.get(0).get("total_respuestas"));
+        assertEquals("2025-03-01T12:30", encuestas.get(0).get("ultima_respuesta"));
+        assertEquals(1.5, encuestas.get(0).get("respuestas_por_minuto"));
+        assertNull(encuestas.get(1).get("ultima_respuesta"));
+        assertEquals(1200L, panel.get("total_respuestas"));
+        assertEquals(90L, panel.get("respuestas_ventana"));
+        assertEquals(60, panel.get("ventana_minutos"));
+        verify(respuestaRepository, times(1)).resumirEncuestas(any(), any(), any());
+        verifyNoInteractions(conteoRespuestaService);
+    }
+
+    @Test
+    void testPanelSinFiltroYVentanaFueraDeRango() {
+        when(respuestaRepository.resumirEncuestas(isNull(), any(), any())).thenReturn(filas());
+
+        assertEquals("TODAS", estadisticasService.obtenerPanel("todas", 5).get("estado"));
+        assertThrows(RuntimeException.class, () -> estadisticasService.obtenerPanel("ACTIVA", 0));
+        assertThrows(RuntimeException.class, () -> estadisticasService.obtenerPanel("ACTIVA", 24 * 60 + 1));
+        verify(respuestaRepository, times(1)).resumirEncuestas(any(), any(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object valorDe(Map<String, Object> stats, String label) {
+        List<String> labels = (List<String>) stats.get("labels");
+        List<Object> valores = (List<Object>) stats.get("valores");
+        return valores.get(labels.indexOf(label));
+    }
+
+    private static Pregunta pregunta(Long id, String tipo, List<String> opciones) {
+        Pregunta p = new Pregunta();
+        p.setIdPregunta(id);
+        p.setTextoPregunta("Pregunta " + id);
+        p.setTipo(tipo);
+        p.setOpciones(opciones);
+        return p;
+    }
+
+    private static List<Object[]> filas(Object[]... filas) {
+        return new ArrayList<>(List.of(filas));
+    }
+
+    @Test
+    void testSegundaConsultaSeSirveDesdeCache() {
+        Map<String, Object> primera = estadisticasService.obtenerEstadisticasEncuesta(1L);
+        Map<String, Object> segunda = estadisticasService.obtenerEstadisticasEncuesta(1L);
+
+        assertSame(primera, segunda);
+        verify(preguntaRepository, times(1)).findByEncuestaIdEncuesta(1L);
+        assertEquals(1L, estadisticasCache.estadisticasUso().get("aciertos"));
+
+        estadisticasCache.invalidar(1L);
+        estadisticasService.obtenerEstadisticasEncuesta(1L);
+        verify(preguntaRepository, times(2)).findByEncuestaIdEncuesta(1L);
+    }
+}
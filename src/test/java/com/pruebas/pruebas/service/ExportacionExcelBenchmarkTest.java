@@ -0,0 +1,67 @@
+package com.pruebas.pruebas.service;
+
+import com.pruebas.pruebas.dto.RespuestaExportadaDTO;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Mide el tiempo y el pico de heap de {@link ExportacionExcel} con 100k y 1M respuestas sintéticas.
+ * <p>
+ * No forma parte de {@code mvn test}; se ejecuta con {@code mvn -Pbenchmark test}. Para que el pico
+ * de heap sea significativo conviene limitarlo, por ejemplo con
+ * {@code -DargLine="-Xmx256m"}: con la ventana de SXSSF el pico debe ser similar en ambos tamaños.
+ * </p>
+ */
+@Tag("benchmark")
+class ExportacionExcelBenchmarkTest {
+
+    private static final int VENTANA_FILAS = 100;
+
+    @ParameterizedTest(name = "{0} respuestas")
+    @ValueSource(ints = {100_000, 1_000_000})
+    void exportarRespuestasSinteticas(int respuestas) throws Exception {
+        Path archivo = Files.createTempFile("benchmark-encuesta", ".xlsx");
+        List<MemoryPoolMXBean> heap = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(p -> p.getType() == MemoryType.HEAP)
+                .toList();
+        try {
+            System.gc();
+            heap.forEach(MemoryPoolMXBean::resetPeakUsage);
+            long inicio = System.nanoTime();
+
+            try (ExportacionExcel libro = new ExportacionExcel(VENTANA_FILAS);
+                 OutputStream salida = new BufferedOutputStream(Files.newOutputStream(archivo))) {
+                libro.agregarResumenPregunta("Pregunta 1", "seleccion_unica", respuestas,
+                        Map.of("A", respuestas / 2L, "B", respuestas - respuestas / 2L));
+                Instant fecha = Instant.parse("2025-01-01T00:00:00Z");
+                for (int i = 1; i <= respuestas; i++) {
+                    libro.agregarRespuesta(new RespuestaExportadaDTO(i, 1 + i % 10, "Pregunta " + (1 + i % 10),
+                            "seleccion_unica", i % 2 == 0 ? "A" : "B", fecha.plusSeconds(i)));
+                }
+                libro.escribir(salida);
+                assertEquals(respuestas, libro.getRespuestasEscritas());
+            }
+
+            long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+            long picoHeap = heap.stream().mapToLong(p -> p.getPeakUsage().getUsed()).sum();
+            System.out.printf("ExportacionExcel: %,d respuestas en %,d ms, pico de heap %,d MB, archivo %,d KB%n",
+                    respuestas, milisegundos, picoHeap / (1024 * 1024), Files.size(archivo) / 1024);
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+    }
+}
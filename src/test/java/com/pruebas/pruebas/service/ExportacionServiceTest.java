@@ -0,0 +1,128 @@
+package com.pruebas.pruebas.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pruebas.pruebas.dto.RespuestaExportadaDTO;
+import com.pruebas.pruebas.entity.Pregunta;
+import com.pruebas.pruebas.repository.EncuestaRepository;
+import com.pruebas.pruebas.repository.ExportacionRepository;
+import com.pruebas.pruebas.repository.PreguntaRepository;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportacionServiceTest {
+
+    @Mock
+    private ExportacionRepository exportacionRepository;
+
+    @Mock
+    private EncuestaRepository encuestaRepository;
+
+    @Mock
+    private PreguntaRepository preguntaRepository;
+
+    @Mock
+    private ConteoRespuestaService conteoRespuestaService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private ExportacionService exportacionService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(exportacionService, "ventanaFilasExcel", 2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testExportarNdjsonEscribeUnaLineaPorRespuesta() throws Exception {
+        when(exportacionRepository.recorrerRespuestasDeEncuesta(eq(1L), any())).thenAnswer(inv -> {
+            Consumer<RespuestaExportadaDTO> consumidor = inv.getArgument(1);
+            consumidor.accept(new RespuestaExportadaDTO(5L, 10L, "¿Le gustó?", "si_no", "Sí",
+                    Instant.parse("2025-01-02T03:04:05Z")));
+            consumidor.accept(new RespuestaExportadaDTO(6L, 11L, "Comentarios", "abierta", "Texto \"con\"\nsalto", null));
+            return 2L;
+        });
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        long exportadas = exportacionService.exportarNdjson(1L, salida);
+
+        assertEquals(2L, exportadas);
+        String[] lineas = salida.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lineas.length);
+
+        JsonNode primera = objectMapper.readTree(lineas[0]);
+        assertEquals(5L, primera.get("idRespuesta").asLong());
+        assertEquals("¿Le gustó?", primera.get("textoPregunta").asText());
+        assertEquals("2025-01-02T03:04:05Z", primera.get("fechaRespuesta").asText());
+
+        JsonNode segunda = objectMapper.readTree(lineas[1]);
+        assertEquals("Texto \"con\"\nsalto", segunda.get("respuesta").asText());
+        assertTrue(segunda.get("fechaRespuesta").isNull());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testExportarExcelGeneraResumenYRespuestas() throws Exception {
+        Pregunta pregunta = new Pregunta();
+        pregunta.setIdPregunta(10L);
+        pregunta.setTextoPregunta("¿Le gustó?");
+        pregunta.setTipo("si_no");
+        pregunta.setOrden(1);
+        when(preguntaRepository.findByEncuestaIdEncuesta(1L)).thenReturn(List.of(pregunta));
+        when(conteoRespuestaService.totalesPorPregunta(1L)).thenReturn(Map.of(10L, 5L));
+        when(conteoRespuestaService.frecuenciasPorPregunta(1L)).thenReturn(Map.of(10L, Map.of("Sí", 4L, "No", 1L)));
+        when(exportacionRepository.recorrerRespuestasDeEncuesta(eq(1L), any())).thenAnswer(inv -> {
+            Consumer<RespuestaExportadaDTO> consumidor = inv.getArgument(1);
+            // Más filas que la ventana en memoria, para forzar el volcado a disco
+            for (long i = 1; i <= 5; i++) {
+                consumidor.accept(new RespuestaExportadaDTO(i, 10L, "¿Le gustó?", "si_no", i == 5 ? "No" : "Sí",
+                        Instant.parse("2025-01-02T03:04:05Z")));
+            }
+            return 5L;
+        });
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        long exportadas = exportacionService.exportarExcel(1L, salida);
+
+        assertEquals(5L, exportadas);
+        try (XSSFWorkbook libro = new XSSFWorkbook(new ByteArrayInputStream(salida.toByteArray()))) {
+            assertEquals("Resumen", libro.getSheetName(0));
+            Sheet resumen = libro.getSheet("Resumen");
+            assertEquals(5, (long) resumen.getRow(1).getCell(3).getNumericCellValue());
+            assertEquals("Sí", resumen.getRow(2).getCell(2).getStringCellValue());
+            assertEquals(4, (long) resumen.getRow(2).getCell(3).getNumericCellValue());
+
+            Sheet respuestas = libro.getSheet("Respuestas");
+            assertEquals(5, respuestas.getLastRowNum());
+            assertEquals("No", respuestas.getRow(5).getCell(4).getStringCellValue());
+        }
+    }
+
+    @Test
+    void testVerificarEncuestaInexistente() {
+        when(encuestaRepository.existsById(99L)).thenReturn(false);
+        assertThrows(RuntimeException.class, () -> exportacionService.verificarEncuesta(99L));
+    }
+}
@@ -0,0 +1,208 @@
+package com.pruebas.pruebas.service;
+
+import com.pruebas.pruebas.dto.RespuestaDTO;
+import com.pruebas.pruebas.entity.CheckpointIngesta;
+import com.pruebas.pruebas.entity.Encuesta;
+import com.pruebas.pruebas.entity.Pregunta;
+import com.pruebas.pruebas.repository.CheckpointIngestaRepository;
+import com.pruebas.pruebas.repository.PreguntaRepository;
+import com.pruebas.pruebas.repository.RespuestaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class IngestaRespuestasServiceTest {
+
+    @TempDir
+    Path directorio;
+
+    @Mock
+    private RespuestaService respuestaService;
+
+    @Mock
+    private RespuestaRepository respuestaRepository;
+
+    @Mock
+    private PreguntaRepository preguntaRepository;
+
+    @Mock
+    private ConteoRespuestaService conteoRespuestaService;
+
+    @Mock
+    private EstadisticasCache estadisticasCache;
+
+    @Mock
+    private CheckpointIngestaRepository checkpointIngestaRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(checkpointIngestaRepository.findById("nodo-1")).thenReturn(Optional.empty());
+    }
+
+    private IngestaRespuestasService crear(int capacidad) {
+        return crear(capacidad, "nodo-1");
+    }
+
+    private IngestaRespuestasService crear(int capacidad, String nodo) {
+        IngestaRespuestasService ingesta = new IngestaRespuestasService(transactionManager, true,
+                directorio.resolve("ingesta.log").toString(), nodo, capacidad, 0, 100, 10, true, 1024 * 1024, 2);
+        ReflectionTestUtils.setField(ingesta, "respuestaService", respuestaService);
+        ReflectionTestUtils.setField(ingesta, "respuestaRepository", respuestaRepository);
+        ReflectionTestUtils.setField(ingesta, "preguntaRepository", preguntaRepository);
+        ReflectionTestUtils.setField(ingesta, "conteoRespuestaService", conteoRespuestaService);
+        ReflectionTestUtils.setField(ingesta, "estadisticasCache", estadisticasCache);
+        ReflectionTestUtils.setField(ingesta, "checkpointIngestaRepository", checkpointIngestaRepository);
+        return ingesta;
+    }
+
+    private static RespuestaDTO respuesta(String valor) {
+        RespuestaDTO dto = new RespuestaDTO();
+        dto.setRespuesta(valor);
+        return dto;
+    }
+
+    @Test
+    void testRespuestasAceptadasSeRecuperanTrasReiniciar() throws Exception {
+        IngestaRespuestasService primera = crear(10);
+        primera.recuperar();
+        RespuestaDTO aceptada = primera.aceptar(1L, respuesta("A"));
+        primera.aceptar(1L, respuesta("B"));
+        primera.detener();
+
+        assertNull(aceptada.getId());
+        assertNotNull(aceptada.getFechaRespuesta());
+        verify(respuestaService, times(2)).validarNueva(eq(1L), any(RespuestaDTO.class));
+        verify(respuestaRepository, never()).insertarLote(any());
+
+        // Al reiniciar, el checkpoint indica que la primera ya estaba volcada
+        when(checkpointIngestaRepository.findById("nodo-1")).thenReturn(Optional.of(new CheckpointIngesta("nodo-1", 1L)));
+        Encuesta encuesta = new Encuesta();
+        encuesta.setIdEncuesta(7L);
+        Pregunta pregunta = new Pregunta();
+        pregunta.setIdPregunta(1L);
+        pregunta.setTipo("abierta");
+        pregunta.setEncuesta(encuesta);
+        when(preguntaRepository.findAllById(any())).thenReturn(List.of(pregunta));
+
+        // Aunque el nombre configurado cambie (otro hostname tras recrear el contenedor), manda el del registro
+        IngestaRespuestasService segunda = crear(10, "otro-host");
+        segunda.recuperar();
+        assertEquals("nodo-1", segunda.estado().get("nodo"));
+        assertEquals(1L, segunda.estado().get("pendientes"));
+
+        assertEquals(1, segunda.volcarLote());
+        verify(respuestaRepository).insertarLote(argThat(lote -> lote.size() == 1 && "B".equals(lote.get(0).getRespuesta())));
+        verify(conteoRespuestaService).registrarAltas(anyCollection());
+        verify(checkpointIngestaRepository).guardar("nodo-1", 2L);
+        verify(estadisticasCache).invalidar(7L);
+        assertEquals(0L, segunda.estado().get("pendientes"));
+        assertEquals(2L, segunda.estado().get("ultima_secuencia_volcada"));
+        segunda.detener();
+    }
+
+    @Test
+    void testRegistroConEntradasSinArchivoDeNodoExigeConfigurarlo() throws Exception {
+        Files.writeString(directorio.resolve("ingesta.log"),
+                "{\"secuencia\":1,\"idPregunta\":1,\"respuesta\":\"A\",\"fechaRespuesta\":0}\n");
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> crear(10, "").recuperar());
+        assertTrue(ex.getMessage().contains("ingesta.diferida.nodo"));
+
+        // Un registro nuevo sin nombre configurado recibe uno generado, que se conserva en los reinicios
+        Files.delete(directorio.resolve("ingesta.log"));
+        IngestaRespuestasService nueva = crear(10, "");
+        nueva.recuperar();
+        String generado = (String) nueva.estado().get("nodo");
+        nueva.detener();
+        assertTrue(generado.startsWith("ingesta-"));
+        assertEquals(generado, Files.readString(directorio.resolve("ingesta.log.nodo")));
+    }
+
+    @Test
+    void testRespuestaRechazadaSeApartaSinBloquearAlEscritor() throws Exception {
+        Pregunta pregunta = new Pregunta();
+        pregunta.setIdPregunta(1L);
+        pregunta.setTipo("abierta");
+        when(preguntaRepository.findAllById(any())).thenReturn(List.of(pregunta));
+        doThrow(new DataIntegrityViolationException("valor demasiado largo"))
+                .when(respuestaRepository).insertarLote(argThat(lote -> lote.stream().anyMatch(r -> "mala".equals(r.getRespuesta()))));
+
+        IngestaRespuestasService ingesta = crear(10);
+        ingesta.recuperar();
+        ingesta.aceptar(1L, respuesta("buena"));
+        ingesta.aceptar(1L, respuesta("mala"));
+        ingesta.aceptar(1L, respuesta("otra"));
+        assertThrows(DataIntegrityViolationException.class, ingesta::volcarLote);
+
+        assertEquals(1, ingesta.volcarUnoAUno());
+
+        verify(respuestaRepository).insertarLote(argThat(lote -> lote.size() == 1 && "buena".equals(lote.get(0).getRespuesta())));
+        verify(respuestaRepository).insertarLote(argThat(lote -> lote.size() == 1 && "otra".equals(lote.get(0).getRespuesta())));
+        verify(checkpointIngestaRepository).guardar("nodo-1", 2L);
+        verify(checkpointIngestaRepository, atLeastOnce()).guardar("nodo-1", 3L);
+        assertEquals(0L, ingesta.estado().get("pendientes"));
+        assertEquals(1L, ingesta.estado().get("respuestas_rechazadas"));
+        assertTrue(Files.readString(directorio.resolve("ingesta.log.rechazadas")).contains("\"mala\""));
+        ingesta.detener();
+    }
+
+    @Test
+    void testMetricasLeenLaColaYCuentanCadaVolcado() throws Exception {
+        Pregunta pregunta = new Pregunta();
+        pregunta.setIdPregunta(1L);
+        pregunta.setTipo("abierta");
+        when(preguntaRepository.findAllById(any())).thenReturn(List.of(pregunta));
+
+        IngestaRespuestasService ingesta = crear(10);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ingesta.bindTo(registry);
+        ingesta.recuperar();
+        ingesta.aceptar(1L, respuesta("A"));
+        // La pregunta 2 se elimina antes del volcado
+        ingesta.aceptar(2L, respuesta("B"));
+        assertEquals(2.0, registry.get("ingesta.pendientes").gauge().value());
+
+        assertEquals(2, ingesta.volcarLote());
+
+        assertEquals(0.0, registry.get("ingesta.pendientes").gauge().value());
+        assertEquals(0.0, registry.get("ingesta.retraso").gauge().value());
+        assertEquals(1L, registry.get("ingesta.volcado").timer().count());
+        assertEquals(1.0, registry.get("ingesta.respuestas").tag("resultado", "volcada").functionCounter().count());
+        assertEquals(1.0, registry.get("ingesta.respuestas").tag("resultado", "descartada").functionCounter().count());
+        assertEquals(0.0, registry.get("ingesta.respuestas").tag("resultado", "rechazada").functionCounter().count());
+        ingesta.detener();
+    }
+
+    @Test
+    void testColaLlenaRespondeServicioNoDisponible() throws Exception {
+        IngestaRespuestasService ingesta = crear(1);
+        ingesta.recuperar();
+        ingesta.aceptar(1L, respuesta("A"));
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> ingesta.aceptar(1L, respuesta("B")));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatusCode());
+        assertEquals(1L, ingesta.estado().get("pendientes"));
+        ingesta.detener();
+    }
+}
@@ -0,0 +1,51 @@
+package com.pruebas.pruebas.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParticionesRespuestaServiceTest {
+
+    private static final String CREAR = "SELECT crear_particiones_respuesta(?, ?)";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ParticionesRespuestaService particiones;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        Clock reloj = Clock.fixed(Instant.parse("2025-11-20T10:00:00Z"), ZoneOffset.UTC);
+        particiones = new ParticionesRespuestaService(jdbcTemplate, 3, 12, reloj);
+    }
+
+    @Test
+    void testCreaDesdeElMesActualHastaLosMesesAdelante() {
+        when(jdbcTemplate.queryForObject(eq(CREAR), eq(Integer.class), any(), any())).thenReturn(2);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(0L);
+
+        assertEquals(2, particiones.crearParticionesPendientes());
+        verify(jdbcTemplate).queryForObject(CREAR, Integer.class,
+                Date.valueOf("2025-11-01"), Date.valueOf("2026-02-20"));
+    }
+
+    @Test
+    void testErrorDeBaseDeDatosNoSePropaga() {
+        when(jdbcTemplate.queryForObject(eq(CREAR), eq(Integer.class), any(), any()))
+                .thenThrow(new DataAccessResourceFailureException("sin conexión"));
+
+        assertEquals(-1, particiones.crearParticionesPendientes());
+    }
+}
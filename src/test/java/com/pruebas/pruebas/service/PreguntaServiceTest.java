@@ -1,8 +1,10 @@
 package com.pruebas.pruebas.service;
 
 import com.pruebas.pruebas.dto.PreguntaDTO;
+import com.pruebas.pruebas.entity.Encuesta;
 import com.pruebas.pruebas.entity.Pregunta;
 import com.pruebas.pruebas.mapper.PreguntaMapper;
+import com.pruebas.pruebas.repository.EncuestaRepository;
 import com.pruebas.pruebas.repository.PreguntaRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,9 +23,21 @@ class PreguntaServiceTest {
     @Mock
     private PreguntaRepository preguntaRepository;
 
+    @Mock
+    private EncuestaRepository encuestaRepository;
+
     @Mock
     private PreguntaMapper preguntaMapper;
 
+    @Mock
+    private ConteoRespuestaService conteoRespuestaService;
+
+    @Mock
+    private EstadisticasCache estadisticasCache;
+
+    @Mock
+    private PreguntaMetadataCache preguntaMetadataCache;
+
     @InjectMocks
     private PreguntaService preguntaService;
 
@@ -41,12 +55,18 @@ class PreguntaServiceTest {
 
         dto = new PreguntaDTO();
         dto.setId(1L);
+        dto.setIdEncuesta(5L);
         dto.setTextoPregunta("¿Te gustó la atención?");
         dto.setTipo("abierta");
+
+        Encuesta encuesta = new Encuesta();
+        encuesta.setIdEncuesta(5L);
+        when(encuestaRepository.bloquearPorId(5L)).thenReturn(Optional.of(encuesta));
     }
 
     @Test
     void testCreatePregunta() {
+        when(preguntaRepository.findMaxOrdenByEncuesta(5L)).thenReturn(2048);
         when(preguntaMapper.toEntity(dto)).thenReturn(pregunta);
         when(preguntaRepository.save(pregunta)).thenReturn(pregunta);
         when(preguntaMapper.toDTO(pregunta)).thenReturn(dto);
@@ -55,12 +75,56 @@ class PreguntaServiceTest {
 
         assertNotNull(result);
         assertEquals("¿Te gustó la atención?", result.getTextoPregunta());
+        assertEquals(3072, dto.getOrden());
         verify(preguntaRepository, times(1)).save(any(Pregunta.class));
     }
 
+    @Test
+    void testCreateEnPosicionSoloEscribeLaNuevaPregunta() {
+        when(preguntaRepository.findOrdenesByEncuesta(5L)).thenReturn(List.of(
+                new Object[]{10L, 1024}, new Object[]{11L, 2048}, new Object[]{12L, 3072}));
+        when(preguntaMapper.toEntity(dto)).thenReturn(pregunta);
+        when(preguntaRepository.save(pregunta)).thenReturn(pregunta);
+        dto.setPosicion(2);
+
+        preguntaService.create(dto);
+
+        assertEquals(1536, dto.getOrden());
+        verify(preguntaRepository, never()).reequilibrarOrden(any());
+    }
+
+    @Test
+    void testCreateSinHuecoReequilibraUnaVez() {
+        when(preguntaRepository.findOrdenesByEncuesta(5L))
+                .thenReturn(List.of(new Object[]{10L, 1024}, new Object[]{11L, 1025}))
+                .thenReturn(List.of(new Object[]{10L, 1024}, new Object[]{11L, 2048}));
+        when(preguntaMapper.toEntity(dto)).thenReturn(pregunta);
+        when(preguntaRepository.save(pregunta)).thenReturn(pregunta);
+        dto.setPosicion(2);
+
+        preguntaService.create(dto);
+
+        verify(preguntaRepository, times(1)).reequilibrarOrden(5L);
+        assertEquals(1536, dto.getOrden());
+    }
+
+    @Test
+    void testReordenarExigeTodasLasPreguntasUnaVez() {
+        when(preguntaRepository.findOrdenesByEncuesta(5L)).thenReturn(List.of(
+                new Object[]{10L, 1024}, new Object[]{11L, 2048}));
+
+        assertThrows(RuntimeException.class, () -> preguntaService.reordenar(5L, List.of(10L, 10L)));
+        assertThrows(RuntimeException.class, () -> preguntaService.reordenar(5L, List.of(11L)));
+        verify(preguntaRepository, never()).aplicarOrden(any(), any());
+
+        preguntaService.reordenar(5L, List.of(11L, 10L));
+        verify(preguntaRepository).aplicarOrden(5L, new Long[]{11L, 10L});
+        verify(estadisticasCache).invalidar(5L);
+    }
+
     @Test
     void testGetByIdSuccess() {
-        when(preguntaRepository.findById(1L)).thenReturn(Optional.of(pregunta));
+        when(preguntaRepository.findConRespuestasById(1L)).thenReturn(Optional.of(pregunta));
         when(preguntaMapper.toDTO(pregunta)).thenReturn(dto);
 
         PreguntaDTO result = preguntaService.getById(1L);
@@ -71,7 +135,7 @@ class PreguntaServiceTest {
 
     @Test
     void testGetByIdNotFound() {
-        when(preguntaRepository.findById(99L)).thenReturn(Optional.empty());
+        when(preguntaRepository.findConRespuestasById(99L)).thenReturn(Optional.empty());
         RuntimeException ex = assertThrows(RuntimeException.class, () -> preguntaService.getById(99L));
         assertEquals("Pregunta no encontrada", ex.getMessage());
     }
@@ -89,11 +153,52 @@ class PreguntaServiceTest {
         assertEquals("¿Cambiarías algo del servicio?", result.getTextoPregunta());
     }
 
+    @Test
+    void testUpdateConElOrdenLeidoNoMueveLaPregunta() {
+        Encuesta encuesta = new Encuesta();
+        encuesta.setIdEncuesta(5L);
+        pregunta.setEncuesta(encuesta);
+        pregunta.setOrden(1536);
+        when(preguntaRepository.findById(1L)).thenReturn(Optional.of(pregunta));
+        when(preguntaRepository.save(any())).thenReturn(pregunta);
+
+        // Se devuelve la pregunta tal como se leyó antes de que otro editor la moviera
+        dto.setOrden(2048);
+        dto.setTextoPregunta("¿Cambiarías algo del servicio?");
+        preguntaService.update(1L, dto);
+
+        assertEquals(1536, pregunta.getOrden());
+        assertEquals("¿Cambiarías algo del servicio?", pregunta.getTextoPregunta());
+        verify(preguntaRepository, never()).findOrdenesByEncuesta(any());
+        verify(preguntaRepository, never()).findMaxOrdenByEncuesta(any());
+    }
+
+    @Test
+    void testUpdateConPosicionMueveSoloEstaPregunta() {
+        Encuesta encuesta = new Encuesta();
+        encuesta.setIdEncuesta(5L);
+        pregunta.setEncuesta(encuesta);
+        pregunta.setOrden(3072);
+        when(preguntaRepository.findById(1L)).thenReturn(Optional.of(pregunta));
+        when(preguntaRepository.save(any())).thenReturn(pregunta);
+        when(preguntaRepository.findOrdenesByEncuesta(5L)).thenReturn(List.of(
+                new Object[]{10L, 1024}, new Object[]{11L, 2048}, new Object[]{1L, 3072}));
+
+        dto.setPosicion(1);
+        preguntaService.update(1L, dto);
+
+        assertEquals(512, pregunta.getOrden());
+        verify(encuestaRepository).bloquearPorId(5L);
+        verify(preguntaRepository, never()).reequilibrarOrden(any());
+    }
+
     @Test
     void testDeletePregunta() {
-        when(preguntaRepository.existsById(1L)).thenReturn(true);
+        when(preguntaRepository.findIdEncuestaByIdPregunta(1L)).thenReturn(Optional.of(5L));
         boolean deleted = preguntaService.delete(1L);
         assertTrue(deleted);
-        verify(preguntaRepository).deleteById(1L);
+        verify(preguntaRepository).eliminarPorId(1L);
+        verify(estadisticasCache).invalidar(5L);
+        verify(preguntaMetadataCache).invalidar(1L);
     }
 }
@@ -0,0 +1,79 @@
+package com.pruebas.pruebas.service;
+
+import com.pruebas.pruebas.dto.RespuestaPendienteDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegistroIngestaTest {
+
+    @TempDir
+    Path directorio;
+
+    private final List<Long> confirmadas = new CopyOnWriteArrayList<>();
+
+    private static RespuestaPendienteDTO entrada(long secuencia) {
+        return new RespuestaPendienteDTO(secuencia, 1L, "R" + secuencia, 0L);
+    }
+
+    private void confirmar(List<RespuestaPendienteDTO> entradas) {
+        entradas.forEach(e -> confirmadas.add(e.getSecuencia()));
+    }
+
+    @Test
+    void testLasEntradasLlegadasDuranteUnaSincronizacionSeConfirmanJuntas() throws Exception {
+        CountDownLatch enDisco = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        RegistroIngesta registro = new RegistroIngesta(directorio.resolve("ingesta.log"), true, this::confirmar, canal -> {
+            enDisco.countDown();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            canal.force(false);
+        });
+
+        CompletableFuture<Void> primera = registro.agregar(entrada(1));
+        assertTrue(enDisco.await(5, TimeUnit.SECONDS));
+        // Mientras el disco sincroniza la primera, las siguientes forman un único grupo
+        CompletableFuture<Void> segunda = registro.agregar(entrada(2));
+        CompletableFuture<Void> tercera = registro.agregar(entrada(3));
+        assertSame(segunda, tercera);
+        assertFalse(primera.isDone());
+
+        liberar.countDown();
+        CompletableFuture.allOf(primera, segunda).get(5, TimeUnit.SECONDS);
+
+        assertEquals(2L, registro.getSincronizaciones());
+        assertEquals(List.of(1L, 2L, 3L), confirmadas);
+        assertEquals(3, registro.leer().size());
+        registro.close();
+    }
+
+    @Test
+    void testUnFalloDeSincronizacionDescartaLoNoConfirmado() throws Exception {
+        RegistroIngesta registro = new RegistroIngesta(directorio.resolve("ingesta.log"), true, this::confirmar, canal -> {
+            throw new IOException("disco lleno");
+        });
+
+        CompletableFuture<Void> confirmada = registro.agregar(entrada(1));
+
+        CompletionException ex = assertThrows(CompletionException.class, confirmada::join);
+        assertEquals("disco lleno", ex.getCause().getMessage());
+        assertTrue(confirmadas.isEmpty());
+        assertEquals(0L, registro.tamano());
+        assertTrue(registro.leer().isEmpty());
+        registro.close();
+    }
+}
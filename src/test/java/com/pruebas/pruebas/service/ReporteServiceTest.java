@@ -0,0 +1,80 @@
+package com.pruebas.pruebas.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReporteServiceTest {
+
+    @Mock
+    private EstadisticasService estadisticasService;
+
+    private ReporteService reporteService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        reporteService = new ReporteService(1, 0);
+        ReflectionTestUtils.setField(reporteService, "estadisticasService", estadisticasService);
+
+        Map<String, Object> unica = new HashMap<>();
+        unica.put("pregunta_id", 10L);
+        unica.put("pregunta_texto", "¿Le gustó?");
+        unica.put("tipo_pregunta", "si_no");
+        unica.put("total_respuestas_pregunta", 3);
+        unica.put("tipo_grafico", "pie");
+        unica.put("labels", List.of("Sí", "No"));
+        unica.put("valores", List.of(2, 1));
+        unica.put("colores", List.of("#4CAF50", "#2196F3"));
+
+        Map<String, Object> abierta = new HashMap<>();
+        abierta.put("pregunta_id", 11L);
+        abierta.put("pregunta_texto", "Comentarios");
+        abierta.put("tipo_pregunta", "abierta");
+        abierta.put("total_respuestas_pregunta", 1);
+        abierta.put("tipo_grafico", "texto");
+        abierta.put("respuestas", List.of("Muy bien"));
+
+        when(estadisticasService.obtenerEstadisticasEncuesta(1L)).thenReturn(Map.of(
+                "titulo", "Encuesta de Satisfacción",
+                "descripcion", "Prueba",
+                "total_respuestas", 4L,
+                "estadisticas", List.of(unica, abierta)));
+    }
+
+    @Test
+    void testGenerarPdfReutilizaPlantillaCompilada() {
+        byte[] primero = reporteService.generarPdfEstadisticas(1L);
+        assertEquals("%PDF", new String(primero, 0, 4, StandardCharsets.US_ASCII));
+
+        Object compilada = reporteService.plantilla(ReporteService.PLANTILLA_ESTADISTICAS);
+        reporteService.generarPdfEstadisticas(1L);
+        assertSame(compilada, reporteService.plantilla(ReporteService.PLANTILLA_ESTADISTICAS));
+    }
+
+    @Test
+    void testSinPermisosLibresResponde503() throws Exception {
+        Semaphore permisos = (Semaphore) ReflectionTestUtils.getField(reporteService, "permisos");
+        permisos.acquire();
+        try {
+            ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                    () -> reporteService.generarPdfEstadisticas(1L));
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatusCode());
+        } finally {
+            permisos.release();
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package com.pruebas.pruebas.service;
 
+import com.pruebas.pruebas.dto.EnvioEncuestaDTO;
+import com.pruebas.pruebas.dto.PaginaCursorDTO;
+import com.pruebas.pruebas.dto.PreguntaMetadataDTO;
 import com.pruebas.pruebas.dto.RespuestaDTO;
+import com.pruebas.pruebas.dto.ResultadoEnvioDTO;
+import com.pruebas.pruebas.entity.Encuesta;
 import com.pruebas.pruebas.entity.Pregunta;
 import com.pruebas.pruebas.entity.Respuesta;
 import com.pruebas.pruebas.mapper.RespuestaMapper;
+import com.pruebas.pruebas.repository.EncuestaRepository;
 import com.pruebas.pruebas.repository.PreguntaRepository;
 import com.pruebas.pruebas.repository.RespuestaRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,7 +17,9 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
 
+import java.util.Date;
 import java.util.Optional;
 import java.util.List;
 
@@ -26,9 +34,21 @@ class RespuestaServiceTest {
     @Mock
     private PreguntaRepository preguntaRepository;
 
+    @Mock
+    private EncuestaRepository encuestaRepository;
+
     @Mock
     private RespuestaMapper respuestaMapper;
 
+    @Mock
+    private ConteoRespuestaService conteoRespuestaService;
+
+    @Mock
+    private EstadisticasCache estadisticasCache;
+
+    @Mock
+    private PreguntaMetadataCache preguntaMetadataCache;
+
     @InjectMocks
     private RespuestaService respuestaService;
 
@@ -40,8 +60,13 @@ class RespuestaServiceTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
 
+        Encuesta encuesta = new Encuesta();
+        encuesta.setIdEncuesta(1L);
+
         pregunta = new Pregunta();
         pregunta.setIdPregunta(1L);
+        pregunta.setTipo("abierta");
+        pregunta.setEncuesta(encuesta);
 
         respuesta = new Respuesta();
         respuesta.setIdRespuesta(1L);
@@ -55,7 +80,8 @@ class RespuestaServiceTest {
 
     @Test
     void testCreateRespuesta() {
-        when(preguntaRepository.findById(1L)).thenReturn(Optional.of(pregunta));
+        when(preguntaMetadataCache.obtener(1L)).thenReturn(new PreguntaMetadataDTO(1L, 1L, "abierta", null));
+        when(preguntaRepository.getReferenceById(1L)).thenReturn(pregunta);
         when(respuestaMapper.toEntity(dto)).thenReturn(respuesta);
         when(respuestaRepository.save(respuesta)).thenReturn(respuesta);
         when(respuestaMapper.toDTO(respuesta)).thenReturn(dto);
@@ -65,6 +91,10 @@ class RespuestaServiceTest {
         assertNotNull(result);
         assertEquals("Muy buena atención", result.getRespuesta());
         verify(respuestaRepository, times(1)).save(any(Respuesta.class));
+        verify(conteoRespuestaService).registrarAlta(eq(1L), eq("abierta"), eq("Muy buena atención"), any(Date.class));
+        verify(estadisticasCache).invalidar(1L);
+        // Los metadatos salen de la caché: no se consulta la pregunta
+        verify(preguntaRepository, never()).findById(anyLong());
     }
 
     @Test
@@ -78,9 +108,70 @@ class RespuestaServiceTest {
 
     @Test
     void testDeleteRespuesta() {
-        when(respuestaRepository.existsById(1L)).thenReturn(true);
+        when(respuestaRepository.findConPreguntaById(1L)).thenReturn(Optional.of(respuesta));
         boolean deleted = respuestaService.delete(1L);
         assertTrue(deleted);
+        verify(conteoRespuestaService).registrarBaja(1L, "abierta", "Muy buena atención");
         verify(respuestaRepository).deleteById(1L);
     }
+
+    @Test
+    void testRegistrarEnvioGuardaValidasEInformaErrores() {
+        Pregunta escala = new Pregunta();
+        escala.setIdPregunta(2L);
+        escala.setTipo("escala");
+        when(preguntaRepository.findByEncuestaIdEncuesta(1L)).thenReturn(List.of(pregunta, escala));
+        when(respuestaRepository.insertarLote(anyList())).thenAnswer(inv -> ((List<?>) inv.getArgument(0)).size());
+
+        EnvioEncuestaDTO envio = new EnvioEncuestaDTO();
+        envio.setRespuestas(List.of(
+                respuestaA(1L, "Muy buena atención"),
+                respuestaA(2L, "9"),
+                respuestaA(99L, "Sí"),
+                respuestaA(2L, "4")));
+
+        ResultadoEnvioDTO resultado = respuestaService.registrarEnvio(1L, envio);
+
+        assertEquals(4, resultado.getRecibidas());
+        assertEquals(2, resultado.getGuardadas());
+        assertEquals(2, resultado.getErrores().size());
+        assertEquals(1, resultado.getErrores().get(0).getIndice());
+        assertEquals(2, resultado.getErrores().get(1).getIndice());
+        verify(preguntaRepository, times(1)).findByEncuestaIdEncuesta(1L);
+        verify(preguntaRepository, never()).findById(anyLong());
+        verify(respuestaRepository, times(1)).insertarLote(argThat(lote -> lote.size() == 2));
+        verify(respuestaRepository, never()).save(any(Respuesta.class));
+    }
+
+    @Test
+    void testGetPorCursorDevuelveCursorSoloSiQuedanFilas() {
+        when(respuestaRepository.listarPorPreguntaDesdeId(eq(1L), eq(0L), any(Pageable.class))).thenReturn(List.of(
+                new RespuestaDTO(5L, 1L, "a", null),
+                new RespuestaDTO(8L, 1L, "b", null),
+                new RespuestaDTO(9L, 1L, "c", null)));
+
+        PaginaCursorDTO<RespuestaDTO> primera = respuestaService.getPorCursor(1L, null, "", "id", 2);
+
+        assertEquals(2, primera.getContenido().size());
+        assertNotNull(primera.getSiguienteCursor());
+        // Se piden tamano + 1 filas para saber si hay página siguiente
+        verify(respuestaRepository).listarPorPreguntaDesdeId(eq(1L), eq(0L), argThat(p -> p.getPageSize() == 3));
+
+        when(respuestaRepository.listarPorPreguntaDesdeId(eq(1L), eq(8L), any(Pageable.class))).thenReturn(List.of(
+                new RespuestaDTO(9L, 1L, "c", null)));
+
+        PaginaCursorDTO<RespuestaDTO> segunda =
+                respuestaService.getPorCursor(1L, null, primera.getSiguienteCursor(), "id", 2);
+
+        assertEquals(1, segunda.getContenido().size());
+        assertNull(segunda.getSiguienteCursor());
+        assertThrows(RuntimeException.class, () -> respuestaService.getPorCursor(1L, null, "no-valido", "id", 2));
+    }
+
+    private static RespuestaDTO respuestaA(Long idPregunta, String valor) {
+        RespuestaDTO r = new RespuestaDTO();
+        r.setIdPregunta(idPregunta);
+        r.setRespuesta(valor);
+        return r;
+    }
 }
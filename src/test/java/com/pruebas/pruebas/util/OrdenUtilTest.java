@@ -0,0 +1,34 @@
+package com.pruebas.pruebas.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrdenUtilTest {
+
+    private static final List<Integer> CLAVES = List.of(1024, 2048, 3072);
+
+    @Test
+    void testAlFinalSumaLaSeparacion() {
+        assertEquals(1024, OrdenUtil.claveEnPosicion(List.of(), 1));
+        assertEquals(4096, OrdenUtil.claveEnPosicion(CLAVES, 4));
+        assertEquals(4096, OrdenUtil.claveEnPosicion(CLAVES, 99));
+    }
+
+    @Test
+    void testEntreVecinasTomaElPuntoMedio() {
+        assertEquals(512, OrdenUtil.claveEnPosicion(CLAVES, 1));
+        assertEquals(512, OrdenUtil.claveEnPosicion(CLAVES, 0));
+        assertEquals(1536, OrdenUtil.claveEnPosicion(CLAVES, 2));
+        assertEquals(2560, OrdenUtil.claveEnPosicion(CLAVES, 3));
+    }
+
+    @Test
+    void testSinHuecoPideReequilibrar() {
+        assertNull(OrdenUtil.claveEnPosicion(List.of(1024, 1025), 2));
+        assertNull(OrdenUtil.claveEnPosicion(List.of(1, 2048), 1));
+        assertEquals(1025, OrdenUtil.claveEnPosicion(List.of(1024, 1026), 2));
+    }
+}
@@ -0,0 +1,51 @@
+package com.pruebas.pruebas.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidadorRespuestaTest {
+
+    private static final List<String> OPCIONES = List.of("Rojo", "Verde", "Azul", " Gris ", "");
+
+    private static final String[] TIPOS = {
+            "abierta", "seleccion_unica", "SI_NO", "seleccion_multiple", "checkbox",
+            "escala", "verdadero_falso", "desconocido", null};
+
+    private static final String[] RESPUESTAS = {
+            null, "", "   ", "Rojo", "rojo", " Rojo", "Rojo,Azul", "Rojo, Azul ", "Rojo,,Azul", "Rojo,",
+            "Rojo, ", ",Rojo", ",,,", "Rojo,Negro", " Gris ", "Gris", "Verde,Gris",
+            "1", "5", "0", "6", "+3", "-3", "03", "0005", "+", "-", "3.0", "tres", "٣",
+            "Verdadero", "FALSO", "true", "sí", "No", "quizá"};
+
+    @Test
+    void testMismasReglasQueValidacionUtil() {
+        List<List<String>> listasOpciones = new ArrayList<>(Arrays.asList(OPCIONES, List.of(), null));
+        for (String tipo : TIPOS) {
+            for (List<String> opciones : listasOpciones) {
+                ValidadorRespuesta validador = ValidadorRespuesta.compilar(tipo, opciones);
+                for (String respuesta : RESPUESTAS) {
+                    assertEquals(ValidacionUtil.respuestaValida(respuesta, opciones, tipo), validador.esValida(respuesta),
+                            () -> "tipo=" + tipo + ", opciones=" + opciones + ", respuesta=[" + respuesta + "]");
+                }
+            }
+        }
+    }
+
+    @Test
+    void testSeleccionMultipleConMuchasOpciones() {
+        List<String> opciones = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            opciones.add("Opción " + i);
+        }
+        ValidadorRespuesta validador = ValidadorRespuesta.compilar("seleccion_multiple", opciones);
+
+        assertEquals(TipoPregunta.SELECCION_MULTIPLE, validador.getTipo());
+        assertTrue(validador.esValida("Opción 0, Opción 250,Opción 499"));
+        assertFalse(validador.esValida("Opción 0, Opción 500"));
+    }
+}